@@ -9,7 +9,7 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
  */
 public abstract class Base {
 
-    static InitializeResources resources;
+    static volatile InitializeResources resources;
 
     public Base() {
         if (resources == null) {
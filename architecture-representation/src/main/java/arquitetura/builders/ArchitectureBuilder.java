@@ -17,7 +17,6 @@ import arquitetura.representation.Class;
 import arquitetura.representation.Interface;
 import arquitetura.representation.relationship.AssociationClassRelationship;
 import arquitetura.representation.relationship.Relationship;
-import com.rits.cloning.Cloner;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.uml2.uml.*;
 import org.eclipse.uml2.uml.Package;
@@ -124,8 +123,6 @@ public class ArchitectureBuilder {
             for (Relationship as : loadAssociationClassAssociation())
                 architecture.addRelationship(as);
 
-            Cloner cloner = new Cloner();
-            architecture.setCloner(cloner);
             ArchitectureHolder.setName(architecture.getName());
             return architecture;
         } catch (ModelNotFoundException | ModelIncompleteException |
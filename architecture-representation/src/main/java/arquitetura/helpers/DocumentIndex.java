@@ -0,0 +1,178 @@
+package arquitetura.helpers;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.events.Event;
+import org.w3c.dom.events.EventListener;
+import org.w3c.dom.events.EventTarget;
+import org.w3c.dom.events.MutationEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice por id dos nós de um documento XMI carregado em DOM, usado pelas buscas do {@link XmiHelper} no
+ * lugar de percorrer o documento inteiro a cada busca.
+ * <p>
+ * Guarda dois mapas: xmi:id -> elemento (.uml e .notation) e id referenciado pelo href de um
+ * <code>element</code> -> nó <code>children</code> que o contém (.notation). O índice é montado uma vez e
+ * acompanha as alterações do documento pelos eventos de mutação do DOM (nós inseridos ou removidos e
+ * atributos xmi:id/href alterados), então as operações de touml não precisam atualizá-lo.
+ * <p>
+ * Os ids são comparados exatamente. Se o mesmo xmi:id aparecer em mais de um elemento, vale o primeiro
+ * indexado; no caso dos hrefs, vale o último, como no {@link XmiHelper#findByIDInNotationFile}.
+ */
+public class DocumentIndex implements EventListener {
+
+    private static final String KEY = DocumentIndex.class.getName();
+    private static final String XMI_ID = "xmi:id";
+    private static final String HREF = "href";
+
+    private final Map<String, Element> elements = new HashMap<String, Element>();
+    private final Map<String, Element> notationNodes = new HashMap<String, Element>();
+
+    private DocumentIndex() {
+    }
+
+    /**
+     * Monta o índice do documento e o associa a ele. Deve ser chamado logo depois do documento ser carregado;
+     * chamadas seguintes devolvem o índice já existente.
+     *
+     * @param document
+     * @return o índice do documento
+     */
+    public static DocumentIndex index(Document document) {
+        DocumentIndex index = of(document);
+        if (index != null)
+            return index;
+
+        index = new DocumentIndex();
+        index.add(document.getDocumentElement());
+        EventTarget target = (EventTarget) document;
+        target.addEventListener("DOMNodeInserted", index, true);
+        target.addEventListener("DOMNodeRemoved", index, true);
+        target.addEventListener("DOMAttrModified", index, true);
+        document.setUserData(KEY, index, null);
+        return index;
+    }
+
+    /**
+     * @param document
+     * @return o índice do documento, ou null se ele não foi indexado
+     */
+    public static DocumentIndex of(Document document) {
+        return document == null ? null : (DocumentIndex) document.getUserData(KEY);
+    }
+
+    /**
+     * @param id
+     * @return o elemento com o xmi:id informado, ou null
+     */
+    public Element findById(String id) {
+        return elements.get(id);
+    }
+
+    /**
+     * @param id - id de um elemento do .uml
+     * @return o nó <code>children</code> do .notation que desenha o elemento, ou null
+     */
+    public Element findNotationNode(String id) {
+        return notationNodes.get(id);
+    }
+
+    public void handleEvent(Event event) {
+        MutationEvent mutation = (MutationEvent) event;
+        Node target = (Node) mutation.getTarget();
+
+        if ("DOMNodeInserted".equals(mutation.getType())) {
+            add(target);
+        } else if ("DOMNodeRemoved".equals(mutation.getType())) {
+            remove(target);
+        } else if (target.getNodeType() == Node.ELEMENT_NODE) {
+            Element element = (Element) target;
+            String attribute = mutation.getAttrName();
+            if (XMI_ID.equals(attribute)) {
+                if (mutation.getAttrChange() != MutationEvent.ADDITION)
+                    removeId(mutation.getPrevValue(), element);
+                if (mutation.getAttrChange() != MutationEvent.REMOVAL)
+                    addId(mutation.getNewValue(), element);
+            } else if (HREF.equals(attribute) && isNotationElement(element)) {
+                Element owner = (Element) element.getParentNode();
+                if (mutation.getAttrChange() != MutationEvent.ADDITION)
+                    removeHref(mutation.getPrevValue(), owner);
+                if (mutation.getAttrChange() != MutationEvent.REMOVAL)
+                    addHref(mutation.getNewValue(), owner);
+            }
+        }
+    }
+
+    private void add(Node node) {
+        if (node == null || node.getNodeType() != Node.ELEMENT_NODE)
+            return;
+        Element element = (Element) node;
+        addId(attribute(element, XMI_ID), element);
+        if (isNotationElement(element))
+            addHref(attribute(element, HREF), (Element) element.getParentNode());
+
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling())
+            add(child);
+    }
+
+    private void remove(Node node) {
+        if (node == null || node.getNodeType() != Node.ELEMENT_NODE)
+            return;
+        Element element = (Element) node;
+        removeId(attribute(element, XMI_ID), element);
+        if (isNotationElement(element))
+            removeHref(attribute(element, HREF), (Element) element.getParentNode());
+
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling())
+            remove(child);
+    }
+
+    private void addId(String id, Element element) {
+        if (id != null && !elements.containsKey(id))
+            elements.put(id, element);
+    }
+
+    private void removeId(String id, Element element) {
+        if (id != null && elements.get(id) == element)
+            elements.remove(id);
+    }
+
+    private void addHref(String href, Element owner) {
+        String id = hrefId(href);
+        if (id != null)
+            notationNodes.put(id, owner);
+    }
+
+    private void removeHref(String href, Element owner) {
+        String id = hrefId(href);
+        if (id != null && notationNodes.get(id) == owner)
+            notationNodes.remove(id);
+    }
+
+    /**
+     * Um <code>element</code> dentro de um nó <code>children</code> do .notation.
+     */
+    private static boolean isNotationElement(Element element) {
+        Node parent = element.getParentNode();
+        return "element".equalsIgnoreCase(element.getNodeName()) && parent != null
+                && "children".equalsIgnoreCase(parent.getNodeName());
+    }
+
+    private static String hrefId(String href) {
+        if (href == null || href.indexOf('#') < 0)
+            return null;
+        return href.substring(href.indexOf('#') + 1);
+    }
+
+    private static String attribute(Element element, String name) {
+        NamedNodeMap attributes = element.getAttributes();
+        Attr attr = attributes == null ? null : (Attr) attributes.getNamedItem(name);
+        return attr == null ? null : attr.getValue();
+    }
+}
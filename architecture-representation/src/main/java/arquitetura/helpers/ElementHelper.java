@@ -15,21 +15,26 @@ import java.util.*;
 public abstract class ElementHelper {
 
 
-    private static Map<String, EClass> types = new HashMap<String, EClass>();
+    /**
+     * Somente leitura depois da inicialização da classe, por isso pode ser consultado por várias threads.
+     */
+    private static final Map<String, EClass> types;
 
     static {
-        types.put("class", UMLPackage.Literals.CLASS);
-        types.put("interface", UMLPackage.Literals.INTERFACE);
-        types.put("association", UMLPackage.Literals.ASSOCIATION);
-        types.put("dependency", UMLPackage.Literals.DEPENDENCY);
-        types.put("comment", UMLPackage.Literals.COMMENT);
-        types.put("property", UMLPackage.Literals.PROPERTY);
-        types.put("operation", UMLPackage.Literals.OPERATION);
-        types.put("package", UMLPackage.Literals.PACKAGE);
-        types.put("realization", UMLPackage.Literals.REALIZATION);
-        types.put("abstraction", UMLPackage.Literals.ABSTRACTION);
-        types.put("AssociationClass", UMLPackage.Literals.ASSOCIATION_CLASS);
-        types.put("usage", UMLPackage.Literals.USAGE);
+        Map<String, EClass> literals = new HashMap<String, EClass>();
+        literals.put("class", UMLPackage.Literals.CLASS);
+        literals.put("interface", UMLPackage.Literals.INTERFACE);
+        literals.put("association", UMLPackage.Literals.ASSOCIATION);
+        literals.put("dependency", UMLPackage.Literals.DEPENDENCY);
+        literals.put("comment", UMLPackage.Literals.COMMENT);
+        literals.put("property", UMLPackage.Literals.PROPERTY);
+        literals.put("operation", UMLPackage.Literals.OPERATION);
+        literals.put("package", UMLPackage.Literals.PACKAGE);
+        literals.put("realization", UMLPackage.Literals.REALIZATION);
+        literals.put("abstraction", UMLPackage.Literals.ABSTRACTION);
+        literals.put("AssociationClass", UMLPackage.Literals.ASSOCIATION_CLASS);
+        literals.put("usage", UMLPackage.Literals.USAGE);
+        types = Collections.unmodifiableMap(literals);
     }
 
     /**
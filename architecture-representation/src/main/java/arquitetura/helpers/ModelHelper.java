@@ -30,7 +30,7 @@ import static arquitetura.helpers.ElementsTypes.*;
  */
 public class ModelHelper extends ElementHelper {
 
-    private static Uml2Helper uml2Helper;
+    private final Uml2Helper uml2Helper;
 
     protected ModelHelper() throws ModelNotFoundException, ModelIncompleteException {
         uml2Helper = Uml2HelperFactory.getUml2Helper();
@@ -10,7 +10,7 @@ public class ModelHelperFactory {
 
     private static ModelHelper instance;
 
-    public static ModelHelper getModelHelper() {
+    public static synchronized ModelHelper getModelHelper() {
         if (instance == null)
             try {
                 instance = new ModelHelper();
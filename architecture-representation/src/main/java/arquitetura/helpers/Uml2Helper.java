@@ -24,10 +24,10 @@ import java.util.Collection;
 public class Uml2Helper extends Base {
 
     private static final boolean PRINT_LOGS = false;
-    private static Package profile;
+    private static volatile Package profile;
     private static Uml2Helper instance;
 
-    public static Uml2Helper getInstance() {
+    public static synchronized Uml2Helper getInstance() {
         if (instance == null)
             instance = new Uml2Helper();
         return instance;
@@ -58,10 +58,13 @@ public class Uml2Helper extends Base {
 
     private void save(Collection<EObject> contents, URI uri) throws IOException {
         URI finalUri = uri.appendFileExtension(UMLResource.FILE_EXTENSION);
-        Resource resource = getResources().createResource(finalUri);
-        resource.getContents().addAll(contents);
+        // o ResourceSet é compartilhado por todas as threads
+        synchronized (getResources()) {
+            Resource resource = getResources().createResource(finalUri);
+            resource.getContents().addAll(contents);
 
-        resource.save(null);
+            resource.save(null);
+        }
     }
 
     public org.eclipse.uml2.uml.Generalization createGeneralization(Classifier child, Classifier parent) {
@@ -309,18 +312,22 @@ public class Uml2Helper extends Base {
      * @return
      */
     private Package getInternalResources(URI createURI) {
-        Resource resource = getResources().getResource(createURI, true);
+        synchronized (getResources()) {
+            Resource resource = getResources().getResource(createURI, true);
 
-        return (org.eclipse.uml2.uml.Package) EcoreUtil.getObjectByType(resource.getContents(),
-                UMLPackage.Literals.PACKAGE);
+            return (org.eclipse.uml2.uml.Package) EcoreUtil.getObjectByType(resource.getContents(),
+                    UMLPackage.Literals.PACKAGE);
+        }
     }
 
     public org.eclipse.uml2.uml.Package getExternalResources(String uri) {
         org.eclipse.uml2.uml.Package package_;
 
-        Resource resource = getResources().getResource(URI.createFileURI(uri), true);
-        package_ = (org.eclipse.uml2.uml.Package) EcoreUtil.getObjectByType(resource.getContents(),
-                UMLPackage.Literals.PACKAGE);
+        synchronized (getResources()) {
+            Resource resource = getResources().getResource(URI.createFileURI(uri), true);
+            package_ = (org.eclipse.uml2.uml.Package) EcoreUtil.getObjectByType(resource.getContents(),
+                    UMLPackage.Literals.PACKAGE);
+        }
         return package_;
     }
 
@@ -353,7 +360,7 @@ public class Uml2Helper extends Base {
     }
 
     public EnumerationLiteral getLiteralEnumeration(String name) throws EnumerationNotFoundException {
-        Enumeration a = (Enumeration) getEnumerationByName((Profile) profile, "BindingTime");
+        Enumeration a = (Enumeration) getEnumerationByName(getSMartyProfile(), "BindingTime");
         return a.getOwnedLiteral(name);
     }
 
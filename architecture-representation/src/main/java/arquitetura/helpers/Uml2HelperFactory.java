@@ -6,14 +6,24 @@ package arquitetura.helpers;
  */
 public class Uml2HelperFactory {
 
-    private static Uml2Helper instance;
+    private static volatile Uml2Helper instance;
 
+    /**
+     * O helper só é publicado depois de carregar o perfil SMarty, para que outras threads não o vejam sem perfil.
+     */
     public static Uml2Helper getUml2Helper() {
-        if (instance == null) {
-            instance = Uml2Helper.getInstance();
-            instance.setSMartyProfile();
+        Uml2Helper helper = instance;
+        if (helper == null) {
+            synchronized (Uml2HelperFactory.class) {
+                helper = instance;
+                if (helper == null) {
+                    helper = Uml2Helper.getInstance();
+                    helper.setSMartyProfile();
+                    instance = helper;
+                }
+            }
         }
-        return instance;
+        return helper;
     }
 
 }
\ No newline at end of file
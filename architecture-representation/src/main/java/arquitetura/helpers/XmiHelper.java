@@ -30,16 +30,30 @@ public class XmiHelper {
     static Logger LOGGER = LogManager.getLogger(XmiHelper.class.getName());
 
 
-    private static Document originalNotation;
+    /**
+     * Publicado só depois de indexado ({@link DocumentIndex}); volatile para que as outras threads vejam o
+     * documento completo.
+     */
+    private static volatile Document originalNotation;
 
     /**
      * Busca por {@link Node} dado um id e um {@link Documnet}.
+     * <p>
+     * Se o documento foi indexado ({@link DocumentIndex}) a busca é feita no índice.
      *
      * @param docNotaion - Deve ser o arquivo .notation
      * @param id         - Id a ser buscado
      * @return {@link Node}
      */
     public static Node findByIDInNotationFile(Document docNotaion, String id) {
+        DocumentIndex index = DocumentIndex.of(docNotaion);
+        if (index != null) {
+            Node nodeFound = index.findNotationNode(id);
+            if (nodeFound == null)
+                LOGGER.warn("\nNode with id " + id + " cannot be found. Retuns null");
+            return nodeFound;
+        }
+
         NodeList node = docNotaion.getElementsByTagName("children");
         Node nodeFound = null;
         for (int i = 0; i < node.getLength(); i++) {
@@ -72,7 +86,17 @@ public class XmiHelper {
         return "";
     }
 
+    /**
+     * Busca o elemento <code>tagName</code> com o id informado. Se o documento foi indexado
+     * ({@link DocumentIndex}) a busca é feita no índice pelo xmi:id.
+     */
     public static Node findByID(Document doc, String id, String tagName) {
+        DocumentIndex index = DocumentIndex.of(doc);
+        if (index != null) {
+            Node element = index.findById(id);
+            return element != null && tagName.equals(element.getNodeName()) ? element : null;
+        }
+
         NodeList node = doc.getElementsByTagName(tagName);
         for (int i = 0; i < node.getLength(); i++) {
             NamedNodeMap attributtes = node.item(i).getAttributes();
@@ -175,7 +199,9 @@ public class XmiHelper {
         }
 
         try {
-            setOriginalNotation(docBuilderNotation.parse(pathToNotation));
+            Document notation = docBuilderNotation.parse(pathToNotation);
+            DocumentIndex.index(notation);
+            setOriginalNotation(notation);
         } catch (SAXException e) {
             e.printStackTrace();
         } catch (IOException e) {
@@ -219,6 +245,10 @@ public class XmiHelper {
      * @return
      */
     public String findTypeById(String id, Document umlDocument) {
+        DocumentIndex index = DocumentIndex.of(umlDocument);
+        if (index != null)
+            return typeOf(index.findById(id));
+
         Node element = umlDocument.getElementsByTagName("uml:Model").item(0);
 
         for (int i = 0; i < element.getChildNodes().getLength(); i++) {
@@ -244,6 +274,17 @@ public class XmiHelper {
 
     }
 
+    private static String typeOf(org.w3c.dom.Element element) {
+        if (element == null || !"uml:Model".equals(element.getParentNode().getNodeName()))
+            return "";
+        if ("packagedElement".equalsIgnoreCase(element.getNodeName())
+                && "uml:Class".equalsIgnoreCase(element.getAttribute("xmi:type")))
+            return "class";
+        if ("ownedComment".equalsIgnoreCase(element.getNodeName()))
+            return "comment";
+        return "";
+    }
+
     /**
      * Método usado para gerar as posições de X e Y para os elementos.
      *
@@ -0,0 +1,131 @@
+package arquitetura.io;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diretórios usados na exportação de uma arquitetura: o diretório de manipulação, onde os arquivos são escritos,
+ * e o diretório de exportação, para onde são movidos.
+ * <p>
+ * Cada exportação escreve em arquivos temporários próprios (nomes únicos no diretório de manipulação) e só
+ * então os move para o nome final, substituindo o arquivo anterior de uma vez quando o sistema de arquivos
+ * permite. Assim várias exportações podem rodar ao mesmo tempo na mesma JVM, inclusive para diretórios
+ * diferentes, sem depender dos diretórios globais do {@link ReaderConfig}. Duas exportações com o mesmo nome
+ * no mesmo diretório continuam se sobrescrevendo.
+ */
+public class ExportContext {
+
+    /**
+     * Perfis já copiados para um diretório de exportação: destino -> origem.
+     */
+    private static final Map<Path, Path> COPIED_PROFILES = new ConcurrentHashMap<Path, Path>();
+
+    private final String dirTarget;
+    private final String dirExportTarget;
+
+    /**
+     * @param dirTarget       - diretório de manipulação
+     * @param dirExportTarget - diretório onde a arquitetura será exportada
+     */
+    public ExportContext(String dirTarget, String dirExportTarget) {
+        this.dirTarget = dirTarget;
+        this.dirExportTarget = dirExportTarget;
+    }
+
+    /**
+     * @return contexto com os diretórios configurados no {@link ReaderConfig} no momento da chamada
+     */
+    public static ExportContext fromConfig() {
+        return new ExportContext(ReaderConfig.getDirTarget(), ReaderConfig.getDirExportTarget());
+    }
+
+    public String getDirTarget() {
+        return dirTarget;
+    }
+
+    public String getDirExportTarget() {
+        return dirExportTarget;
+    }
+
+    /**
+     * @param fileName
+     * @return caminho do arquivo no diretório de exportação
+     */
+    public Path getExportFile(String fileName) {
+        return Paths.get(dirExportTarget, fileName);
+    }
+
+    /**
+     * Cria um arquivo vazio com nome único no diretório de manipulação.
+     *
+     * @param prefix
+     * @param suffix
+     * @return o arquivo criado
+     * @throws IOException
+     */
+    public Path createScratchFile(String prefix, String suffix) throws IOException {
+        Path dir = Paths.get(dirTarget);
+        Files.createDirectories(dir);
+        return Files.createTempFile(dir, prefix + "-", suffix);
+    }
+
+    /**
+     * Move o arquivo temporário para o diretório de exportação com o nome informado.
+     *
+     * @param scratchFile - arquivo criado por {@link #createScratchFile(String, String)}
+     * @param fileName    - nome final
+     * @throws IOException
+     */
+    public void publish(Path scratchFile, String fileName) throws IOException {
+        Path destination = getExportFile(fileName);
+        Files.createDirectories(destination.toAbsolutePath().getParent());
+        replace(scratchFile, destination);
+    }
+
+    /**
+     * Copia o perfil para o diretório resources/ do diretório de exportação. Cada perfil é copiado uma vez por
+     * diretório, e o arquivo só é reescrito se o conteúdo dele for diferente do perfil original.
+     *
+     * @param source   - caminho do perfil configurado
+     * @param fileName - nome do perfil no diretório resources/
+     * @throws IOException
+     */
+    public void copyProfile(String source, String fileName) throws IOException {
+        Path from = Paths.get(source).toAbsolutePath().normalize();
+        Path to = getExportFile("resources").resolve(fileName).toAbsolutePath().normalize();
+        if (from.equals(COPIED_PROFILES.get(to)) && Files.exists(to))
+            return;
+
+        if (!sameContent(from, to)) {
+            Files.createDirectories(to.getParent());
+            Path copy = Files.createTempFile(to.getParent(), fileName + "-", ".tmp");
+            try {
+                Files.copy(from, copy, StandardCopyOption.REPLACE_EXISTING);
+                replace(copy, to);
+            } finally {
+                Files.deleteIfExists(copy);
+            }
+        }
+        COPIED_PROFILES.put(to, from);
+    }
+
+    private static boolean sameContent(Path source, Path destination) throws IOException {
+        return Files.exists(destination) && Files.size(source) == Files.size(destination)
+                && Arrays.equals(Files.readAllBytes(source), Files.readAllBytes(destination));
+    }
+
+    private static void replace(Path source, Path destination) throws IOException {
+        try {
+            Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
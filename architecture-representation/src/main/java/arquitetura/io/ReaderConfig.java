@@ -10,22 +10,26 @@ import java.io.FileNotFoundException;
 /**
  * Classe responsável por acesso ao arquivo de configuração
  * <b>application.yaml</b>/
+ * <p>
+ * Os caminhos são lidos pelas exportações em andamento (ver {@link ExportContext#fromConfig()}), possivelmente em
+ * outras threads; por isso os campos são volatile.
  *
  * @author edipofederle<edipofederle@gmail.com>
  */
 public class ReaderConfig {
 
     private final static String PATH_CONFIGURATION_FILE = "config/application.yaml";
-    public static String newPathToConfigurationFile;
+    public static volatile String newPathToConfigurationFile;
     static Logger LOGGER = LogManager.getLogger(ReaderConfig.class.getName());
-    private static DirTarget dir;
-    private static String dirTarget;
-    private static String dirExportTarget;
-    private static String pathToProfileSMarty;
-    private static String pathToProfileConcerns;
-    private static String pathToTemplateModelsDirectory;
-    private static String pathToProfileRelationships;
-    private static String pathToProfilePatterns;
+    private static volatile DirTarget dir;
+    private static volatile String dirTarget;
+    private static volatile String dirExportTarget;
+    private static volatile String pathToProfileSMarty;
+    private static volatile String pathToProfileConcerns;
+    private static volatile String pathToTemplateModelsDirectory;
+    private static volatile String pathToProfileRelationships;
+    private static volatile String pathToProfilePatterns;
+    private static volatile boolean streamingXmiWriter;
 
     public static void setPathToConfigurationFile(String newPath) {
         newPathToConfigurationFile = newPath;
@@ -63,6 +67,20 @@ public class ReaderConfig {
         dirExportTarget = path;
     }
 
+    /**
+     * Se as arquiteturas são gravadas pelo StreamingArchitectureWriter, que escreve os arquivos direto no
+     * diretório de exportação, em vez de copiar e alterar os arquivos de template. Desligado por padrão.
+     *
+     * @return
+     */
+    public static boolean isStreamingXmiWriter() {
+        return streamingXmiWriter;
+    }
+
+    public static void setStreamingXmiWriter(boolean streaming) {
+        streamingXmiWriter = streaming;
+    }
+
     /**
      * Path pra o arquivo de profile do SMarty
      *
@@ -177,7 +195,7 @@ public class ReaderConfig {
      * <br/><br/>
      * IMPORTANT: Only call this method once.
      */
-    public static void load() {
+    public static synchronized void load() {
         try {
             if (newPathToConfigurationFile != null)
                 dir = Yaml.loadType(new File(newPathToConfigurationFile), DirTarget.class);
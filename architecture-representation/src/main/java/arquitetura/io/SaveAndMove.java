@@ -12,8 +12,10 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
-import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * @author edipofederle<edipofederle@gmail.com>
@@ -23,13 +25,23 @@ public class SaveAndMove extends XmiHelper {
     static Logger LOGGER = LogManager.getLogger(SaveAndMove.class.getName());
 
     public static void saveAndMove(Document docNotation, Document docUml, Document docDi, String originalModelName, String newModelName) throws TransformerException, IOException {
-        String targetDir = ReaderConfig.getDirTarget();
-        String targetDirExport = ReaderConfig.getDirExportTarget();
-
-        String notationCopy = targetDir + originalModelName + ".notation";
-        String umlCopy = targetDir + originalModelName + ".uml";
-        String diCopy = targetDir + originalModelName + ".di";
+        saveAndMove(docNotation, docUml, docDi, newModelName, ExportContext.fromConfig());
+    }
 
+    /**
+     * Grava os três documentos em arquivos temporários próprios desta chamada no diretório de manipulação do
+     * contexto e os move para newModelName.* no diretório de exportação. Pode ser chamado ao mesmo tempo por
+     * threads diferentes, desde que cada uma grave os seus documentos.
+     *
+     * @param docNotation
+     * @param docUml
+     * @param docDi
+     * @param newModelName - nome dos arquivos exportados (sem extensão)
+     * @param context      - diretórios da exportação
+     * @throws TransformerException
+     * @throws IOException
+     */
+    public static void saveAndMove(Document docNotation, Document docUml, Document docDi, String newModelName, ExportContext context) throws TransformerException, IOException {
         TransformerFactory transformerFactory = TransformerFactory.newInstance();
 
         Transformer transformer = transformerFactory.newTransformer();
@@ -51,23 +63,21 @@ public class SaveAndMove extends XmiHelper {
             elementsUml.item(i).getAttributes().getNamedItem("href").setNodeValue(newModelName + ".notation#" + idXmi);
         }
 
-        DOMSource source = new DOMSource(docNotation);
-        StreamResult result = new StreamResult(new File(notationCopy));
-        transformer.transform(source, result);
-
-        DOMSource sourceUml = new DOMSource(docUml);
-        StreamResult resultUml = new StreamResult(new File(umlCopy));
-        transformer.transform(sourceUml, resultUml);
-
-
-        DOMSource sourceDi = new DOMSource(docDi);
-        StreamResult resultDi = new StreamResult(new File(diCopy));
-        transformer.transform(sourceDi, resultDi);
-
-        FileUtils.moveFiles(notationCopy, targetDirExport + newModelName + ".notation");
-        FileUtils.moveFiles(umlCopy, targetDirExport + newModelName + ".uml");
-        FileUtils.moveFiles(diCopy, targetDirExport + newModelName + ".di");
+        save(transformer, docNotation, context, newModelName + ".notation");
+        save(transformer, docUml, context, newModelName + ".uml");
+        save(transformer, docDi, context, newModelName + ".di");
+    }
 
+    private static void save(Transformer transformer, Document document, ExportContext context, String fileName) throws TransformerException, IOException {
+        Path copy = context.createScratchFile(fileName, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(copy)) {
+                transformer.transform(new DOMSource(document), new StreamResult(out));
+            }
+            context.publish(copy, fileName);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
     }
 
 
@@ -8,13 +8,13 @@ import arquitetura.helpers.UtilResources;
 import arquitetura.representation.relationship.DependencyRelationship;
 import arquitetura.representation.relationship.RealizationRelationship;
 import arquitetura.representation.relationship.Relationship;
-import com.rits.cloning.Cloner;
 import jmetal.core.Variable;
 import main.GenerateArchitecture;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * @author edipofederle<edipofederle@gmail.com>
@@ -23,20 +23,58 @@ public class Architecture extends Variable {
     private static final long serialVersionUID = -7764906574709840088L;
     public static String ARCHITECTURE_TYPE = "arquitetura.representation.Architecture";
     static Logger LOGGER = LogManager.getLogger(Architecture.class.getName());
-    private Cloner cloner;
-    private Set<Package> packages = new HashSet<Package>();
-    private Set<Class> classes = new HashSet<Class>();
-    private Set<Interface> interfaces = new HashSet<Interface>();
+    private Set<Package> packages = new JournaledSet<Package>();
+    private Set<Class> classes = new JournaledSet<Class>();
+    private Set<Interface> interfaces = new JournaledSet<Interface>();
     private String name;
     private boolean appliedPatterns;
 
+    /**
+     * Modo copy-on-write: {@link #deepCopy()} não copia a arquitetura, apenas a compartilha com a
+     * nova solução. A cópia é feita em {@link #forWriting()}, quando um operador vai alterá-la.
+     * <p>
+     * O compartilhamento é da arquitetura inteira: a primeira alteração, em qualquer elemento, copia tudo
+     * com {@link #deepClone()}. O modo só economiza as cópias das soluções filhas que nenhum operador
+     * altera; uma filha alterada custa a mesma cópia completa que custaria sem ele.
+     * <p>
+     * Uma instância compartilhada não pertence a nenhuma das soluções que a referenciam: todas a copiam
+     * na primeira alteração e passam a alterar a própria cópia. Não há contagem de referências, pois as
+     * soluções descartadas pelos algoritmos não avisam que deixaram de usar a instância.
+     */
+    private boolean copyOnWrite;
+    private volatile boolean shared;
+
     private RelationshipsHolder relationshipHolder = new RelationshipsHolder();
 
+    private long version = StructuralChanges.next();
+    private volatile long identityVersion;
+    private transient ElementsIndex elementsIndex;
+    private transient long elementsIndexVersion;
+
+    /**
+     * Visões imutáveis de getElements/getAllClasses/getAllInterfaces.
+     * São reconstruídas somente quando {@link #getVersion()} muda.
+     */
+    private transient List<Element> elementsView;
+    private transient Set<Class> allClassesView;
+    private transient Set<Interface> allInterfacesView;
+    private transient long viewsVersion;
+
 
     public Architecture(String name) {
         setName(name);
     }
 
+    Architecture(Architecture original, ArchitectureCopy copy) {
+        this.name = original.name;
+        this.appliedPatterns = original.appliedPatterns;
+        this.copyOnWrite = original.copyOnWrite;
+        this.relationshipHolder = copy.holder(original.relationshipHolder);
+        copy.elements(original.packages, this.packages);
+        copy.elements(original.classes, this.classes);
+        copy.elements(original.interfaces, this.interfaces);
+    }
+
     public String getName() {
         return name;
     }
@@ -45,7 +83,23 @@ public class Architecture extends Variable {
         this.name = name != null ? name : "";
     }
 
-    public List<Element> getElements() {
+    /**
+     * Retorna todos os elementos (classes e interfaces) da arquitetura, inclusive os que estão em pacotes.
+     * <p>
+     * A lista retornada é imutável e é reaproveitada enquanto a arquitetura não for alterada.
+     * Os caches são sincronizados, pois uma arquitetura compartilhada (copy-on-write) pode ser
+     * lida por avaliações concorrentes.
+     *
+     * @return List<Element>
+     */
+    public synchronized List<Element> getElements() {
+        refreshViews();
+        if (elementsView == null)
+            elementsView = Collections.unmodifiableList(collectElements());
+        return elementsView;
+    }
+
+    private List<Element> collectElements() {
         final List<Element> elts = new ArrayList<Element>();
 
         for (Package p : getAllPackages())
@@ -101,15 +155,26 @@ public class Architecture extends Variable {
     /**
      * Retorna todas as interfaces que existem na arquiteutra.
      * Este método faz um merge de todas as interfaces de todos os pacotes + as interfaces que não tem pacote
+     * <p>
+     * O Set é reaproveitado enquanto a arquitetura não for alterada.
      *
      * @return
      */
-    public Set<Interface> getAllInterfaces() {
+    public synchronized Set<Interface> getAllInterfaces() {
+        refreshViews();
+        if (allInterfacesView == null)
+            allInterfacesView = collectAllInterfaces();
+        return allInterfacesView;
+    }
+
+    private Set<Interface> collectAllInterfaces() {
         final Set<Interface> interfaces = new HashSet<Interface>();
         for (Package p : this.packages)
             interfaces.addAll(p.getAllInterfaces());
 
         interfaces.addAll(this.interfaces);
+        for (Interface interfacee : interfaces)
+            interfacee.getArchitectureCaches().add(this);
         return Collections.unmodifiableSet(interfaces);
     }
 
@@ -128,15 +193,26 @@ public class Architecture extends Variable {
     /**
      * Retorna todas as classes que existem na arquiteutra.
      * Este método faz um merge de todas as classes de todos os pacotes + as classes que não tem pacote
+     * <p>
+     * O Set é reaproveitado enquanto a arquitetura não for alterada.
      *
      * @return
      */
-    public Set<Class> getAllClasses() {
+    public synchronized Set<Class> getAllClasses() {
+        refreshViews();
+        if (allClassesView == null)
+            allClassesView = collectAllClasses();
+        return allClassesView;
+    }
+
+    private Set<Class> collectAllClasses() {
         final Set<Class> klasses = new HashSet<Class>();
         for (Package p : this.packages)
             klasses.addAll(p.getAllClasses());
 
         klasses.addAll(this.classes);
+        for (Class klass : klasses)
+            klass.getArchitectureCaches().add(this);
         return Collections.unmodifiableSet(klasses);
 
     }
@@ -154,7 +230,20 @@ public class Architecture extends Variable {
      * @parm type - tipo do elemento (class, interface ou package)
      */
     public Element findElementByName(String name, String type) {
-        return findElement(name, type);
+        EnumSet<ElementsIndex.Location> locations;
+        if (type.equalsIgnoreCase("class"))
+            locations = EnumSet.of(ElementsIndex.Location.CLASS, ElementsIndex.Location.PACKAGE_CLASS, ElementsIndex.Location.PACKAGE_INTERFACE);
+        else if (type.equalsIgnoreCase("interface"))
+            locations = EnumSet.of(ElementsIndex.Location.INTERFACE, ElementsIndex.Location.PACKAGE_CLASS, ElementsIndex.Location.PACKAGE_INTERFACE);
+        else if (type.equalsIgnoreCase("package"))
+            locations = EnumSet.of(ElementsIndex.Location.PACKAGE);
+        else
+            return null;
+
+        List<Element> found = matching(elementsIndex().withName(name), locations, element -> element.getName().equalsIgnoreCase(name));
+        if (found.size() > 1)
+            return findElement(name, type);
+        return found.isEmpty() ? null : found.get(0);
     }
 
     private Element findElement(String name, String type) {
@@ -201,6 +290,14 @@ public class Architecture extends Variable {
      * @return {@link Class}
      */
     public List<Class> findClassByName(String className) {
+        List<Element> found = matching(elementsIndex().withName(className),
+                EnumSet.of(ElementsIndex.Location.CLASS, ElementsIndex.Location.PACKAGE_CLASS),
+                klass -> className.trim().equalsIgnoreCase(klass.getName().trim()));
+        if (found.isEmpty())
+            return null;
+        if (found.size() == 1)
+            return new ArrayList<Class>(Collections.singletonList((Class) found.get(0)));
+
         List<Class> classesFound = new ArrayList<Class>();
         for (Class klass : getClasses())
             if (className.trim().equalsIgnoreCase(klass.getName().trim()))
@@ -223,6 +320,16 @@ public class Architecture extends Variable {
      * @return - null se nao encontrar
      */
     public Element findElementByName(String elementName) {
+        List<Element> found = matching(elementsIndex().withName(elementName),
+                EnumSet.allOf(ElementsIndex.Location.class),
+                candidate -> candidate.getName().equals(elementName));
+        if (found.size() == 1)
+            return found.get(0);
+        if (found.isEmpty()) {
+            LOGGER.info("No element called: " + elementName + " found");
+            return null;
+        }
+
         Element element = searchRecursivellyInPackage(this.packages, elementName);
         if (element == null) {
             for (Class klass : this.classes)
@@ -254,6 +361,12 @@ public class Architecture extends Variable {
     }
 
     public Interface findInterfaceByName(String interfaceName) {
+        List<Element> found = matching(elementsIndex().withName(interfaceName),
+                EnumSet.of(ElementsIndex.Location.INTERFACE, ElementsIndex.Location.PACKAGE_INTERFACE),
+                interfacee -> interfaceName.equalsIgnoreCase(interfacee.getName()));
+        if (found.size() <= 1)
+            return found.isEmpty() ? null : (Interface) found.get(0);
+
         for (Interface interfacee : getInterfaces())
             if (interfaceName.equalsIgnoreCase(interfacee.getName()))
                 return interfacee;
@@ -273,6 +386,12 @@ public class Architecture extends Variable {
      * @throws Retorna null caso pacote não existir.
      */
     public Package findPackageByName(String packageName) {
+        List<Element> found = matching(elementsIndex().withName(packageName),
+                EnumSet.of(ElementsIndex.Location.PACKAGE),
+                pkg -> packageName.equalsIgnoreCase(pkg.getName()));
+        if (found.size() <= 1)
+            return found.isEmpty() ? null : (Package) found.get(0);
+
         for (Package pkg : getAllPackages())
             if (packageName.equalsIgnoreCase(pkg.getName()))
                 return pkg;
@@ -284,12 +403,14 @@ public class Architecture extends Variable {
     public Package createPackage(String packageName) {
         Package pkg = new Package(getRelationshipHolder(), packageName);
         this.packages.add(pkg);
+        structureChanged();
         return pkg;
     }
 
     public Package createPackage(String packageName, String id) {
         Package pkg = new Package(getRelationshipHolder(), packageName, id);
         this.packages.add(pkg);
+        structureChanged();
         return pkg;
     }
 
@@ -304,7 +425,8 @@ public class Architecture extends Variable {
         //Remove os relacionamentos que o pacote possa pertencer
         relationshipHolder.removeRelatedRelationships(p);
 
-        this.packages.remove(p);
+        if (this.packages.remove(p))
+            structureChanged();
         LOGGER.info("Pacote:" + p.getName() + "removido");
     }
 
@@ -336,8 +458,10 @@ public class Architecture extends Variable {
 
 
     private boolean removeInterfaceFromArch(Interface interfacee) {
-        if (this.interfaces.remove(interfacee))
+        if (this.interfaces.remove(interfacee)) {
+            structureChanged();
             return true;
+        }
         for (Package p : this.packages) {
             if (p.removeInterface(interfacee))
                 return true;
@@ -347,8 +471,10 @@ public class Architecture extends Variable {
 
     public void removeClass(Element klass) {
         relationshipHolder.removeRelatedRelationships(klass);
-        if (this.classes.remove(klass))
+        if (this.classes.remove(klass)) {
+            structureChanged();
             LOGGER.info("Classe " + klass.getName() + "(" + klass.getId() + ") removida da arquitetura");
+        }
 
         for (Package pkg : this.getAllPackages()) {
             if (pkg.getAllClasses().contains(klass)) {
@@ -371,6 +497,14 @@ public class Architecture extends Variable {
     }
 
     public Class findClassById(String idClass) throws ClassNotFound {
+        List<Element> found = matching(elementsIndex().withId(idClass),
+                EnumSet.of(ElementsIndex.Location.CLASS, ElementsIndex.Location.PACKAGE_CLASS),
+                klass -> idClass.equalsIgnoreCase(klass.getId().trim()));
+        if (found.size() == 1)
+            return (Class) found.get(0);
+        if (found.isEmpty())
+            throw new ClassNotFound("Class " + idClass + " can not found.\n");
+
         for (Class klass : getClasses())
             if (idClass.equalsIgnoreCase(klass.getId().trim()))
                 return klass;
@@ -384,6 +518,14 @@ public class Architecture extends Variable {
     }
 
     public Interface findIntefaceById(String idClass) throws ClassNotFound {
+        List<Element> found = matching(elementsIndex().withId(idClass),
+                EnumSet.of(ElementsIndex.Location.INTERFACE),
+                klass -> idClass.equalsIgnoreCase(klass.getId().trim()));
+        if (found.size() == 1)
+            return (Interface) found.get(0);
+        if (found.isEmpty())
+            throw new ClassNotFound("Class " + idClass + " can not found.\n");
+
         for (Interface klass : getInterfaces())
             if (idClass.equalsIgnoreCase(klass.getId().trim()))
                 return klass;
@@ -392,9 +534,10 @@ public class Architecture extends Variable {
     }
 
     public void addExternalInterface(Interface interface_) {
-        if (interfaces.add(interface_))
+        if (interfaces.add(interface_)) {
+            structureChanged();
             LOGGER.info("Interface: " + interface_.getName() + " adicionada na arquiteutra");
-        else
+        } else
             LOGGER.info("TENTOU adicionar a interface : " + interface_.getName() + " na arquiteutra, porém não conseguiu");
     }
 
@@ -470,19 +613,70 @@ public class Architecture extends Variable {
 
     /**
      * Create an exact copy of the <code>Architecture</code> object.
+     * <p>
+     * Em modo copy-on-write a própria instância é compartilhada e a cópia completa é adiada
+     * até {@link #forWriting()}, e evitada se ninguém alterar a arquitetura.
      *
      * @return An exact copy of the object.
      */
     public Variable deepCopy() {
+        if (copyOnWrite) {
+            shared = true;
+            return this;
+        }
         return this.deepClone();
     }
 
-    //private static int count = 1;
+    /**
+     * Retorna a arquitetura que pode ser alterada pelo chamador: ela mesma, se nunca foi
+     * compartilhada, ou uma cópia completa ({@link #deepClone()}), que não é compartilhada com ninguém. Uma instância compartilhada
+     * não é mais alterada, então pode ser copiada por várias soluções ao mesmo tempo.
+     *
+     * @return Architecture
+     */
+    @Override
+    public Architecture forWriting() {
+        return shared ? deepClone() : this;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    public boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    public void setCopyOnWrite(boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    /**
+     * Cópia estrutural feita por {@link ArchitectureCopy}. Concerns são compartilhados com a original
+     * e os índices/caches da cópia são reconstruídos sob demanda.
+     *
+     * @return Architecture
+     */
     public Architecture deepClone() {
-        if (cloner == null)
-            cloner = new Cloner();
-        Architecture newArchitecture = cloner.deepClone(this);
-        return newArchitecture;
+        return ArchitectureCopy.of(this);
+    }
+
+    /**
+     * Impressão digital estrutural da arquitetura, independente da ordem dos elementos.
+     * É recalculada a cada chamada, pois métodos, atributos e concerns são alterados in-place.
+     *
+     * @return ArchitectureFingerprint
+     */
+    public ArchitectureFingerprint getFingerprint() {
+        return ArchitectureFingerprint.of(this);
+    }
+
+    /**
+     * Arquiteturas com a mesma estrutura são consideradas a mesma solução.
+     */
+    @Override
+    public Object structuralKey() {
+        return getFingerprint();
     }
 
     private boolean haveRelationship(Interface supplier, Element client) {
@@ -605,6 +799,17 @@ public class Architecture extends Variable {
      * @return
      */
     public Element findElementById(String xmiId) {
+        List<ElementsIndex.Entry> entries = elementsIndex().withId(xmiId);
+        List<Element> found = matching(entries, EnumSet.of(ElementsIndex.Location.CLASS), element -> element.getId().equals(xmiId));
+        if (found.isEmpty())
+            found = matching(entries, EnumSet.of(ElementsIndex.Location.INTERFACE), element -> element.getId().equals(xmiId));
+        if (found.isEmpty())
+            found = matching(entries, EnumSet.of(ElementsIndex.Location.PACKAGE_CLASS, ElementsIndex.Location.PACKAGE_INTERFACE), element -> element.getId().equalsIgnoreCase(xmiId));
+        if (found.isEmpty())
+            found = matching(entries, EnumSet.of(ElementsIndex.Location.PACKAGE), element -> element.getId().equalsIgnoreCase(xmiId));
+        if (found.size() <= 1)
+            return found.isEmpty() ? null : found.get(0);
+
         for (Class element : this.classes) {
             if (element.getId().equals(xmiId))
                 return element;
@@ -634,9 +839,10 @@ public class Architecture extends Variable {
      * @param {@link Package}
      */
     public void addPackage(arquitetura.representation.Package p) {
-        if (this.packages.add(p))
+        if (this.packages.add(p)) {
+            structureChanged();
             LOGGER.info("Pacote: " + p.getName() + " adicionado na arquitetura");
-        else
+        } else
             LOGGER.info("TENTOU adicionar o Pacote: " + p.getName() + " na arquitetura porém não consegiu");
     }
 
@@ -646,9 +852,10 @@ public class Architecture extends Variable {
      * @param {@link Class}
      */
     public void addExternalClass(Class klass) {
-        if (this.classes.add(klass))
+        if (this.classes.add(klass)) {
+            structureChanged();
             LOGGER.info("Classe: " + klass.getName() + " adicionado na arquitetura");
-        else
+        } else
             LOGGER.info("TENTOU adicionar a Classe: " + klass.getName() + " na arquitetura porém não consegiu");
     }
 
@@ -665,11 +872,13 @@ public class Architecture extends Variable {
     public boolean removeOnlyElement(Element element) {
         if (element instanceof Class) {
             if (this.classes.remove(element)) {
+                structureChanged();
                 LOGGER.info("Classe: " + element.getName() + " removida do pacote: " + this.getName());
                 return true;
             }
         } else if (element instanceof Interface) {
             if (this.interfaces.remove(element)) {
+                structureChanged();
                 LOGGER.info("Interface: " + element.getName() + " removida do pacote: " + this.getName());
                 return true;
             }
@@ -678,8 +887,63 @@ public class Architecture extends Variable {
         return false;
     }
 
-    public void setCloner(Cloner cloner) {
-        this.cloner = cloner;
+    /**
+     * Carimbo ({@link StructuralChanges}) da última alteração estrutural da arquitetura:
+     * pacotes, classes e interfaces adicionados/removidos/movidos, inclusive dentro dos pacotes,
+     * ou mudança de nome/namespace/id de algum elemento dos caches desta arquitetura ({@link ArchitectureCaches}).
+     *
+     * @return long
+     */
+    public long getVersion() {
+        long current = Math.max(version, identityVersion);
+        for (Package p : this.packages)
+            current = Math.max(current, p.getVersion());
+        return current;
+    }
+
+    private void structureChanged() {
+        version = StructuralChanges.next();
+        // desfazer a alteração pelo ChangeLog também muda o carimbo
+        if (ChangeLog.isRecording())
+            ChangeLog.record(() -> version = StructuralChanges.next());
+    }
+
+    /**
+     * Um elemento usado nos caches mudou de nome, namespace ou id.
+     */
+    void identityChanged() {
+        identityVersion = StructuralChanges.next();
+    }
+
+    private void refreshViews() {
+        long current = getVersion();
+        if (viewsVersion != current) {
+            elementsView = null;
+            allClassesView = null;
+            allInterfacesView = null;
+            viewsVersion = current;
+        }
+    }
+
+    private synchronized ElementsIndex elementsIndex() {
+        long current = getVersion();
+        if (elementsIndex == null || elementsIndexVersion != current) {
+            elementsIndex = ElementsIndex.build(this, this.packages, this.classes, this.interfaces);
+            elementsIndexVersion = current;
+        }
+        return elementsIndex;
+    }
+
+    /**
+     * Filtra os candidatos do índice pelo local onde estão na arquitetura e pela comparação
+     * usada no método de busca.
+     */
+    private static List<Element> matching(List<ElementsIndex.Entry> entries, EnumSet<ElementsIndex.Location> locations, Predicate<Element> predicate) {
+        List<Element> found = new ArrayList<Element>(1);
+        for (ElementsIndex.Entry entry : entries)
+            if (locations.contains(entry.location) && predicate.test(entry.element))
+                found.add(entry.element);
+        return found;
     }
 
     public RelationshipsHolder getRelationshipHolder() {
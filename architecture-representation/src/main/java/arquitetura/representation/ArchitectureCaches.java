@@ -0,0 +1,62 @@
+package arquitetura.representation;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+
+/**
+ * {@link Architecture}s cujos caches usam um elemento como chave (busca por nome/id, getAllClasses e
+ * getAllInterfaces). Quando o nome, namespace ou id do elemento muda, somente essas arquiteturas descartam os
+ * caches; os das demais continuam válidos.
+ * <p>
+ * Como em {@link IndexHolders}, as referências são fracas: o registro não mantém a arquitetura viva.
+ */
+public final class ArchitectureCaches implements Serializable {
+
+    private static final long serialVersionUID = 3184462215367127046L;
+
+    @SuppressWarnings("unchecked")
+    private static final WeakReference<Architecture>[] NONE = new WeakReference[0];
+
+    private transient volatile WeakReference<Architecture>[] architectures = NONE;
+
+    /**
+     * Registra a arquitetura que passou a usar o elemento nos seus caches.
+     *
+     * @param architecture
+     */
+    synchronized void add(Architecture architecture) {
+        WeakReference<Architecture>[] current = registered();
+        int live = 0;
+        for (WeakReference<Architecture> reference : current) {
+            Architecture registered = reference.get();
+            if (registered == architecture)
+                return;
+            if (registered != null)
+                live++;
+        }
+        @SuppressWarnings("unchecked")
+        WeakReference<Architecture>[] updated = new WeakReference[live + 1];
+        int i = 0;
+        for (WeakReference<Architecture> reference : current)
+            if (reference.get() != null)
+                updated[i++] = reference;
+        updated[i] = new WeakReference<Architecture>(architecture);
+        architectures = updated;
+    }
+
+    /**
+     * O nome, namespace ou id do elemento mudou: descarta os caches das arquiteturas que o usam.
+     */
+    public void changed() {
+        for (WeakReference<Architecture> reference : registered()) {
+            Architecture architecture = reference.get();
+            if (architecture != null)
+                architecture.identityChanged();
+        }
+    }
+
+    private WeakReference<Architecture>[] registered() {
+        WeakReference<Architecture>[] current = architectures;
+        return current == null ? NONE : current;
+    }
+}
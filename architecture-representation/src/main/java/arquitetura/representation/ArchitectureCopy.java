@@ -0,0 +1,191 @@
+package arquitetura.representation;
+
+import arquitetura.representation.relationship.*;
+
+import java.util.*;
+
+/**
+ * Cópia estrutural de uma {@link Architecture}, usada por {@link Architecture#deepClone()}.
+ * <p>
+ * O modelo é percorrido explicitamente (Package → Class/Interface → Method/Attribute → Relationship)
+ * com um mapa de identidade original → cópia, assim referências compartilhadas e ciclos
+ * (elemento ↔ variante, generalização ↔ holder, ...) continuam apontando para uma única cópia.
+ * <p>
+ * Não são copiados: {@link Concern} (instâncias do {@link ConcernHolder}, nunca alteradas), Strings,
+ * enums e os índices/caches transientes, que são reconstruídos sob demanda pela cópia.
+ */
+public final class ArchitectureCopy {
+
+    private final Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+
+    private ArchitectureCopy() {
+    }
+
+    /**
+     * A cópia só cria objetos novos, por isso não é registrada no {@link ChangeLog} corrente.
+     */
+    public static Architecture of(Architecture original) {
+        ChangeLog changes = ChangeLog.suspend();
+        try {
+            return new Architecture(original, new ArchitectureCopy());
+        } finally {
+            ChangeLog.resume(changes);
+        }
+    }
+
+    /**
+     * Copia a classe junto com tudo o que ela alcança (relacionamentos do holder e seus elementos).
+     */
+    public static Class of(Class original) {
+        ChangeLog changes = ChangeLog.suspend();
+        try {
+            return new ArchitectureCopy().element(original);
+        } finally {
+            ChangeLog.resume(changes);
+        }
+    }
+
+    /**
+     * Deve ser chamado pelos construtores de cópia antes de copiar qualquer referência,
+     * para que os ciclos sejam resolvidos para o objeto em construção.
+     */
+    void register(Object original, Object copy) {
+        copies.put(original, copy);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Element> T element(T original) {
+        if (original == null) return null;
+        Object copy = copies.get(original);
+        if (copy == null)
+            copy = newElement(original);
+        return (T) copy;
+    }
+
+    private Element newElement(Element original) {
+        if (original instanceof Class)
+            return new Class((Class) original, this);
+        if (original instanceof Interface)
+            return new Interface((Interface) original, this);
+        if (original instanceof Package)
+            return new Package((Package) original, this);
+        if (original instanceof Method)
+            return new Method((Method) original, this);
+        if (original instanceof Attribute)
+            return new Attribute((Attribute) original, this);
+        throw new IllegalArgumentException("Tipo de elemento não suportado na cópia: " + original.getClass().getName());
+    }
+
+    <T extends Element> void elements(Collection<T> originals, Collection<T> into) {
+        for (T original : originals)
+            into.add(element(original));
+    }
+
+    public RelationshipsHolder holder(RelationshipsHolder original) {
+        if (original == null) return null;
+        RelationshipsHolder copy = (RelationshipsHolder) copies.get(original);
+        return copy != null ? copy : new RelationshipsHolder(original, this);
+    }
+
+    /**
+     * Relacionamentos só são alcançados a partir de um {@link RelationshipsHolder}, que já está registrado,
+     * então não participam de ciclos e podem ser registrados depois de construídos.
+     */
+    Relationship relationship(Relationship original) {
+        Relationship copy = (Relationship) copies.get(original);
+        if (copy == null) {
+            copy = newRelationship(original);
+            register(original, copy);
+        }
+        return copy;
+    }
+
+    private Relationship newRelationship(Relationship r) {
+        if (r instanceof GeneralizationRelationship)
+            return new GeneralizationRelationship((GeneralizationRelationship) r, this);
+        if (r instanceof RealizationRelationship)
+            return new RealizationRelationship((RealizationRelationship) r, this);
+        if (r instanceof DependencyRelationship)
+            return new DependencyRelationship((DependencyRelationship) r, this);
+        if (r instanceof UsageRelationship)
+            return new UsageRelationship((UsageRelationship) r, this);
+        if (r instanceof AbstractionRelationship)
+            return new AbstractionRelationship((AbstractionRelationship) r, this);
+        if (r instanceof AssociationRelationship)
+            return new AssociationRelationship((AssociationRelationship) r, this);
+        if (r instanceof AssociationClassRelationship)
+            return new AssociationClassRelationship((AssociationClassRelationship) r, this);
+        throw new IllegalArgumentException("Tipo de relacionamento não suportado na cópia: " + r.getClass().getName());
+    }
+
+    Variant variant(Variant original) {
+        if (original == null) return null;
+        Variant copy = (Variant) copies.get(original);
+        if (copy != null) return copy;
+
+        copy = Variant.createVariant()
+                .withName(original.getName())
+                .andRootVp(original.getRootVP())
+                .withVariantType(original.getVariantType())
+                .build();
+        register(original, copy);
+        copy.setVariantElement(element(original.getVariantElement()));
+        copy.setVariabilities(variabilities(original.getVariabilities()));
+        copy.setVariationPoints(variationPoints(original.getVariationPoints()));
+        return copy;
+    }
+
+    VariationPoint variationPoint(VariationPoint original) {
+        if (original == null) return null;
+        VariationPoint copy = (VariationPoint) copies.get(original);
+        return copy != null ? copy : new VariationPoint(original, this);
+    }
+
+    Variability variability(Variability original) {
+        if (original == null) return null;
+        Variability copy = (Variability) copies.get(original);
+        if (copy != null) return copy;
+
+        copy = new Variability(original.getName(), original.getMinSelection(), original.getMaxSelection(),
+                original.getBindingTime(), original.allowAddingVar(), original.getOwnerClass(), original.getIdPackageOwner());
+        register(original, copy);
+        copy.setVariationPoint(variationPoint(original.getVariationPoint()));
+        copy.getVariants().addAll(variants(original.getVariants()));
+        return copy;
+    }
+
+    List<Variant> variants(List<Variant> originals) {
+        if (originals == null) return null;
+        List<Variant> copied = new ArrayList<Variant>(originals.size());
+        for (Variant variant : originals)
+            copied.add(variant(variant));
+        return copied;
+    }
+
+    List<Variability> variabilities(List<Variability> originals) {
+        if (originals == null) return null;
+        List<Variability> copied = new ArrayList<Variability>(originals.size());
+        for (Variability variability : originals)
+            copied.add(variability(variability));
+        return copied;
+    }
+
+    private List<VariationPoint> variationPoints(List<VariationPoint> originals) {
+        if (originals == null) return null;
+        List<VariationPoint> copied = new ArrayList<VariationPoint>(originals.size());
+        for (VariationPoint variationPoint : originals)
+            copied.add(variationPoint(variationPoint));
+        return copied;
+    }
+
+    PatternsOperations patternsOperations(PatternsOperations original) {
+        if (original == null) return null;
+        PatternsOperations copy = (PatternsOperations) copies.get(original);
+        if (copy == null) {
+            copy = new PatternsOperations(new HashSet<String>(original.getAllPatterns()));
+            register(original, copy);
+        }
+        return copy;
+    }
+
+}
@@ -0,0 +1,251 @@
+package arquitetura.representation;
+
+import arquitetura.representation.relationship.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Impressão digital estrutural (128 bits) de uma {@link Architecture}.
+ * <p>
+ * Considera pacotes (inclusive aninhados), onde está cada classe/interface, atributos, métodos
+ * (tipo de retorno e parâmetros), concerns, interfaces implementadas/requeridas e relacionamentos
+ * (tipo e elementos nas pontas). Ids, variabilidades e estereótipos não fazem parte da impressão.
+ * <p>
+ * Cada item do modelo gera um hash de 128 bits e a impressão é a soma desses hashes, por isso
+ * ela não depende da ordem de iteração dos Sets: duas arquiteturas com a mesma estrutura têm a
+ * mesma impressão, mesmo que tenham sido construídas em ordens diferentes. A impressão é
+ * calculada em uma única passada e não é guardada, já que o modelo é alterado in-place.
+ */
+public final class ArchitectureFingerprint implements Serializable {
+
+    private static final long serialVersionUID = 3126419358170482934L;
+
+    private final long high;
+    private final long low;
+
+    private ArchitectureFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public static ArchitectureFingerprint of(Architecture architecture) {
+        Accumulator items = new Accumulator();
+
+        for (Package pkg : architecture.getAllPackages())
+            addPackage(items, pkg, "");
+        for (Class klass : architecture.getClasses())
+            addClass(items, klass, "");
+        for (Interface interfacee : architecture.getInterfaces())
+            addInterface(items, interfacee, "");
+
+        Accumulator ends = new Accumulator();
+        for (Relationship relationship : architecture.getRelationshipHolder().getAllRelationships())
+            addRelationship(items, ends, relationship);
+
+        return new ArchitectureFingerprint(items.sumHigh, items.sumLow);
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public int hashCode() {
+        long mixed = high ^ (low * 0x9E3779B97F4A7C15L);
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ArchitectureFingerprint))
+            return false;
+        ArchitectureFingerprint other = (ArchitectureFingerprint) obj;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    private static void addPackage(Accumulator items, Package pkg, String owner) {
+        String path = owner + "::" + pkg.getName();
+        items.begin("package").add(path).end();
+        addConcerns(items, pkg, path);
+        addInterfaces(items, "package-implements", path, pkg.getImplementedInterfaces());
+        addInterfaces(items, "package-requires", path, pkg.getRequiredInterfaces());
+
+        for (Package nested : pkg.getNestedPackages())
+            addPackage(items, nested, path);
+        for (Class klass : pkg.getAllClasses())
+            addClass(items, klass, path);
+        for (Interface interfacee : pkg.getAllInterfaces())
+            addInterface(items, interfacee, path);
+    }
+
+    private static void addClass(Accumulator items, Class klass, String owner) {
+        String key = key(klass);
+        items.begin("class").add(owner).add(key).add(klass.isAbstract()).end();
+        addConcerns(items, klass, key);
+        addInterfaces(items, "class-implements", key, klass.getImplementedInterfaces());
+        addInterfaces(items, "class-requires", key, klass.getRequiredInterfaces());
+
+        for (Attribute attribute : klass.getAllAttributes()) {
+            items.begin("attribute").add(key).add(attribute.getName()).add(attribute.getType())
+                    .add(attribute.getVisibility()).end();
+            addConcerns(items, attribute, key + "#" + attribute.getName());
+        }
+        for (Method method : klass.getAllMethods())
+            addMethod(items, method, key);
+    }
+
+    private static void addInterface(Accumulator items, Interface interfacee, String owner) {
+        String key = key(interfacee);
+        items.begin("interface").add(owner).add(key).end();
+        addConcerns(items, interfacee, key);
+
+        for (Method operation : interfacee.getOperations())
+            addMethod(items, operation, key);
+    }
+
+    private static void addMethod(Accumulator items, Method method, String owner) {
+        items.begin("method").add(owner).add(method.getName()).add(method.getReturnType()).add(method.isAbstract());
+        List<ParameterMethod> parameters = method.getParameters();
+        if (parameters != null)
+            for (ParameterMethod parameter : parameters)
+                items.add(parameter.getName()).add(parameter.getType()).add(parameter.getDirection());
+        items.end();
+        addConcerns(items, method, owner + "#" + method.getName());
+    }
+
+    private static void addConcerns(Accumulator items, Element element, String owner) {
+        for (Concern concern : element.getOwnConcerns())
+            items.begin("concern").add(owner).add(concern.getName()).end();
+    }
+
+    private static void addInterfaces(Accumulator items, String kind, String owner, Iterable<Interface> interfaces) {
+        for (Interface interfacee : interfaces)
+            items.begin(kind).add(owner).add(key(interfacee)).end();
+    }
+
+    private static void addRelationship(Accumulator items, Accumulator ends, Relationship r) {
+        items.begin(r.getClass().getSimpleName()).add(r.getName());
+
+        if (r instanceof GeneralizationRelationship) {
+            GeneralizationRelationship generalization = (GeneralizationRelationship) r;
+            items.add(key(generalization.getParent())).add(key(generalization.getChild()));
+        } else if (r instanceof RealizationRelationship) {
+            RealizationRelationship realization = (RealizationRelationship) r;
+            items.add(key(realization.getClient())).add(key(realization.getSupplier()));
+        } else if (r instanceof DependencyRelationship) {
+            DependencyRelationship dependency = (DependencyRelationship) r;
+            items.add(key(dependency.getClient())).add(key(dependency.getSupplier()));
+        } else if (r instanceof UsageRelationship) {
+            UsageRelationship usage = (UsageRelationship) r;
+            items.add(key(usage.getClient())).add(key(usage.getSupplier()));
+        } else if (r instanceof AbstractionRelationship) {
+            AbstractionRelationship abstraction = (AbstractionRelationship) r;
+            items.add(key(abstraction.getClient())).add(key(abstraction.getSupplier()));
+        } else if (r instanceof AssociationRelationship) {
+            // as pontas de uma associação também entram sem depender da ordem da lista
+            ends.reset();
+            for (AssociationEnd end : ((AssociationRelationship) r).getParticipants())
+                ends.begin("end").add(key(end.getCLSClass())).add(end.isNavigable()).add(end.getAggregation())
+                        .add(end.getName()).add(String.valueOf(end.getMultiplicity())).end();
+            items.add(ends.sumHigh).add(ends.sumLow);
+        } else if (r instanceof AssociationClassRelationship) {
+            AssociationClassRelationship associationClass = (AssociationClassRelationship) r;
+            items.add(key(associationClass.getAssociationClass())).add(key(associationClass.getOwnedEnd()));
+            ends.reset();
+            for (MemberEnd end : associationClass.getMemebersEnd())
+                ends.begin("member").add(key(end.getType())).add(end.getAggregation())
+                        .add(String.valueOf(end.getMultiplicity())).end();
+            items.add(ends.sumHigh).add(ends.sumLow);
+        }
+
+        items.end();
+    }
+
+    /**
+     * Identifica o elemento como em {@link Element#equals(Object)}: tipo, namespace e nome.
+     */
+    private static String key(Element element) {
+        if (element == null)
+            return null;
+        return element.getClass().getSimpleName() + ":" + element.getNamespace() + "::" + element.getName();
+    }
+
+    /**
+     * Soma dos hashes de 128 bits (duas faixas FNV-1a de 64 bits, finalizadas pelo mix do SplitMix64)
+     * dos itens adicionados.
+     */
+    private static final class Accumulator {
+        private static final long PRIME = 0x100000001B3L;
+        private static final long SEED_HIGH = 0xCBF29CE484222325L;
+        private static final long SEED_LOW = 0x84222325CBF29CE4L;
+
+        private long high;
+        private long low;
+        private long sumHigh;
+        private long sumLow;
+
+        Accumulator begin(String kind) {
+            high = SEED_HIGH;
+            low = SEED_LOW;
+            return add(kind);
+        }
+
+        Accumulator add(String value) {
+            if (value == null) {
+                step(0xFFFF);
+            } else {
+                for (int i = 0; i < value.length(); i++)
+                    step(value.charAt(i));
+            }
+            // separador entre campos, assim ("ab","c") e ("a","bc") são diferentes
+            step(0x10000);
+            return this;
+        }
+
+        Accumulator add(boolean value) {
+            step(value ? 0x10001 : 0x10002);
+            return this;
+        }
+
+        Accumulator add(long value) {
+            for (int shift = 0; shift < 64; shift += 16)
+                step((int) (value >>> shift) & 0xFFFF);
+            step(0x10000);
+            return this;
+        }
+
+        void end() {
+            sumHigh += mix(high);
+            sumLow += mix(low ^ 0x9E3779B97F4A7C15L);
+        }
+
+        void reset() {
+            sumHigh = 0;
+            sumLow = 0;
+        }
+
+        private void step(int value) {
+            high = (high ^ value) * PRIME;
+            low = (low ^ value) * PRIME ^ (low >>> 29);
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+}
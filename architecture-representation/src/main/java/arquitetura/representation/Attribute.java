@@ -43,6 +43,13 @@ public class Attribute extends Element {
         this(name, visibilityKind, null, type, namespace, id, true);
     }
 
+    Attribute(Attribute original, ArchitectureCopy copy) {
+        super(original, copy);
+        this.type = original.type;
+        this.visibilityKind = original.visibilityKind;
+        this.generatVisualAttribute = original.generatVisualAttribute;
+    }
+
     private void setVisibilityKind(String visibilityKind) {
         this.visibilityKind = visibilityKind;
     }
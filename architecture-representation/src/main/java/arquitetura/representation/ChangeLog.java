@@ -0,0 +1,145 @@
+package arquitetura.representation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registro de alterações (undo journal) para desfazer in-place uma mutação inválida.
+ * <p>
+ * O registro é por thread. Entre {@link #begin()} e {@link #commit()}/{@link #rollback()} são registradas,
+ * junto com a ação que as desfaz, as alterações feitas na thread corrente:
+ * <ul>
+ * <li>inclusão/remoção de pacotes, classes e interfaces na arquitetura e nos pacotes;</li>
+ * <li>inclusão/remoção de métodos, atributos, interfaces implementadas/requeridas e concerns;</li>
+ * <li>inclusão/remoção de relacionamentos e troca das pontas (cliente, fornecedor, pai, filho...);</li>
+ * <li>troca de nome/namespace dos elementos;</li>
+ * <li>variabilidades dos elementos (ponto de variação, variante, elemento e ponto de variação raiz das
+ * variantes, elemento do ponto de variação);</li>
+ * <li>classes e métodos abstratos, multiplicidade e agregação das pontas de associação e estereótipos dos
+ * padrões aplicados ({@link PatternsOperations}).</li>
+ * </ul>
+ * Mover um elemento é registrado como a remoção e a inclusão correspondentes.
+ * <p>
+ * Uso típico em um operador:
+ * <pre>
+ * ChangeLog changes = ChangeLog.begin();
+ * try {
+ *     mutate(architecture);
+ *     if (isValidSolution(architecture))
+ *         changes.commit();
+ *     else
+ *         changes.rollback();
+ * } finally {
+ *     changes.close();
+ * }
+ * </pre>
+ * Registros podem ser aninhados: o commit de um registro interno transfere suas alterações para o externo.
+ */
+public final class ChangeLog {
+
+    private static final ThreadLocal<ChangeLog> CURRENT = new ThreadLocal<ChangeLog>();
+
+    private final ChangeLog parent;
+    private final List<Runnable> undo = new ArrayList<Runnable>();
+    private boolean open = true;
+
+    private ChangeLog(ChangeLog parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Inicia o registro de alterações da thread corrente.
+     *
+     * @return ChangeLog
+     */
+    public static ChangeLog begin() {
+        ChangeLog log = new ChangeLog(CURRENT.get());
+        CURRENT.set(log);
+        return log;
+    }
+
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Registra a ação que desfaz uma alteração. Não faz nada se não houver registro ativo na thread.
+     * A ação deve alterar o modelo diretamente, sem passar por métodos que também registram alterações.
+     *
+     * @param undoAction
+     */
+    public static void record(Runnable undoAction) {
+        ChangeLog log = CURRENT.get();
+        if (log != null)
+            log.undo.add(undoAction);
+    }
+
+    /**
+     * Suspende o registro da thread corrente (usado pela cópia de arquiteturas, que só cria objetos novos).
+     *
+     * @return registro suspenso, ou null
+     */
+    static ChangeLog suspend() {
+        ChangeLog log = CURRENT.get();
+        if (log != null)
+            CURRENT.remove();
+        return log;
+    }
+
+    static void resume(ChangeLog log) {
+        if (log != null)
+            CURRENT.set(log);
+    }
+
+    /**
+     * Mantém as alterações. Se houver um registro externo, ele passa a poder desfazê-las.
+     */
+    public void commit() {
+        finish();
+        if (parent != null)
+            parent.undo.addAll(undo);
+        undo.clear();
+    }
+
+    /**
+     * Desfaz, em ordem inversa, todas as alterações registradas.
+     */
+    public void rollback() {
+        finish();
+        for (int i = undo.size() - 1; i >= 0; i--)
+            undo.get(i).run();
+        undo.clear();
+    }
+
+    /**
+     * Desfaz as alterações caso o registro ainda não tenha sido encerrado (ex.: o operador lançou exceção).
+     */
+    public void close() {
+        if (open)
+            rollback();
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * @return número de alterações registradas
+     */
+    public int size() {
+        return undo.size();
+    }
+
+    private void finish() {
+        if (!open)
+            throw new IllegalStateException("ChangeLog já foi encerrado");
+        if (CURRENT.get() != this)
+            throw new IllegalStateException("ChangeLog não é o registro corrente desta thread");
+        open = false;
+        if (parent != null)
+            CURRENT.set(parent);
+        else
+            CURRENT.remove();
+    }
+
+}
@@ -0,0 +1,164 @@
+package arquitetura.representation;
+
+import java.util.*;
+
+/**
+ * Conjunto dos elementos alterados por um operador: pacotes, classes, interfaces, métodos e atributos
+ * cujo conteúdo mudou (classes, interfaces, operações, métodos, atributos, interfaces implementadas/requeridas
+ * ou concerns) ou que foram renomeados (nome, namespace ou id), além dos concerns incluídos/removidos.
+ * <p>
+ * Assim como o {@link ChangeLog}, o registro é por thread: entre {@link #begin()} e {@link #close()} as
+ * coleções do modelo registram aqui o elemento dono de cada coleção alterada. Inclusão/remoção de pacotes
+ * e classes/interfaces fora de pacotes na própria {@link Architecture} não é registrada, pois a
+ * arquitetura não é um elemento.
+ * <p>
+ * Usado para avaliar de novo somente a parte da arquitetura que mudou:
+ * <pre>
+ * ChangeSet touched = ChangeSet.begin();
+ * try {
+ *     mutate(architecture);
+ * } finally {
+ *     touched.close();
+ * }
+ * solution.addChanges(touched);
+ * </pre>
+ * Registros podem ser aninhados: ao ser encerrado, um registro interno passa seus elementos para o externo.
+ */
+public final class ChangeSet {
+
+    private static final ThreadLocal<ChangeSet> CURRENT = new ThreadLocal<ChangeSet>();
+
+    private final ChangeSet parent;
+    private final Set<Element> elements = Collections.newSetFromMap(new IdentityHashMap<Element, Boolean>());
+    private final Set<Concern> concerns = new HashSet<Concern>();
+    private boolean open;
+
+    /**
+     * Conjunto vazio, não associado à thread corrente.
+     */
+    public ChangeSet() {
+        this.parent = null;
+    }
+
+    public ChangeSet(ChangeSet other) {
+        this();
+        addAll(other);
+    }
+
+    private ChangeSet(ChangeSet parent, boolean open) {
+        this.parent = parent;
+        this.open = open;
+    }
+
+    /**
+     * Inicia o registro dos elementos alterados na thread corrente.
+     *
+     * @return ChangeSet
+     */
+    public static ChangeSet begin() {
+        ChangeSet changes = new ChangeSet(CURRENT.get(), true);
+        CURRENT.set(changes);
+        return changes;
+    }
+
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Chamado pelas coleções do modelo quando o conteúdo de owner muda. Não faz nada se não houver
+     * registro ativo na thread.
+     *
+     * @param owner elemento dono da coleção, ou null
+     * @param item  item incluído/removido
+     */
+    static void touch(Element owner, Object item) {
+        ChangeSet changes = CURRENT.get();
+        if (changes == null)
+            return;
+        if (owner != null)
+            changes.elements.add(owner);
+        if (item instanceof Concern)
+            changes.concerns.add((Concern) item);
+    }
+
+    /**
+     * Encerra o registro. Se houver um registro externo, ele também passa a conter estes elementos.
+     */
+    public void close() {
+        if (!open)
+            return;
+        if (CURRENT.get() != this)
+            throw new IllegalStateException("ChangeSet não é o registro corrente desta thread");
+        open = false;
+        if (parent != null) {
+            CURRENT.set(parent);
+            parent.addAll(this);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    public void addAll(ChangeSet other) {
+        elements.addAll(other.elements);
+        concerns.addAll(other.concerns);
+    }
+
+    public boolean contains(Element element) {
+        return elements.contains(element);
+    }
+
+    public boolean containsAny(Collection<? extends Element> elements) {
+        for (Element element : elements)
+            if (this.elements.contains(element))
+                return true;
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return elements.isEmpty() && concerns.isEmpty();
+    }
+
+    public List<Package> getPackages() {
+        return ofType(Package.class);
+    }
+
+    public List<Class> getClasses() {
+        return ofType(Class.class);
+    }
+
+    public List<Interface> getInterfaces() {
+        return ofType(Interface.class);
+    }
+
+    /**
+     * Métodos/operações e atributos cujos concerns mudaram.
+     */
+    public List<Element> getMembers() {
+        List<Element> members = new ArrayList<Element>();
+        for (Element element : elements)
+            if (element instanceof Method || element instanceof Attribute)
+                members.add(element);
+        return members;
+    }
+
+    public Set<Concern> getConcerns() {
+        return Collections.unmodifiableSet(concerns);
+    }
+
+    private <T extends Element> List<T> ofType(java.lang.Class<T> type) {
+        List<T> found = new ArrayList<T>();
+        for (Element element : elements)
+            if (type.isInstance(element))
+                found.add(type.cast(element));
+        return found;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSet(" + getPackages().size() + " pacotes, " + getClasses().size() + " classes, "
+                + getInterfaces().size() + " interfaces, " + getMembers().size() + " membros, "
+                + concerns.size() + " concerns)";
+    }
+
+}
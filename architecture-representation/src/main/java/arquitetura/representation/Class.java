@@ -6,11 +6,9 @@ import arquitetura.flyweights.VariantFlyweight;
 import arquitetura.helpers.UtilResources;
 import arquitetura.representation.relationship.AssociationClassRelationship;
 import arquitetura.representation.relationship.MemberEnd;
-import arquitetura.representation.relationship.RelationshiopCommons;
 import arquitetura.representation.relationship.Relationship;
 import arquitetura.touml.Types.Type;
 import arquitetura.touml.VisibilityKind;
-import com.rits.cloning.Cloner;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -24,11 +22,11 @@ public class Class extends Element {
     private static final long serialVersionUID = -5450511036321846093L;
 
     static Logger LOGGER = LogManager.getLogger(Class.class.getName());
-    private final Set<Attribute> attributes = new HashSet<Attribute>();
-    private final Set<Method> methods = new HashSet<Method>();
+    private final Set<Attribute> attributes = new JournaledSet<Attribute>(this);
+    private final Set<Method> methods = new JournaledSet<Method>(this);
     private boolean isAbstract;
-    private Set<Interface> implementedInterfaces = new HashSet<Interface>();
-    private Set<Interface> requiredInterfaces = new HashSet<Interface>();
+    private Set<Interface> implementedInterfaces = new JournaledSet<Interface>(this);
+    private Set<Interface> requiredInterfaces = new JournaledSet<Interface>(this);
 
     private PatternsOperations patternsOperations;
     private RelationshipsHolder relationshipHolder;
@@ -63,6 +61,17 @@ public class Class extends Element {
         this.setPatternOperations(new PatternsOperations());
     }
 
+    Class(Class original, ArchitectureCopy copy) {
+        super(original, copy);
+        this.isAbstract = original.isAbstract;
+        this.relationshipHolder = copy.holder(original.relationshipHolder);
+        this.patternsOperations = copy.patternsOperations(original.patternsOperations);
+        copy.elements(original.attributes, this.attributes);
+        copy.elements(original.methods, this.methods);
+        copy.elements(original.implementedInterfaces, this.implementedInterfaces);
+        copy.elements(original.requiredInterfaces, this.requiredInterfaces);
+    }
+
     public Attribute createAttribute(String name, Type type, VisibilityKind visibility) {
         String id = UtilResources.getRandonUUID();
         Attribute a = new Attribute(name, visibility.toString(), type.getName(), ArchitectureHolder.getName() + "::"
@@ -86,6 +95,8 @@ public class Class extends Element {
     }
 
     public void setAbstract(boolean isAbstract) {
+        final boolean previous = this.isAbstract;
+        ChangeLog.record(() -> this.isAbstract = previous);
         this.isAbstract = isAbstract;
     }
 
@@ -253,6 +264,9 @@ public class Class extends Element {
     // }
 
     public void updateId(String id) {
+        identityChanged();
+        final String previous = this.id;
+        ChangeLog.record(() -> this.id = previous);
         super.id = id;
 
     }
@@ -363,10 +377,7 @@ public class Class extends Element {
     }
 
     public Class deepClone() throws CloneNotSupportedException {
-        Cloner cloner = new Cloner();
-        Class klass = cloner.deepClone(this);
-        cloner = null;
-        return klass;
+        return ArchitectureCopy.of(this);
     }
 
     public RelationshipsHolder getRelationshipHolder() {
@@ -378,7 +389,7 @@ public class Class extends Element {
     }
 
     public Set<Relationship> getRelationships() {
-        return RelationshiopCommons.getRelationships(relationshipHolder.getRelationships(), this);
+        return relationshipHolder.getRelationships(this);
     }
 
     public void setPatternOperations(PatternsOperations patternOperations) {
@@ -17,11 +17,13 @@ public abstract class Element implements Serializable {
     private String name;
     private VariationPoint variationPoint;
     private Variant variant;
-    private Set<Concern> concerns = new HashSet<Concern>();
+    private Set<Concern> concerns = new JournaledSet<Concern>(this);
     private Architecture architecture;
     private String typeElement;
     private String namespace;
     private boolean belongsToGeneralization;
+    private final IndexHolders indexHolders = new IndexHolders();
+    private final ArchitectureCaches architectureCaches = new ArchitectureCaches();
 
     public Element(String name, Variant variant, String typeElement, String namespace, String id) {
         setId(id);
@@ -31,6 +33,22 @@ public abstract class Element implements Serializable {
         setNamespace(namespace);
     }
 
+    /**
+     * Construtor de cópia usado por {@link ArchitectureCopy}. Os campos usados em equals/hashCode
+     * são atribuídos antes do registro, pois a cópia pode ser inserida em Sets durante a recursão.
+     */
+    protected Element(Element original, ArchitectureCopy copy) {
+        this.id = original.id;
+        this.name = original.name;
+        this.namespace = original.namespace;
+        this.typeElement = original.typeElement;
+        this.belongsToGeneralization = original.belongsToGeneralization;
+        this.concerns.addAll(original.concerns);
+        copy.register(original, this);
+        this.variant = copy.variant(original.variant);
+        this.variationPoint = copy.variationPoint(original.variationPoint);
+    }
+
     public abstract Collection<Concern> getAllConcerns();
 
     public Set<Relationship> getRelationships() {
@@ -64,6 +82,10 @@ public abstract class Element implements Serializable {
     }
 
     public void setName(String name) {
+        if (this.name != null && !this.name.equals(name))
+            identityChanged();
+        final String previous = this.name;
+        ChangeLog.record(() -> this.name = previous);
         this.name = name;
     }
 
@@ -76,6 +98,8 @@ public abstract class Element implements Serializable {
     }
 
     public void setVariant(Variant variant) {
+        final Variant previous = this.variant;
+        ChangeLog.record(() -> this.variant = previous);
         this.variant = variant;
     }
 
@@ -169,9 +193,40 @@ public abstract class Element implements Serializable {
     }
 
     public void setNamespace(String namespace) {
+        if (this.namespace != null && !this.namespace.equals(namespace))
+            identityChanged();
+        final String previous = this.namespace;
+        ChangeLog.record(() -> this.namespace = previous);
         this.namespace = namespace;
     }
 
+    /**
+     * Nome, namespace ou id mudaram: invalida os índices que usam o elemento como chave
+     * (relacionamentos e buscas das arquiteturas que o contêm), também quando a troca for desfeita pelo
+     * {@link ChangeLog}, e registra o elemento no {@link ChangeSet} corrente.
+     */
+    protected void identityChanged() {
+        indexHolders.changed();
+        architectureCaches.changed();
+        ChangeLog.record(indexHolders::changed);
+        ChangeLog.record(architectureCaches::changed);
+        ChangeSet.touch(this, null);
+    }
+
+    /**
+     * @return holders cujo índice de adjacência tem o elemento como ponta de algum relacionamento
+     */
+    IndexHolders getIndexHolders() {
+        return indexHolders;
+    }
+
+    /**
+     * @return arquiteturas cujos caches usam o elemento como chave
+     */
+    ArchitectureCaches getArchitectureCaches() {
+        return architectureCaches;
+    }
+
     public Architecture getArchitecture() {
         return architecture;
     }
@@ -187,6 +242,8 @@ public abstract class Element implements Serializable {
      * @param variationPoint the variationPoint to set
      */
     public void setVariationPoint(VariationPoint variationPoint) {
+        final VariationPoint previous = this.variationPoint;
+        ChangeLog.record(() -> this.variationPoint = previous);
         this.variationPoint = variationPoint;
     }
 
@@ -209,16 +266,11 @@ public abstract class Element implements Serializable {
 
     @Override
     public boolean equals(Object obj) {
-        // String classss = getClass().toString();
-
-        String objClass = obj.getClass().toString();
-        // System.out.println(objClass);
-
         if (this == obj)
             return true;
         if (obj == null)
             return false;
-        if (!getClass().toString().equals(objClass.toString()))
+        if (!getClass().equals(obj.getClass()))
             return false;
         Element other = (Element) obj;
         if (name == null) {
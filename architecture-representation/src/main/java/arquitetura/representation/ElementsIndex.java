@@ -0,0 +1,104 @@
+package arquitetura.representation;
+
+import java.util.*;
+
+/**
+ * Índice por id e por nome dos elementos de uma {@link Architecture}.
+ * <p>
+ * As chaves são normalizadas (trim + case-folding equivalente ao equalsIgnoreCase), então o índice
+ * apenas reduz a busca a poucos candidatos. Cada método de busca da arquitetura continua aplicando
+ * sua própria comparação (equals, equalsIgnoreCase, com ou sem trim) sobre esses candidatos.
+ * <p>
+ * Somente os pacotes de primeiro nível e seus elementos são indexados, assim como nas buscas lineares.
+ */
+final class ElementsIndex {
+
+    /**
+     * Onde o elemento foi encontrado na arquitetura.
+     */
+    enum Location {
+        CLASS, INTERFACE, PACKAGE_CLASS, PACKAGE_INTERFACE, PACKAGE
+    }
+
+    static final class Entry {
+        final Element element;
+        final Location location;
+
+        Entry(Element element, Location location) {
+            this.element = element;
+            this.location = location;
+        }
+    }
+
+    private final Map<String, List<Entry>> byId = new HashMap<>();
+    private final Map<String, List<Entry>> byName = new HashMap<>();
+    private final Architecture architecture;
+
+    private ElementsIndex(Architecture architecture) {
+        this.architecture = architecture;
+    }
+
+    /**
+     * Indexa os elementos e registra a arquitetura nos {@link ArchitectureCaches} de cada um.
+     */
+    static ElementsIndex build(Architecture architecture, Set<Package> packages, Set<Class> classes,
+                               Set<Interface> interfaces) {
+        ElementsIndex index = new ElementsIndex(architecture);
+        for (Class klass : classes)
+            index.add(klass, Location.CLASS);
+        for (Interface interfacee : interfaces)
+            index.add(interfacee, Location.INTERFACE);
+        for (Package pkg : packages) {
+            index.add(pkg, Location.PACKAGE);
+            for (Class klass : pkg.getAllClasses())
+                index.add(klass, Location.PACKAGE_CLASS);
+            for (Interface interfacee : pkg.getAllInterfaces())
+                index.add(interfacee, Location.PACKAGE_INTERFACE);
+        }
+        return index;
+    }
+
+    List<Entry> withId(String id) {
+        return lookup(byId, id);
+    }
+
+    List<Entry> withName(String name) {
+        return lookup(byName, name);
+    }
+
+    private void add(Element element, Location location) {
+        element.getArchitectureCaches().add(architecture);
+        Entry entry = new Entry(element, location);
+        put(byId, element.getId(), entry);
+        put(byName, element.getName(), entry);
+    }
+
+    private static void put(Map<String, List<Entry>> map, String key, Entry entry) {
+        if (key == null) return;
+        String folded = fold(key);
+        List<Entry> entries = map.get(folded);
+        if (entries == null) {
+            entries = new ArrayList<>(1);
+            map.put(folded, entries);
+        }
+        entries.add(entry);
+    }
+
+    private static List<Entry> lookup(Map<String, List<Entry>> map, String key) {
+        if (key == null) return Collections.emptyList();
+        List<Entry> entries = map.get(fold(key));
+        return entries == null ? Collections.<Entry>emptyList() : entries;
+    }
+
+    /**
+     * Duas strings são iguais por equalsIgnoreCase se, e somente se, têm o mesmo fold caractere a caractere.
+     */
+    static String fold(String value) {
+        String trimmed = value.trim();
+        char[] chars = new char[trimmed.length()];
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = Character.toLowerCase(Character.toUpperCase(trimmed.charAt(i)));
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,63 @@
+package arquitetura.representation;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+
+/**
+ * {@link RelationshipsHolder}s cujo índice de adjacência usa um objeto do modelo (relacionamento, ponta de
+ * associação ou elemento). Quando o objeto é alterado in-place, somente esses holders descartam o índice;
+ * os índices das demais arquiteturas continuam válidos.
+ * <p>
+ * Um objeto costuma estar no índice de um só holder (dois quando o crossover compartilha elementos entre
+ * pai e filho). As referências são fracas: o registro não mantém o holder, nem sua arquitetura, vivo.
+ */
+public final class IndexHolders implements Serializable {
+
+    private static final long serialVersionUID = -2409417535806417128L;
+
+    @SuppressWarnings("unchecked")
+    private static final WeakReference<RelationshipsHolder>[] NONE = new WeakReference[0];
+
+    private transient volatile WeakReference<RelationshipsHolder>[] holders = NONE;
+
+    /**
+     * Registra o holder que passou a usar o objeto no seu índice.
+     *
+     * @param holder
+     */
+    synchronized void add(RelationshipsHolder holder) {
+        WeakReference<RelationshipsHolder>[] current = registered();
+        int live = 0;
+        for (WeakReference<RelationshipsHolder> reference : current) {
+            RelationshipsHolder registered = reference.get();
+            if (registered == holder)
+                return;
+            if (registered != null)
+                live++;
+        }
+        @SuppressWarnings("unchecked")
+        WeakReference<RelationshipsHolder>[] updated = new WeakReference[live + 1];
+        int i = 0;
+        for (WeakReference<RelationshipsHolder> reference : current)
+            if (reference.get() != null)
+                updated[i++] = reference;
+        updated[i] = new WeakReference<RelationshipsHolder>(holder);
+        holders = updated;
+    }
+
+    /**
+     * O objeto foi alterado: descarta o índice dos holders que o usam.
+     */
+    public void changed() {
+        for (WeakReference<RelationshipsHolder> reference : registered()) {
+            RelationshipsHolder holder = reference.get();
+            if (holder != null)
+                holder.invalidateIndex();
+        }
+    }
+
+    private WeakReference<RelationshipsHolder>[] registered() {
+        WeakReference<RelationshipsHolder>[] current = holders;
+        return current == null ? NONE : current;
+    }
+}
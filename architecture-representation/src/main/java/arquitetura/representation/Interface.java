@@ -3,7 +3,6 @@ package arquitetura.representation;
 import arquitetura.helpers.UtilResources;
 import arquitetura.representation.relationship.DependencyRelationship;
 import arquitetura.representation.relationship.RealizationRelationship;
-import arquitetura.representation.relationship.RelationshiopCommons;
 import arquitetura.representation.relationship.Relationship;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -20,7 +19,7 @@ public class Interface extends Element {
     private static final long serialVersionUID = -1779316062511432020L;
 
     static Logger LOGGER = LogManager.getLogger(Interface.class.getName());
-    private final Set<Method> operations = new HashSet<Method>();
+    private final Set<Method> operations = new JournaledSet<Method>(this);
     private RelationshipsHolder relationshipHolder;
     private PatternsOperations patternsOperations;
 
@@ -68,6 +67,13 @@ public class Interface extends Element {
         this.setPatternOperations(new PatternsOperations());
     }
 
+    Interface(Interface original, ArchitectureCopy copy) {
+        super(original, copy);
+        this.relationshipHolder = copy.holder(original.relationshipHolder);
+        this.patternsOperations = copy.patternsOperations(original.patternsOperations);
+        copy.elements(original.operations, this.operations);
+    }
+
     public Set<Method> getOperations() {
         return Collections.unmodifiableSet(operations);
     }
@@ -118,12 +124,9 @@ public class Interface extends Element {
     public Set<Element> getImplementors() {
         Set<Element> implementors;
 
-        Set<Relationship> relations = getRelationshipHolder().getRelationships();
+        Set<RealizationRelationship> relations = getRelationshipHolder().getIncomingRelationships(this, RealizationRelationship.class);
 
         implementors = relations.stream()
-                .filter(RealizationRelationship.class::isInstance)
-                .map(RealizationRelationship.class::cast)
-                .filter(realization -> realization.getSupplier().equals(this))
                 .map(RealizationRelationship::getClient).collect(Collectors.toSet());
 
         return Collections.unmodifiableSet(implementors);
@@ -146,16 +149,9 @@ public class Interface extends Element {
     public Set<Element> getDependents() {
         Set<Element> dependents = new HashSet<Element>();
 
-        Set<Relationship> relations = getRelationshipHolder().getRelationships();
+        for (DependencyRelationship dependency : getRelationshipHolder().getIncomingRelationships(this, DependencyRelationship.class))
+            dependents.add(dependency.getClient());
 
-        for (Relationship relationship : relations) {
-            if (relationship instanceof DependencyRelationship) {
-                DependencyRelationship dependency = (DependencyRelationship) relationship;
-                if (dependency.getSupplier().equals(this)) {
-                    dependents.add(dependency.getClient());
-                }
-            }
-        }
         return Collections.unmodifiableSet(dependents);
     }
 
@@ -169,14 +165,7 @@ public class Interface extends Element {
     }
 
     public List<DependencyRelationship> getDependencies() {
-        List<DependencyRelationship> dependencies = new ArrayList<DependencyRelationship>();
-
-        for (DependencyRelationship dependency : getRelationshipHolder().getAllDependencies()) {
-            if (dependency.getSupplier().equals(this))
-                dependencies.add(dependency);
-        }
-
-        return dependencies;
+        return new ArrayList<DependencyRelationship>(getRelationshipHolder().getIncomingRelationships(this, DependencyRelationship.class));
     }
 
     /**
@@ -187,33 +176,21 @@ public class Interface extends Element {
      * @param interfacee
      */
     public void removeInterfaceFromRequiredOrImplemented() {
-        for (Iterator<Relationship> i = getRelationshipHolder().getRelationships().iterator(); i.hasNext(); ) {
-            Relationship r = i.next();
-
-            if (r instanceof RealizationRelationship) {
-                RealizationRelationship realization = (RealizationRelationship) r;
-                if (realization.getSupplier().equals(this)) {
-                    if (realization.getClient() instanceof Package) {
-                        ((Package) realization.getClient()).removeImplementedInterface(this);
-                    }
-                    if (realization.getClient() instanceof Class) {
-                        ((Class) realization.getClient()).removeImplementedInterface(this);
-                    }
-
-                }
+        for (RealizationRelationship realization : getRelationshipHolder().getIncomingRelationships(this, RealizationRelationship.class)) {
+            if (realization.getClient() instanceof Package) {
+                ((Package) realization.getClient()).removeImplementedInterface(this);
             }
+            if (realization.getClient() instanceof Class) {
+                ((Class) realization.getClient()).removeImplementedInterface(this);
+            }
+        }
 
-            if (r instanceof DependencyRelationship) {
-                DependencyRelationship dependency = (DependencyRelationship) r;
-                if (dependency.getSupplier().equals(this)) {
-                    if (dependency.getClient() instanceof Package) {
-                        ((Package) dependency.getClient()).removeRequiredInterface(this);
-                    }
-                    if (dependency.getClient() instanceof Class) {
-                        ((Class) dependency.getClient()).removeRequiredInterface(this);
-                    }
-
-                }
+        for (DependencyRelationship dependency : getRelationshipHolder().getIncomingRelationships(this, DependencyRelationship.class)) {
+            if (dependency.getClient() instanceof Package) {
+                ((Package) dependency.getClient()).removeRequiredInterface(this);
+            }
+            if (dependency.getClient() instanceof Class) {
+                ((Class) dependency.getClient()).removeRequiredInterface(this);
             }
         }
     }
@@ -227,7 +204,7 @@ public class Interface extends Element {
     }
 
     public Set<Relationship> getRelationships() {
-        return Collections.unmodifiableSet(RelationshiopCommons.getRelationships(relationshipHolder.getRelationships(), this));
+        return relationshipHolder.getRelationships(this);
     }
 
     public void setPatternOperations(PatternsOperations patternOperations) {
@@ -239,14 +216,7 @@ public class Interface extends Element {
     }
 
     public List<RealizationRelationship> getRealizationImplementors() {
-        List<RealizationRelationship> realization = new ArrayList<RealizationRelationship>();
-
-        for (RealizationRelationship r : getRelationshipHolder().getAllRealizations()) {
-            if (r.getSupplier().equals(this))
-                realization.add(r);
-        }
-
-        return realization;
+        return new ArrayList<RealizationRelationship>(getRelationshipHolder().getIncomingRelationships(this, RealizationRelationship.class));
     }
 
     //Modificado Thais
@@ -0,0 +1,110 @@
+package arquitetura.representation;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Set usado nas coleções do modelo que registra no {@link ChangeLog} corrente cada inclusão/remoção.
+ * <p>
+ * Mantém o próprio objeto armazenado como valor, assim desfazer uma remoção feita com um objeto
+ * apenas igual (equals) devolve ao Set a mesma instância que estava lá. A ordem de iteração é a
+ * mesma de um HashSet.
+ * <p>
+ * O elemento dono do Set, quando informado, é registrado no {@link ChangeSet} corrente a cada alteração.
+ */
+final class JournaledSet<E> extends AbstractSet<E> implements Serializable {
+
+    private static final long serialVersionUID = 5398209468412719364L;
+
+    private final HashMap<E, E> elements = new HashMap<E, E>();
+    private final Element owner;
+
+    JournaledSet() {
+        this(null);
+    }
+
+    JournaledSet(Element owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elements.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return elements.containsKey(o);
+    }
+
+    @Override
+    public boolean add(final E e) {
+        if (elements.containsKey(e))
+            return false;
+        elements.put(e, e);
+        if (ChangeLog.isRecording())
+            ChangeLog.record(() -> elements.remove(e));
+        ChangeSet.touch(owner, e);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!elements.containsKey(o))
+            return false;
+        final E stored = elements.remove(o);
+        if (ChangeLog.isRecording())
+            ChangeLog.record(() -> elements.put(stored, stored));
+        ChangeSet.touch(owner, stored);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        if (ChangeSet.isRecording())
+            for (E e : elements.keySet())
+                ChangeSet.touch(owner, e);
+        if (ChangeLog.isRecording() && !elements.isEmpty()) {
+            final List<E> removed = new ArrayList<E>(elements.keySet());
+            ChangeLog.record(() -> {
+                for (E e : removed)
+                    elements.put(e, e);
+            });
+        }
+        elements.clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final Iterator<E> keys = elements.keySet().iterator();
+        return new Iterator<E>() {
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public E next() {
+                last = keys.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                keys.remove();
+                final E removed = last;
+                if (ChangeLog.isRecording())
+                    ChangeLog.record(() -> elements.put(removed, removed));
+                ChangeSet.touch(owner, removed);
+            }
+        };
+    }
+
+}
@@ -34,6 +34,14 @@ public class Method extends Element {
         setAbstract(isAbstract);
     }
 
+    Method(Method original, ArchitectureCopy copy) {
+        super(original, copy);
+        this.returnType = original.returnType;
+        this.isAbstract = original.isAbstract;
+        for (ParameterMethod parameter : original.parameters)
+            this.parameters.add(new ParameterMethod(parameter.getName(), parameter.getType(), parameter.getDirection()));
+    }
+
     private void setParams(List<ParameterMethod> paramsMethod) {
         if (paramsMethod != null)
             parameters.addAll(paramsMethod);
@@ -44,6 +52,8 @@ public class Method extends Element {
     }
 
     public void setAbstract(boolean isAbstract) {
+        final boolean previous = this.isAbstract;
+        ChangeLog.record(() -> this.isAbstract = previous);
         this.isAbstract = isAbstract;
     }
 
@@ -24,6 +24,7 @@ public class OperationsOverRelationships {
         association.getMemebersEnd().clear();
         association.getMemebersEnd().add(new MemberEnd("none", null, "public", member1));
         association.getMemebersEnd().add(new MemberEnd("none", null, "public", member2));
+        association.endpointsChanged();
     }
 
     public void moveDependency(DependencyRelationship dependency, Class client, Class supplier) {
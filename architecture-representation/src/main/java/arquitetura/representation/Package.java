@@ -1,7 +1,6 @@
 package arquitetura.representation;
 
 import arquitetura.helpers.UtilResources;
-import arquitetura.representation.relationship.RelationshiopCommons;
 import arquitetura.representation.relationship.Relationship;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -22,12 +21,13 @@ public class Package extends Element {
 
     private static final long serialVersionUID = -3080328928563871488L;
     static Logger LOGGER = LogManager.getLogger(Package.class.getName());
-    public Set<Package> nestedPackages = new HashSet<Package>();
-    private Set<Class> classes = new HashSet<Class>();
-    private Set<Interface> interfaces = new HashSet<Interface>();
-    private Set<Interface> implementedInterfaces = new HashSet<Interface>();
-    private Set<Interface> requiredInterfaces = new HashSet<Interface>();
+    public Set<Package> nestedPackages = new JournaledSet<Package>(this);
+    private Set<Class> classes = new JournaledSet<Class>(this);
+    private Set<Interface> interfaces = new JournaledSet<Interface>(this);
+    private Set<Interface> implementedInterfaces = new JournaledSet<Interface>(this);
+    private Set<Interface> requiredInterfaces = new JournaledSet<Interface>(this);
     private RelationshipsHolder relationshipHolder;
+    private long version = StructuralChanges.next();
 
     /**
      * Construtor Para um Elemento do Tipo Pacote
@@ -51,6 +51,16 @@ public class Package extends Element {
         this(relationshipHolder, name, null, UtilResources.createNamespace(ArchitectureHolder.getName(), name), id);
     }
 
+    Package(Package original, ArchitectureCopy copy) {
+        super(original, copy);
+        this.relationshipHolder = copy.holder(original.relationshipHolder);
+        copy.elements(original.nestedPackages, this.nestedPackages);
+        copy.elements(original.classes, this.classes);
+        copy.elements(original.interfaces, this.interfaces);
+        copy.elements(original.implementedInterfaces, this.implementedInterfaces);
+        copy.elements(original.requiredInterfaces, this.requiredInterfaces);
+    }
+
     /**
      * Retorna todas as {@link Interface}  do pacote.
      *
@@ -132,6 +142,7 @@ public class Package extends Element {
     public Class createClass(String className, boolean isAbstract) {
         Class c = new Class(getRelationshipHolder(), className, isAbstract, this.getName());
         this.classes.add(c);
+        structureChanged();
         return c;
     }
 
@@ -144,6 +155,7 @@ public class Package extends Element {
     public Interface createInterface(String name) {
         Interface inter = new Interface(getRelationshipHolder(), name, this);
         this.interfaces.add(inter);
+        structureChanged();
         return inter;
     }
 
@@ -156,6 +168,7 @@ public class Package extends Element {
     public Interface createInterface(String name, String id) {
         Interface inter = new Interface(getRelationshipHolder(), name, id, this);
         this.interfaces.add(inter);
+        structureChanged();
         return inter;
     }
 
@@ -190,6 +203,7 @@ public class Package extends Element {
     public void moveClassToPackage(Class klass, Package packageToMove) {
         packageToMove.addExternalClass(klass);
         this.classes.remove(klass);
+        structureChanged();
         updateNamespace(klass, packageToMove.getName());
     }
 
@@ -201,21 +215,25 @@ public class Package extends Element {
         if (!interfaces.contains(inter)) return false;
         packageToMove.addExternalInterface(inter);
         this.interfaces.remove(inter);
+        structureChanged();
         updateNamespace(inter, packageToMove.getName());
         return true;
     }
 
     public void addExternalClass(Class klass) {
-        classes.add(klass);
+        if (classes.add(klass))
+            structureChanged();
     }
 
     public void addExternalInterface(Interface inter) {
-        interfaces.add(inter);
+        if (interfaces.add(inter))
+            structureChanged();
     }
 
     public boolean removeClass(Element klass) {
         getRelationshipHolder().removeRelatedRelationships(klass);
         if (this.classes.remove(klass)) {
+            structureChanged();
             LOGGER.info("Classe: " + klass.getName() + " removida do pacote: " + this.getName());
             return true;
         }
@@ -226,6 +244,7 @@ public class Package extends Element {
         ((Interface) interfacee).removeInterfaceFromRequiredOrImplemented();
         getRelationshipHolder().removeRelatedRelationships(interfacee);
         if (this.interfaces.remove(interfacee)) {
+            structureChanged();
             LOGGER.info("Interface: " + interfacee.getName() + " removida do pacote: " + this.getName());
             return true;
         }
@@ -272,11 +291,13 @@ public class Package extends Element {
     public boolean removeOnlyElement(Element element) {
         if (element instanceof Class) {
             if (this.classes.remove(element)) {
+                structureChanged();
                 LOGGER.info("Classe: " + element.getName() + " removida do pacote: " + this.getName());
                 return true;
             }
         } else if (element instanceof Interface) {
             if (this.interfaces.remove(element)) {
+                structureChanged();
                 LOGGER.info("Interface: " + element.getName() + " removida do pacote: " + this.getName());
                 return true;
             }
@@ -285,6 +306,22 @@ public class Package extends Element {
         return false;
     }
 
+    /**
+     * Carimbo ({@link StructuralChanges}) da última alteração nas classes ou interfaces deste pacote.
+     *
+     * @return long
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private void structureChanged() {
+        version = StructuralChanges.next();
+        // desfazer a alteração pelo ChangeLog também muda o carimbo
+        if (ChangeLog.isRecording())
+            ChangeLog.record(() -> version = StructuralChanges.next());
+    }
+
     public RelationshipsHolder getRelationshipHolder() {
         return relationshipHolder;
     }
@@ -294,7 +331,7 @@ public class Package extends Element {
     }
 
     public Set<Relationship> getRelationships() {
-        return RelationshiopCommons.getRelationships(relationshipHolder.getRelationships(), this);
+        return relationshipHolder.getRelationships(this);
     }
 
 }
\ No newline at end of file
@@ -47,6 +47,7 @@ public class PatternsOperations {
     public void applyPattern(Patterns pattern) {
         if (!this.patternsStereotypes.contains(pattern.getName())) {
             this.patternsStereotypes.add(pattern.getName());
+            ChangeLog.record(() -> this.patternsStereotypes.remove(pattern.getName()));
 
             // joao
             //System.out.println("\n Classe architecture PatternsOperations - padroes sendo aplicado");
@@ -63,7 +64,10 @@ public class PatternsOperations {
     }
 
     public boolean removePattern(Patterns pattern) {
-        return this.patternsStereotypes.remove(pattern.getName());
+        boolean removed = this.patternsStereotypes.remove(pattern.getName());
+        if (removed)
+            ChangeLog.record(() -> this.patternsStereotypes.add(pattern.getName()));
+        return removed;
     }
 
 }
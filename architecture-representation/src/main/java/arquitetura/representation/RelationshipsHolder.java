@@ -8,11 +8,29 @@ import java.util.*;
 
 public class RelationshipsHolder {
 
-    private Set<Relationship> relationships = new HashSet<Relationship>();
+    private Set<Relationship> relationships = new JournaledSet<Relationship>();
 
+    /**
+     * Índice de adjacência por elemento, construído sob demanda.
+     * Descartado quando as pontas de algum relacionamento deste holder (ou o nome/namespace de um elemento
+     * envolvido) mudam: o índice se registra em cada objeto que usa (ver {@link IndexHolders}).
+     */
+    private transient RelationshipsIndex index;
+
+
+    public RelationshipsHolder() {
+    }
+
+    RelationshipsHolder(RelationshipsHolder original, ArchitectureCopy copy) {
+        copy.register(original, this);
+        for (Relationship relationship : original.relationships)
+            this.relationships.add(copy.relationship(relationship));
+    }
 
     public void clearLists() {
+        journalIndex();
         relationships.clear();
+        index = null;
     }
 
     public Set<Relationship> getRelationships() {
@@ -20,53 +38,101 @@ public class RelationshipsHolder {
     }
 
     public void setRelationships(Set<Relationship> rs) {
+        final Set<Relationship> previous = relationships;
+        ChangeLog.record(() -> {
+            relationships = previous;
+            index = null;
+        });
         relationships = rs;
+        index = null;
     }
 
     /**
-     * Dado um {@link Element} remove todos relacionamentos em que o elemento esteja envolvido
+     * Retorna o índice de adjacência, reconstruindo-o caso algum relacionamento ou elemento
+     * tenha sido alterado in-place desde a última construção.
+     */
+    private synchronized RelationshipsIndex index() {
+        if (index == null)
+            index = RelationshipsIndex.build(this, relationships);
+        return index;
+    }
+
+    /**
+     * Índice atual, se houver. Usado para manter o índice em add/remove sem forçar sua construção.
+     */
+    synchronized RelationshipsIndex currentIndex() {
+        return index;
+    }
+
+    /**
+     * Descarta o índice. Chamado quando um relacionamento ou elemento usado por ele é alterado in-place.
+     */
+    synchronized void invalidateIndex() {
+        index = null;
+    }
+
+    /**
+     * Desfazer a inclusão/remoção de um relacionamento pelo {@link ChangeLog} não passa pelo índice.
+     */
+    private void journalIndex() {
+        if (ChangeLog.isRecording())
+            ChangeLog.record(this::invalidateIndex);
+    }
+
+    /**
+     * Retorna todos os relacionamentos em que o {@link Element} está envolvido.
      *
      * @param element
+     * @return set imutavel com os relacionamentos
      */
-    public void removeRelatedRelationships(Element element) {
-        for (Iterator<Relationship> i = relationships.iterator(); i.hasNext(); ) {
-            Relationship r = i.next();
-            if (r instanceof GeneralizationRelationship) {
-                if (((GeneralizationRelationship) r).getParent().equals(element) || ((GeneralizationRelationship) r).getChild().equals(element)) {
-                    i.remove();
-                }
-            }
-            if (r instanceof RealizationRelationship) {
-                if (((RealizationRelationship) r).getClient().equals(element) || ((RealizationRelationship) r).getSupplier().equals(element)) {
-                    i.remove();
-                }
-            }
-            if (r instanceof DependencyRelationship) {
-                if (((DependencyRelationship) r).getClient().equals(element) || ((DependencyRelationship) r).getSupplier().equals(element)) {
-                    i.remove();
-                }
-            }
-            if (r instanceof AbstractionRelationship) {
-                if (((AbstractionRelationship) r).getClient().equals(element) || ((AbstractionRelationship) r).getSupplier().equals(element)) {
-                    i.remove();
-                }
-            }
-            if (r instanceof AssociationRelationship) {
-                for (AssociationEnd a : ((AssociationRelationship) r).getParticipants()) {
-                    if (a.getCLSClass().equals(element)) {
-                        i.remove();
-                    }
-                }
-            }
+    public Set<Relationship> getRelationships(Element element) {
+        return Collections.unmodifiableSet(index().relatedTo(element));
+    }
 
-            if (r instanceof AssociationClassRelationship) {
-                for (MemberEnd memberEnd : ((AssociationClassRelationship) r).getMemebersEnd()) {
-                    if (memberEnd.getType().equals(element)) {
-                        i.remove();
-                    }
+    /**
+     * Relacionamentos do tipo informado em que o elemento é a origem (child na generalização,
+     * client nos demais). Para associações, o elemento é um dos participantes.
+     *
+     * @param element
+     * @param kind    - tipo do relacionamento (ex: DependencyRelationship.class)
+     * @return set imutavel com os relacionamentos
+     */
+    public <T extends Relationship> Set<T> getOutgoingRelationships(Element element, java.lang.Class<T> kind) {
+        return snapshot(index().outgoing(element, kind), kind);
+    }
 
-                }
-            }
+    /**
+     * Relacionamentos do tipo informado em que o elemento é o destino (parent na generalização,
+     * supplier nos demais). Para associações, o elemento é um dos participantes.
+     *
+     * @param element
+     * @param kind    - tipo do relacionamento (ex: RealizationRelationship.class)
+     * @return set imutavel com os relacionamentos
+     */
+    public <T extends Relationship> Set<T> getIncomingRelationships(Element element, java.lang.Class<T> kind) {
+        return snapshot(index().incoming(element, kind), kind);
+    }
+
+    private static <T extends Relationship> Set<T> snapshot(Set<Relationship> relationships, java.lang.Class<T> kind) {
+        if (relationships.isEmpty())
+            return Collections.emptySet();
+        Set<T> typed = new HashSet<T>();
+        for (Relationship r : relationships)
+            typed.add(kind.cast(r));
+        return Collections.unmodifiableSet(typed);
+    }
+
+    /**
+     * Dado um {@link Element} remove todos relacionamentos em que o elemento esteja envolvido
+     * <p>
+     * Relacionamentos de uso ({@link UsageRelationship}) não são removidos.
+     *
+     * @param element
+     */
+    public void removeRelatedRelationships(Element element) {
+        for (Relationship r : index().relatedTo(element)) {
+            if (!(r instanceof UsageRelationship))
+                removeRelationship(r);
         }
     }
 
@@ -195,26 +261,28 @@ public class RelationshipsHolder {
 
     public boolean haveRelationship(Relationship relationship) {
         //Association
-        for (Relationship r : getAllRelationships()) {
-            if ((r instanceof AssociationRelationship) && (relationship instanceof AssociationRelationship)) {
-                final List<AssociationEnd> participantsNew = ((AssociationRelationship) relationship).getParticipants();
-                final List<AssociationEnd> participantsExists = ((AssociationRelationship) r).getParticipants();
-
-                if (participantsNew.equals(participantsExists))
-                    return true;
+        if (relationship instanceof AssociationRelationship) {
+            final List<AssociationEnd> participantsNew = ((AssociationRelationship) relationship).getParticipants();
+            for (Relationship r : candidatesFor(relationship, participantsNew.isEmpty() ? null : participantsNew.get(0).getCLSClass())) {
+                if (r instanceof AssociationRelationship) {
+                    final List<AssociationEnd> participantsExists = ((AssociationRelationship) r).getParticipants();
+
+                    if (participantsNew.equals(participantsExists))
+                        return true;
+                }
             }
         }
 
         if (relationship instanceof GeneralizationRelationship)
-            if (getAllGeneralizations().contains(relationship)) return true;
+            if (candidatesFor(relationship, ((GeneralizationRelationship) relationship).getChild()).contains(relationship)) return true;
         if (relationship instanceof DependencyRelationship)
-            if (getAllDependencies().contains(relationship)) return true;
+            if (candidatesFor(relationship, ((DependencyRelationship) relationship).getClient()).contains(relationship)) return true;
         if (relationship instanceof UsageRelationship)
-            if (getAllUsage().contains(relationship)) return true;
+            if (candidatesFor(relationship, ((UsageRelationship) relationship).getClient()).contains(relationship)) return true;
         if (relationship instanceof RealizationRelationship)
-            if (getAllRealizations().contains(relationship)) return true;
+            if (candidatesFor(relationship, ((RealizationRelationship) relationship).getClient()).contains(relationship)) return true;
         if (relationship instanceof AbstractionRelationship)
-            if (getAllAbstractions().contains(relationship)) return true;
+            if (candidatesFor(relationship, ((AbstractionRelationship) relationship).getClient()).contains(relationship)) return true;
         if (relationship instanceof AssociationClassRelationship)
             if (getAllAssociationsClass().contains(relationship)) return true;
 
@@ -222,13 +290,37 @@ public class RelationshipsHolder {
 
     }
 
+    /**
+     * Relacionamentos do mesmo tipo que saem de <code>source</code>. Como o equals dos relacionamentos
+     * compara as pontas, qualquer relacionamento igual ao informado está entre eles.
+     * Sem origem conhecida, retorna todos os relacionamentos.
+     */
+    private Collection<Relationship> candidatesFor(Relationship relationship, Element source) {
+        if (source == null)
+            return getRelationships();
+        return index().outgoing(source, relationship.getClass());
+    }
+
     public boolean removeRelationship(Relationship relation) {
-        return this.relationships.remove(relation);
+        RelationshipsIndex current = currentIndex();
+        if (this.relationships.remove(relation)) {
+            journalIndex();
+            if (current != null && !current.remove(relation))
+                invalidateIndex();
+            return true;
+        }
+        return false;
     }
 
     public boolean addRelationship(Relationship relationship) {
         if (!haveRelationship(relationship)) {
-            return this.relationships.add(relationship);
+            RelationshipsIndex current = currentIndex();
+            if (this.relationships.add(relationship)) {
+                journalIndex();
+                if (current != null)
+                    current.add(relationship);
+                return true;
+            }
         }
         return false;
     }
@@ -0,0 +1,160 @@
+package arquitetura.representation;
+
+import arquitetura.representation.relationship.*;
+
+import java.util.*;
+
+/**
+ * Índice de adjacência dos relacionamentos de um {@link RelationshipsHolder}.
+ * <p>
+ * Para cada tipo de relacionamento mantém, por elemento, os relacionamentos de saída
+ * (o elemento é child/client) e de entrada (o elemento é parent/supplier). Associações e
+ * AssociationClass não têm direção: cada participante é registrado nas duas direções.
+ * <p>
+ * Assim, recuperar os relacionamentos de um elemento custa O(grau) ao invés de percorrer
+ * todos os relacionamentos da arquitetura.
+ * <p>
+ * Cada relacionamento, ponta de associação e elemento indexado passa a avisar o holder dono do índice
+ * quando for alterado in-place.
+ */
+final class RelationshipsIndex {
+
+    private final RelationshipsHolder owner;
+    private final Map<java.lang.Class<?>, Map<Element, Set<Relationship>>> outgoing = new HashMap<>();
+    private final Map<java.lang.Class<?>, Map<Element, Set<Relationship>>> incoming = new HashMap<>();
+
+    private RelationshipsIndex(RelationshipsHolder owner) {
+        this.owner = owner;
+    }
+
+    static RelationshipsIndex build(RelationshipsHolder owner, Collection<Relationship> relationships) {
+        RelationshipsIndex index = new RelationshipsIndex(owner);
+        for (Relationship r : relationships)
+            index.add(r);
+        return index;
+    }
+
+    void add(Relationship relationship) {
+        relationship.getIndexHolders().add(owner);
+        visit(relationship, true);
+    }
+
+    /**
+     * @return false se alguma das entradas esperadas não estava no índice (o índice deve ser descartado)
+     */
+    boolean remove(Relationship relationship) {
+        return visit(relationship, false);
+    }
+
+    /**
+     * Todos os relacionamentos (de qualquer tipo e direção) em que o elemento está envolvido.
+     *
+     * @param element
+     * @return Set novo, pode ser alterado pelo chamador
+     */
+    Set<Relationship> relatedTo(Element element) {
+        Set<Relationship> related = new HashSet<>();
+        collect(outgoing, element, related);
+        collect(incoming, element, related);
+        return related;
+    }
+
+    Set<Relationship> outgoing(Element element, java.lang.Class<?> kind) {
+        return bucket(outgoing, kind, element);
+    }
+
+    Set<Relationship> incoming(Element element, java.lang.Class<?> kind) {
+        return bucket(incoming, kind, element);
+    }
+
+    private boolean visit(Relationship r, boolean adding) {
+        boolean consistent = true;
+        if (r instanceof GeneralizationRelationship) {
+            GeneralizationRelationship generalization = (GeneralizationRelationship) r;
+            consistent = link(r, generalization.getChild(), generalization.getParent(), adding);
+        } else if (r instanceof RealizationRelationship) {
+            RealizationRelationship realization = (RealizationRelationship) r;
+            consistent = link(r, realization.getClient(), realization.getSupplier(), adding);
+        } else if (r instanceof DependencyRelationship) {
+            DependencyRelationship dependency = (DependencyRelationship) r;
+            consistent = link(r, dependency.getClient(), dependency.getSupplier(), adding);
+        } else if (r instanceof UsageRelationship) {
+            UsageRelationship usage = (UsageRelationship) r;
+            consistent = link(r, usage.getClient(), usage.getSupplier(), adding);
+        } else if (r instanceof AbstractionRelationship) {
+            AbstractionRelationship abstraction = (AbstractionRelationship) r;
+            consistent = link(r, abstraction.getClient(), abstraction.getSupplier(), adding);
+        } else if (r instanceof AssociationRelationship) {
+            for (AssociationEnd end : ((AssociationRelationship) r).getParticipants()) {
+                if (adding)
+                    end.getIndexHolders().add(owner);
+                consistent &= link(r, end.getCLSClass(), end.getCLSClass(), adding);
+            }
+        } else if (r instanceof AssociationClassRelationship) {
+            for (MemberEnd memberEnd : ((AssociationClassRelationship) r).getMemebersEnd()) {
+                if (adding)
+                    memberEnd.getIndexHolders().add(owner);
+                consistent &= link(r, memberEnd.getType(), memberEnd.getType(), adding);
+            }
+        }
+        return consistent;
+    }
+
+    private boolean link(Relationship r, Element source, Element target, boolean adding) {
+        if (adding) {
+            if (source != null)
+                source.getIndexHolders().add(owner);
+            if (target != null)
+                target.getIndexHolders().add(owner);
+            put(outgoing, r, source);
+            put(incoming, r, target);
+            return true;
+        }
+        boolean removedOut = delete(outgoing, r, source);
+        boolean removedIn = delete(incoming, r, target);
+        return removedOut && removedIn;
+    }
+
+    private static void put(Map<java.lang.Class<?>, Map<Element, Set<Relationship>>> direction, Relationship r, Element element) {
+        if (element == null) return;
+        Map<Element, Set<Relationship>> byElement = direction.get(r.getClass());
+        if (byElement == null) {
+            byElement = new HashMap<>();
+            direction.put(r.getClass(), byElement);
+        }
+        Set<Relationship> relationships = byElement.get(element);
+        if (relationships == null) {
+            relationships = new HashSet<>();
+            byElement.put(element, relationships);
+        }
+        relationships.add(r);
+    }
+
+    private static boolean delete(Map<java.lang.Class<?>, Map<Element, Set<Relationship>>> direction, Relationship r, Element element) {
+        if (element == null) return true;
+        Map<Element, Set<Relationship>> byElement = direction.get(r.getClass());
+        if (byElement == null) return false;
+        Set<Relationship> relationships = byElement.get(element);
+        if (relationships == null || !relationships.remove(r))
+            return false;
+        if (relationships.isEmpty())
+            byElement.remove(element);
+        return true;
+    }
+
+    private static Set<Relationship> bucket(Map<java.lang.Class<?>, Map<Element, Set<Relationship>>> direction, java.lang.Class<?> kind, Element element) {
+        Map<Element, Set<Relationship>> byElement = direction.get(kind);
+        if (byElement == null) return Collections.emptySet();
+        Set<Relationship> relationships = byElement.get(element);
+        return relationships == null ? Collections.<Relationship>emptySet() : relationships;
+    }
+
+    private static void collect(Map<java.lang.Class<?>, Map<Element, Set<Relationship>>> direction, Element element, Set<Relationship> into) {
+        for (Map<Element, Set<Relationship>> byElement : direction.values()) {
+            Set<Relationship> relationships = byElement.get(element);
+            if (relationships != null)
+                into.addAll(relationships);
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package arquitetura.representation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sequência global usada para carimbar alterações estruturais em {@link Architecture} e {@link Package}.
+ * <p>
+ * Cada alteração recebe um valor maior que todos os anteriores. Assim, o maior carimbo entre os
+ * componentes de uma arquitetura muda sempre que qualquer um deles é alterado, e os índices
+ * e caches derivados podem ser descartados comparando um único long.
+ */
+public final class StructuralChanges {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private StructuralChanges() {
+    }
+
+    public static long next() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+}
@@ -58,6 +58,8 @@ public class Variant implements Stereotype {
      * @param rootVP the rootVP to set
      */
     public void setRootVP(String rootVP) {
+        final String previous = this.rootVP;
+        ChangeLog.record(() -> this.rootVP = previous);
         this.rootVP = rootVP;
     }
 
@@ -142,6 +144,8 @@ public class Variant implements Stereotype {
      * @param variantElement the variantElement to set
      */
     public void setVariantElement(Element variantElement) {
+        final Element previous = this.variantElement;
+        ChangeLog.record(() -> this.variantElement = previous);
         this.variantElement = variantElement;
     }
 
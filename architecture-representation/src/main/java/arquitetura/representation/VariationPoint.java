@@ -38,6 +38,14 @@ public class VariationPoint {
         this.bindingTime = bindingTime;
     }
 
+    VariationPoint(VariationPoint original, ArchitectureCopy copy) {
+        copy.register(original, this);
+        this.bindingTime = original.bindingTime;
+        this.variationPointElement = copy.element(original.variationPointElement);
+        this.variants = copy.variants(original.variants);
+        this.variabilities = copy.variabilities(original.variabilities);
+    }
+
     private boolean variationPointElementIsAInterfaceOrClass(Element variationPointElement) {
         return (variationPointElement instanceof Class) || (variationPointElement instanceof Interface);
     }
@@ -69,6 +77,8 @@ public class VariationPoint {
     }
 
     public void replaceVariationPointElement(Element newVPElement) {
+        final Element previous = this.variationPointElement;
+        ChangeLog.record(() -> this.variationPointElement = previous);
         this.variationPointElement = newVPElement;
     }
 
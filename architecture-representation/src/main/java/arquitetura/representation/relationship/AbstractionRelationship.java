@@ -1,6 +1,8 @@
 package arquitetura.representation.relationship;
 
 import arquitetura.helpers.ElementsTypes;
+import arquitetura.representation.ArchitectureCopy;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Element;
 
 /**
@@ -18,6 +20,12 @@ public class AbstractionRelationship extends Relationship {
         super.setType(ElementsTypes.ABSTRACTION);
     }
 
+    public AbstractionRelationship(AbstractionRelationship original, ArchitectureCopy copy) {
+        super(original);
+        this.client = copy.element(original.client);
+        this.supplier = copy.element(original.supplier);
+    }
+
     /**
      * @return the client
      */
@@ -29,6 +37,9 @@ public class AbstractionRelationship extends Relationship {
      * @param client the client to set
      */
     public void setClient(Element client) {
+        endpointReplaced(this.client, client);
+        final Element previous = this.client;
+        ChangeLog.record(() -> this.client = previous);
         this.client = client;
     }
 
@@ -43,6 +54,9 @@ public class AbstractionRelationship extends Relationship {
      * @param supplier the supplier to set
      */
     public void setSupplier(Element supplier) {
+        endpointReplaced(this.supplier, supplier);
+        final Element previous = this.supplier;
+        ChangeLog.record(() -> this.supplier = previous);
         this.supplier = supplier;
     }
 
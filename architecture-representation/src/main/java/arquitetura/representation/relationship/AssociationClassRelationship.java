@@ -40,6 +40,20 @@ public class AssociationClassRelationship extends Relationship {
     }
 
 
+    public AssociationClassRelationship(AssociationClassRelationship original, ArchitectureCopy copy) {
+        super(original);
+        this.idOwner = original.idOwner;
+        this.ownedEnd = copy.element(original.ownedEnd);
+        this.associationClass = copy.element(original.associationClass);
+        if (original.memebersEnd == null) {
+            this.memebersEnd = null;
+        } else {
+            this.memebersEnd = new ArrayList<MemberEnd>(original.memebersEnd.size());
+            for (MemberEnd memberEnd : original.memebersEnd)
+                this.memebersEnd.add(new MemberEnd(memberEnd, copy));
+        }
+    }
+
     /**
      * @return the attributes
      */
@@ -1,7 +1,10 @@
 package arquitetura.representation.relationship;
 
+import arquitetura.representation.ArchitectureCopy;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Class;
 import arquitetura.representation.Element;
+import arquitetura.representation.IndexHolders;
 
 import java.io.Serializable;
 
@@ -25,6 +28,7 @@ public class AssociationEnd implements Serializable {
     private String aggregation;
     private Multiplicity multiplicity;
     private String name;
+    private final IndexHolders indexHolders = new IndexHolders();
 
     public AssociationEnd(Element klass, boolean isNavigable, String aggregation, Multiplicity multiplicity, String name) {
         setCLSClass(klass);
@@ -37,11 +41,29 @@ public class AssociationEnd implements Serializable {
     public AssociationEnd() {
     }
 
+    public AssociationEnd(AssociationEnd original, ArchitectureCopy copy) {
+        this.klass = copy.element(original.klass);
+        this.isNavigable = original.isNavigable;
+        this.aggregation = original.aggregation;
+        this.multiplicity = original.multiplicity == null ? null : new Multiplicity(original.multiplicity);
+        this.name = original.name;
+    }
+
     public Element getCLSClass() {
         return klass;
     }
 
+    /**
+     * @return holders cujo índice de adjacência contém esta ponta
+     */
+    public IndexHolders getIndexHolders() {
+        return indexHolders;
+    }
+
     public void setCLSClass(Element c) {
+        Relationship.replaced(indexHolders, this.klass, c);
+        final Element previous = this.klass;
+        ChangeLog.record(() -> this.klass = previous);
         this.klass = c;
     }
 
@@ -97,6 +119,8 @@ public class AssociationEnd implements Serializable {
     }
 
     public void setMultiplicity(Multiplicity multiplicity) {
+        final Multiplicity previous = this.multiplicity;
+        ChangeLog.record(() -> this.multiplicity = previous);
         this.multiplicity = multiplicity;
     }
 
@@ -109,6 +133,8 @@ public class AssociationEnd implements Serializable {
     }
 
     public void setAggregation(String aggregation) {
+        final String previous = this.aggregation;
+        ChangeLog.record(() -> this.aggregation = previous);
         this.aggregation = aggregation;
     }
 
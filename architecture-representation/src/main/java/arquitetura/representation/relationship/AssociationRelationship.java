@@ -2,6 +2,7 @@ package arquitetura.representation.relationship;
 
 import arquitetura.helpers.ElementsTypes;
 import arquitetura.helpers.UtilResources;
+import arquitetura.representation.ArchitectureCopy;
 import arquitetura.representation.Element;
 
 import java.util.ArrayList;
@@ -28,6 +29,12 @@ public class AssociationRelationship extends Relationship {
 
     }
 
+    public AssociationRelationship(AssociationRelationship original, ArchitectureCopy copy) {
+        super(original);
+        for (AssociationEnd participant : original.participants)
+            this.participants.add(new AssociationEnd(participant, copy));
+    }
+
     public List<AssociationEnd> getParticipants() {
         return participants;
     }
@@ -3,6 +3,8 @@ package arquitetura.representation.relationship;
 import arquitetura.exceptions.NotFoundException;
 import arquitetura.helpers.ElementsTypes;
 import arquitetura.helpers.UtilResources;
+import arquitetura.representation.ArchitectureCopy;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Class;
 import arquitetura.representation.Element;
 import arquitetura.representation.Interface;
@@ -49,6 +51,16 @@ public class DependencyRelationship extends Relationship {
         setRequiredInterfaces(supplier, client);
     }
 
+    /**
+     * Construtor de cópia: não altera as interfaces requeridas do cliente, que já são copiadas com ele.
+     */
+    public DependencyRelationship(DependencyRelationship original, ArchitectureCopy copy) {
+        super(original);
+        this.name = original.name;
+        this.client = copy.element(original.client);
+        this.supplier = copy.element(original.supplier);
+    }
+
     /**
      * Retorna o {@link Package}
      *
@@ -84,6 +96,9 @@ public class DependencyRelationship extends Relationship {
     }
 
     public void setClient(Element client) {
+        endpointReplaced(this.client, client);
+        final Element previous = this.client;
+        ChangeLog.record(() -> this.client = previous);
         this.client = client;
     }
 
@@ -92,6 +107,9 @@ public class DependencyRelationship extends Relationship {
     }
 
     public void setSupplier(Element supplier) {
+        endpointReplaced(this.supplier, supplier);
+        final Element previous = this.supplier;
+        ChangeLog.record(() -> this.supplier = previous);
         this.supplier = supplier;
     }
 
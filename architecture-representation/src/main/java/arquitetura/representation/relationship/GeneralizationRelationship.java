@@ -2,6 +2,8 @@ package arquitetura.representation.relationship;
 
 import arquitetura.helpers.ElementsTypes;
 import arquitetura.helpers.UtilResources;
+import arquitetura.representation.ArchitectureCopy;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Class;
 import arquitetura.representation.Element;
 import arquitetura.representation.RelationshipsHolder;
@@ -35,6 +37,13 @@ public class GeneralizationRelationship extends Relationship {
         super.setType(ElementsTypes.GENERALIZATION);
     }
 
+    public GeneralizationRelationship(GeneralizationRelationship original, ArchitectureCopy copy) {
+        super(original);
+        this.parent = copy.element(original.parent);
+        this.child = copy.element(original.child);
+        this.relationshipHolder = copy.holder(original.relationshipHolder);
+    }
+
     /**
      * @return the child
      */
@@ -46,6 +55,9 @@ public class GeneralizationRelationship extends Relationship {
      * @param child the child to set
      */
     public void setChild(Element child) {
+        endpointReplaced(this.child, child);
+        final Element previous = this.child;
+        ChangeLog.record(() -> this.child = previous);
         this.child = child;
     }
 
@@ -54,6 +66,9 @@ public class GeneralizationRelationship extends Relationship {
     }
 
     public void setParent(Element parent) {
+        endpointReplaced(this.parent, parent);
+        final Element previous = this.parent;
+        ChangeLog.record(() -> this.parent = previous);
         this.parent = parent;
     }
 
@@ -73,7 +88,7 @@ public class GeneralizationRelationship extends Relationship {
     }
 
     public void replaceChild(Class newChild) {
-        this.child = newChild;
+        setChild(newChild);
     }
 
     public void replaceParent(Class parent) {
@@ -1,6 +1,9 @@
 package arquitetura.representation.relationship;
 
+import arquitetura.representation.ArchitectureCopy;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Element;
+import arquitetura.representation.IndexHolders;
 
 import java.io.Serializable;
 
@@ -21,6 +24,7 @@ public class MemberEnd implements Serializable {
     private Multiplicity multiplicity;
     private String visibility;
     private Element type;
+    private final IndexHolders indexHolders = new IndexHolders();
 
     public MemberEnd(String aggregation, Multiplicity multiplicity, String visibility, Element type) {
         super();
@@ -30,6 +34,13 @@ public class MemberEnd implements Serializable {
         this.type = type;
     }
 
+    public MemberEnd(MemberEnd original, ArchitectureCopy copy) {
+        this.aggregation = original.aggregation;
+        this.multiplicity = original.multiplicity == null ? null : new Multiplicity(original.multiplicity);
+        this.visibility = original.visibility;
+        this.type = copy.element(original.type);
+    }
+
     public String getAggregation() {
         return aggregation;
     }
@@ -58,7 +69,17 @@ public class MemberEnd implements Serializable {
         return type;
     }
 
+    /**
+     * @return holders cujo índice de adjacência contém esta ponta
+     */
+    public IndexHolders getIndexHolders() {
+        return indexHolders;
+    }
+
     public void setType(Element type) {
+        Relationship.replaced(indexHolders, this.type, type);
+        final Element previous = this.type;
+        ChangeLog.record(() -> this.type = previous);
         this.type = type;
     }
 
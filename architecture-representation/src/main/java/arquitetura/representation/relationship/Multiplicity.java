@@ -23,6 +23,10 @@ public class Multiplicity implements Serializable {
         this.upperValue = upperValue;
     }
 
+    public Multiplicity(Multiplicity original) {
+        this(original.lowerValue, original.upperValue);
+    }
+
     public String getLowerValue() {
         return lowerValue == null ? "1" : lowerValue;
     }
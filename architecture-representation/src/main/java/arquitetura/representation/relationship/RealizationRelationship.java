@@ -1,6 +1,8 @@
 package arquitetura.representation.relationship;
 
 import arquitetura.helpers.ElementsTypes;
+import arquitetura.representation.ArchitectureCopy;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Class;
 import arquitetura.representation.Element;
 import arquitetura.representation.Interface;
@@ -30,6 +32,12 @@ public class RealizationRelationship extends Relationship {
         }
     }
 
+    public RealizationRelationship(RealizationRelationship original, ArchitectureCopy copy) {
+        super(original);
+        this.client = copy.element(original.client);
+        this.supplier = copy.element(original.supplier);
+    }
+
     /**
      * @return the client
      */
@@ -42,6 +50,9 @@ public class RealizationRelationship extends Relationship {
      * @param client the client to set
      */
     public void setClient(Element client) {
+        endpointReplaced(this.client, client);
+        final Element previous = this.client;
+        ChangeLog.record(() -> this.client = previous);
         this.client = client;
     }
 
@@ -58,6 +69,9 @@ public class RealizationRelationship extends Relationship {
      * @param supplier the supplier to set
      */
     public void setSupplier(Element supplier) {
+        endpointReplaced(this.supplier, supplier);
+        final Element previous = this.supplier;
+        ChangeLog.record(() -> this.supplier = previous);
         this.supplier = supplier;
     }
 
@@ -1,5 +1,8 @@
 package arquitetura.representation.relationship;
 
+import arquitetura.representation.ChangeLog;
+import arquitetura.representation.IndexHolders;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -13,6 +16,12 @@ import java.util.List;
  */
 public abstract class Relationship {
 
+    /**
+     * Holders cujo índice de adjacência contém este relacionamento. Avisados quando as pontas (cliente,
+     * fornecedor, participantes...) são trocadas, já que os operadores alteram os relacionamentos diretamente.
+     */
+    private final IndexHolders indexHolders = new IndexHolders();
+
     private String id;
     private String type;
     private String name;
@@ -24,6 +33,20 @@ public abstract class Relationship {
      */
     private List<String> stereotypes = new ArrayList<String>();
 
+    protected Relationship() {
+    }
+
+    /**
+     * Construtor de cópia usado por {@link arquitetura.representation.ArchitectureCopy}.
+     * Copia somente os campos comuns; as pontas são copiadas pelas subclasses.
+     */
+    protected Relationship(Relationship original) {
+        this.id = original.id;
+        this.type = original.type;
+        this.name = original.name;
+        this.stereotypes = original.stereotypes == null ? null : new ArrayList<String>(original.stereotypes);
+    }
+
     /**
      * @return the id
      */
@@ -35,6 +58,7 @@ public abstract class Relationship {
      * @param id the id to set
      */
     public void setId(String id) {
+        endpointReplaced(this.id, id);
         this.id = id;
     }
 
@@ -113,4 +137,37 @@ public abstract class Relationship {
         return true;
     }
 
-}
\ No newline at end of file
+    /**
+     * @return holders cujo índice de adjacência contém este relacionamento
+     */
+    public IndexHolders getIndexHolders() {
+        return indexHolders;
+    }
+
+    /**
+     * Deve ser chamado sempre que as pontas do relacionamento forem alteradas in-place sem passar pelos setters.
+     */
+    public void endpointsChanged() {
+        indexHolders.changed();
+    }
+
+    /**
+     * Marca alteração somente quando um valor já atribuído é substituído por outro.
+     * Atribuições feitas durante a construção do objeto não invalidam nenhum índice.
+     */
+    protected void endpointReplaced(Object old, Object replacement) {
+        replaced(indexHolders, old, replacement);
+    }
+
+    /**
+     * Avisa os holders quando uma ponta já atribuída é substituída, e de novo se a troca for desfeita
+     * pelo {@link ChangeLog}.
+     */
+    static void replaced(final IndexHolders holders, Object old, Object replacement) {
+        if (old != null && !old.equals(replacement)) {
+            holders.changed();
+            ChangeLog.record(holders::changed);
+        }
+    }
+
+}
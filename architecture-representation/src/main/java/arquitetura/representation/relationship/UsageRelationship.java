@@ -2,6 +2,8 @@ package arquitetura.representation.relationship;
 
 import arquitetura.helpers.ElementsTypes;
 import arquitetura.helpers.UtilResources;
+import arquitetura.representation.ArchitectureCopy;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Class;
 import arquitetura.representation.Element;
 
@@ -31,6 +33,13 @@ public class UsageRelationship extends Relationship {
         super.setType(ElementsTypes.USAGE);
     }
 
+    public UsageRelationship(UsageRelationship original, ArchitectureCopy copy) {
+        super(original);
+        this.name = original.name;
+        this.supplier = copy.element(original.supplier);
+        this.client = copy.element(original.client);
+    }
+
     public String getName() {
         return name;
     }
@@ -44,6 +53,9 @@ public class UsageRelationship extends Relationship {
     }
 
     public void setSupplier(Element supplier) {
+        endpointReplaced(this.supplier, supplier);
+        final Element previous = this.supplier;
+        ChangeLog.record(() -> this.supplier = previous);
         this.supplier = supplier;
     }
 
@@ -52,6 +64,9 @@ public class UsageRelationship extends Relationship {
     }
 
     public void setClient(Element client) {
+        endpointReplaced(this.client, client);
+        final Element previous = this.client;
+        ChangeLog.record(() -> this.client = previous);
         this.client = client;
     }
 
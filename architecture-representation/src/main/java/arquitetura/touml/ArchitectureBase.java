@@ -3,6 +3,7 @@ package arquitetura.touml;
 import arquitetura.exceptions.ModelIncompleteException;
 import arquitetura.exceptions.ModelNotFoundException;
 import arquitetura.exceptions.SMartyProfileNotAppliedToModelExcepetion;
+import arquitetura.io.ExportContext;
 
 /**
  * @author edipofederle<edipofederle@gmail.com>
@@ -14,4 +15,8 @@ public abstract class ArchitectureBase {
         return documentManager;
     }
 
+    public static DocumentManager givenADocument(String outputModelName, ExportContext context) throws ModelNotFoundException, ModelIncompleteException, SMartyProfileNotAppliedToModelExcepetion {
+        return new DocumentManager(outputModelName, context);
+    }
+
 }
@@ -1,8 +1,9 @@
 package arquitetura.touml;
 
 import arquitetura.exceptions.*;
+import arquitetura.helpers.DocumentIndex;
 import arquitetura.helpers.XmiHelper;
-import arquitetura.io.CopyFile;
+import arquitetura.io.ExportContext;
 import arquitetura.io.ReaderConfig;
 import arquitetura.io.SaveAndMove;
 import org.apache.log4j.LogManager;
@@ -20,10 +21,8 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author edipofederle<edipofederle@gmail.com>
@@ -31,15 +30,36 @@ import java.nio.file.StandardCopyOption;
 public class DocumentManager extends XmiHelper {
 
     static Logger LOGGER = LogManager.getLogger(DocumentManager.class.getName());
-    private final String BASE_DOCUMENT = "simples";
+    private static final String BASE_DOCUMENT = "simples";
+    /**
+     * Modelo vazio (notation, uml e di) por diretório de templates. Os arquivos são lidos uma vez por JVM e
+     * cada DocumentManager trabalha sobre uma cópia em memória deles.
+     */
+    private static final Map<String, Document[]> TEMPLATES = new ConcurrentHashMap<String, Document[]>();
+    /**
+     * Ids e nsURI lidos do perfil de concerns, por caminho do perfil.
+     */
+    private static final Map<String, String[]> CONCERNS_PROFILE_REFS = new ConcurrentHashMap<String, String[]>();
     private org.w3c.dom.Document docUml;
     private org.w3c.dom.Document docNotation;
     private org.w3c.dom.Document docDi;
     private String outputModelName;
+    private final ExportContext context;
+    private Exception saveError;
 
     public DocumentManager(String outputModelName) throws ModelNotFoundException, ModelIncompleteException {
+        this(outputModelName, ExportContext.fromConfig());
+    }
+
+    /**
+     * @param outputModelName - nome dos arquivos exportados (sem extensão)
+     * @param context         - diretórios onde o modelo é gravado; cada exportação concorrente deve usar o seu
+     * @throws ModelNotFoundException
+     * @throws ModelIncompleteException
+     */
+    public DocumentManager(String outputModelName, ExportContext context) throws ModelNotFoundException, ModelIncompleteException {
         this.outputModelName = outputModelName;
-        makeACopy(BASE_DOCUMENT);
+        this.context = context;
         createXMIDocument();
 
         updateProfilesRefs();
@@ -51,16 +71,8 @@ public class DocumentManager extends XmiHelper {
     private void copyProfilesToDestination() {
 
         try {
-            createResourcesDirectoryIfNotExist();
-
             if (ReaderConfig.hasSmartyProfile()) {
-                String pathSmarty = ReaderConfig.getPathToProfileSMarty();
-                final File sourceFileSmarty = new File(pathSmarty);
-                /*final File destFileSmarty = new File(ReaderConfig.getDirExportTarget()
-                        + "/resources/smarty.profile.uml");*/
-                Path destFileSmarty = Paths.get(ReaderConfig.getDirExportTarget(), "resources", "smarty.profile.uml");
-                Files.createDirectories(destFileSmarty.getParent());
-                Files.copy(sourceFileSmarty.toPath(), destFileSmarty, StandardCopyOption.REPLACE_EXISTING);
+                context.copyProfile(ReaderConfig.getPathToProfileSMarty(), "smarty.profile.uml");
             } else {
                 // Caso perfil não esteja setado remove do arquivo de tempalte
                 XmiHelper.removeNode(docUml, "profileApplication", "_2RlssY9OEeO5xq3Ur4qgFw"); // id
@@ -72,12 +84,7 @@ public class DocumentManager extends XmiHelper {
             }
 
             if (ReaderConfig.hasConcernsProfile()) {
-                String pathConcern = ReaderConfig.getPathToProfileConcerns();
-                final File sourceFileConcern = new File(pathConcern);
-                final File destFileConcern = new File(ReaderConfig.getDirExportTarget()
-                        + "/resources/concerns.profile.uml");
-                Files.copy(sourceFileConcern.toPath(), destFileConcern.toPath(),
-                        StandardCopyOption.REPLACE_EXISTING);
+                context.copyProfile(ReaderConfig.getPathToProfileConcerns(), "concerns.profile.uml");
             } else {
                 // Caso perfil não esteja setado remove do arquivo de tempalte
                 XmiHelper.removeNode(docUml, "profileApplication", "_2Q2s4I9OEeO5xq3Ur4qgFw"); // id
@@ -89,27 +96,14 @@ public class DocumentManager extends XmiHelper {
             }
 
             if (ReaderConfig.hasRelationsShipProfile()) {
-                String pathToProfileRelationships = ReaderConfig.getPathToProfileRelationships();
-                final File sourceFileRelationships = new File(pathToProfileRelationships);
-                final File destFileRelationship = new File(ReaderConfig.getDirExportTarget()
-                        + "/resources/relationships.profile.uml"); // id setado
-                // no arquivo
-                // de
-                // template
-                Files.copy(sourceFileRelationships.toPath(), destFileRelationship.toPath(),
-                        StandardCopyOption.REPLACE_EXISTING);
+                context.copyProfile(ReaderConfig.getPathToProfileRelationships(), "relationships.profile.uml");
             } else {
                 // Caso perfil não esteja setado remove do arquivo de tempalte
                 XmiHelper.removeNode(docUml, "profileApplication", "_2RXDMI9OEeO5xq3Ur4qgFw");
             }
 
             if (ReaderConfig.hasPatternsProfile()) {
-                final File destFileRelationship = new File(ReaderConfig.getDirExportTarget()
-                        + "/resources/patterns.profile.uml"); // id setado no
-                // arquivo de
-                // template
-                Files.copy(Paths.get(ReaderConfig.getPathToProfilePatterns()), destFileRelationship.toPath(),
-                        StandardCopyOption.REPLACE_EXISTING);
+                context.copyProfile(ReaderConfig.getPathToProfilePatterns(), "patterns.profile.uml");
             } else {
                 // Caso perfil não esteja setado remove do arquivo de tempalte
                 XmiHelper.removeNode(docUml, "profileApplication", "_cyBBIJJmEeOENZsdUoZvrw");
@@ -122,84 +116,52 @@ public class DocumentManager extends XmiHelper {
 
     }
 
-    private void createResourcesDirectoryIfNotExist() {
-        File resourcesDir = new File(ReaderConfig.getDirExportTarget() + "/resources/");
-        if (!resourcesDir.exists())
-            resourcesDir.mkdir();
-    }
-
+    /**
+     * Cria os documentos do novo modelo como cópias em memória (<code>cloneNode(true)</code>) do modelo vazio,
+     * sem copiar nem ler novamente os arquivos de template.
+     */
     private void createXMIDocument() {
-        DocumentBuilderFactory docBuilderFactoryNotation = DocumentBuilderFactory.newInstance();
-        DocumentBuilder docBuilderNotation = null;
-        DocumentBuilder docBuilderUml = null;
-
-        try {
-            docBuilderNotation = docBuilderFactoryNotation.newDocumentBuilder();
-            DocumentBuilderFactory docBuilderFactoryUml = DocumentBuilderFactory.newInstance();
-            docBuilderUml = docBuilderFactoryUml.newDocumentBuilder();
-
-        } catch (ParserConfigurationException e) {
-            e.printStackTrace();
-        }
+        Document[] template = TEMPLATES.computeIfAbsent(ReaderConfig.getPathToTemplateModelsDirectory(),
+                DocumentManager::parseTemplate);
+        if (template == null)
+            return;
 
-        try {
-            this.docNotation = docBuilderNotation.parse(ReaderConfig.getDirTarget() + BASE_DOCUMENT + ".notation");
-            this.docUml = docBuilderUml.parse(ReaderConfig.getDirTarget() + BASE_DOCUMENT + ".uml");
-            this.docDi = docBuilderUml.parse(ReaderConfig.getDirTarget() + BASE_DOCUMENT + ".di");
-        } catch (SAXException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
+        // A leitura de um documento do Xerces pode alterá-lo (expansão tardia dos nós), por isso as cópias
+        // do mesmo template não são feitas ao mesmo tempo.
+        synchronized (template) {
+            this.docNotation = (Document) template[0].cloneNode(true);
+            this.docUml = (Document) template[1].cloneNode(true);
+            this.docDi = (Document) template[2].cloneNode(true);
         }
+        DocumentIndex.index(this.docNotation);
+        DocumentIndex.index(this.docUml);
     }
 
     /**
-     * Realiza um cópia dos três arquivos para o diretório <b>manipulation</b>.
-     * <p>
-     * Esse diretório deve ser setado no arquivo de configuração
-     * <b>application.yml</b> na propriedade "directoryToSaveModels".
+     * Lê os três arquivos vazios usados para geração da nova arquitetura.
      *
-     * @param modelName
-     * @throws ModelIncompleteException
-     * @throws ModelNotFoundException
-     * @throws SMartyProfileNotAppliedToModelExcepetion
-     * @throws IOException
+     * @param templatesDirectory - diretório configurado em pathToTemplateModelsDirectory
+     * @return notation, uml e di, ou null se os arquivos não puderem ser lidos
      */
-    private void makeACopy(String modelName) throws ModelNotFoundException, ModelIncompleteException {
-
-        LOGGER.info("makeACopy(String modelName) - Enter");
-
-        // Verifica se o diretorio configurado em directoryToSaveModels existe.
-        // caso nao exista, o cria.
-        File temp = new File(ReaderConfig.getDirTarget());
-        if (!temp.exists())
-            temp.mkdirs();
-
-        String notationCopy = ReaderConfig.getDirTarget() + BASE_DOCUMENT + ".notation";
-        String umlCopy = ReaderConfig.getDirTarget() + BASE_DOCUMENT + ".uml";
-        String diCopy = ReaderConfig.getDirTarget() + BASE_DOCUMENT + ".di";
-
-        URL n = null;
-        URL u = null;
-        URL d = null;
+    private static Document[] parseTemplate(String templatesDirectory) {
         try {
-            URL baseUrl = new URL("file:" + ReaderConfig.getPathToTemplateModelsDirectory());
-            // Arquivos vazios usados para geração da nova arquitetura
-            n = new URL(baseUrl, modelName + ".notation");
-            u = new URL(baseUrl, modelName + ".uml");
-            d = new URL(baseUrl, modelName + ".di");
+            URL baseUrl = new URL("file:" + templatesDirectory);
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            return new Document[]{
+                    builder.parse(new File(new URL(baseUrl, BASE_DOCUMENT + ".notation").getPath())),
+                    builder.parse(new File(new URL(baseUrl, BASE_DOCUMENT + ".uml").getPath())),
+                    builder.parse(new File(new URL(baseUrl, BASE_DOCUMENT + ".di").getPath()))};
         } catch (MalformedURLException e) {
-            LOGGER.error("makeACopy(String modelName) - Could not find template files directory: "
-                    + ReaderConfig.getPathToTemplateModelsDirectory());
-            return;
+            LOGGER.error("parseTemplate(String templatesDirectory) - Could not find template files directory: "
+                    + templatesDirectory);
+        } catch (ParserConfigurationException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-
-        CopyFile.copyFile(new File(n.getPath()), new File(notationCopy));
-        CopyFile.copyFile(new File(u.getPath()), new File(umlCopy));
-        CopyFile.copyFile(new File(d.getPath()), new File(diCopy));
-
-        LOGGER.info("makeACopy(String modelName) - Exit");
-
+        return null;
     }
 
     // private void copyFileToDest(String notationCopy, InputStream n1) {
@@ -237,14 +199,23 @@ public class DocumentManager extends XmiHelper {
         this.outputModelName = newModelName;
 
         try {
-            SaveAndMove.saveAndMove(docNotation, docUml, docDi, BASE_DOCUMENT, newModelName);
-        } catch (TransformerException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
+            SaveAndMove.saveAndMove(docNotation, docUml, docDi, newModelName, context);
+            saveError = null;
+        } catch (TransformerException | IOException e) {
+            if (saveError == null)
+                LOGGER.warn("Cannot save architecture " + newModelName + ": " + e.getMessage());
+            saveError = e;
         }
     }
 
+    /**
+     * @return o erro da última gravação dos arquivos, ou null se ela deu certo. Cada gravação reescreve os
+     * arquivos inteiros, então só a última importa.
+     */
+    public Exception getSaveError() {
+        return saveError;
+    }
+
     public String getModelName() {
         return BASE_DOCUMENT;
     }
@@ -253,6 +224,10 @@ public class DocumentManager extends XmiHelper {
         return this.outputModelName;
     }
 
+    public ExportContext getExportContext() {
+        return context;
+    }
+
     /**
      * Esse método é responsável por atualizar as referencias aos profiles
      * (definidos no arquivo application.yml) que são usados no modelo.
@@ -275,29 +250,25 @@ public class DocumentManager extends XmiHelper {
         DocumentBuilderFactory factorySmarty = DocumentBuilderFactory.newInstance();
         DocumentBuilder profileSmarty = null;
 
-        DocumentBuilderFactory factoryConcern = DocumentBuilderFactory.newInstance();
-        DocumentBuilder profileConcern = null;
-
         DocumentBuilderFactory factoryRelationships = DocumentBuilderFactory.newInstance();
         DocumentBuilder profileRelationships = null;
 
         try {
 
             if (ReaderConfig.hasConcernsProfile()) {
-                profileConcern = factoryConcern.newDocumentBuilder();
-                final Document docConcern = profileConcern.parse(pathToProfileConcern);
+                final String[] refsConcern = concernsProfileRefs(pathToProfileConcern);
 
-                updateHrefAtt(getIdOnNode(docConcern, "contents", "xmi:id"), "concerns", "appliedProfile", false);
-                updateHrefAtt(getIdOnNode(docConcern, "uml:Profile", "xmi:id"), "concerns", "appliedProfile", true);
+                updateHrefAtt(refsConcern[0], "concerns", "appliedProfile", false);
+                updateHrefAtt(refsConcern[1], "concerns", "appliedProfile", true);
 
-                final String nsUriPerfilConcern = getIdOnNode(docConcern, "contents", "nsURI");
+                final String nsUriPerfilConcern = refsConcern[2];
                 arquitetura.touml.Document.executeTransformation(this, new Transformation() {
                     public void useTransformation() {
                         Node xmlsnsConcern = docUml.getElementsByTagName("xmi:XMI").item(0).getAttributes()
                                 .getNamedItem("xmlns:concerns");
                         xmlsnsConcern.setNodeValue(nsUriPerfilConcern);
                         String concernLocaltionSchema = nsUriPerfilConcern + " " + "resources/concerns.profile.uml#"
-                                + getIdOnNode(docConcern, "contents", "xmi:id");
+                                + refsConcern[0];
 
                         Node nodeSchemaLocation = docUml.getElementsByTagName("xmi:XMI").item(0).getAttributes()
                                 .getNamedItem("xsi:schemaLocation");
@@ -359,6 +330,22 @@ public class DocumentManager extends XmiHelper {
 
     }
 
+    /**
+     * Lê do perfil de concerns o xmi:id de contents, o xmi:id de uml:Profile e o nsURI de contents. O perfil é
+     * lido uma vez por caminho.
+     */
+    private String[] concernsProfileRefs(String pathToProfileConcern)
+            throws ParserConfigurationException, SAXException, IOException {
+        String[] refs = CONCERNS_PROFILE_REFS.get(pathToProfileConcern);
+        if (refs == null) {
+            Document docConcern = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(pathToProfileConcern);
+            refs = new String[]{getIdOnNode(docConcern, "contents", "xmi:id"),
+                    getIdOnNode(docConcern, "uml:Profile", "xmi:id"), getIdOnNode(docConcern, "contents", "nsURI")};
+            CONCERNS_PROFILE_REFS.put(pathToProfileConcern, refs);
+        }
+        return refs;
+    }
+
     private void updateHrefAtt(final String idApplied, final String profileName, final String tagName,
                                final boolean updateReference) {
         arquitetura.touml.Document.executeTransformation(this, new Transformation() {
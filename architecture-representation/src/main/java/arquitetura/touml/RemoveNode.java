@@ -4,9 +4,7 @@ import arquitetura.helpers.XmiHelper;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 /**
  * @author edipofederle<edipofederle@gmail.com>
@@ -64,16 +62,11 @@ public class RemoveNode extends XmiHelper {
     }
 
     private void removeNodeFromUmlFile(String idMethodToRemove, String idClass, String typeElement) {
-        NodeList umlNOde = this.docUml.getElementsByTagName("packagedElement");
+        Node klass = findByID(this.docUml, idClass, "packagedElement");
         Node element = findByID(this.docUml, idMethodToRemove, typeElement);
-        for (int i = 0; i < umlNOde.getLength(); i++) {
-            NamedNodeMap attributes = umlNOde.item(i).getAttributes();
-            for (int j = 0; j < attributes.getLength(); j++) {
-                String valueAttribute = attributes.item(j).getNodeValue();
-                if (idClass.equalsIgnoreCase(valueAttribute))
-                    umlNOde.item(i).removeChild(element);
-            }
-        }
+        // como na busca antiga, uma classe que não está no .uml não é erro
+        if (klass != null)
+            klass.removeChild(element);
     }
 
     private void removeNodeFromNotationFile(String id) {
@@ -0,0 +1,1400 @@
+package arquitetura.touml;
+
+import arquitetura.helpers.Strings;
+import arquitetura.helpers.UtilResources;
+import arquitetura.helpers.XmiHelper;
+import arquitetura.io.ExportContext;
+import arquitetura.io.ReaderConfig;
+import arquitetura.representation.Architecture;
+import arquitetura.representation.Attribute;
+import arquitetura.representation.Class;
+import arquitetura.representation.Concern;
+import arquitetura.representation.Element;
+import arquitetura.representation.Interface;
+import arquitetura.representation.Method;
+import arquitetura.representation.Package;
+import arquitetura.representation.ParameterMethod;
+import arquitetura.representation.Variability;
+import arquitetura.representation.Variant;
+import arquitetura.representation.VariationPoint;
+import arquitetura.representation.relationship.AbstractionRelationship;
+import arquitetura.representation.relationship.AssociationClassRelationship;
+import arquitetura.representation.relationship.AssociationEnd;
+import arquitetura.representation.relationship.AssociationRelationship;
+import arquitetura.representation.relationship.DependencyRelationship;
+import arquitetura.representation.relationship.GeneralizationRelationship;
+import arquitetura.representation.relationship.RealizationRelationship;
+import arquitetura.representation.relationship.UsageRelationship;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gera os arquivos .uml, .notation e .di de uma arquitetura escrevendo o XMI direto com um
+ * {@link XMLStreamWriter}: os arquivos de template não são copiados nem relidos e nenhum documento DOM é
+ * montado.
+ * <p>
+ * O conteúdo é o mesmo gerado pelo {@link main.GenerateArchitecture} com o {@link DocumentManager} e os
+ * *Operations deste pacote: os mesmos elementos, na mesma ordem, com os atributos em ordem alfabética como o
+ * DOM os serializa e indentação de 2 espaços. O cabeçalho dos três arquivos é o de filesTemplates/simples.*.
+ * Os ids novos são aleatórios nos dois geradores.
+ * <p>
+ * Primeiro a arquitetura é percorrida na ordem do GenerateArchitecture, registrando onde cada elemento
+ * termina (pacotes, estereótipos, relacionamentos); depois os arquivos são escritos de uma vez no diretório
+ * de exportação do {@link ExportContext}.
+ */
+public class StreamingArchitectureWriter {
+
+    static Logger LOGGER = LogManager.getLogger(StreamingArchitectureWriter.class.getName());
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    /**
+     * Referências lidas de cada perfil de concerns: id do primeiro contents, id do uml:Profile e nsURI.
+     */
+    private static final Map<String, String[]> CONCERNS_PROFILES = new ConcurrentHashMap<String, String[]>();
+
+    // Valores de filesTemplates/simples.uml, .notation e .di
+    private static final String MODEL_ID = "_xqzHwIzdEeO6Yt6TRR4QNg";
+    private static final String DIAGRAM_ID = "_copSALmGEeKQQp7P9cQvNQ";
+    private static final String DIAGRAM_STYLE_ID = "_copSAbmGEeKQQp7P9cQvNQ";
+    private static final String DIAGRAM_MODEL_ID = "_cooD4LmGEeKQQp7P9cQvNQ";
+    private static final String CONCERNS_NS_URI = "http:///schemas/concerns/_SsrrUBWgEeObs-pQrJ2skQ/19";
+    private static final String SCHEMA_LOCATION = "http:///schemas/patterns/_wlXX8JVoEeOWwNcokQBARg/3 "
+            + "resources/patterns.profile.uml#_wlbCUJVoEeOWwNcokQBARg "
+            + "http:///schemas/concerns/_SsrrUBWgEeObs-pQrJ2skQ/19 "
+            + "resources/concerns.profile.uml#_SsrrURWgEeObs-pQrJ2skQ "
+            + "http:///schemas/relationships/_ZXR5gI9OEeO5S8PTmh49hw/2 "
+            + "resources/relationships.profile.uml#_ZXU80I9OEeO5S8PTmh49hw "
+            + "http:///schemas/smarty/_cl6_wI9OEeO5S8PTmh49hw/3 "
+            + "resources/smarty.profile.uml#_cl7m0I9OEeO5S8PTmh49hw";
+
+    private static final String PRIMITIVE_TYPES = "pathmap://UML_LIBRARIES/UMLPrimitiveTypes.library.uml#";
+    private static final String FONT_NAME = "Lucida Grande";
+    private static final String FONT_HEIGHT = "11";
+    private static final String DEPENDENCY_BENDPOINTS = "[0, 0, 476, 181]$[-467, -170, 9, 11]";
+
+    private final Architecture architecture;
+    private final String modelName;
+    private final ExportContext context;
+
+    // Filhos do uml:Model depois dos profileApplication, do xmi:XMI depois do uml:Model e do notation:Diagram
+    private final List<Part> model = new ArrayList<Part>();
+    private final List<Part> stereotypes = new ArrayList<Part>();
+    private final List<Part> diagram = new ArrayList<Part>();
+
+    private final Map<String, Classifier> classifiers = new HashMap<String, Classifier>();
+    private final Map<String, PackageElement> packages = new HashMap<String, PackageElement>();
+    private final Map<String, Shape> shapes = new HashMap<String, Shape>();
+    private final Set<String> createdPackages = new HashSet<String>();
+    private PackageElement lastPackage;
+
+    /**
+     * @param architecture a arquitetura a ser gravada
+     * @param modelName    nome dos arquivos gerados (sem extensão)
+     */
+    public StreamingArchitectureWriter(Architecture architecture, String modelName) {
+        this(architecture, modelName, ExportContext.fromConfig());
+    }
+
+    /**
+     * @param architecture a arquitetura a ser gravada
+     * @param modelName    nome dos arquivos gerados (sem extensão)
+     * @param context      diretórios onde os arquivos são gravados
+     */
+    public StreamingArchitectureWriter(Architecture architecture, String modelName, ExportContext context) {
+        this.architecture = architecture;
+        this.modelName = modelName;
+        this.context = context;
+    }
+
+    /**
+     * Grava modelName.uml, .notation e .di no diretório de exportação do contexto e copia os perfis
+     * configurados para resources/, como o {@link DocumentManager}.
+     *
+     * @throws IOException se algum dos arquivos não puder ser escrito
+     */
+    public void write() throws IOException {
+        plan();
+
+        boolean concerns = ReaderConfig.hasConcernsProfile();
+        String[] concernsProfile = concerns ? readConcernsProfile(ReaderConfig.getPathToProfileConcerns()) : null;
+
+        try {
+            writeFile(modelName + ".uml", out -> writeUml(out, concernsProfile));
+            writeFile(modelName + ".notation", this::writeNotation);
+            writeFile(modelName + ".di", this::writeDi);
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot write " + modelName + ": " + e.getMessage(), e);
+        }
+
+        copyProfiles();
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // Percurso da arquitetura, na ordem do GenerateArchitecture
+
+    private void plan() {
+        for (Class klass : architecture.getAllClasses()) {
+            Classifier classifier = createClassifier(klass.getId(), klass.getName(), klass.getAllMethods(), false);
+            List<String> attributeIds = new ArrayList<String>();
+            for (Attribute attribute : klass.getAllAttributes()) {
+                attributeIds.add(addAttribute(classifier, attribute));
+            }
+            variationPoint(klass.getId(), klass.getVariationPoint());
+
+            concerns(klass.getOwnConcerns(), klass.getId());
+            if (klass.getPatternsOperations() != null) {
+                for (String pattern : klass.getPatternsOperations().getAllPatterns()) {
+                    stereotype("patterns", pattern, "base_Class", klass.getId());
+                }
+            }
+            int i = 0;
+            for (Attribute attribute : klass.getAllAttributes()) {
+                concerns(attribute.getOwnConcerns(), attributeIds.get(i++));
+            }
+            for (Method method : klass.getAllMethods()) {
+                concerns(method.getOwnConcerns(), method.getId());
+            }
+            variant(klass.getId(), klass.getVariant());
+        }
+
+        for (Interface inter : architecture.getAllInterfaces()) {
+            createClassifier(inter.getId(), inter.getName(), inter.getOperations(), false);
+            variationPoint(inter.getId(), inter.getVariationPoint());
+            stereotype("smarty", "interface", "base_Class", inter.getId());
+            variant(inter.getId(), inter.getVariant());
+        }
+        for (Interface inter : architecture.getAllInterfaces()) {
+            for (Method operation : inter.getOperations()) {
+                concerns(operation.getOwnConcerns(), operation.getId());
+            }
+            concerns(inter.getOwnConcerns(), inter.getId());
+            if (inter.getPatternsOperations() != null) {
+                for (String pattern : inter.getPatternsOperations().getAllPatterns()) {
+                    stereotype("patterns", pattern, "base_Class", inter.getId());
+                }
+            }
+        }
+
+        Set<Package> allPackages = architecture.getAllPackages();
+        if (!allPackages.isEmpty()) {
+            nestedPackages(allPackages.iterator().next());
+            for (Package pack : allPackages) {
+                createPackage(pack);
+            }
+        }
+
+        relationships();
+        associationClasses();
+        notes();
+    }
+
+    private Classifier createClassifier(String id, String name, Collection<Method> methods, boolean associationClass) {
+        Classifier classifier = new Classifier(id, name, associationClass);
+        for (Method method : methods) {
+            addMethod(classifier, method);
+        }
+        classifiers.put(id, classifier);
+        shapes.put(id, classifier.shape);
+        model.add(classifier.uml);
+        diagram.add(classifier.notation);
+        classifier.umlOwner = model;
+        classifier.notationOwner = diagram;
+        return classifier;
+    }
+
+    private void addMethod(Classifier classifier, Method method) {
+        final String id = method.getId();
+        final String name = method.getName();
+        final boolean isAbstract = method.isAbstract();
+        final String returnType = method.getReturnType();
+        final List<ParameterMethod> parameters = new ArrayList<ParameterMethod>();
+        final List<String> parameterTypes = new ArrayList<String>();
+        for (ParameterMethod parameter : method.getParameters()) {
+            if ("in".equals(parameter.getDirection())) {
+                parameters.add(parameter);
+                parameterTypes.add(customTypeId(parameter.getType()));
+            }
+        }
+
+        classifier.children.add(out -> {
+            out.start("ownedOperation").attr("xmi:id", id).attr("name", name)
+                    .attr("isAbstract", String.valueOf(isAbstract)).attr("visibility", "public");
+            for (int i = 0; i < parameters.size(); i++) {
+                out.start("ownedParameter").attr("xmi:id", uuid()).attr("name", parameters.get(i).getName())
+                        .attr("isUnique", "false");
+                if (parameterTypes.get(i) != null) {
+                    out.attr("type", parameterTypes.get(i));
+                } else {
+                    primitiveType(out, parameters.get(i).getType());
+                }
+                out.end();
+            }
+            if (returnType != null && !returnType.isEmpty()) {
+                out.start("ownedParameter").attr("xmi:id", uuid()).attr("name", "").attr("direction", "return");
+                primitiveType(out, returnType);
+                out.end();
+            }
+            out.end();
+        });
+
+        MemberShape shape = new MemberShape("3013", "uml:Operation", id);
+        shapes.put(id, shape);
+        classifier.methodShapes.add(shape::write);
+    }
+
+    /**
+     * @return o id gerado para o atributo
+     */
+    private String addAttribute(Classifier classifier, Attribute attribute) {
+        final String id = uuid();
+        final String name = attribute.getName();
+        final String visibility = VisibilityKind.getByName(attribute.getVisibility()).getName();
+        final String type = attribute.getType();
+        final String typeId = customTypeId(type);
+
+        classifier.children.add(out -> {
+            out.start("ownedAttribute").attr("xmi:id", id).attr("name", name).attr("visibility", visibility)
+                    .attr("isUnique", "false");
+            if (typeId != null) {
+                out.attr("type", typeId);
+            } else {
+                primitiveType(out, type);
+            }
+            out.start("lowerValue").attr("xmi:type", "uml:LiteralInteger").attr("xmi:id", uuid())
+                    .attr("value", "1").end();
+            out.start("upperValue").attr("xmi:type", "uml:LiteralUnlimitedNatural").attr("xmi:id", uuid())
+                    .attr("value", "1").end();
+            out.start("defaultValue").attr("xmi:type", "uml:LiteralString").attr("xmi:id", uuid());
+            out.start("value").attr("xmi:nil", "true").end();
+            out.end();
+            out.end();
+        });
+
+        if (attribute.isGeneratVisualAttribute()) {
+            MemberShape shape = new MemberShape("3012", "uml:Property", id);
+            shapes.put(id, shape);
+            classifier.attributeShapes.add(shape::write);
+        }
+        return id;
+    }
+
+    /**
+     * @return o id do elemento do tipo, se for um tipo da arquitetura ("" se não existir), ou null para os
+     * tipos primitivos
+     */
+    private String customTypeId(String type) {
+        if (Types.isCustomType(type) && !"".equals(type)) {
+            String id = XmiHelper.findIdByName(type, architecture.getElements());
+            if ("".equals(id)) {
+                LOGGER.warn("Custom type not found: " + type);
+            }
+            return id;
+        }
+        return null;
+    }
+
+    private void variationPoint(String id, VariationPoint variationPoint) {
+        if (variationPoint == null) {
+            return;
+        }
+        final String variants = Strings.spliterVariants(variationPoint.getVariants());
+        final String variabilities = Strings.spliterVariabilities(variationPoint.getVariabilities());
+        if (variants.isEmpty() && variabilities.isEmpty()) {
+            return;
+        }
+        Map<String, String> attributes = new HashMap<String, String>();
+        attributes.put("base_Class", id);
+        attributes.put("variants", variants);
+        attributes.put("variabilities", variabilities);
+        attributes.put("bindingTime", BindingTime.DESIGN_TIME);
+        attributes.put("numberOfVariants", String.valueOf(variants.split(",").length));
+        stereotype("smarty", "variationPoint", attributes, id);
+    }
+
+    private void variant(String id, Variant variant) {
+        if (variant == null) {
+            return;
+        }
+        Element root = architecture.findElementByName(variant.getRootVP(), "class");
+        if (root == null) {
+            root = architecture.findElementByName(variant.getRootVP(), "interface");
+        }
+        Map<String, String> attributes = new HashMap<String, String>();
+        attributes.put("base_Class", id);
+        attributes.put("rootVP", root != null ? root.getName() : "");
+        attributes.put("variabilities", Strings.spliterVariabilities(variant.getVariabilities()));
+        stereotype("smarty", variant.getVariantType(), attributes, id);
+    }
+
+    private void concerns(Set<Concern> concerns, String id) {
+        for (Concern concern : concerns) {
+            stereotype("concerns", concern.getName(), "base_Class", id);
+        }
+    }
+
+    private void stereotype(String profile, String name, String base, String id) {
+        Map<String, String> attributes = new HashMap<String, String>();
+        attributes.put(base, id);
+        stereotype(profile, name, attributes, id);
+    }
+
+    /**
+     * Aplica o estereótipo no .uml e, se o elemento tiver um nó no diagrama, lista o estereótipo no nó.
+     */
+    private void stereotype(String profile, String name, final Map<String, String> attributes, String id) {
+        final String tag = profile + ":" + name;
+        stereotypes.add(out -> {
+            out.start(tag).attr("xmi:id", uuid());
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                out.attr(attribute.getKey(), attribute.getValue());
+            }
+            out.end();
+        });
+        Shape shape = shapes.get(id);
+        if (shape != null) {
+            shape.stereotypes.add(profile + "::" + name);
+        } else {
+            LOGGER.warn("Element " + id + " has no node in the diagram for stereotype " + tag);
+        }
+    }
+
+    private void nestedPackages(Package pack) {
+        for (Package nested : pack.getNestedPackages()) {
+            if (!nested.getNestedPackages().isEmpty()) {
+                nestedPackages(nested);
+            }
+            if (createdPackages.add(nested.getId())) {
+                createPackage(nested);
+            }
+        }
+    }
+
+    private void createPackage(Package pack) {
+        PackageElement element = new PackageElement(pack.getId(), pack.getName());
+        packages.put(element.id, element);
+        shapes.put(element.id, element.shape);
+        model.add(element.uml);
+        diagram.add(element.notation);
+        lastPackage = element;
+
+        for (Element member : pack.getElements()) {
+            if (!(member instanceof Package)) {
+                Classifier classifier = classifiers.get(member.getId());
+                if (classifier != null) {
+                    classifier.moveTo(element);
+                } else {
+                    LOGGER.warn("Element " + member.getId() + " of package " + pack.getName() + " not generated");
+                }
+            }
+        }
+    }
+
+    private void relationships() {
+        for (AssociationRelationship r : architecture.getRelationshipHolder().getAllAssociationsRelationships()) {
+            try {
+                AssociationEnd p1 = r.getParticipants().get(0);
+                AssociationEnd p2 = r.getParticipants().get(1);
+                if (p1.getAggregation().equalsIgnoreCase("none") && p2.getAggregation().equalsIgnoreCase("none")) {
+                    association(p1, p2, r.getName(), "none");
+                }
+            } catch (Exception e) {
+                LOGGER.info("Relacionamento associacao não criado");
+            }
+        }
+        for (AssociationRelationship r : architecture.getRelationshipHolder().getAllCompositions()) {
+            try {
+                AssociationEnd p1 = r.getParticipants().get(0);
+                AssociationEnd p2 = r.getParticipants().get(1);
+                if (p1.isComposite()) {
+                    association(p1, p2, r.getName(), "composite");
+                } else if (p2.isComposite()) {
+                    association(p2, p1, r.getName(), "composite");
+                }
+            } catch (Exception e) {
+                LOGGER.info("Associacao Composicao não criada");
+            }
+        }
+        for (AssociationRelationship r : architecture.getRelationshipHolder().getAllAgragations()) {
+            try {
+                AssociationEnd p1 = r.getParticipants().get(0);
+                AssociationEnd p2 = r.getParticipants().get(1);
+                String name = r.getName() == null ? "" : r.getName();
+                if (p1.isAggregation()) {
+                    association(p1, p2, name, "shared");
+                } else if (p2.isAggregation()) {
+                    association(p2, p1, name, "shared");
+                }
+            } catch (Exception e) {
+                LOGGER.info("Associacao agregacao nao criada");
+            }
+        }
+
+        for (GeneralizationRelationship g : architecture.getRelationshipHolder().getAllGeneralizations()) {
+            try {
+                generalization(g.getChild().getId(), g.getParent().getId());
+            } catch (Exception e) {
+                LOGGER.info("Generalizacao nao criada");
+            }
+        }
+
+        for (DependencyRelationship d : architecture.getRelationshipHolder().getAllDependencies()) {
+            try {
+                dependency("dependency", d.getName(), d.getClient().getId(), d.getSupplier().getId(),
+                        d.getStereotypes());
+            } catch (Exception e) {
+                LOGGER.info("Dependencia nao criada");
+            }
+        }
+        for (RealizationRelationship r : architecture.getRelationshipHolder().getAllRealizations()) {
+            try {
+                dependency("realization", r.getName(), r.getClient().getId(), r.getSupplier().getId(), null);
+            } catch (Exception e) {
+                LOGGER.info("Realizacao nao criada");
+            }
+        }
+        for (AbstractionRelationship r : architecture.getRelationshipHolder().getAllAbstractions()) {
+            try {
+                dependency("abstraction", r.getName(), r.getClient().getId(), r.getSupplier().getId(), null);
+            } catch (Exception e) {
+                LOGGER.info("Abstracao nao criada");
+            }
+        }
+        for (UsageRelationship u : architecture.getRelationshipHolder().getAllUsage()) {
+            try {
+                dependency("usage", "", u.getClient().getId(), u.getSupplier().getId(), null);
+            } catch (Exception e) {
+                LOGGER.info("Usage nao criada");
+            }
+        }
+    }
+
+    /**
+     * Associação simples, composição ou agregação; a ponta composta ou agregada é sempre <code>end1</code>.
+     */
+    private void association(final AssociationEnd end1, final AssociationEnd end2, final String name, String type) {
+        final String id = uuid();
+        final String end1Id = uuid();
+        final String end2Id = uuid();
+        String aggregation = null;
+        if ((end1.isComposite() || end2.isComposite()) && "composite".equalsIgnoreCase(type)) {
+            aggregation = "composite";
+        }
+        if ((end1.isAggregation() || end2.isAggregation()) && "shared".equalsIgnoreCase(type)) {
+            aggregation = "shared";
+        }
+        String navigable = null;
+        if (end2.isNavigable() && end1.isNavigable()) {
+            navigable = end2Id + " " + end1Id;
+        } else if (end2.isNavigable()) {
+            navigable = end2Id;
+        } else if (end1.isNavigable()) {
+            navigable = end1Id;
+        }
+        final String ownedEnd1Aggregation = aggregation;
+        final String navigableOwnedEnd = navigable;
+
+        model.add(out -> {
+            out.start("packagedElement").attr("xmi:type", "uml:Association").attr("xmi:id", id).attr("name", name)
+                    .attr("memberEnd", end1Id + " " + end2Id);
+            if (navigableOwnedEnd != null) {
+                out.attr("navigableOwnedEnd", navigableOwnedEnd);
+            }
+            ownedEnd(out, end1, end1Id, id, ownedEnd1Aggregation);
+            ownedEnd(out, end2, end2Id, id, null);
+            out.end();
+        });
+
+        associationEdge(end1.getCLSClass().getId(), end2.getCLSClass().getId(), id);
+    }
+
+    private static void ownedEnd(XmlOut out, AssociationEnd end, String id, String association, String aggregation)
+            throws XMLStreamException {
+        out.start("ownedEnd").attr("xmi:id", id).attr("name", end.getCLSClass().getName())
+                .attr("type", end.getCLSClass().getId()).attr("association", association);
+        if (aggregation != null) {
+            out.attr("aggregation", aggregation);
+        }
+        boolean multiplicity = end.getMultiplicity() != null;
+        out.start("lowerValue").attr("xmi:type", "uml:LiteralInteger").attr("xmi:id", uuid())
+                .attr("value", multiplicity ? end.getMultiplicity().getLowerValue() : "1").end();
+        out.start("upperValue").attr("xmi:type", "uml:LiteralUnlimitedNatural").attr("xmi:id", uuid())
+                .attr("value", multiplicity ? end.getMultiplicity().getUpperValue() : "1").end();
+        out.end();
+    }
+
+    /**
+     * Aresta de associação entre os nós das duas classes.
+     *
+     * @return o id da aresta, ou null se alguma das classes não estiver no diagrama
+     */
+    private String associationEdge(String sourceId, String targetId, final String associationId) {
+        final String source = shapeId(sourceId);
+        final String target = shapeId(targetId);
+        if (source == null || target == null) {
+            return null;
+        }
+        final String id = uuid();
+        diagram.add(out -> {
+            edge(out, id, "4001", source, target);
+            out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                    .attr("type", "6033");
+            location(out, true, "20");
+            out.end();
+            out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                    .attr("type", "6002");
+            location(out, true, "20");
+            out.end();
+            out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                    .attr("type", "6034");
+            location(out, true, "-20");
+            out.end();
+            element(out, "uml:Association", associationId);
+            fontStyle(out, uuid());
+            bendpoints(out, uuid(), "[0, 0, -200, -20]$[255, -30, -6, -50]");
+            anchor(out, "sourceAnchor", uuid(), "(1.0,0.36)");
+            out.end();
+        });
+        return id;
+    }
+
+    private void generalization(String childId, final String parentId) {
+        Classifier child = classifiers.get(childId);
+        if (child == null || !classifiers.containsKey(parentId)) {
+            LOGGER.info("Generalizacao nao criada");
+            return;
+        }
+        final String id = uuid();
+        child.children.add(out -> out.start("generalization").attr("xmi:id", id).attr("general", parentId).end());
+
+        final String source = shapeId(childId);
+        final String target = shapeId(parentId);
+        if (source == null || target == null) {
+            return;
+        }
+        diagram.add(out -> {
+            edge(out, uuid(), "4002", source, target);
+            element(out, "uml:Dependency", id);
+            out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                    .attr("type", "6007").end();
+            bendpoints(out, uuid(), DEPENDENCY_BENDPOINTS);
+            anchor(out, "sourceAnchor", uuid(), "(0.42,0.0)");
+            anchor(out, "targetAnchor", uuid(), "(0.82,0.89)");
+            out.end();
+        });
+    }
+
+    /**
+     * Dependência, realização, abstração ou uso (<code>kind</code>), com os estereótipos do perfil
+     * relationships no caso das dependências.
+     */
+    private void dependency(final String kind, String name, final String clientId, final String supplierId,
+                            final List<String> relationshipStereotypes) {
+        UmlElement client = classifiers.containsKey(clientId) ? classifiers.get(clientId) : packages.get(clientId);
+        if (client == null) {
+            throw new IllegalArgumentException("Client not generated: " + clientId);
+        }
+        final String id = uuid();
+        final String type = "uml:" + Character.toUpperCase(kind.charAt(0)) + kind.substring(1);
+        final String dependencyName = name == null ? "" : name;
+        client.clientDependency = id;
+
+        model.add(out -> out.start("packagedElement").attr("xmi:type", type).attr("xmi:id", id)
+                .attr("name", dependencyName).attr("client", clientId).attr("supplier", supplierId).end());
+        if (relationshipStereotypes != null) {
+            for (String stereotype : relationshipStereotypes) {
+                final String tag = "relationships:" + stereotype;
+                stereotypes.add(out -> out.start(tag).attr("xmi:id", uuid()).attr("base_Relationship", id).end());
+            }
+        }
+
+        final String source = shapeId(clientId);
+        final String target = shapeId(supplierId);
+        if (source == null || target == null || ("dependency".equals(kind) && relationshipStereotypes == null)) {
+            return;
+        }
+        final String edgeType;
+        final String decorationType;
+        if ("dependency".equals(kind)) {
+            edgeType = "4008";
+            decorationType = "6026";
+        } else if ("realization".equals(kind)) {
+            edgeType = "4005";
+            decorationType = "6012";
+        } else if ("usage".equals(kind)) {
+            edgeType = "4007";
+            decorationType = "6016";
+        } else {
+            edgeType = "4006";
+            decorationType = "6014";
+        }
+        diagram.add(out -> {
+            edge(out, uuid(), edgeType, source, target);
+            if ("usage".equals(kind)) {
+                out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                        .attr("type", "6017");
+                location(out, true, "20");
+                out.end();
+            }
+            out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                    .attr("type", decorationType);
+            location(out, true, "20");
+            out.end();
+            if ("dependency".equals(kind)) {
+                if (!relationshipStereotypes.isEmpty()) {
+                    List<String> names = new ArrayList<String>();
+                    for (String stereotype : relationshipStereotypes) {
+                        names.add("relationships::" + stereotype);
+                    }
+                    stereotypeAnnotation(out, "Stereotype_Annotation", String.join(",", names), "With brace");
+                }
+                out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                        .attr("type", "6026");
+                location(out, false, "40");
+                out.end();
+                out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                        .attr("type", "6027");
+                location(out, false, "40");
+                out.end();
+            }
+            element(out, type, id);
+            bendpoints(out, uuid(), DEPENDENCY_BENDPOINTS);
+            out.end();
+        });
+    }
+
+    private void associationClasses() {
+        for (AssociationClassRelationship asr : architecture.getRelationshipHolder().getAllAssociationsClass()) {
+            try {
+                if (associationClass(asr)) {
+                    PackageElement target = asr.getPackageOwner() != null
+                            ? packages.get(asr.getPackageOwner()) : lastPackage;
+                    if (target == null) {
+                        throw new IllegalArgumentException("Package not found: " + asr.getPackageOwner());
+                    }
+                    classifiers.get(asr.getId()).moveTo(target);
+                }
+            } catch (Exception e) {
+                LOGGER.info("AssociationClass nao criada");
+            }
+        }
+    }
+
+    /**
+     * @return false se a classe de associação foi gerada só em parte (alguma ponta não foi gerada)
+     */
+    private boolean associationClass(AssociationClassRelationship asr) {
+        final String id = asr.getId();
+        final String ownedEndType = asr.getMemebersEnd().get(0).getType().getId();
+        final String destinationType = asr.getMemebersEnd().get(1).getType().getId();
+        final String ownedAttributeId = uuid();
+        final String ownedEndId = uuid();
+        // como no AssociationClassNode, a ponta pode ser qualquer packagedElement, inclusive um pacote
+        UmlElement owner = packages.containsKey(ownedEndType) ? packages.get(ownedEndType) : classifiers.get(ownedEndType);
+
+        Classifier classifier = new Classifier(id, asr.getAssociationClass().getName(), true);
+        classifier.memberEnd = ownedAttributeId + " " + ownedEndId;
+        classifier.children.add(out -> {
+            out.start("ownedEnd").attr("xmi:id", ownedEndId).attr("name", "nome").attr("type", ownedEndType)
+                    .attr("association", id);
+            literalIntegers(out);
+            out.end();
+        });
+        classifiers.put(id, classifier);
+        model.add(classifier.uml);
+        classifier.umlOwner = model;
+        if (owner == null) {
+            return false;
+        }
+        owner.children.add(out -> {
+            out.start("ownedAttribute").attr("xmi:id", ownedAttributeId).attr("name", "ClassDestination")
+                    .attr("type", destinationType).attr("association", id);
+            literalIntegers(out);
+            out.end();
+        });
+
+        shapes.put(id, classifier.shape);
+        diagram.add(classifier.notation);
+        classifier.notationOwner = diagram;
+        final String edgeId = associationEdge(ownedEndType, destinationType, id);
+        if (edgeId == null) {
+            return false;
+        }
+        final String target = classifier.shape.id;
+        diagram.add(out -> {
+            String styleId = uuid();
+            edge(out, styleId, "4016", edgeId, target);
+            bendpoints(out, styleId, "[-50, -50, 0, 0]$[-50, -50, 0, 0]");
+            fontStyle(out, styleId);
+            anchor(out, "sourceAnchor", styleId, "(1.0,0.36)");
+            out.end();
+        });
+
+        List<Attribute> attributes = new ArrayList<Attribute>(asr.getAssociationClass().getAllAttributes());
+        List<String> attributeIds = new ArrayList<String>();
+        for (Attribute attribute : attributes) {
+            attributeIds.add(addAttribute(classifier, attribute));
+        }
+        for (Method method : asr.getAllMethods()) {
+            addMethod(classifier, method);
+        }
+
+        for (int i = 0; i < attributes.size(); i++) {
+            concerns(attributes.get(i).getOwnConcerns(), attributeIds.get(i));
+        }
+        // como no AssociationKlassOperations, os interesses dos métodos são aplicados duas vezes
+        for (int i = 0; i < 2; i++) {
+            for (Method method : asr.getAllMethods()) {
+                concerns(method.getOwnConcerns(), method.getId());
+            }
+        }
+        concerns(asr.getAssociationClass().getOwnConcerns(), asr.getAssociationClass().getId());
+        return true;
+    }
+
+    private void notes() {
+        for (Variability variability : architecture.getAllVariabilities()) {
+            try {
+                VariationPoint variationPoint = variability.getVariationPoint();
+                String ownerId;
+                if (variationPoint == null) {
+                    ownerId = architecture.findClassByName(variability.getOwnerClass()).get(0).getId();
+                } else {
+                    ownerId = variationPoint.getVariationPointElement().getId();
+                }
+                note(ownerId, new VariabilityStereotype(variability));
+            } catch (Exception e) {
+                LOGGER.info("Nao conseguiu criar variationPoint");
+            }
+        }
+    }
+
+    private void note(String ownerId, VariabilityStereotype variability) {
+        final Comment comment = new Comment(uuid());
+        model.add(comment.uml);
+        diagram.add(comment.notation);
+        shapes.put(comment.id, comment.shape);
+
+        Map<String, String> attributes = new HashMap<String, String>();
+        attributes.put("base_Comment", comment.id);
+        attributes.put("name", variability.getName());
+        attributes.put("minSelection", variability.getMinSelection());
+        attributes.put("maxSelection", variability.getMaxSelection());
+        attributes.put("variants", variability.getVariants());
+        attributes.put("bindingTime", variability.getBindingTime());
+        stereotype("smarty", variability.getStereotypeName(), attributes, comment.id);
+
+        if (variability.getIdPackageOwner() != null) {
+            String packageId = variability.getIdPackageOwner();
+            UmlElement owner = packages.containsKey(packageId) ? packages.get(packageId) : classifiers.get(packageId);
+            if (owner == null) {
+                throw new IllegalArgumentException("Package not found: " + packageId);
+            }
+            model.remove(comment.uml);
+            owner.children.add(comment.uml);
+        }
+
+        comment.annotatedElement = ownerId;
+        final String source = comment.shape.id;
+        final String target = shapeId(ownerId);
+        if (target == null) {
+            return;
+        }
+        diagram.add(out -> {
+            edge(out, uuid(), "4013", source, target);
+            fontStyle(out, uuid());
+            out.start("element").attr("xsi:nil", "true").end();
+            bendpoints(out, uuid(), "[-10, 17, 55, -89]$[-63, 156, 2, 50]");
+            anchor(out, "sourceAnchor", uuid(), "(1.0,0.7166666666666667)");
+            out.end();
+        });
+    }
+
+    private String shapeId(String elementId) {
+        Shape shape = shapes.get(elementId);
+        return shape == null ? null : shape.id;
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // Escrita dos arquivos
+
+    private void writeUml(XmlOut out, String[] concernsProfile) throws XMLStreamException {
+        String concernsNsUri = CONCERNS_NS_URI;
+        String schemaLocation = SCHEMA_LOCATION;
+        String concernsReference = "resources/concerns.profile.uml#_SsrrURWgEeObs-pQrJ2skQ";
+        String concernsApplied = "resources/concerns.profile.uml#_9v_84HqaEeK1gM_kVgXLQw";
+        if (concernsProfile != null) {
+            concernsNsUri = concernsProfile[2];
+            schemaLocation = schemaLocation + " " + concernsProfile[2] + " resources/concerns.profile.uml#"
+                    + concernsProfile[0] + " ";
+            concernsReference = "resources/concerns.profile.uml#" + concernsProfile[0];
+            concernsApplied = "resources/concerns.profile.uml#" + concernsProfile[1];
+        }
+
+        out.start("xmi:XMI").attr("xmi:version", "20110701")
+                .attr("xmlns:xmi", "http://www.omg.org/spec/XMI/20110701")
+                .attr("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance")
+                .attr("xmlns:ecore", "http://www.eclipse.org/emf/2002/Ecore")
+                .attr("xmlns:patterns", "http:///schemas/patterns/_wlXX8JVoEeOWwNcokQBARg/3")
+                .attr("xmlns:concerns", concernsNsUri)
+                .attr("xmlns:relationships", "http:///schemas/relationships/_ZXR5gI9OEeO5S8PTmh49hw/2")
+                .attr("xmlns:smarty", "http:///schemas/smarty/_cl6_wI9OEeO5S8PTmh49hw/3")
+                .attr("xmlns:uml", "http://www.eclipse.org/uml2/4.0.0/UML")
+                .attr("xsi:schemaLocation", schemaLocation);
+
+        out.start("uml:Model").attr("xmi:id", MODEL_ID).attr("name", "model");
+        if (ReaderConfig.hasConcernsProfile()) {
+            profileApplication(out, "_2Q2s4I9OEeO5xq3Ur4qgFw", "_2RHyoI9OEeO5xq3Ur4qgFw", concernsReference,
+                    concernsApplied);
+        }
+        if (ReaderConfig.hasRelationsShipProfile()) {
+            profileApplication(out, "_2RXDMI9OEeO5xq3Ur4qgFw", "_2RlssI9OEeO5xq3Ur4qgFw",
+                    "resources/relationships.profile.uml#_ZXU80I9OEeO5S8PTmh49hw",
+                    "resources/relationships.profile.uml#__hjjkIzaEeO6Yt6TRR4QNg");
+        }
+        if (ReaderConfig.hasSmartyProfile()) {
+            profileApplication(out, "_2RlssY9OEeO5xq3Ur4qgFw", "_2R2ycI9OEeO5xq3Ur4qgFw",
+                    "resources/smarty.profile.uml#_cl7m0I9OEeO5S8PTmh49hw",
+                    "resources/smarty.profile.uml#_9ppH0MeqEeK-FvYCaEYIKA");
+        }
+        if (ReaderConfig.hasPatternsProfile()) {
+            profileApplication(out, "_cyBBIJJmEeOENZsdUoZvrw", "_cyb34JJmEeOENZsdUoZvrw",
+                    "resources/patterns.profile.uml#_wlbCUJVoEeOWwNcokQBARg",
+                    "resources/patterns.profile.uml#_lDDfsJJlEeOENZsdUoZvrw");
+        }
+        writeAll(out, model);
+        out.end();
+
+        writeAll(out, stereotypes);
+        out.end();
+    }
+
+    private static void profileApplication(XmlOut out, String id, String annotationId, String reference,
+                                           String appliedProfile) throws XMLStreamException {
+        out.start("profileApplication").attr("xmi:id", id);
+        out.start("eAnnotations").attr("xmi:id", annotationId).attr("source", "http://www.eclipse.org/uml2/2.0.0/UML");
+        out.start("references").attr("xmi:type", "ecore:EPackage").attr("href", reference).end();
+        out.end();
+        out.start("appliedProfile").attr("href", appliedProfile).end();
+        out.end();
+    }
+
+    private void writeNotation(XmlOut out) throws XMLStreamException {
+        out.start("notation:Diagram").attr("xmi:version", "2.0")
+                .attr("xmlns:xmi", "http://www.omg.org/XMI")
+                .attr("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance")
+                .attr("xmlns:ecore", "http://www.eclipse.org/emf/2002/Ecore")
+                .attr("xmlns:notation", "http://www.eclipse.org/gmf/runtime/1.0.2/notation")
+                .attr("xmlns:uml", "http://www.eclipse.org/uml2/4.0.0/UML")
+                .attr("xmi:id", DIAGRAM_ID).attr("type", "PapyrusUMLClassDiagram").attr("name", "NewDiagram")
+                .attr("measurementUnit", "Pixel");
+        out.start("styles").attr("xmi:type", "notation:DiagramStyle").attr("xmi:id", DIAGRAM_STYLE_ID).end();
+        element(out, "uml:Model", DIAGRAM_MODEL_ID);
+        writeAll(out, diagram);
+        out.end();
+    }
+
+    private void writeDi(XmlOut out) throws XMLStreamException {
+        String page = modelName + ".notation#" + DIAGRAM_ID;
+        out.start("di:SashWindowsMngr").attr("xmi:version", "2.0")
+                .attr("xmlns:xmi", "http://www.omg.org/XMI")
+                .attr("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance")
+                .attr("xmlns:di", "http://www.eclipse.org/papyrus/0.7.0/sashdi");
+        out.start("pageList");
+        out.start("availablePage");
+        out.start("emfPageIdentifier").attr("href", page).end();
+        out.end();
+        out.end();
+        out.start("sashModel").attr("currentSelection", "//@sashModel/@windows.0/@children.0");
+        out.start("windows");
+        out.start("children").attr("xsi:type", "di:TabFolder");
+        out.start("children");
+        out.start("emfPageIdentifier").attr("href", page).end();
+        out.end();
+        out.end();
+        out.end();
+        out.end();
+        out.end();
+    }
+
+    private void element(XmlOut out, String type, String id) throws XMLStreamException {
+        out.start("element").attr("xmi:type", type).attr("href", modelName + ".uml#" + id).end();
+    }
+
+    private static void writeAll(XmlOut out, List<Part> parts) throws XMLStreamException {
+        for (Part part : parts) {
+            part.write(out);
+        }
+    }
+
+    /**
+     * Escreve em um arquivo temporário do contexto e o move para o nome final, para que exportações
+     * concorrentes não vejam arquivos pela metade.
+     */
+    private void writeFile(String fileName, Part content) throws IOException, XMLStreamException {
+        Path path = context.createScratchFile(fileName, ".tmp");
+        try {
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(path))) {
+                XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(stream, "UTF-8");
+                writer.writeStartDocument("UTF-8", "1.0");
+                content.write(new XmlOut(writer));
+                writer.writeCharacters("\n");
+                writer.writeEndDocument();
+                writer.close();
+            }
+            context.publish(path, fileName);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void primitiveType(XmlOut out, String type) throws XMLStreamException {
+        out.start("type").attr("xmi:type", "uml:PrimitiveType").attr("href", PRIMITIVE_TYPES + type).end();
+    }
+
+    private static void literalIntegers(XmlOut out) throws XMLStreamException {
+        out.start("lowerValue").attr("xmi:type", "uml:LiteralInteger").attr("xmi:id", uuid()).attr("value", "1").end();
+        out.start("upperValue").attr("xmi:type", "uml:LiteralInteger").attr("xmi:id", uuid()).attr("value", "1").end();
+    }
+
+    private static void edge(XmlOut out, String id, String type, String source, String target)
+            throws XMLStreamException {
+        out.start("edges").attr("xmi:type", "notation:Connector").attr("xmi:id", id).attr("type", type)
+                .attr("source", source).attr("target", target).attr("lineColor", "0");
+    }
+
+    private static void location(XmlOut out, boolean withId, String y) throws XMLStreamException {
+        out.start("layoutConstraint").attr("xmi:type", "notation:Location");
+        if (withId) {
+            out.attr("xmi:id", uuid());
+        }
+        out.attr("y", y).end();
+    }
+
+    private static void fontStyle(XmlOut out, String id) throws XMLStreamException {
+        out.start("styles").attr("xmi:type", "notation:FontStyle").attr("xmi:id", id).attr("fontName", FONT_NAME)
+                .attr("fontHeight", FONT_HEIGHT).end();
+    }
+
+    private static void bendpoints(XmlOut out, String id, String points) throws XMLStreamException {
+        out.start("bendpoints").attr("xmi:type", "notation:RelativeBendpoints").attr("xmi:id", id)
+                .attr("points", points).end();
+    }
+
+    private static void anchor(XmlOut out, String tag, String id, String position) throws XMLStreamException {
+        out.start(tag).attr("xmi:type", "notation:IdentityAnchor").attr("xmi:id", id).attr("id", position).end();
+    }
+
+    private static void shapeStart(XmlOut out, String id, String type) throws XMLStreamException {
+        out.start("children").attr("xmi:type", "notation:Shape").attr("xmi:id", id).attr("type", type)
+                .attr("fontName", FONT_NAME).attr("fontHeight", FONT_HEIGHT).attr("lineColor", "0");
+    }
+
+    private static void decorationNode(XmlOut out, String type) throws XMLStreamException {
+        out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                .attr("type", type).end();
+    }
+
+    /**
+     * Os dois eAnnotations que fazem o Papyrus mostrar os estereótipos de um nó; como no ClassNotation, só o
+     * primeiro lista todos os estereótipos aplicados.
+     */
+    private static void stereotypeAnnotations(XmlOut out, List<String> applied) throws XMLStreamException {
+        if (applied.isEmpty()) {
+            return;
+        }
+        stereotypeAnnotation(out, "Stereotype_Annotation", String.join(",", applied), "Compartment");
+        stereotypeAnnotation(out, "ecore:Stereotype_Annotation", applied.get(0), "Compartment");
+    }
+
+    private static void stereotypeAnnotation(XmlOut out, String source, String list, String location)
+            throws XMLStreamException {
+        out.start("eAnnotations").attr("xmi:type", "ecore:EAnnotation").attr("xmi:id", uuid()).attr("source", source);
+        detail(out, "StereotypeWithQualifiedNameList", "");
+        detail(out, "StereotypeList", list);
+        detail(out, "Stereotype_Presentation_Kind", "HorizontalStereo");
+        detail(out, "PropStereoDisplay", "");
+        detail(out, "StereotypePropertyLocation", location);
+        out.end();
+    }
+
+    private static void detail(XmlOut out, String key, String value) throws XMLStreamException {
+        out.start("details").attr("xmi:type", "ecore:EStringToStringMapEntry").attr("xmi:id", uuid())
+                .attr("key", key).attr("value", value).end();
+    }
+
+    private static String uuid() {
+        return UtilResources.getRandonUUID();
+    }
+
+    private static String randomPosition() {
+        return Integer.toString(ThreadLocalRandom.current().nextInt(1001));
+    }
+
+    // ------------------------------------------------------------------------------------------------
+    // Perfis
+
+    private void copyProfiles() {
+        try {
+            if (ReaderConfig.hasSmartyProfile()) {
+                context.copyProfile(ReaderConfig.getPathToProfileSMarty(), "smarty.profile.uml");
+            }
+            if (ReaderConfig.hasConcernsProfile()) {
+                context.copyProfile(ReaderConfig.getPathToProfileConcerns(), "concerns.profile.uml");
+            }
+            if (ReaderConfig.hasRelationsShipProfile()) {
+                context.copyProfile(ReaderConfig.getPathToProfileRelationships(), "relationships.profile.uml");
+            }
+            if (ReaderConfig.hasPatternsProfile()) {
+                context.copyProfile(ReaderConfig.getPathToProfilePatterns(), "patterns.profile.uml");
+            }
+        } catch (IOException e) {
+            LOGGER.warn("I cannot copy resources to destination. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lê do perfil de concerns os valores que o DocumentManager.updateProfilesRefs copia para o .uml. O perfil
+     * é lido uma vez por caminho.
+     *
+     * @return {id do primeiro contents, id do uml:Profile, nsURI do contents}, ou null se o perfil não puder ser
+     * lido (ficam as referências do template)
+     */
+    private static String[] readConcernsProfile(String path) {
+        String[] cached = CONCERNS_PROFILES.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        String[] refs = new String[3];
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext() && (refs[0] == null || refs[1] == null)) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    String name = qualifiedName(reader.getPrefix(), reader.getLocalName());
+                    if (refs[0] == null && "contents".equals(name)) {
+                        refs[0] = attribute(reader, "xmi:id");
+                        refs[2] = attribute(reader, "nsURI");
+                    } else if (refs[1] == null && "uml:Profile".equals(name)) {
+                        refs[1] = attribute(reader, "xmi:id");
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            LOGGER.warn("I cannot read the concerns profile " + path + ". " + e.getMessage());
+            return null;
+        }
+        if (refs[0] == null || refs[1] == null || refs[2] == null) {
+            LOGGER.warn("Concerns profile " + path + " without contents or uml:Profile");
+            return null;
+        }
+        CONCERNS_PROFILES.put(path, refs);
+        return refs;
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (name.equals(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    // ------------------------------------------------------------------------------------------------
+
+    /**
+     * Trecho de XML escrito na hora de gravar os arquivos.
+     */
+    private interface Part {
+        void write(XmlOut out) throws XMLStreamException;
+    }
+
+    /**
+     * Elemento do .uml que pode receber filhos e dependências depois de criado (classe, interface, classe de
+     * associação ou pacote).
+     */
+    private abstract static class UmlElement {
+        final String id;
+        final String name;
+        final List<Part> children = new ArrayList<Part>();
+        String clientDependency;
+
+        UmlElement(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Classe, interface ou classe de associação.
+     */
+    private final class Classifier extends UmlElement {
+        final boolean associationClass;
+        final Shape shape = new Shape();
+        final List<Part> attributeShapes = new ArrayList<Part>();
+        final List<Part> methodShapes = new ArrayList<Part>();
+        final Part uml = this::writeUml;
+        final Part notation = this::writeNotation;
+        String memberEnd;
+        List<Part> umlOwner;
+        List<Part> notationOwner;
+
+        Classifier(String id, String name, boolean associationClass) {
+            super(id, name);
+            this.associationClass = associationClass;
+        }
+
+        void moveTo(PackageElement pack) {
+            umlOwner.remove(uml);
+            pack.children.add(uml);
+            umlOwner = pack.children;
+            if (notationOwner != null) {
+                notationOwner.remove(notation);
+                pack.shapes.add(notation);
+                notationOwner = pack.shapes;
+            }
+        }
+
+        void writeUml(XmlOut out) throws XMLStreamException {
+            out.start("packagedElement").attr("xmi:id", id).attr("name", name);
+            if (associationClass) {
+                out.attr("xmi:type", "uml:AssociationClass").attr("memberEnd", memberEnd);
+            } else {
+                out.attr("xmi:type", "uml:Class").attr("isAbstract", "false");
+            }
+            if (clientDependency != null) {
+                out.attr("clientDependency", clientDependency);
+            }
+            writeAll(out, children);
+            out.end();
+        }
+
+        void writeNotation(XmlOut out) throws XMLStreamException {
+            shapeStart(out, shape.id, "2008");
+            decorationNode(out, "5029");
+            compartment(out, "7017", attributeShapes);
+            out.start("layoutConstraint").attr("xmi:type", "notation:Bounds").attr("xmi:id", uuid())
+                    .attr("x", "10").attr("y", "10").end();
+            compartment(out, "7018", methodShapes);
+            out.start("layoutConstraint").attr("xmi:type", "notation:Bounds").attr("xmi:id", uuid())
+                    .attr("x", "10").attr("y", "10").end();
+            element(out, associationClass ? "uml:AssociationClass" : "uml:Class", id);
+            stereotypeAnnotations(out, shape.stereotypes);
+            out.end();
+        }
+
+        private void compartment(XmlOut out, String type, List<Part> members) throws XMLStreamException {
+            out.start("children").attr("xmi:type", "notation:BasicCompartment").attr("xmi:id", uuid())
+                    .attr("type", type);
+            out.start("styles").attr("xmi:type", "notation:TitleStyle").attr("xmi:id", uuid()).end();
+            out.start("styles").attr("xmi:type", "notation:SortingStyle").attr("xmi:id", uuid()).end();
+            out.start("styles").attr("xmi:type", "notation:FilteringStyle").attr("xmi:id", uuid()).end();
+            out.start("layoutConstraint").attr("xmi:type", "notation:Bounds").attr("xmi:id", uuid()).end();
+            writeAll(out, members);
+            out.end();
+        }
+    }
+
+    private final class PackageElement extends UmlElement {
+        final Shape shape = new Shape();
+        final List<Part> shapes = new ArrayList<Part>();
+        final Part uml = this::writeUml;
+        final Part notation = this::writeNotation;
+
+        PackageElement(String id, String name) {
+            super(id, name);
+        }
+
+        void writeUml(XmlOut out) throws XMLStreamException {
+            out.start("packagedElement").attr("xmi:type", "uml:Package").attr("xmi:id", id).attr("name", name);
+            if (clientDependency != null) {
+                out.attr("clientDependency", clientDependency);
+            }
+            writeAll(out, children);
+            out.end();
+        }
+
+        void writeNotation(XmlOut out) throws XMLStreamException {
+            shapeStart(out, shape.id, "2007");
+            decorationNode(out, "5026");
+            out.start("children").attr("xmi:type", "notation:DecorationNode").attr("xmi:id", uuid())
+                    .attr("type", "7016");
+            out.start("styles").attr("xmi:type", "notation:TitleStyle").attr("xmi:id", uuid()).end();
+            out.start("layoutConstraint").attr("xmi:type", "notation:Bounds").attr("xmi:id", uuid()).end();
+            out.end();
+            element(out, "uml:Package", id);
+            out.start("layoutConstraint").attr("xmi:type", "notation:Bounds").attr("xmi:id", uuid())
+                    .attr("x", randomPosition()).attr("y", randomPosition()).attr("width", "450")
+                    .attr("height", "630").end();
+            writeAll(out, shapes);
+            stereotypeAnnotations(out, shape.stereotypes);
+            out.end();
+        }
+    }
+
+    /**
+     * Nota (ownedComment) de uma variabilidade.
+     */
+    private final class Comment {
+        final String id;
+        final Shape shape = new Shape();
+        final Part uml = this::writeUml;
+        final Part notation = this::writeNotation;
+        String annotatedElement;
+
+        Comment(String id) {
+            this.id = id;
+        }
+
+        void writeUml(XmlOut out) throws XMLStreamException {
+            out.start("ownedComment").attr("xmi:id", id);
+            if (annotatedElement != null) {
+                out.attr("annotatedElement", annotatedElement);
+            }
+            out.start("body").end();
+            out.end();
+        }
+
+        void writeNotation(XmlOut out) throws XMLStreamException {
+            shapeStart(out, shape.id, "2012");
+            decorationNode(out, "5038");
+            out.start("layoutConstraint").attr("xmi:type", "notation:Bounds").attr("xmi:id", uuid())
+                    .attr("x", randomPosition()).attr("y", randomPosition()).end();
+            element(out, "uml:Comment", id);
+            stereotypeAnnotations(out, shape.stereotypes);
+            out.end();
+        }
+    }
+
+    /**
+     * Nó do .notation de um elemento e os estereótipos listados nele.
+     */
+    private static class Shape {
+        final String id = uuid();
+        final List<String> stereotypes = new ArrayList<String>();
+    }
+
+    /**
+     * Nó de um atributo ou método dentro do compartimento da classe.
+     */
+    private final class MemberShape extends Shape {
+        final String type;
+        final String elementType;
+        final String elementId;
+
+        MemberShape(String type, String elementType, String elementId) {
+            this.type = type;
+            this.elementType = elementType;
+            this.elementId = elementId;
+        }
+
+        void write(XmlOut out) throws XMLStreamException {
+            shapeStart(out, id, type);
+            out.start("eAnnotations").attr("xmi:type", "ecore:EAnnotation").attr("xmi:id", uuid())
+                    .attr("source", "CustomAppearance_Annotation");
+            detail(out, "CustomAppearance_MaskValue", "7066");
+            out.end();
+            element(out, elementType, elementId);
+            out.start("layoutConstraint").attr("xmi:type", "notation:Location").attr("xmi:id", uuid()).end();
+            stereotypeAnnotations(out, stereotypes);
+            out.end();
+        }
+    }
+
+    /**
+     * Escreve um elemento por vez, com os atributos em ordem alfabética (a ordem em que o DOM do Xerces os
+     * serializa) e indentação de 2 espaços. A tag de abertura fica pendente até o primeiro filho ou o fim do
+     * elemento, para que elementos sem filhos saiam vazios.
+     */
+    private static final class XmlOut {
+        private final XMLStreamWriter writer;
+        private final Map<String, String> attributes = new TreeMap<String, String>();
+        private String pending;
+        private int depth;
+
+        XmlOut(XMLStreamWriter writer) {
+            this.writer = writer;
+        }
+
+        XmlOut start(String name) throws XMLStreamException {
+            flush(false);
+            newLine();
+            pending = name;
+            depth++;
+            return this;
+        }
+
+        XmlOut attr(String name, String value) {
+            attributes.put(name, value == null ? "" : value);
+            return this;
+        }
+
+        void end() throws XMLStreamException {
+            depth--;
+            if (pending != null) {
+                flush(true);
+            } else {
+                newLine();
+                writer.writeEndElement();
+            }
+        }
+
+        private void flush(boolean empty) throws XMLStreamException {
+            if (pending == null) {
+                return;
+            }
+            if (empty) {
+                writer.writeEmptyElement(pending);
+            } else {
+                writer.writeStartElement(pending);
+            }
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                writer.writeAttribute(attribute.getKey(), attribute.getValue());
+            }
+            attributes.clear();
+            pending = null;
+        }
+
+        private void newLine() throws XMLStreamException {
+            StringBuilder indent = new StringBuilder("\n");
+            for (int i = 0; i < depth; i++) {
+                indent.append("  ");
+            }
+            writer.writeCharacters(indent.toString());
+        }
+    }
+}
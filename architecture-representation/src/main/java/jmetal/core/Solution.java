@@ -23,7 +23,9 @@
 
 package jmetal.core;
 
+import arquitetura.representation.ChangeSet;
 import jmetal.encodings.variable.Binary;
+import jmetal.metrics.concernDrivenMetrics.IncrementalConcernMetrics;
 
 import java.io.Serializable;
 
@@ -113,6 +115,18 @@ public class Solution implements Serializable {
      */
     private double distanceToSolutionSet_;
 
+    /**
+     * Stores the per-package concern metrics of the last evaluation, reused by
+     * incremental evaluations. <code>null</code> if unknown.
+     */
+    private transient IncrementalConcernMetrics concernMetrics_;
+
+    /**
+     * Stores the elements changed since the last evaluation. <code>null</code>
+     * if the changes are unknown.
+     */
+    private transient ChangeSet changes_;
+
     /**
      * Constructor.
      */
@@ -220,6 +234,8 @@ public class Solution implements Serializable {
         marked_ = solution.isMarked();
         rank_ = solution.getRank();
         location_ = solution.getLocation();
+        concernMetrics_ = solution.concernMetrics_;
+        changes_ = solution.changes_ == null ? null : new ChangeSet(solution.changes_);
     } // Solution
 
     static public Solution getNewSolution(Problem problem) throws ClassNotFoundException {
@@ -413,6 +429,69 @@ public class Solution implements Serializable {
         return variable_;
     } // getDecisionVariables
 
+    /**
+     * Returns the decision variable at <code>index</code> ready to be modified in place.
+     * If the variable is shared with another solution (copy-on-write), it is replaced
+     * by a private copy first.
+     *
+     * @param index the index of the decision variable.
+     * @return the decision variable that can be modified.
+     */
+    public Variable getDecisionVariableForWriting(int index) {
+        Variable variable = variable_[index].forWriting();
+        if (!ChangeSet.isRecording()) {
+            // changes made outside a ChangeSet are not known
+            concernMetrics_ = null;
+            changes_ = null;
+        } else if (variable != variable_[index] && changes_ != null && !changes_.isEmpty()) {
+            // the recorded elements belong to the shared copy
+            changes_ = null;
+        }
+        variable_[index] = variable;
+        return variable_[index];
+    } // getDecisionVariableForWriting
+
+    /**
+     * Adds the elements changed by an operator to the changes since the last
+     * evaluation.
+     *
+     * @param changes the elements changed.
+     */
+    public void addChanges(ChangeSet changes) {
+        if (changes_ != null)
+            changes_.addAll(changes);
+    } // addChanges
+
+    /**
+     * Returns the elements changed since the last evaluation, or <code>null</code>
+     * if they are unknown.
+     *
+     * @return the changes.
+     */
+    public ChangeSet getChanges() {
+        return changes_;
+    } // getChanges
+
+    /**
+     * Returns the concern metrics of the last evaluation, or <code>null</code>.
+     *
+     * @return the concern metrics.
+     */
+    public IncrementalConcernMetrics getConcernMetrics() {
+        return concernMetrics_;
+    } // getConcernMetrics
+
+    /**
+     * Stores the concern metrics of an evaluation and starts recording the
+     * changes made after it.
+     *
+     * @param concernMetrics the concern metrics.
+     */
+    public void setConcernMetrics(IncrementalConcernMetrics concernMetrics) {
+        concernMetrics_ = concernMetrics;
+        changes_ = concernMetrics == null ? null : new ChangeSet();
+    } // setConcernMetrics
+
     /**
      * Sets the decision variables for the solution.
      *
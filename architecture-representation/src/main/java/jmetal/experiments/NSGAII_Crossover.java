@@ -122,7 +122,7 @@ public class NSGAII_Crossover {
 
             for (int runs = 0; runs < runsNumber; runs++) {
                 //Thelma - Dez2013 adicao da linha abaixo
-                OPLA.contDiscardedSolutions_ = 0;
+                OPLA.counters().contDiscardedSolutions_ = 0;
                 // Execute the Algorithm
 
                 long initTime = System.currentTimeMillis();
@@ -147,8 +147,8 @@ public class NSGAII_Crossover {
                 //Thelma - Dez2013
                 allSolutions = allSolutions.union(resultFront);
                 resultFront.printMetricsToFile(directory + "/Metrics_" + PLAName + "_" + runs + ".txt");
-                System.out.println("Number of Discarded Solutions: " + OPLA.contDiscardedSolutions_);
-                totalDiscardedSolutions = totalDiscardedSolutions + OPLA.contDiscardedSolutions_;
+                System.out.println("Number of Discarded Solutions: " + OPLA.counters().contDiscardedSolutions_);
+                totalDiscardedSolutions = totalDiscardedSolutions + OPLA.counters().contDiscardedSolutions_;
             }
             //Thelma - Dez2013 - duas proximas linhas
             String NameOfPLA = pla.substring(10, 15);
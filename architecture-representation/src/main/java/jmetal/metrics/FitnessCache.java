@@ -0,0 +1,193 @@
+package jmetal.metrics;
+
+import arquitetura.representation.ArchitectureFingerprint;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache dos valores das funções objetivo já calculados, indexado pela impressão digital
+ * estrutural da arquitetura ({@link ArchitectureFingerprint}) e pela lista de objetivos selecionados.
+ * <p>
+ * Com mutação pouco efetiva ou sem crossover, muitos filhos saem iguais a arquiteturas já avaliadas;
+ * nesses casos as métricas não são recalculadas.
+ * <p>
+ * O cache é dividido em segmentos, cada um com seu próprio lock, para ser usado pelos avaliadores
+ * multithread. O tamanho máximo é dividido entre os segmentos e cada segmento descarta a entrada
+ * menos usada recentemente ({@link Eviction#LRU}) ou a mais antiga ({@link Eviction#FIFO}).
+ * Tamanho máximo 0 desliga o cache.
+ */
+public class FitnessCache {
+
+    public enum Eviction {
+        LRU, FIFO
+    }
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private static final int SEGMENTS = 16;
+
+    private final int maximumSize;
+    private final Eviction eviction;
+    private final Segment[] segments;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public FitnessCache() {
+        this(DEFAULT_MAXIMUM_SIZE, Eviction.LRU);
+    }
+
+    public FitnessCache(int maximumSize, Eviction eviction) {
+        if (maximumSize < 0)
+            throw new IllegalArgumentException("Tamanho máximo do cache não pode ser negativo: " + maximumSize);
+        this.maximumSize = maximumSize;
+        this.eviction = eviction;
+
+        int count = maximumSize < SEGMENTS ? 1 : SEGMENTS;
+        int perSegment = (maximumSize + count - 1) / count;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++)
+            segments[i] = new Segment(perSegment, eviction == Eviction.LRU);
+    }
+
+    public static FitnessCache disabled() {
+        return new FitnessCache(0, Eviction.LRU);
+    }
+
+    public boolean isEnabled() {
+        return maximumSize > 0;
+    }
+
+    /**
+     * @return cópia dos valores dos objetivos, ou null se a arquitetura ainda não foi avaliada
+     * para esses objetivos
+     */
+    public double[] get(ArchitectureFingerprint fingerprint, List<String> objectives) {
+        if (!isEnabled())
+            return null;
+        Key key = new Key(fingerprint, objectives);
+        double[] values = segment(key).get(key);
+        if (values == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return values.clone();
+    }
+
+    public void put(ArchitectureFingerprint fingerprint, List<String> objectives, double[] values) {
+        if (!isEnabled())
+            return;
+        Key key = new Key(fingerprint, objectives);
+        segment(key).put(key, values.clone());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments)
+            size += segment.size();
+        return size;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    public void clear() {
+        for (Segment segment : segments)
+            segment.clear();
+        hits.set(0);
+        misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        long hitCount = getHits();
+        long missCount = getMisses();
+        long lookups = hitCount + missCount;
+        double rate = lookups == 0 ? 0.0 : 100.0 * hitCount / lookups;
+        return String.format("Fitness cache (%s, max %d): %d hits, %d misses (%.1f%% hits), %d entries",
+                eviction, maximumSize, hitCount, missCount, rate, size());
+    }
+
+    private Segment segment(Key key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[(h & 0x7fffffff) % segments.length];
+    }
+
+    private static final class Key {
+        private final ArchitectureFingerprint fingerprint;
+        private final List<String> objectives;
+        private final int hash;
+
+        Key(ArchitectureFingerprint fingerprint, List<String> objectives) {
+            this.fingerprint = fingerprint;
+            this.objectives = new ArrayList<String>(objectives);
+            this.hash = 31 * fingerprint.hashCode() + this.objectives.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return fingerprint.equals(other.fingerprint) && objectives.equals(other.objectives);
+        }
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<Key, double[]> entries;
+
+        Segment(final int maximumSize, boolean accessOrder) {
+            this.entries = new LinkedHashMap<Key, double[]>(16, 0.75f, accessOrder) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+
+        synchronized double[] get(Key key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(Key key, double[] values) {
+            entries.put(key, values);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package jmetal.metrics;
 
 import arquitetura.representation.Architecture;
 import jmetal.metrics.PLAMetrics.extensibility.ExtensPLA;
+import jmetal.metrics.concernDrivenMetrics.ConcernMetrics;
 import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCC;
 import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCClass;
 import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCClassComponentResult;
@@ -57,39 +58,14 @@ public class MetricsEvaluation {
         double sumLCC = 0.0;
         double MSIFitness = 0.0;
 
-        sumLCC = evaluateLCC(architecture);
-
-
-        CIBC cibc = new CIBC(architecture);
-        for (CIBCResult c : cibc.getResults().values()) {
-            sumCIBC += c.getInterlacedConcerns().size();
-        }
-
-        IIBC iibc = new IIBC(architecture);
-        for (IIBCResult c : iibc.getResults().values()) {
-            sumIIBC += c.getInterlacedConcerns().size();
-        }
-
-        OOBC oobc = new OOBC(architecture);
-        for (OOBCResult c : oobc.getResults().values()) {
-            sumOOBC += c.getInterlacedConcerns().size();
-        }
-
-
-        CDAC cdac = new CDAC(architecture);
-        for (CDACResult c : cdac.getResults()) {
-            sumCDAC += c.getElements().size();
-        }
-
-        CDAI cdai = new CDAI(architecture);
-        for (CDAIResult c : cdai.getResults()) {
-            sumCDAI += c.getElements().size();
-        }
-
-        CDAO cdao = new CDAO(architecture);
-        for (CDAOResult c : cdao.getResults()) {
-            sumCDAO += c.getElements().size();
-        }
+        ConcernMetrics metrics = new ConcernMetrics(architecture);
+        sumLCC += metrics.getLCC();
+        sumCIBC += metrics.getCIBC();
+        sumIIBC += metrics.getIIBC();
+        sumOOBC += metrics.getOOBC();
+        sumCDAC += metrics.getCDAC();
+        sumCDAI += metrics.getCDAI();
+        sumCDAO += metrics.getCDAO();
 
         MSIFitness = sumLCC + sumCDAC + sumCDAI + sumCDAO + sumCIBC + sumIIBC + sumOOBC;
         return MSIFitness;
@@ -224,26 +200,14 @@ public class MetricsEvaluation {
         double iCohesion = 0.0;
 
 
-        MeanNumOpsByInterface numOps = new MeanNumOpsByInterface(architecture);
-        meanNumOps = numOps.getResults();
-
-        MeanDepComponents depComps = new MeanDepComponents(architecture);
-        meanDepComps = depComps.getResults();
-
-        ClassDependencyOut classesDepOut = new ClassDependencyOut(architecture);
-        sumClassesDepOut = classesDepOut.getResults();
-
-        ClassDependencyIn classesDepIn = new ClassDependencyIn(architecture);
-        sumClassesDepIn = classesDepIn.getResults();
-
-        DependencyOut DepOut = new DependencyOut(architecture);
-        sumDepOut = DepOut.getResults();
-
-        DependencyIn DepIn = new DependencyIn(architecture);
-        sumDepIn = DepIn.getResults();
-
-        RelationalCohesion cohesion = new RelationalCohesion(architecture);
-        sumCohesion = cohesion.getResults();
+        ConventionalMetrics metrics = new ConventionalMetrics(architecture);
+        meanNumOps = metrics.getMeanNumOps();
+        meanDepComps = metrics.getMeanDepComponents();
+        sumClassesDepOut = metrics.getClassDependencyOut();
+        sumClassesDepIn = metrics.getClassDependencyIn();
+        sumDepOut = metrics.getDependencyOut();
+        sumDepIn = metrics.getDependencyIn();
+        sumCohesion = metrics.getRelationalCohesion();
         if (sumCohesion == 0) {
             iCohesion = 1.0;
         } else iCohesion = 1 / sumCohesion;
@@ -0,0 +1,140 @@
+package jmetal.metrics.concernDrivenMetrics;
+
+import arquitetura.representation.Attribute;
+import arquitetura.representation.Class;
+import arquitetura.representation.Concern;
+import arquitetura.representation.Element;
+import arquitetura.representation.Interface;
+import arquitetura.representation.Method;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * BitSets dos concerns dos elementos, usados por {@link ConcernMetrics} e {@link IncrementalConcernMetrics}.
+ * <p>
+ * Os índices dos concerns são globais (os concerns vêm do {@link arquitetura.representation.ConcernHolder}
+ * e são compartilhados pelas cópias das arquiteturas), assim BitSets calculados em avaliações diferentes
+ * podem ser combinados. Os BitSets de cada elemento são guardados por identidade durante uma avaliação.
+ * <p>
+ * Avaliações em threads diferentes só disputam um lock na primeira vez que um concern aparece; o número de
+ * índices é limitado pelos concerns do perfil.
+ */
+final class ConcernMasks {
+
+    private static final ConcurrentMap<Concern, Integer> IDS = new ConcurrentHashMap<Concern, Integer>();
+    /**
+     * Concerns por índice. O array é substituído (nunca alterado) quando um concern novo recebe índice.
+     */
+    private static volatile Concern[] concerns = new Concern[0];
+
+    private final Map<Element, BitSet> ownMasks = new IdentityHashMap<Element, BitSet>();
+    private final Map<Interface, BitSet> operationMasks = new IdentityHashMap<Interface, BitSet>();
+    private final Map<Integer, BitSet> sameNameMasks = new HashMap<Integer, BitSet>();
+    private int sameNameKnown;
+
+    static int id(Concern concern) {
+        Integer id = IDS.get(concern);
+        return id != null ? id : IDS.computeIfAbsent(concern, ConcernMasks::append);
+    }
+
+    private static synchronized Integer append(Concern concern) {
+        Concern[] known = Arrays.copyOf(concerns, concerns.length + 1);
+        known[known.length - 1] = concern;
+        concerns = known;
+        return known.length - 1;
+    }
+
+    BitSet ids(Collection<Concern> concerns) {
+        BitSet mask = new BitSet();
+        for (Concern concern : concerns)
+            mask.set(id(concern));
+        return mask;
+    }
+
+    /**
+     * Concerns anotados no próprio elemento (para pacotes, os de {@link Element#getOwnConcerns()},
+     * sem a sobrescrita de {@link arquitetura.representation.Package}).
+     */
+    BitSet own(Element element) {
+        BitSet mask = ownMasks.get(element);
+        if (mask == null) {
+            mask = ids(element.getOwnConcerns());
+            ownMasks.put(element, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Concerns das operações da interface.
+     */
+    BitSet operations(Interface i) {
+        BitSet mask = operationMasks.get(i);
+        if (mask == null) {
+            mask = new BitSet();
+            for (Method operation : i.getOperations())
+                mask.or(own(operation));
+            operationMasks.put(i, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Equivalente a {@link Interface#getAllConcerns()}.
+     */
+    BitSet allOf(Interface i) {
+        BitSet mask = (BitSet) own(i).clone();
+        mask.or(operations(i));
+        return mask;
+    }
+
+    /**
+     * Equivalente a {@link Class#getAllConcerns()}.
+     */
+    BitSet allOf(Class cls) {
+        BitSet mask = (BitSet) own(cls).clone();
+        mask.or(methods(cls));
+        mask.or(attributes(cls));
+        for (Interface i : cls.getImplementedInterfaces())
+            mask.or(allOf(i));
+        return mask;
+    }
+
+    BitSet methods(Class cls) {
+        BitSet mask = new BitSet();
+        for (Method method : cls.getAllMethods())
+            mask.or(own(method));
+        return mask;
+    }
+
+    BitSet attributes(Class cls) {
+        BitSet mask = new BitSet();
+        for (Attribute attribute : cls.getAllAttributes())
+            mask.or(own(attribute));
+        return mask;
+    }
+
+    /**
+     * Concerns com o mesmo nome (sem diferenciar maiúsculas), como em {@link Element#containsConcern(Concern)}.
+     */
+    BitSet sameName(Concern concern) {
+        int id = id(concern);
+        Concern[] known = concerns;
+        if (known.length != sameNameKnown) {
+            // concerns novos podem ter o mesmo nome de um já calculado
+            sameNameMasks.clear();
+            sameNameKnown = known.length;
+        }
+        BitSet mask = sameNameMasks.get(id);
+        if (mask == null) {
+            mask = new BitSet();
+            for (int other = 0; other < known.length; other++)
+                if (known[other].getName().equalsIgnoreCase(concern.getName()))
+                    mask.set(other);
+            sameNameMasks.put(id, mask);
+        }
+        return mask;
+    }
+
+}
@@ -0,0 +1,340 @@
+package jmetal.metrics.concernDrivenMetrics;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.Class;
+import arquitetura.representation.Concern;
+import arquitetura.representation.Element;
+import arquitetura.representation.Interface;
+import arquitetura.representation.Method;
+import arquitetura.representation.Package;
+import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCC;
+import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCClass;
+import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCClassComponentResult;
+import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCComponentResult;
+import jmetal.metrics.concernDrivenMetrics.concernDiffusion.*;
+import jmetal.metrics.concernDrivenMetrics.interactionBeteweenConcerns.*;
+
+import java.util.*;
+
+/**
+ * Calcula de uma vez as métricas dirigidas a interesses ({@link LCC}, {@link LCCClass}, {@link CIBC},
+ * {@link CIBClass}, {@link IIBC}, {@link OOBC}, {@link CDAC}, {@link CDAClass}, {@link CDAI} e {@link CDAO}).
+ * <p>
+ * Os concerns recebem índices inteiros e cada elemento (pacote, classe, interface, método, atributo)
+ * passa a ser representado pelo {@link BitSet} dos seus concerns ({@link ConcernMasks}), montado uma única
+ * vez por avaliação.
+ * Interfaces e operações também recebem índices, para que os conjuntos das métricas de difusão sejam
+ * BitSets. As métricas saem de uniões, interseções e cardinalidades desses BitSets, sem criar os
+ * HashSets de concerns de cada resultado das classes originais.
+ * <p>
+ * Os valores são os mesmos das classes originais: {@link Package#containsConcern(Concern)} compara o concern
+ * exatamente e {@link Element#containsConcern(Concern)} compara o nome sem diferenciar maiúsculas, o que
+ * aqui vira a máscara dos concerns com o mesmo nome. Com asserts ligados (java -ea) o resultado é
+ * conferido com as classes originais.
+ */
+public class ConcernMetrics {
+
+    private int lcc;
+    private int lccClass;
+    private int cibc;
+    private int cibClass;
+    private int iibc;
+    private int oobc;
+    private int cdac;
+    private int cdaClass;
+    private int cdai;
+    private int cdao;
+
+    private final ConcernMasks masks = new ConcernMasks();
+
+    private final Map<Interface, Integer> interfaceIds = new HashMap<Interface, Integer>();
+    private final List<Interface> interfaces = new ArrayList<Interface>();
+    private final Map<Method, Integer> operationIds = new HashMap<Method, Integer>();
+    private final List<Method> operations = new ArrayList<Method>();
+
+    public ConcernMetrics(Architecture architecture) {
+        List<Concern> architectureConcerns = architecture.getAllConcerns();
+
+        List<Package> packages = new ArrayList<Package>(architecture.getAllPackages());
+        int packageCount = packages.size();
+        BitSet[] packageAll = new BitSet[packageCount];
+        BitSet[] implementedAll = new BitSet[packageCount];
+        BitSet[] implementedIds = new BitSet[packageCount];
+        BitSet[] requiredIds = new BitSet[packageCount];
+
+        Interlacing cibcInterlacing = new Interlacing();
+        Interlacing iibcInterlacing = new Interlacing();
+        Interlacing oobcInterlacing = new Interlacing();
+
+        for (int p = 0; p < packageCount; p++) {
+            Package component = packages.get(p);
+            Set<Interface> implemented = component.getImplementedInterfaces();
+            Set<Interface> required = component.getRequiredInterfaces();
+
+            BitSet own = new BitSet();
+            BitSet all = new BitSet();
+            for (Class cls : component.getAllClasses()) {
+                own.or(masks.own(cls));
+                all.or(masks.allOf(cls));
+            }
+            for (Interface i : component.getAllInterfaces()) {
+                own.or(masks.own(i));
+                all.or(masks.allOf(i));
+            }
+
+            BitSet implementedConcerns = new BitSet();
+            BitSet implementedOperations = new BitSet();
+            implementedIds[p] = new BitSet();
+            for (Interface i : implemented) {
+                own.or(masks.own(i));
+                implementedConcerns.or(masks.allOf(i));
+                implementedOperations.or(masks.operations(i));
+                implementedIds[p].set(id(i));
+            }
+            all.or(implementedConcerns);
+
+            BitSet requiredConcerns = new BitSet();
+            BitSet requiredOperations = new BitSet();
+            requiredIds[p] = new BitSet();
+            for (Interface i : required) {
+                requiredConcerns.or(masks.allOf(i));
+                requiredOperations.or(masks.operations(i));
+                requiredIds[p].set(id(i));
+            }
+
+            BitSet lccConcerns = (BitSet) own.clone();
+            lccConcerns.or(implementedConcerns);
+            lcc += lccConcerns.cardinality();
+
+            // CIBC: o pacote interlaça tudo o que ele e suas interfaces têm; uma interface, apenas o
+            // que as interfaces do pacote têm; uma operação, apenas o que as operações do pacote têm
+            BitSet interfacesConcerns = (BitSet) implementedConcerns.clone();
+            interfacesConcerns.or(requiredConcerns);
+            BitSet interfacesOperations = (BitSet) implementedOperations.clone();
+            interfacesOperations.or(requiredOperations);
+            BitSet componentConcerns = (BitSet) own.clone();
+            componentConcerns.or(interfacesConcerns);
+            cibcInterlacing.add(own, componentConcerns);
+
+            inspectInterfaces(implemented, interfacesConcerns, interfacesOperations,
+                    cibcInterlacing, iibcInterlacing, oobcInterlacing);
+            inspectInterfaces(required, interfacesConcerns, interfacesOperations,
+                    cibcInterlacing, iibcInterlacing, oobcInterlacing);
+
+            packageAll[p] = all;
+            implementedAll[p] = implementedConcerns;
+        }
+
+        cibc = cibcInterlacing.total();
+        iibc = iibcInterlacing.total();
+        oobc = oobcInterlacing.total();
+
+        Interlacing cibClassInterlacing = new Interlacing();
+        List<BitSet> classConcerns = new ArrayList<BitSet>();
+        for (Class cls : architecture.getAllClasses()) {
+            BitSet own = masks.own(cls);
+            BitSet methods = masks.methods(cls);
+
+            BitSet lccClassConcerns = (BitSet) own.clone();
+            lccClassConcerns.or(methods);
+            lccClassConcerns.or(masks.attributes(cls));
+            lccClass += lccClassConcerns.cardinality();
+
+            BitSet withMethods = (BitSet) own.clone();
+            withMethods.or(methods);
+            cibClassInterlacing.add(own, withMethods);
+            cibClassInterlacing.add(methods, methods);
+            for (Interface i : cls.getRequiredInterfaces())
+                cibClassInterlacing.add(masks.allOf(i), methods);
+            for (Interface i : cls.getImplementedInterfaces())
+                cibClassInterlacing.add(masks.allOf(i), methods);
+
+            classConcerns.add(withMethods);
+        }
+        cibClass = cibClassInterlacing.total();
+
+        for (Concern concern : architectureConcerns) {
+            int id = ConcernMasks.id(concern);
+            BitSet sameName = masks.sameName(concern);
+
+            BitSet matchingInterfaces = new BitSet();
+            BitSet interfacesViaOperation = new BitSet();
+            for (int i = 0; i < interfaces.size(); i++) {
+                if (masks.own(interfaces.get(i)).intersects(sameName))
+                    matchingInterfaces.set(i);
+                if (masks.allOf(interfaces.get(i)).intersects(sameName))
+                    interfacesViaOperation.set(i);
+            }
+            BitSet matchingOperations = new BitSet();
+            for (int o = 0; o < operations.size(); o++)
+                if (masks.own(operations.get(o)).intersects(sameName))
+                    matchingOperations.set(o);
+
+            BitSet diffusionInterfaces = new BitSet();
+            BitSet diffusionOperations = new BitSet();
+            for (int p = 0; p < packageCount; p++) {
+                boolean containsConcern = packageAll[p].get(id);
+
+                if (containsConcern || implementedAll[p].intersects(sameName))
+                    cdac++;
+
+                if (containsConcern) {
+                    diffusionInterfaces.or(implementedIds[p]);
+                    for (int i = implementedIds[p].nextSetBit(0); i >= 0; i = implementedIds[p].nextSetBit(i + 1))
+                        diffusionOperations.or(operationIds(interfaces.get(i)));
+                } else {
+                    BitSet candidates = (BitSet) implementedIds[p].clone();
+                    candidates.or(requiredIds[p]);
+                    candidates.and(interfacesViaOperation);
+                    diffusionInterfaces.or(candidates);
+
+                    for (int i = implementedIds[p].nextSetBit(0); i >= 0; i = implementedIds[p].nextSetBit(i + 1)) {
+                        BitSet interfaceOperations = operationIds(interfaces.get(i));
+                        if (matchingInterfaces.get(i)) {
+                            diffusionOperations.or(interfaceOperations);
+                        } else {
+                            BitSet matching = (BitSet) interfaceOperations.clone();
+                            matching.and(matchingOperations);
+                            diffusionOperations.or(matching);
+                        }
+                    }
+                }
+            }
+            cdai += diffusionInterfaces.cardinality();
+            cdao += diffusionOperations.cardinality();
+
+            for (BitSet classConcern : classConcerns)
+                if (classConcern.intersects(sameName))
+                    cdaClass++;
+        }
+
+        assert matchesLegacy(architecture) : "ConcernMetrics diverge das métricas originais";
+    }
+
+    private void inspectInterfaces(Set<Interface> componentInterfaces, BitSet interfacesConcerns, BitSet interfacesOperations,
+                                   Interlacing cibcInterlacing, Interlacing iibcInterlacing, Interlacing oobcInterlacing) {
+        for (Interface i : componentInterfaces) {
+            BitSet own = masks.own(i);
+            BitSet operations = masks.operations(i);
+
+            cibcInterlacing.add(own, interfacesConcerns);
+            cibcInterlacing.add(operations, interfacesOperations);
+
+            iibcInterlacing.add(own, masks.allOf(i));
+            iibcInterlacing.add(operations, operations);
+
+            for (Method operation : i.getOperations())
+                oobcInterlacing.add(masks.own(operation), masks.own(operation));
+        }
+    }
+
+    private int id(Interface i) {
+        Integer id = interfaceIds.get(i);
+        if (id == null) {
+            id = interfaces.size();
+            interfaceIds.put(i, id);
+            interfaces.add(i);
+            for (Method operation : i.getOperations())
+                id(operation);
+        }
+        return id;
+    }
+
+    private int id(Method operation) {
+        Integer id = operationIds.get(operation);
+        if (id == null) {
+            id = operations.size();
+            operationIds.put(operation, id);
+            operations.add(operation);
+        }
+        return id;
+    }
+
+    private BitSet operationIds(Interface i) {
+        BitSet ids = new BitSet();
+        for (Method operation : i.getOperations())
+            ids.set(id(operation));
+        return ids;
+    }
+
+    /**
+     * Confere os valores com as classes originais.
+     */
+    boolean matchesLegacy(Architecture architecture) {
+        int legacyLcc = 0;
+        for (LCCComponentResult component : new LCC(architecture).getResults())
+            legacyLcc += component.numberOfConcerns();
+        int legacyLccClass = 0;
+        for (LCCClassComponentResult cls : new LCCClass(architecture).getResults())
+            legacyLccClass += cls.numberOfConcerns();
+        int legacyCibc = 0;
+        for (CIBCResult c : new CIBC(architecture).getResults().values())
+            legacyCibc += c.getInterlacedConcerns().size();
+        int legacyCibClass = 0;
+        for (CIBClassResult c : new CIBClass(architecture).getResults().values())
+            legacyCibClass += c.getInterlacedConcerns().size();
+        int legacyIibc = 0;
+        for (IIBCResult c : new IIBC(architecture).getResults().values())
+            legacyIibc += c.getInterlacedConcerns().size();
+        int legacyOobc = 0;
+        for (OOBCResult c : new OOBC(architecture).getResults().values())
+            legacyOobc += c.getInterlacedConcerns().size();
+        int legacyCdac = 0;
+        for (CDACResult c : new CDAC(architecture).getResults())
+            legacyCdac += c.getElements().size();
+        int legacyCdaClass = 0;
+        for (CDAClassResult c : new CDAClass(architecture).getResults())
+            legacyCdaClass += c.getElements().size();
+        int legacyCdai = 0;
+        for (CDAIResult c : new CDAI(architecture).getResults())
+            legacyCdai += c.getElements().size();
+        int legacyCdao = 0;
+        for (CDAOResult c : new CDAO(architecture).getResults())
+            legacyCdao += c.getElements().size();
+
+        return lcc == legacyLcc && lccClass == legacyLccClass && cibc == legacyCibc && cibClass == legacyCibClass
+                && iibc == legacyIibc && oobc == legacyOobc && cdac == legacyCdac && cdaClass == legacyCdaClass
+                && cdai == legacyCdai && cdao == legacyCdao;
+    }
+
+    public int getLCC() {
+        return lcc;
+    }
+
+    public int getLCCClass() {
+        return lccClass;
+    }
+
+    public int getCIBC() {
+        return cibc;
+    }
+
+    public int getCIBClass() {
+        return cibClass;
+    }
+
+    public int getIIBC() {
+        return iibc;
+    }
+
+    public int getOOBC() {
+        return oobc;
+    }
+
+    public int getCDAC() {
+        return cdac;
+    }
+
+    public int getCDAClass() {
+        return cdaClass;
+    }
+
+    public int getCDAI() {
+        return cdai;
+    }
+
+    public int getCDAO() {
+        return cdao;
+    }
+
+}
@@ -0,0 +1,402 @@
+package jmetal.metrics.concernDrivenMetrics;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.ChangeSet;
+import arquitetura.representation.Class;
+import arquitetura.representation.Concern;
+import arquitetura.representation.Interface;
+import arquitetura.representation.Method;
+import arquitetura.representation.Package;
+import arquitetura.representation.ParameterMethod;
+
+import java.util.*;
+
+/**
+ * As mesmas métricas de {@link ConcernMetrics}, guardadas em parciais por pacote para que uma arquitetura
+ * alterada por um operador seja avaliada recalculando somente os pacotes que mudaram.
+ * <p>
+ * A parcial de um pacote depende apenas dele: suas classes (com métodos, atributos e interfaces
+ * implementadas/requeridas), suas interfaces e as interfaces que ele implementa/requer. Ela guarda as
+ * contagens que são somas por pacote (LCC, LCCClass, CDAC, CDAClass) e, para as métricas que contam
+ * elementos distintos na arquitetura toda (CIBC, CIBClass, IIBC, OOBC, CDAI, CDAO), a contribuição do
+ * pacote para cada concern, que é unida às dos demais pacotes no final. As parciais identificam
+ * interfaces e operações pelos campos usados em equals/hashCode, e não pelos objetos, pois são
+ * reaproveitadas pelas cópias da arquitetura. Pelo mesmo motivo as parciais são guardadas pelo id do
+ * pacote, que as cópias mantêm e que não muda ao renomear ou mover o pacote; um pacote criado depois da
+ * última avaliação tem id novo e é sempre calculado.
+ * <p>
+ * Em {@link #update(IncrementalConcernMetrics, ChangeSet, Architecture)} um pacote é recalculado quando
+ * ele, uma de suas classes ou uma das interfaces das quais ele ou suas classes dependem está no {@link ChangeSet}
+ * (inclusive quando foram renomeados ou movidos, o que muda as chaves de interfaces e operações). Sem
+ * ChangeSet (alterações desconhecidas), com métodos/atributos alterados (não se sabe a qual classe
+ * pertencem) ou se os concerns da arquitetura mudaram, tudo é recalculado.
+ * <p>
+ * As instâncias são imutáveis e podem ser compartilhadas entre uma solução e suas cópias.
+ */
+public final class IncrementalConcernMetrics {
+
+    private final BitSet concerns;
+    private final Map<String, Partial> partials;
+    private final int recomputedPackages;
+
+    private int lcc;
+    private int lccClass;
+    private int cibc;
+    private int cibClass;
+    private int iibc;
+    private int oobc;
+    private int cdac;
+    private int cdaClass;
+    private int cdai;
+    private int cdao;
+
+    private IncrementalConcernMetrics(BitSet concerns, Map<String, Partial> partials, List<Partial> all,
+                                      int recomputedPackages) {
+        this.concerns = concerns;
+        this.partials = partials;
+        this.recomputedPackages = recomputedPackages;
+
+        Interlacing cibcInterlacing = new Interlacing();
+        Interlacing cibClassInterlacing = new Interlacing();
+        Interlacing iibcInterlacing = new Interlacing();
+        Interlacing oobcInterlacing = new Interlacing();
+        Map<Integer, Set<List<String>>> diffusionInterfaces = new HashMap<Integer, Set<List<String>>>();
+        Map<Integer, Set<OperationKey>> diffusionOperations = new HashMap<Integer, Set<OperationKey>>();
+
+        for (Partial partial : all) {
+            lcc += partial.lcc;
+            lccClass += partial.lccClass;
+            cdac += partial.cdac.cardinality();
+            cdaClass += partial.cdaClass;
+            cibcInterlacing.addAll(partial.cibc);
+            cibClassInterlacing.addAll(partial.cibClass);
+            iibcInterlacing.addAll(partial.iibc);
+            oobcInterlacing.addAll(partial.oobc);
+            union(diffusionInterfaces, partial.cdai);
+            union(diffusionOperations, partial.cdao);
+        }
+
+        cibc = cibcInterlacing.total();
+        cibClass = cibClassInterlacing.total();
+        iibc = iibcInterlacing.total();
+        oobc = oobcInterlacing.total();
+        for (Set<List<String>> interfaces : diffusionInterfaces.values())
+            cdai += interfaces.size();
+        for (Set<OperationKey> operations : diffusionOperations.values())
+            cdao += operations.size();
+    }
+
+    /**
+     * Calcula todas as parciais.
+     */
+    public static IncrementalConcernMetrics of(Architecture architecture) {
+        return update(null, null, architecture);
+    }
+
+    /**
+     * Reaproveita as parciais de previous para os pacotes que não foram alterados.
+     *
+     * @param previous     parciais da última avaliação, ou null
+     * @param changes      elementos alterados desde a última avaliação, ou null se não forem conhecidos
+     * @param architecture arquitetura atual
+     * @return IncrementalConcernMetrics
+     */
+    public static IncrementalConcernMetrics update(IncrementalConcernMetrics previous, ChangeSet changes,
+                                                   Architecture architecture) {
+        ConcernMasks masks = new ConcernMasks();
+        List<Concern> architectureConcerns = architecture.getAllConcerns();
+        BitSet concerns = masks.ids(architectureConcerns);
+
+        boolean reuse = previous != null && previous.partials != null && changes != null
+                && previous.concerns.equals(concerns) && changes.getMembers().isEmpty();
+
+        Map<String, Partial> partials = new HashMap<String, Partial>();
+        List<Partial> all = new ArrayList<Partial>();
+        boolean reusable = true;
+        int recomputed = 0;
+
+        for (Package component : architecture.getAllPackages()) {
+            String key = component.getId();
+            Partial partial = reuse && key != null ? previous.partials.get(key) : null;
+            if (partial == null || isDirty(component, changes)) {
+                partial = new Partial(masks, architectureConcerns, component);
+                recomputed++;
+            }
+            // pacote sem id ou dois pacotes com o mesmo id: as parciais não podem ser reaproveitadas pela chave
+            if (key == null || partials.put(key, partial) != null)
+                reusable = false;
+            all.add(partial);
+        }
+        // classes fora de pacotes entram em LCCClass, CIBClass e CDAClass e são sempre recalculadas
+        all.add(new Partial(masks, architectureConcerns, architecture.getClasses()));
+
+        return new IncrementalConcernMetrics(concerns, reusable ? partials : null, all, recomputed);
+    }
+
+    private static boolean isDirty(Package component, ChangeSet changes) {
+        if (changes.contains(component)
+                || changes.containsAny(component.getAllClasses())
+                || changes.containsAny(component.getAllInterfaces())
+                || changes.containsAny(component.getImplementedInterfaces())
+                || changes.containsAny(component.getRequiredInterfaces()))
+            return true;
+        for (Class cls : component.getAllClasses())
+            if (changes.containsAny(cls.getImplementedInterfaces()) || changes.containsAny(cls.getRequiredInterfaces()))
+                return true;
+        return false;
+    }
+
+    private static <T> void union(Map<Integer, Set<T>> into, Map<Integer, Set<T>> from) {
+        for (Map.Entry<Integer, Set<T>> entry : from.entrySet()) {
+            Set<T> elements = into.get(entry.getKey());
+            if (elements == null)
+                into.put(entry.getKey(), new HashSet<T>(entry.getValue()));
+            else
+                elements.addAll(entry.getValue());
+        }
+    }
+
+    /**
+     * @return número de pacotes recalculados na última atualização
+     */
+    public int getRecomputedPackages() {
+        return recomputedPackages;
+    }
+
+    public int getLCC() {
+        return lcc;
+    }
+
+    public int getLCCClass() {
+        return lccClass;
+    }
+
+    public int getCIBC() {
+        return cibc;
+    }
+
+    public int getCIBClass() {
+        return cibClass;
+    }
+
+    public int getIIBC() {
+        return iibc;
+    }
+
+    public int getOOBC() {
+        return oobc;
+    }
+
+    public int getCDAC() {
+        return cdac;
+    }
+
+    public int getCDAClass() {
+        return cdaClass;
+    }
+
+    public int getCDAI() {
+        return cdai;
+    }
+
+    public int getCDAO() {
+        return cdao;
+    }
+
+    /**
+     * Contribuição de um pacote (ou das classes fora de pacotes) para as métricas.
+     */
+    private static final class Partial {
+
+        private int lcc;
+        private int lccClass;
+        private int cdaClass;
+        private final BitSet cdac = new BitSet();
+        private final Interlacing cibc = new Interlacing();
+        private final Interlacing cibClass = new Interlacing();
+        private final Interlacing iibc = new Interlacing();
+        private final Interlacing oobc = new Interlacing();
+        private final Map<Integer, Set<List<String>>> cdai = new HashMap<Integer, Set<List<String>>>();
+        private final Map<Integer, Set<OperationKey>> cdao = new HashMap<Integer, Set<OperationKey>>();
+
+        Partial(ConcernMasks masks, List<Concern> architectureConcerns, Package component) {
+            Set<Interface> implemented = component.getImplementedInterfaces();
+            Set<Interface> required = component.getRequiredInterfaces();
+
+            // getOwnConcerns/getAllConcerns de Package
+            BitSet own = new BitSet();
+            BitSet all = new BitSet();
+            for (Class cls : component.getAllClasses()) {
+                own.or(masks.own(cls));
+                all.or(masks.allOf(cls));
+            }
+            for (Interface i : component.getAllInterfaces()) {
+                own.or(masks.own(i));
+                all.or(masks.allOf(i));
+            }
+
+            BitSet implementedConcerns = new BitSet();
+            BitSet implementedOperations = new BitSet();
+            for (Interface i : implemented) {
+                own.or(masks.own(i));
+                implementedConcerns.or(masks.allOf(i));
+                implementedOperations.or(masks.operations(i));
+            }
+            all.or(implementedConcerns);
+
+            BitSet requiredConcerns = new BitSet();
+            BitSet requiredOperations = new BitSet();
+            for (Interface i : required) {
+                requiredConcerns.or(masks.allOf(i));
+                requiredOperations.or(masks.operations(i));
+            }
+
+            BitSet lccConcerns = (BitSet) own.clone();
+            lccConcerns.or(implementedConcerns);
+            lcc = lccConcerns.cardinality();
+
+            BitSet interfacesConcerns = (BitSet) implementedConcerns.clone();
+            interfacesConcerns.or(requiredConcerns);
+            BitSet interfacesOperations = (BitSet) implementedOperations.clone();
+            interfacesOperations.or(requiredOperations);
+            BitSet componentConcerns = (BitSet) own.clone();
+            componentConcerns.or(interfacesConcerns);
+            cibc.add(own, componentConcerns);
+
+            inspectInterfaces(masks, implemented, interfacesConcerns, interfacesOperations);
+            inspectInterfaces(masks, required, interfacesConcerns, interfacesOperations);
+
+            inspectClasses(masks, architectureConcerns, component.getAllClasses());
+
+            for (Concern concern : architectureConcerns) {
+                int id = ConcernMasks.id(concern);
+                BitSet sameName = masks.sameName(concern);
+                boolean containsConcern = all.get(id);
+
+                if (containsConcern || implementedConcerns.intersects(sameName))
+                    cdac.set(id);
+
+                Set<List<String>> interfaces = new HashSet<List<String>>();
+                Set<OperationKey> operations = new HashSet<OperationKey>();
+                if (containsConcern) {
+                    for (Interface i : implemented) {
+                        interfaces.add(key(i));
+                        for (Method operation : i.getOperations())
+                            operations.add(new OperationKey(operation));
+                    }
+                } else {
+                    for (Interface i : implemented)
+                        if (masks.allOf(i).intersects(sameName))
+                            interfaces.add(key(i));
+                    for (Interface i : required)
+                        if (masks.allOf(i).intersects(sameName))
+                            interfaces.add(key(i));
+
+                    for (Interface i : implemented) {
+                        boolean interfaceContainsConcern = masks.own(i).intersects(sameName);
+                        for (Method operation : i.getOperations())
+                            if (interfaceContainsConcern || masks.own(operation).intersects(sameName))
+                                operations.add(new OperationKey(operation));
+                    }
+                }
+                if (!interfaces.isEmpty())
+                    cdai.put(id, interfaces);
+                if (!operations.isEmpty())
+                    cdao.put(id, operations);
+            }
+        }
+
+        Partial(ConcernMasks masks, List<Concern> architectureConcerns, Collection<Class> classes) {
+            inspectClasses(masks, architectureConcerns, classes);
+        }
+
+        private void inspectInterfaces(ConcernMasks masks, Set<Interface> componentInterfaces,
+                                       BitSet interfacesConcerns, BitSet interfacesOperations) {
+            for (Interface i : componentInterfaces) {
+                BitSet own = masks.own(i);
+                BitSet operations = masks.operations(i);
+
+                cibc.add(own, interfacesConcerns);
+                cibc.add(operations, interfacesOperations);
+
+                iibc.add(own, masks.allOf(i));
+                iibc.add(operations, operations);
+
+                for (Method operation : i.getOperations())
+                    oobc.add(masks.own(operation), masks.own(operation));
+            }
+        }
+
+        private void inspectClasses(ConcernMasks masks, List<Concern> architectureConcerns, Collection<Class> classes) {
+            for (Class cls : classes) {
+                BitSet own = masks.own(cls);
+                BitSet methods = masks.methods(cls);
+
+                BitSet lccClassConcerns = (BitSet) own.clone();
+                lccClassConcerns.or(methods);
+                lccClassConcerns.or(masks.attributes(cls));
+                lccClass += lccClassConcerns.cardinality();
+
+                BitSet withMethods = (BitSet) own.clone();
+                withMethods.or(methods);
+                cibClass.add(own, withMethods);
+                cibClass.add(methods, methods);
+                for (Interface i : cls.getRequiredInterfaces())
+                    cibClass.add(masks.allOf(i), methods);
+                for (Interface i : cls.getImplementedInterfaces())
+                    cibClass.add(masks.allOf(i), methods);
+
+                for (Concern concern : architectureConcerns)
+                    if (withMethods.intersects(masks.sameName(concern)))
+                        cdaClass++;
+            }
+        }
+
+        /**
+         * Interfaces são iguais quando têm o mesmo nome e namespace.
+         */
+        private static List<String> key(Interface i) {
+            return Arrays.asList(i.getNamespace(), i.getName());
+        }
+    }
+
+    /**
+     * Identifica uma operação com os mesmos hashCode e equals de {@link Method}, para que os conjuntos
+     * de operações de CDAO tenham os mesmos elementos que os HashSet&lt;Method&gt; de
+     * {@link jmetal.metrics.concernDrivenMetrics.concernDiffusion.CDAOResult}.
+     */
+    private static final class OperationKey {
+
+        private final java.lang.Class<?> type;
+        private final String name;
+        private final String returnType;
+        private final List<String> parameters = new ArrayList<String>();
+        private final int hash;
+
+        OperationKey(Method operation) {
+            this.type = operation.getClass();
+            this.name = operation.getName();
+            this.returnType = operation.getReturnType();
+            for (ParameterMethod parameter : operation.getParameters())
+                this.parameters.add(parameter.getName());
+            this.hash = operation.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof OperationKey))
+                return false;
+            OperationKey other = (OperationKey) obj;
+            return type == other.type && Objects.equals(name, other.name)
+                    && Objects.equals(returnType, other.returnType) && parameters.equals(other.parameters);
+        }
+    }
+
+}
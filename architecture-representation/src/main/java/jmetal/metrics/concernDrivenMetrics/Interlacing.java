@@ -0,0 +1,55 @@
+package jmetal.metrics.concernDrivenMetrics;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Concerns interlaçados com cada concern, como nos resultados de
+ * {@link jmetal.metrics.concernDrivenMetrics.interactionBeteweenConcerns.CIBC},
+ * {@link jmetal.metrics.concernDrivenMetrics.interactionBeteweenConcerns.CIBClass},
+ * {@link jmetal.metrics.concernDrivenMetrics.interactionBeteweenConcerns.IIBC} e
+ * {@link jmetal.metrics.concernDrivenMetrics.interactionBeteweenConcerns.OOBC}: o próprio concern não conta.
+ */
+final class Interlacing {
+
+    private final List<BitSet> interlaced = new ArrayList<BitSet>();
+
+    /**
+     * Cada concern de concerns passa a estar interlaçado também com os de with.
+     */
+    void add(BitSet concerns, BitSet with) {
+        for (int k = concerns.nextSetBit(0); k >= 0; k = concerns.nextSetBit(k + 1))
+            of(k).or(with);
+    }
+
+    void addAll(Interlacing other) {
+        for (int k = 0; k < other.interlaced.size(); k++) {
+            BitSet mask = other.interlaced.get(k);
+            if (mask != null)
+                of(k).or(mask);
+        }
+    }
+
+    int total() {
+        int total = 0;
+        for (int k = 0; k < interlaced.size(); k++) {
+            BitSet mask = interlaced.get(k);
+            if (mask != null)
+                total += mask.cardinality() - (mask.get(k) ? 1 : 0);
+        }
+        return total;
+    }
+
+    private BitSet of(int k) {
+        while (interlaced.size() <= k)
+            interlaced.add(null);
+        BitSet mask = interlaced.get(k);
+        if (mask == null) {
+            mask = new BitSet();
+            interlaced.set(k, mask);
+        }
+        return mask;
+    }
+
+}
@@ -0,0 +1,237 @@
+package jmetal.metrics.conventionalMetrics;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.Attribute;
+import arquitetura.representation.Class;
+import arquitetura.representation.Element;
+import arquitetura.representation.Interface;
+import arquitetura.representation.Method;
+import arquitetura.representation.Package;
+import arquitetura.representation.ParameterMethod;
+import arquitetura.representation.relationship.AbstractionRelationship;
+import arquitetura.representation.relationship.DependencyRelationship;
+import arquitetura.representation.relationship.RealizationRelationship;
+import arquitetura.representation.relationship.Relationship;
+
+import java.util.*;
+
+/**
+ * Calcula de uma vez as métricas convencionais ({@link MeanNumOpsByInterface}, {@link MeanDepComponents},
+ * {@link ClassDependencyOut}, {@link ClassDependencyIn}, {@link DependencyOut}, {@link DependencyIn} e
+ * {@link RelationalCohesion}).
+ * <p>
+ * Os pacotes e suas classes recebem índices inteiros (as classes de um pacote ficam contíguas) e os
+ * relacionamentos da arquitetura são percorridos uma única vez para montar as marcações de dependência
+ * de entrada/saída das classes, as contagens por pacote e os implementadores de cada interface.
+ * As métricas são então calculadas a partir dessas estruturas, sem consultar de novo os relacionamentos.
+ * <p>
+ * Os valores são os mesmos das classes originais deste módulo, inclusive nas regras peculiares delas
+ * (divisões inteiras, comparação de tipo de atributo por referência, associações que nunca são contadas).
+ * Com asserts ligados (java -ea) o resultado é conferido com as classes originais.
+ */
+public class ConventionalMetrics {
+
+    private double meanNumOps;
+    private double meanDepComponents;
+    private int classDependencyIn;
+    private int classDependencyOut;
+    private int dependencyIn;
+    private int dependencyOut;
+    private double relationalCohesion;
+
+    public ConventionalMetrics(Architecture architecture) {
+        List<Package> packages = new ArrayList<Package>(architecture.getAllPackages());
+        int packageCount = packages.size();
+
+        Map<Element, Integer> packageIds = new HashMap<Element, Integer>();
+        List<Class> classes = new ArrayList<Class>();
+        Map<Element, Integer> classIds = new HashMap<Element, Integer>();
+        int[] firstClass = new int[packageCount + 1];
+
+        for (int p = 0; p < packageCount; p++) {
+            Package component = packages.get(p);
+            packageIds.put(component, p);
+            firstClass[p] = classes.size();
+            for (Class cls : component.getAllClasses()) {
+                classIds.put(cls, classes.size());
+                classes.add(cls);
+            }
+        }
+        firstClass[packageCount] = classes.size();
+
+        boolean[] hasDependencyIn = new boolean[classes.size()];
+        boolean[] hasDependencyOut = new boolean[classes.size()];
+        Map<Element, Set<Element>> implementors = new HashMap<Element, Set<Element>>();
+
+        for (Relationship relationship : architecture.getRelationshipHolder().getAllRelationships()) {
+            if (relationship instanceof DependencyRelationship) {
+                DependencyRelationship dependency = (DependencyRelationship) relationship;
+                mark(classIds, dependency.getSupplier(), hasDependencyIn);
+                mark(classIds, dependency.getClient(), hasDependencyOut);
+                if (dependency.getClient() != null && packageIds.containsKey(dependency.getClient()))
+                    dependencyOut++;
+            } else if (relationship instanceof RealizationRelationship) {
+                // aqui ClassDependencyIn considera somente DependencyRelationship
+                RealizationRelationship realization = (RealizationRelationship) relationship;
+                if (realization.getSupplier() != null) {
+                    Set<Element> clients = implementors.get(realization.getSupplier());
+                    if (clients == null) {
+                        clients = new HashSet<Element>();
+                        implementors.put(realization.getSupplier(), clients);
+                    }
+                    clients.add(realization.getClient());
+                }
+            } else if (relationship instanceof AbstractionRelationship) {
+                AbstractionRelationship abstraction = (AbstractionRelationship) relationship;
+                if (abstraction.getSupplier() != null && packageIds.containsKey(abstraction.getSupplier()))
+                    dependencyIn++;
+            }
+        }
+
+        double numberOfOperations = 0.0;
+        int numberOfInterfaces = 0;
+        int totalDependencies = 0;
+        Set<Element> depComponents = new HashSet<Element>();
+
+        for (int p = 0; p < packageCount; p++) {
+            Package component = packages.get(p);
+            List<Class> componentClasses = classes.subList(firstClass[p], firstClass[p + 1]);
+            List<Interface> implemented = new ArrayList<Interface>(component.getImplementedInterfaces());
+
+            for (int c = firstClass[p]; c < firstClass[p + 1]; c++) {
+                // cada classe com dependência conta todas as classes do pacote
+                if (hasDependencyIn[c])
+                    classDependencyIn += componentClasses.size();
+                if (hasDependencyOut[c])
+                    classDependencyOut += componentClasses.size();
+            }
+
+            for (Interface itf : implemented) {
+                numberOfOperations += itf.getOperations().size();
+                numberOfInterfaces++;
+            }
+
+            depComponents.clear();
+            for (Interface itf : component.getRequiredInterfaces())
+                depComponents.addAll(implementorsOf(implementors, itf));
+            totalDependencies += depComponents.size();
+
+            relationalCohesion += cohesion(componentClasses, implemented, implementors);
+        }
+
+        // sem interfaces o resultado é NaN, como em MeanNumOpsByInterface
+        meanNumOps = numberOfOperations / numberOfInterfaces;
+        if (packageCount != 0)
+            meanDepComponents = totalDependencies / packageCount;
+
+        assert matchesLegacy(architecture) : "ConventionalMetrics diverge das métricas originais";
+    }
+
+    private static void mark(Map<Element, Integer> ids, Element element, boolean[] marks) {
+        if (element == null) return;
+        Integer id = ids.get(element);
+        if (id != null)
+            marks[id] = true;
+    }
+
+    private static Set<Element> implementorsOf(Map<Element, Set<Element>> implementors, Interface itf) {
+        Set<Element> clients = implementors.get(itf);
+        return clients == null ? Collections.<Element>emptySet() : clients;
+    }
+
+    /**
+     * H = (R + 1) / (classes + interfaces) do pacote, com divisão inteira como em {@link RelationalCohesion}.
+     * A regra de associações/generalizações de lá compara elementos com nomes (String) e nunca conta nada.
+     */
+    private static int cohesion(List<Class> classes, List<Interface> interfaces, Map<Element, Set<Element>> implementors) {
+        int r = 0;
+
+        for (Interface itf : interfaces) {
+            List<String> parameterNames = parameterNames(itf.getOperations());
+            r += countContained(parameterNames, classes) + countContained(parameterNames, interfaces);
+            r += implementorsOf(implementors, itf).size();
+        }
+
+        for (Class cls : classes) {
+            // RelationalCohesion compara o tipo do atributo com o nome usando ==
+            Set<String> attributeTypes = Collections.newSetFromMap(new IdentityHashMap<String, Boolean>());
+            for (Attribute attribute : cls.getAllAttributes())
+                attributeTypes.add(attribute.getType());
+            for (Class c : classes)
+                if (attributeTypes.contains(c.getName())) r++;
+            for (Interface itf : interfaces)
+                if (attributeTypes.contains(itf.getName())) r++;
+
+            r += countContained(parameterNames(cls.getAllMethods()), classes);
+        }
+
+        int total = classes.size() + interfaces.size();
+        return total == 0 ? 0 : (r + 1) / total;
+    }
+
+    private static List<String> parameterNames(Collection<Method> methods) {
+        List<String> names = new ArrayList<String>();
+        for (Method method : methods)
+            for (ParameterMethod parameter : method.getParameters())
+                names.add(parameter.getName());
+        return names;
+    }
+
+    /**
+     * Quantos elementos têm o nome contido no nome de algum parâmetro.
+     */
+    private static int countContained(List<String> parameterNames, List<? extends Element> elements) {
+        int count = 0;
+        for (Element element : elements) {
+            for (String parameterName : parameterNames) {
+                if (parameterName.contains(element.getName())) {
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Confere os valores com as classes originais.
+     */
+    boolean matchesLegacy(Architecture architecture) {
+        return Double.compare(meanNumOps, new MeanNumOpsByInterface(architecture).getResults()) == 0
+                && Double.compare(meanDepComponents, new MeanDepComponents(architecture).getResults()) == 0
+                && classDependencyIn == new ClassDependencyIn(architecture).getResults()
+                && classDependencyOut == new ClassDependencyOut(architecture).getResults()
+                && dependencyIn == new DependencyIn(architecture).getResults()
+                && dependencyOut == new DependencyOut(architecture).getResults()
+                && Double.compare(relationalCohesion, new RelationalCohesion(architecture).getResults()) == 0;
+    }
+
+    public double getMeanNumOps() {
+        return meanNumOps;
+    }
+
+    public double getMeanDepComponents() {
+        return meanDepComponents;
+    }
+
+    public int getClassDependencyIn() {
+        return classDependencyIn;
+    }
+
+    public int getClassDependencyOut() {
+        return classDependencyOut;
+    }
+
+    public int getDependencyIn() {
+        return dependencyIn;
+    }
+
+    public int getDependencyOut() {
+        return dependencyOut;
+    }
+
+    public double getRelationalCohesion() {
+        return relationalCohesion;
+    }
+
+}
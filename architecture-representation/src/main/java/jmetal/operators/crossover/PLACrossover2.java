@@ -120,7 +120,7 @@ public class PLACrossover2 extends Crossover {
                     if (!(isValidSolution((Architecture) offspring[0].getDecisionVariables()[0]))) {
                         //offspring[0] = new Solution(parent1);
                         offspring[0] = parent1;
-                        OPLA.contDiscardedSolutions_++;
+                        OPLA.counters().contDiscardedSolutions_++;
                     }
                     this.variabilitiesOk = true;
                     obtainChild(feature, (Architecture) parent1.getDecisionVariables()[0], (Architecture) offspring[1].getDecisionVariables()[0], scope);
@@ -128,7 +128,7 @@ public class PLACrossover2 extends Crossover {
                     if (!(isValidSolution((Architecture) offspring[1].getDecisionVariables()[0]))) {
                         //offspring[0] = new Solution(parent1);
                         offspring[0] = parent1;
-                        OPLA.contDiscardedSolutions_++;
+                        OPLA.counters().contDiscardedSolutions_++;
                     }
                     concernsArchitecture = null;
                 }
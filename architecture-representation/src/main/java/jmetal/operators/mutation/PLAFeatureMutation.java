@@ -14,6 +14,7 @@ import jmetal.problems.OPLA;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
+import jmetal.util.RandomStreams;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -300,12 +301,12 @@ public class PLAFeatureMutation extends Mutation {
                                 List<Attribute> AttributesClass = new ArrayList<Attribute>(sourceClass.getAllAttributes());
                                 if (AttributesClass.size() >= 1) {
                                     if ("sameComponent".equals(scope)) {
-                                        moveAttributeToNewClass(arch, sourceClass, AttributesClass, sourceComp.createClass("Class" + OPLA.contClass_++, false));
+                                        moveAttributeToNewClass(arch, sourceClass, AttributesClass, sourceComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                     } else {
                                         if ("allComponents".equals(scope)) {
                                             Package targetComp = randomObject(new ArrayList<Package>(arch.getAllPackages()));
                                             if (checkSameLayer(sourceComp, targetComp)) {
-                                                moveAttributeToNewClass(arch, sourceClass, AttributesClass, targetComp.createClass("Class" + OPLA.contClass_++, false));
+                                                moveAttributeToNewClass(arch, sourceClass, AttributesClass, targetComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                             }
                                         }
                                     }
@@ -315,12 +316,12 @@ public class PLAFeatureMutation extends Mutation {
                                 List<Method> MethodsClass = new ArrayList<Method>(sourceClass.getAllMethods());
                                 if (MethodsClass.size() >= 1) {
                                     if ("sameComponent".equals(scope)) {
-                                        moveMethodToNewClass(arch, sourceClass, MethodsClass, sourceComp.createClass("Class" + OPLA.contClass_++, false));
+                                        moveMethodToNewClass(arch, sourceClass, MethodsClass, sourceComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                     } else {
                                         if ("allComponents".equals(scope)) {
                                             Package targetComp = randomObject(new ArrayList<Package>(arch.getAllPackages()));
                                             if (checkSameLayer(sourceComp, targetComp)) {
-                                                moveMethodToNewClass(arch, sourceClass, MethodsClass, targetComp.createClass("Class" + OPLA.contClass_++, false));
+                                                moveMethodToNewClass(arch, sourceClass, MethodsClass, targetComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                             }
                                         }
                                     }
@@ -421,9 +422,9 @@ public class PLAFeatureMutation extends Mutation {
                         if (OpsInterface.size() >= 1) {
                             Method op = randomObject(OpsInterface);
 
-                            Package newComp = arch.createPackage("Package" + OPLA.contComp_ + getSuffix(sourceComp));
-                            OPLA.contComp_++;
-                            Interface newInterface = newComp.createInterface("Interface" + OPLA.contInt_++);
+                            Package newComp = arch.createPackage("Package" + OPLA.counters().contComp_ + getSuffix(sourceComp));
+                            OPLA.counters().contComp_++;
+                            Interface newInterface = newComp.createInterface("Interface" + OPLA.counters().contInt_++);
 
                             sourceInterface.moveOperationToInterface(op, newInterface);
 
@@ -470,8 +471,8 @@ public class PLAFeatureMutation extends Mutation {
                             final Concern selectedConcern = randomObject(concernsSelectedComp);
                             List<Package> allComponentsAssignedOnlyToConcern = new ArrayList<Package>(searchComponentsAssignedToConcern(selectedConcern, allComponents));
                             if (allComponentsAssignedOnlyToConcern.isEmpty()) {
-                                OPLA.contComp_++;
-                                modularizeConcernInComponent(allComponents, arch.createPackage("Package" + OPLA.contComp_ + getSuffix(selectedComp)), selectedConcern, arch);
+                                OPLA.counters().contComp_++;
+                                modularizeConcernInComponent(allComponents, arch.createPackage("Package" + OPLA.counters().contComp_ + getSuffix(selectedComp)), selectedConcern, arch);
                             } else {
                                 if (allComponentsAssignedOnlyToConcern.size() == 1) {
                                     modularizeConcernInComponent(allComponents, allComponentsAssignedOnlyToConcern.get(0), selectedConcern, arch);
@@ -622,7 +623,7 @@ public class PLAFeatureMutation extends Mutation {
         }
 
         if (targetClass == null) {
-            targetClass = targetComp.createClass("Class" + OPLA.contClass_++, false);
+            targetClass = targetComp.createClass("Class" + OPLA.counters().contClass_++, false);
             targetClass.addConcern(concern.getName());
         }
         return targetClass;
@@ -665,7 +666,7 @@ public class PLAFeatureMutation extends Mutation {
     }
 
     private Class randonClass(List<Class> targetClasses) {
-        Collections.shuffle(targetClasses);
+        Collections.shuffle(targetClasses, RandomStreams.asRandom());
         Class randonKlass = targetClasses.get(0);
         return randonKlass;
     }
@@ -694,7 +695,7 @@ public class PLAFeatureMutation extends Mutation {
         targetInterface = searchForInterfaceWithConcern(concern, targetComp);
 
         if (targetInterface == null) {
-            targetInterface = targetComp.createInterface("Interface" + OPLA.contInt_++);
+            targetInterface = targetComp.createInterface("Interface" + OPLA.counters().contInt_++);
             sourceInterface.moveOperationToInterface(operation, targetInterface);
             targetInterface.addConcern(concern.getName());
         } else {
@@ -856,7 +857,7 @@ public class PLAFeatureMutation extends Mutation {
             Architecture clone;
             clone = ((Architecture) solution.getDecisionVariables()[0]).deepClone();
             solution.getDecisionVariables()[0] = clone;
-            OPLA.contDiscardedSolutions_++;
+            OPLA.counters().contDiscardedSolutions_++;
         }
 
         return solution;
@@ -22,19 +22,18 @@ import jmetal.util.JMException;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 //criado por Thelma em agosto/2012
 public class OPLA extends Problem {
 
     private static final long serialVersionUID = 884633138619836573L;
 
-    // variaveis para controlar os contadores de componentes e interfaces
-    public static int contComp_ = 0;
-    public static int contInt_ = 0;
-    public static int contClass_ = 0;
-    public static int contDiscardedSolutions_ = 0;
+    // contadores de componentes e interfaces, um conjunto por thread (execuções em paralelo não compartilham)
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
 
     public Architecture architecture_;
 
@@ -57,6 +56,30 @@ public class OPLA extends Problem {
 
     }
 
+    /**
+     * Contadores usados nos nomes dos elementos criados pelos operadores, da execução que roda na thread atual.
+     */
+    public static Counters counters() {
+        return COUNTERS.get();
+    }
+
+    /**
+     * Começa contadores novos na thread atual, no início de uma execução independente.
+     */
+    public static void resetCounters() {
+        COUNTERS.set(new Counters());
+    }
+
+    /**
+     * Contadores dos nomes dos elementos criados (Package, Interface, Class) e das soluções descartadas.
+     */
+    public static final class Counters {
+        public int contComp_ = 0;
+        public int contInt_ = 0;
+        public int contClass_ = 0;
+        public int contDiscardedSolutions_ = 0;
+    }
+
     // -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- --
 
     @Override
@@ -166,26 +189,14 @@ public class OPLA extends Problem {
         double sumDepOut = 0.0;
         double iCohesion = 0.0;
 
-        MeanNumOpsByInterface numOps = new MeanNumOpsByInterface(architecture);
-        meanNumOps = numOps.getResults();
-
-        MeanDepComponents depComps = new MeanDepComponents(architecture);
-        meanDepComps = depComps.getResults();
-
-        ClassDependencyOut classesDepOut = new ClassDependencyOut(architecture);
-        sumClassesDepOut = classesDepOut.getResults();
-
-        ClassDependencyIn classesDepIn = new ClassDependencyIn(architecture);
-        sumClassesDepIn = classesDepIn.getResults();
-
-        DependencyOut DepOut = new DependencyOut(architecture);
-        sumDepOut = DepOut.getResults();
-
-        DependencyIn DepIn = new DependencyIn(architecture);
-        sumDepIn = DepIn.getResults();
-
-        RelationalCohesion cohesion = new RelationalCohesion(architecture);
-        sumCohesion = cohesion.getResults();
+        ConventionalMetrics metrics = new ConventionalMetrics(architecture);
+        meanNumOps = metrics.getMeanNumOps();
+        meanDepComps = metrics.getMeanDepComponents();
+        sumClassesDepOut = metrics.getClassDependencyOut();
+        sumClassesDepIn = metrics.getClassDependencyIn();
+        sumDepOut = metrics.getDependencyOut();
+        sumDepIn = metrics.getDependencyIn();
+        sumCohesion = metrics.getRelationalCohesion();
         if (sumCohesion == 0) {
             iCohesion = 1.0;
         } else
@@ -280,16 +291,20 @@ public class OPLA extends Problem {
     }
 
     // -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- --
+    /**
+     * Remove as soluções com arquiteturas estruturalmente iguais (mesma impressão digital),
+     * mantendo a primeira ocorrência. A impressão digital de cada solução é calculada uma vez;
+     * soluções sem impressão digital só são iguais a si mesmas.
+     */
     public SolutionSet removeRepetidas(SolutionSet result) {
-        String solucao;
-
-        for (int i = 0; i < result.size() - 1; i++) {
-            solucao = result.get(i).getDecisionVariables()[0].toString();
-            for (int j = i + 1; j < result.size(); j++) {
-                if (solucao.equals(result.get(j).getDecisionVariables()[0].toString())) {
-                    result.remove(j);
-                    System.out.println("removido Repedita");
-                }
+        Set<Object> distintas = new HashSet<Object>();
+
+        for (int i = 0; i < result.size(); i++) {
+            Solution solucao = result.get(i);
+            Object impressao = solucao.getDecisionVariables()[0].structuralKey();
+            if (!distintas.add(impressao != null ? impressao : solucao)) {
+                result.remove(i--);
+                System.out.println("removido Repedita");
             }
         }
 
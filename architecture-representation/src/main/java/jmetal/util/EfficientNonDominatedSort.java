@@ -0,0 +1,179 @@
+package jmetal.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Efficient non-dominated sort (ENS) of Zhang, Tian, Cheng and Jin, "An Efficient Approach to
+ * Nondominated Sorting for Evolutionary Multiobjective Optimization", IEEE TEC 19(2), 2015.
+ * <p>
+ * The solutions are visited in lexicographic order of their objectives, so a solution can only be
+ * dominated by solutions visited before it. Each one is placed in the first front that has no
+ * solution dominating it, searching the fronts one after the other (ENS-SS) or by bisection (ENS-BS).
+ * Solutions with equal objective vectors do not dominate each other and share a front.
+ * <p>
+ * The objectives are read from a packed row-major matrix: objective <code>j</code> of solution
+ * <code>i</code> is <code>objectives[i * numberOfObjectives + j]</code>. All objectives are minimized.
+ * <p>
+ * Constraint violations follow the jMetal convention (0 for feasible solutions, negative otherwise):
+ * a solution with a smaller violation dominates one with a larger violation. Solutions with the same
+ * negative violation are compared by their objectives or, as in the jMetal 4 comparators, not at all.
+ */
+public final class EfficientNonDominatedSort {
+
+    private EfficientNonDominatedSort() {
+    }
+
+    /**
+     * Tells whether the sort can rank these solutions with the same result as the pairwise comparators:
+     * no objective is NaN and no violation is NaN or positive.
+     *
+     * @param objectives the packed objective matrix
+     * @param violations the overall constraint violations, or null if there are no constraints
+     * @return true if {@link #ranks} can be used
+     */
+    public static boolean isApplicable(double[] objectives, double[] violations) {
+        for (double value : objectives)
+            if (Double.isNaN(value))
+                return false;
+        if (violations != null)
+            for (double violation : violations)
+                if (Double.isNaN(violation) || violation > 0)
+                    return false;
+        return true;
+    }
+
+    /**
+     * Computes the front of each solution.
+     *
+     * @param objectives          the packed objective matrix
+     * @param numberOfObjectives  number of objectives per solution
+     * @param violations          the overall constraint violations, or null if there are no constraints
+     * @param infeasibleDominance whether solutions with the same negative violation are compared by
+     *                            their objectives
+     * @param sorting             {@link NonDominatedSorting#ENS_SS} or {@link NonDominatedSorting#ENS_BS}
+     * @return the rank (0 for the first front) of each solution
+     */
+    public static int[] ranks(double[] objectives, int numberOfObjectives, double[] violations,
+                              boolean infeasibleDominance, NonDominatedSorting sorting) {
+        if (!sorting.isEfficient())
+            throw new IllegalArgumentException("Not an efficient non-dominated sort: " + sorting);
+        int size = objectives.length / numberOfObjectives;
+        int[] ranks = new int[size];
+
+        // every solution of a group dominates every solution of the following groups
+        TreeMap<Double, List<Integer>> groups = new TreeMap<Double, List<Integer>>();
+        for (int i = 0; i < size; i++) {
+            double violation = violations == null ? 0.0 : violations[i];
+            // -0.0 and 0.0 are the same group
+            Double key = violation == 0.0 ? 0.0 : -violation;
+            List<Integer> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<Integer>();
+                groups.put(key, group);
+            }
+            group.add(i);
+        }
+
+        int offset = 0;
+        for (Map.Entry<Double, List<Integer>> group : groups.entrySet()) {
+            List<Integer> members = group.getValue();
+            if (group.getKey() != 0.0 && !infeasibleDominance) {
+                for (int i : members)
+                    ranks[i] = offset;
+                offset++;
+            } else {
+                offset += sort(objectives, numberOfObjectives, members, offset, ranks,
+                        sorting == NonDominatedSorting.ENS_BS);
+            }
+        }
+        return ranks;
+    }
+
+    /**
+     * Sorts the members of one group.
+     *
+     * @return number of fronts of the group
+     */
+    private static int sort(final double[] objectives, final int numberOfObjectives, List<Integer> members,
+                            int offset, int[] ranks, boolean binarySearch) {
+        Integer[] order = members.toArray(new Integer[members.size()]);
+        Arrays.sort(order, (a, b) -> {
+            // primitive comparison: -0.0 and 0.0 are equal, as in the dominance test
+            for (int j = 0; j < numberOfObjectives; j++) {
+                double x = objectives[a * numberOfObjectives + j];
+                double y = objectives[b * numberOfObjectives + j];
+                if (x < y)
+                    return -1;
+                if (x > y)
+                    return 1;
+            }
+            return Integer.compare(a, b);
+        });
+
+        List<int[]> fronts = new ArrayList<int[]>();
+        int[] frontSizes = new int[order.length];
+
+        for (int solution : order) {
+            int front;
+            if (binarySearch) {
+                int low = 0;
+                int high = fronts.size();
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (isDominated(objectives, numberOfObjectives, solution, fronts.get(middle), frontSizes[middle]))
+                        low = middle + 1;
+                    else
+                        high = middle;
+                }
+                front = low;
+            } else {
+                front = 0;
+                while (front < fronts.size()
+                        && isDominated(objectives, numberOfObjectives, solution, fronts.get(front), frontSizes[front]))
+                    front++;
+            }
+
+            if (front == fronts.size())
+                fronts.add(new int[4]);
+            int[] frontMembers = fronts.get(front);
+            if (frontSizes[front] == frontMembers.length) {
+                frontMembers = Arrays.copyOf(frontMembers, frontMembers.length * 2);
+                fronts.set(front, frontMembers);
+            }
+            frontMembers[frontSizes[front]++] = solution;
+            ranks[solution] = offset + front;
+        }
+        return fronts.size();
+    }
+
+    /**
+     * Whether some member of the front dominates the solution. The members come before the solution in
+     * lexicographic order; the last ones added are the most likely to dominate it and are checked first.
+     */
+    private static boolean isDominated(double[] objectives, int numberOfObjectives, int solution,
+                                       int[] front, int size) {
+        int base = solution * numberOfObjectives;
+        for (int k = size - 1; k >= 0; k--) {
+            int other = front[k] * numberOfObjectives;
+            boolean dominates = true;
+            boolean better = false;
+            for (int j = 0; j < numberOfObjectives; j++) {
+                double a = objectives[other + j];
+                double b = objectives[base + j];
+                if (a > b) {
+                    dominates = false;
+                    break;
+                }
+                if (a < b)
+                    better = true;
+            }
+            if (dominates && better)
+                return true;
+        }
+        return false;
+    }
+}
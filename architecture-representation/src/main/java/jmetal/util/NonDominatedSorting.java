@@ -0,0 +1,26 @@
+package jmetal.util;
+
+/**
+ * Algorithms available to split a set of solutions into non-dominated fronts.
+ */
+public enum NonDominatedSorting {
+
+    /**
+     * Deb's fast non-dominated sort: every pair of solutions is compared, O(MN^2).
+     */
+    FAST_NON_DOMINATED_SORT,
+
+    /**
+     * Efficient non-dominated sort, sequential search strategy (ENS-SS). See {@link EfficientNonDominatedSort}.
+     */
+    ENS_SS,
+
+    /**
+     * Efficient non-dominated sort, binary search strategy (ENS-BS). See {@link EfficientNonDominatedSort}.
+     */
+    ENS_BS;
+
+    public boolean isEfficient() {
+        return this != FAST_NON_DOMINATED_SORT;
+    }
+}
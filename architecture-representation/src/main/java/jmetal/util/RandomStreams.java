@@ -0,0 +1,153 @@
+package jmetal.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+
+/**
+ * Random number streams used by {@link PseudoRandom}, {@link jmetal5.util.pseudorandom.JMetalRandom},
+ * the PLA operators and the design pattern strategies.
+ * <p>
+ * Each thread draws from its own {@link SplittableRandom}, so no generator is shared and no lock is
+ * taken while drawing. A thread without a stream gets one split from the master stream, which is
+ * created from the seed given to {@link #setSeed(long)}. A single-threaded run is reproducible from
+ * the seed. For concurrent tasks, split the streams in a fixed order and run each task with its own:
+ * <pre>
+ * List&lt;SplittableRandom&gt; streams = RandomStreams.split(tasks.size());
+ * for (int i = 0; i &lt; tasks.size(); i++)
+ *     executor.submit(RandomStreams.with(streams.get(i), tasks.get(i)));
+ * </pre>
+ * The results then do not depend on which thread runs which task.
+ */
+public final class RandomStreams {
+
+    private static final ThreadLocal<Stream> CURRENT = new ThreadLocal<Stream>();
+
+    private static SplittableRandom master = new SplittableRandom();
+    private static long seed;
+    private static volatile long generation;
+
+    private RandomStreams() {
+    }
+
+    /**
+     * Restarts the master stream from <code>seed</code>. Threads drop the streams split from the
+     * previous seed on their next draw.
+     *
+     * @param seed the master seed
+     */
+    public static synchronized void setSeed(long seed) {
+        RandomStreams.seed = seed;
+        master = new SplittableRandom(seed);
+        generation++;
+    }
+
+    /**
+     * @return the last seed given to {@link #setSeed(long)}, or 0 if the streams were never seeded
+     */
+    public static synchronized long getSeed() {
+        return seed;
+    }
+
+    private static synchronized Stream splitMaster() {
+        return new Stream(master.split(), generation);
+    }
+
+    private static Stream stream() {
+        Stream stream = CURRENT.get();
+        if (stream == null || stream.generation != generation) {
+            stream = splitMaster();
+            CURRENT.set(stream);
+        }
+        return stream;
+    }
+
+    /**
+     * @return the stream of the current thread
+     */
+    public static SplittableRandom current() {
+        return stream().random;
+    }
+
+    /**
+     * A {@link Random} view of the stream of the current thread, for APIs such as
+     * {@link java.util.Collections#shuffle(List, Random)}. It must not be shared with other threads.
+     *
+     * @return Random
+     */
+    public static Random asRandom() {
+        return stream().view;
+    }
+
+    /**
+     * Splits <code>count</code> new streams from the stream of the current thread.
+     *
+     * @param count number of streams
+     * @return the streams, in a reproducible order
+     */
+    public static List<SplittableRandom> split(int count) {
+        SplittableRandom parent = current();
+        List<SplittableRandom> streams = new ArrayList<SplittableRandom>(count);
+        for (int i = 0; i < count; i++)
+            streams.add(parent.split());
+        return streams;
+    }
+
+    /**
+     * Wraps <code>task</code> so that it draws from <code>random</code> on whatever thread runs it.
+     *
+     * @param random the stream of the task
+     * @param task   the task
+     * @return Callable
+     */
+    public static <T> Callable<T> with(final SplittableRandom random, final Callable<T> task) {
+        return () -> {
+            Stream previous = CURRENT.get();
+            CURRENT.set(new Stream(random, generation));
+            try {
+                return task.call();
+            } finally {
+                if (previous != null)
+                    CURRENT.set(previous);
+                else
+                    CURRENT.remove();
+            }
+        };
+    }
+
+    private static final class Stream {
+
+        private final SplittableRandom random;
+        private final long generation;
+        private final Random view;
+
+        Stream(SplittableRandom random, long generation) {
+            this.random = random;
+            this.generation = generation;
+            this.view = new RandomView(random);
+        }
+    }
+
+    /**
+     * {@link Random} drawing from a {@link SplittableRandom}.
+     */
+    private static final class RandomView extends Random {
+
+        private static final long serialVersionUID = 4398410213641387532L;
+
+        private final SplittableRandom source;
+
+        RandomView(SplittableRandom source) {
+            super(0L);
+            this.source = source;
+        }
+
+        @Override
+        protected int next(int bits) {
+            return source.nextInt() >>> (32 - bits);
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+package jmetal5.algorithm.multiobjective.nsgaii;
+
+import jmetal5.operator.CrossoverOperator;
+import jmetal5.operator.MutationOperator;
+import jmetal5.operator.SelectionOperator;
+import jmetal5.problem.Problem;
+import jmetal5.solution.Solution;
+import jmetal5.util.JMetalException;
+import jmetal5.util.JMetalLogger;
+import jmetal5.util.evaluator.SolutionListEvaluator;
+import jmetal5.util.evaluator.impl.SequentialSolutionListEvaluator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous master/worker version of the steady-state NSGA-II. There is no generational barrier:
+ * as soon as a worker finishes evaluating an offspring, the master inserts it into the population
+ * (ranking and crowding of the population plus the offspring) and submits a new offspring bred from
+ * the updated population. Up to <code>numberOfInFlightEvaluations</code> offspring are being
+ * evaluated at any time, so workers are not left idle while slow solutions are evaluated.
+ * <p>
+ * Selection, crossover, mutation and replacement run on the thread calling {@link #run()}; the workers
+ * only call {@link Problem#evaluate}, on several solutions at the same time. The variation operators may
+ * leave the offspring sharing objects with the population (the OPLA crossover moves the parent's elements
+ * into the child, and returns a parent when the child is invalid), and the next variations change those
+ * objects in place, so each offspring is copied ({@link Solution#copy()}) before it is submitted. Because
+ * the order in which evaluations finish depends on their duration, two runs with the same seed can differ.
+ * <p>
+ * At the end of a run the busy time and the CPU time of the workers are logged, relative to the time
+ * the workers were available; see {@link #getWorkerUtilization()} and {@link #getWorkerCpuUtilization()}.
+ */
+@SuppressWarnings("serial")
+public class AsynchronousSteadyStateNSGAII<S extends Solution<?>> extends SteadyStateNSGAII<S> {
+    private final int numberOfThreads;
+    private final int numberOfInFlightEvaluations;
+
+    private final SolutionListEvaluator<S> workerEvaluator = new SequentialSolutionListEvaluator<S>();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong cpuNanos = new AtomicLong();
+    private long elapsedNanos;
+
+    /**
+     * Constructor. The workers evaluate one solution at a time, so <code>evaluator</code> is not used.
+     *
+     * @param numberOfThreads             number of workers, or 0 for one per available processor
+     * @param numberOfInFlightEvaluations maximum number of offspring submitted and not yet inserted, or 0
+     *                                    for one per worker
+     */
+    public AsynchronousSteadyStateNSGAII(Problem<S> problem, int maxEvaluations, int populationSize,
+                                         CrossoverOperator<S> crossoverOperator, MutationOperator<S> mutationOperator,
+                                         SelectionOperator<List<S>, S> selectionOperator, SolutionListEvaluator<S> evaluator,
+                                         int numberOfThreads, int numberOfInFlightEvaluations) {
+        super(problem, maxEvaluations, populationSize, crossoverOperator, mutationOperator,
+                selectionOperator, evaluator);
+        if (numberOfThreads < 0) {
+            throw new JMetalException("numberOfThreads is negative: " + numberOfThreads);
+        }
+        if (numberOfInFlightEvaluations < 0) {
+            throw new JMetalException("numberOfInFlightEvaluations is negative: " + numberOfInFlightEvaluations);
+        }
+        this.numberOfThreads = numberOfThreads == 0 ? Runtime.getRuntime().availableProcessors() : numberOfThreads;
+        this.numberOfInFlightEvaluations = numberOfInFlightEvaluations == 0 ? this.numberOfThreads : numberOfInFlightEvaluations;
+    }
+
+    @Override
+    public void run() {
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        CompletionService<S> completionService = new ExecutorCompletionService<S>(executor);
+        busyNanos.set(0);
+        cpuNanos.set(0);
+        long start = System.nanoTime();
+        try {
+            List<S> initialPopulation = createInitialPopulation();
+            for (S solution : initialPopulation) {
+                completionService.submit(evaluationTask(solution));
+            }
+            population = new ArrayList<>(initialPopulation.size());
+            for (int i = 0; i < initialPopulation.size(); i++) {
+                population.add(take(completionService));
+            }
+            initProgress();
+
+            int pending = 0;
+            while (pending < numberOfInFlightEvaluations && evaluations + pending < maxEvaluations) {
+                completionService.submit(evaluationTask(breed()));
+                pending++;
+            }
+
+            while (pending > 0) {
+                S offspring = take(completionService);
+                pending--;
+                population = replacement(population, Collections.singletonList(offspring));
+                updateProgress();
+
+                if (evaluations + pending < maxEvaluations) {
+                    completionService.submit(evaluationTask(breed()));
+                    pending++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            elapsedNanos = System.nanoTime() - start;
+        }
+
+        JMetalLogger.logger.info(String.format("%s: %d evaluations in %.3f s, %d workers, %d in flight, "
+                        + "worker utilization %.1f%%, worker CPU utilization %.1f%%",
+                getName(), evaluations, elapsedNanos / 1e9, numberOfThreads, numberOfInFlightEvaluations,
+                100 * getWorkerUtilization(), 100 * getWorkerCpuUtilization()));
+    }
+
+    /**
+     * Breeds one offspring from the current population, as a copy that shares nothing with it.
+     */
+    @SuppressWarnings("unchecked")
+    private S breed() {
+        return (S) reproduction(selection(population)).get(0).copy();
+    }
+
+    private Callable<S> evaluationTask(final S solution) {
+        return () -> {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            boolean measureCpu = threads.isCurrentThreadCpuTimeSupported();
+            long cpuStart = measureCpu ? threads.getCurrentThreadCpuTime() : 0;
+            long start = System.nanoTime();
+
+            workerEvaluator.evaluate(Collections.singletonList(solution), getProblem());
+
+            busyNanos.addAndGet(System.nanoTime() - start);
+            if (measureCpu) {
+                cpuNanos.addAndGet(threads.getCurrentThreadCpuTime() - cpuStart);
+            }
+            return solution;
+        };
+    }
+
+    private S take(CompletionService<S> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMetalException("Interrupted while waiting for an evaluation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new JMetalException("Error evaluating a solution", e);
+        }
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    public int getNumberOfInFlightEvaluations() {
+        return numberOfInFlightEvaluations;
+    }
+
+    /**
+     * @return fraction of the worker time of the last run spent evaluating solutions
+     */
+    public double getWorkerUtilization() {
+        return elapsedNanos == 0 ? 0.0 : (double) busyNanos.get() / ((double) elapsedNanos * numberOfThreads);
+    }
+
+    /**
+     * @return CPU time of the evaluations of the last run as a fraction of the worker time, or 0 if the
+     * JVM does not measure thread CPU time
+     */
+    public double getWorkerCpuUtilization() {
+        return elapsedNanos == 0 ? 0.0 : (double) cpuNanos.get() / ((double) elapsedNanos * numberOfThreads);
+    }
+
+    @Override
+    public String getName() {
+        return "asyncSSNSGAII";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Nondominated Sorting Genetic Algorithm version II. Asynchronous steady-state version";
+    }
+}
@@ -0,0 +1,129 @@
+package jmetal5.algorithm.multiobjective.nsgaii;
+
+import jmetal.util.RandomStreams;
+import jmetal5.algorithm.Algorithm;
+import jmetal5.solution.Solution;
+import jmetal5.util.JMetalException;
+import jmetal5.util.JMetalLogger;
+import jmetal5.util.SolutionListUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Island model: each {@link IslandNSGAII} runs on its own thread, and the islands exchange non-dominated
+ * solutions every <code>migrationInterval</code> generations following a {@link MigrationTopology}.
+ * The result is the non-dominated union of the final populations.
+ * <p>
+ * Each island draws from its own random stream, split from the stream of the thread calling {@link #run()}.
+ * The problem must evaluate concurrently and the operators must not be shared between islands unless they
+ * are thread-safe; build each island from its own operators when in doubt. Since migrants arrive while the
+ * receiving island is running, runs with the same seed are not reproducible when migration is enabled.
+ */
+@SuppressWarnings("serial")
+public class IslandModel<S extends Solution<?>> implements Algorithm<List<S>> {
+    private final List<IslandNSGAII<S>> islands;
+    private final MigrationTopology topology;
+    private final int migrationInterval;
+    private final int numberOfMigrants;
+
+    private List<S> result;
+
+    /**
+     * Constructor
+     *
+     * @param islands           the islands, at least one
+     * @param topology          islands receiving the migrants of each island
+     * @param migrationInterval generations between migrations; 0 for independent islands
+     * @param numberOfMigrants  maximum number of solutions sent to each receiving island per migration
+     */
+    public IslandModel(List<IslandNSGAII<S>> islands, MigrationTopology topology, int migrationInterval,
+                       int numberOfMigrants) {
+        if (islands == null || islands.isEmpty()) {
+            throw new JMetalException("There are no islands");
+        }
+        if (topology == null) {
+            throw new JMetalException("topology is null");
+        }
+        if (migrationInterval < 0) {
+            throw new JMetalException("migrationInterval is negative: " + migrationInterval);
+        }
+        if (numberOfMigrants < 0) {
+            throw new JMetalException("numberOfMigrants is negative: " + numberOfMigrants);
+        }
+        this.islands = new ArrayList<>(islands);
+        this.topology = topology;
+        this.migrationInterval = migrationInterval;
+        this.numberOfMigrants = numberOfMigrants;
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < islands.size(); i++) {
+            islands.get(i).connect(islands, i, topology, migrationInterval, numberOfMigrants);
+        }
+
+        List<SplittableRandom> streams = RandomStreams.split(islands.size());
+        ExecutorService executor = Executors.newFixedThreadPool(islands.size());
+        long start = System.currentTimeMillis();
+        try {
+            List<Future<Void>> runs = new ArrayList<>(islands.size());
+            for (int i = 0; i < islands.size(); i++) {
+                final IslandNSGAII<S> island = islands.get(i);
+                runs.add(executor.submit(RandomStreams.with(streams.get(i), () -> {
+                    island.run();
+                    return null;
+                })));
+            }
+            for (Future<Void> run : runs) {
+                run.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMetalException("Interrupted while waiting for the islands", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new JMetalException("Error running an island", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<S> union = new ArrayList<>();
+        int received = 0;
+        for (IslandNSGAII<S> island : islands) {
+            union.addAll(island.getPopulation());
+            received += island.getReceivedMigrants();
+        }
+        result = SolutionListUtils.getNondominatedSolutions(union);
+
+        JMetalLogger.logger.info(getName() + ": " + islands.size() + " islands, " + topology + " topology, "
+                + received + " migrants received, " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    @Override
+    public List<S> getResult() {
+        return result;
+    }
+
+    public List<IslandNSGAII<S>> getIslands() {
+        return islands;
+    }
+
+    @Override
+    public String getName() {
+        return "IslandModel";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Island model of NSGA-II populations with migration";
+    }
+}
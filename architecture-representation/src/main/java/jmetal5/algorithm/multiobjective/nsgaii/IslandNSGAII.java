@@ -0,0 +1,129 @@
+package jmetal5.algorithm.multiobjective.nsgaii;
+
+import jmetal5.operator.CrossoverOperator;
+import jmetal5.operator.MutationOperator;
+import jmetal5.operator.SelectionOperator;
+import jmetal5.problem.Problem;
+import jmetal5.solution.Solution;
+import jmetal5.util.comparator.CrowdingDistanceComparator;
+import jmetal5.util.evaluator.SolutionListEvaluator;
+import jmetal5.util.solutionattribute.impl.CrowdingDistance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * NSGA-II island of an {@link IslandModel}. Every <code>migrationInterval</code> generations it sends copies
+ * of up to <code>numberOfMigrants</code> of its non-dominated solutions, the least crowded first, to the
+ * islands given by the topology. The immigrants wait in a lock-free queue and join the offspring in the
+ * next replacement. Without an island model (or with a migration interval of 0) it behaves as {@link NSGAII}.
+ */
+@SuppressWarnings("serial")
+public class IslandNSGAII<S extends Solution<?>> extends NSGAII<S> {
+    private final Queue<S> immigrants = new ConcurrentLinkedQueue<>();
+
+    private List<IslandNSGAII<S>> islands = Collections.emptyList();
+    private int island;
+    private MigrationTopology topology = MigrationTopology.RING;
+    private int migrationInterval;
+    private int numberOfMigrants;
+
+    private int generations;
+    private int receivedMigrants;
+
+    /**
+     * Constructor
+     */
+    public IslandNSGAII(Problem<S> problem, int maxEvaluations, int populationSize,
+                        CrossoverOperator<S> crossoverOperator, MutationOperator<S> mutationOperator,
+                        SelectionOperator<List<S>, S> selectionOperator, SolutionListEvaluator<S> evaluator) {
+        super(problem, maxEvaluations, populationSize, crossoverOperator, mutationOperator,
+                selectionOperator, evaluator);
+    }
+
+    /**
+     * Called by the {@link IslandModel} before the islands start.
+     */
+    void connect(List<IslandNSGAII<S>> islands, int island, MigrationTopology topology,
+                 int migrationInterval, int numberOfMigrants) {
+        this.islands = islands;
+        this.island = island;
+        this.topology = topology;
+        this.migrationInterval = migrationInterval;
+        this.numberOfMigrants = numberOfMigrants;
+        this.generations = 0;
+        this.receivedMigrants = 0;
+        this.immigrants.clear();
+    }
+
+    @Override
+    protected List<S> replacement(List<S> population, List<S> offspringPopulation) {
+        List<S> arrived = new ArrayList<>();
+        for (S immigrant = immigrants.poll(); immigrant != null; immigrant = immigrants.poll()) {
+            arrived.add(immigrant);
+        }
+        if (!arrived.isEmpty()) {
+            receivedMigrants += arrived.size();
+            offspringPopulation = new ArrayList<>(offspringPopulation);
+            offspringPopulation.addAll(arrived);
+        }
+        return super.replacement(population, offspringPopulation);
+    }
+
+    @Override
+    protected void updateProgress() {
+        super.updateProgress();
+        generations++;
+        if (migrationInterval > 0 && islands.size() > 1 && generations % migrationInterval == 0) {
+            emigrate();
+        }
+    }
+
+    private void emigrate() {
+        List<S> migrants = getNonDominatedSolutions(getPopulation());
+        if (migrants.size() > numberOfMigrants) {
+            new CrowdingDistance<S>().computeDensityEstimator(migrants);
+            Collections.sort(migrants, new CrowdingDistanceComparator<S>());
+            migrants = migrants.subList(0, numberOfMigrants);
+        }
+
+        for (int destination : topology.destinations(island, islands.size())) {
+            Queue<S> queue = islands.get(destination).immigrants;
+            for (S migrant : migrants) {
+                queue.add(copyOf(migrant));
+            }
+        }
+    }
+
+    /**
+     * Copy that keeps the objectives, so the receiving island does not evaluate it again.
+     */
+    @SuppressWarnings("unchecked")
+    private S copyOf(S solution) {
+        S copy = (S) solution.copy();
+        for (int i = 0; i < solution.getNumberOfObjectives(); i++) {
+            copy.setObjective(i, solution.getObjective(i));
+        }
+        return copy;
+    }
+
+    /**
+     * @return number of immigrants inserted in the population during the last run
+     */
+    public int getReceivedMigrants() {
+        return receivedMigrants;
+    }
+
+    @Override
+    public String getName() {
+        return "IslandNSGAII";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Nondominated Sorting Genetic Algorithm version II. Island of an island model";
+    }
+}
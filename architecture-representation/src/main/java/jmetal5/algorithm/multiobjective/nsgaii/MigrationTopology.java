@@ -0,0 +1,54 @@
+package jmetal5.algorithm.multiobjective.nsgaii;
+
+import jmetal.util.RandomStreams;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Islands that receive the migrants of an island in an {@link IslandModel}.
+ */
+public enum MigrationTopology {
+    /**
+     * Each island sends to the next one, the last to the first.
+     */
+    RING {
+        @Override
+        List<Integer> destinations(int island, int numberOfIslands) {
+            return Collections.singletonList((island + 1) % numberOfIslands);
+        }
+    },
+    /**
+     * Each migration goes to another island chosen at random.
+     */
+    RANDOM {
+        @Override
+        List<Integer> destinations(int island, int numberOfIslands) {
+            int destination = RandomStreams.current().nextInt(numberOfIslands - 1);
+            return Collections.singletonList(destination >= island ? destination + 1 : destination);
+        }
+    },
+    /**
+     * Each island sends to all the others.
+     */
+    FULLY_CONNECTED {
+        @Override
+        List<Integer> destinations(int island, int numberOfIslands) {
+            List<Integer> destinations = new ArrayList<>(numberOfIslands - 1);
+            for (int i = 0; i < numberOfIslands; i++) {
+                if (i != island) {
+                    destinations.add(i);
+                }
+            }
+            return destinations;
+        }
+    };
+
+    /**
+     * @param island          index of the sending island
+     * @param numberOfIslands number of islands, at least 2
+     * @return indexes of the receiving islands
+     */
+    abstract List<Integer> destinations(int island, int numberOfIslands);
+}
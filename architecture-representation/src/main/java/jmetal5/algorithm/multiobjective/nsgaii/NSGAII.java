@@ -1,5 +1,6 @@
 package jmetal5.algorithm.multiobjective.nsgaii;
 
+import jmetal.util.NonDominatedSorting;
 import jmetal5.algorithm.impl.AbstractGeneticAlgorithm;
 import jmetal5.operator.CrossoverOperator;
 import jmetal5.operator.MutationOperator;
@@ -24,6 +25,8 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
 
     protected int evaluations;
 
+    protected NonDominatedSorting nonDominatedSorting = NonDominatedSorting.FAST_NON_DOMINATED_SORT;
+
     /**
      * Constructor
      */
@@ -70,7 +73,7 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
         jointPopulation.addAll(offspringPopulation);
 
         RankingAndCrowdingSelection<S> rankingAndCrowdingSelection;
-        rankingAndCrowdingSelection = new RankingAndCrowdingSelection<S>(getMaxPopulationSize());
+        rankingAndCrowdingSelection = new RankingAndCrowdingSelection<S>(getMaxPopulationSize(), nonDominatedSorting);
 
         return rankingAndCrowdingSelection.execute(jointPopulation);
     }
@@ -80,6 +83,14 @@ public class NSGAII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S, L
         return getNonDominatedSolutions(getPopulation());
     }
 
+    public NonDominatedSorting getNonDominatedSorting() {
+        return nonDominatedSorting;
+    }
+
+    public void setNonDominatedSorting(NonDominatedSorting nonDominatedSorting) {
+        this.nonDominatedSorting = nonDominatedSorting;
+    }
+
     protected List<S> getNonDominatedSolutions(List<S> solutionList) {
         return SolutionListUtils.getNondominatedSolutions(solutionList);
     }
@@ -1,5 +1,6 @@
 package jmetal5.algorithm.multiobjective.nsgaii;
 
+import jmetal.util.NonDominatedSorting;
 import jmetal5.operator.CrossoverOperator;
 import jmetal5.operator.MutationOperator;
 import jmetal5.operator.SelectionOperator;
@@ -29,6 +30,9 @@ public class NSGAIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
     private SelectionOperator<List<S>, S> selectionOperator;
     private SolutionListEvaluator<S> evaluator;
     private NSGAIIVariant variant;
+    private NonDominatedSorting nonDominatedSorting;
+    private int numberOfThreads;
+    private int numberOfInFlightEvaluations;
 
     /**
      * NSGAIIBuilder constructor
@@ -44,6 +48,7 @@ public class NSGAIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
         evaluator = new SequentialSolutionListEvaluator<S>();
 
         this.variant = NSGAIIVariant.NSGAII;
+        this.nonDominatedSorting = NonDominatedSorting.FAST_NON_DOMINATED_SORT;
     }
 
     public NSGAIIBuilder<S> setMaxEvaluations(int maxEvaluations) {
@@ -61,6 +66,15 @@ public class NSGAIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
         return this;
     }
 
+    public NSGAIIBuilder<S> setNonDominatedSorting(NonDominatedSorting nonDominatedSorting) {
+        if (nonDominatedSorting == null) {
+            throw new JMetalException("nonDominatedSorting is null");
+        }
+        this.nonDominatedSorting = nonDominatedSorting;
+
+        return this;
+    }
+
     public NSGAII<S> build() {
         NSGAII<S> algorithm = null;
         if (variant.equals(NSGAIIVariant.NSGAII)) {
@@ -69,14 +83,31 @@ public class NSGAIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
         } else if (variant.equals(NSGAIIVariant.SteadyStateNSGAII)) {
             algorithm = new SteadyStateNSGAII<S>(problem, maxEvaluations, populationSize, crossoverOperator,
                     mutationOperator, selectionOperator, evaluator);
+        } else if (variant.equals(NSGAIIVariant.AsynchronousSteadyStateNSGAII)) {
+            algorithm = new AsynchronousSteadyStateNSGAII<S>(problem, maxEvaluations, populationSize, crossoverOperator,
+                    mutationOperator, selectionOperator, evaluator, numberOfThreads, numberOfInFlightEvaluations);
         } else if (variant.equals(NSGAIIVariant.Measures)) {
             algorithm = new NSGAIIMeasures<S>(problem, maxEvaluations, populationSize, crossoverOperator,
                     mutationOperator, selectionOperator, evaluator);
         }
+        if (algorithm != null) {
+            algorithm.setNonDominatedSorting(nonDominatedSorting);
+        }
 
         return algorithm;
     }
 
+    /**
+     * Builds an island for an {@link IslandModel}. Islands built by the same builder share its operators.
+     */
+    public IslandNSGAII<S> buildIsland() {
+        IslandNSGAII<S> island = new IslandNSGAII<S>(problem, maxEvaluations, populationSize, crossoverOperator,
+                mutationOperator, selectionOperator, evaluator);
+        island.setNonDominatedSorting(nonDominatedSorting);
+
+        return island;
+    }
+
     /* Getters */
     public Problem<S> getProblem() {
         return problem;
@@ -121,6 +152,44 @@ public class NSGAIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
         return this;
     }
 
+    public NonDominatedSorting getNonDominatedSorting() {
+        return nonDominatedSorting;
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * Workers of the {@link NSGAIIVariant#AsynchronousSteadyStateNSGAII} variant; 0 (the default) for one
+     * per available processor.
+     */
+    public NSGAIIBuilder<S> setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads < 0) {
+            throw new JMetalException("numberOfThreads is negative: " + numberOfThreads);
+        }
+        this.numberOfThreads = numberOfThreads;
+
+        return this;
+    }
+
+    public int getNumberOfInFlightEvaluations() {
+        return numberOfInFlightEvaluations;
+    }
+
+    /**
+     * Maximum number of offspring being evaluated at the same time by the
+     * {@link NSGAIIVariant#AsynchronousSteadyStateNSGAII} variant; 0 (the default) for one per worker.
+     */
+    public NSGAIIBuilder<S> setNumberOfInFlightEvaluations(int numberOfInFlightEvaluations) {
+        if (numberOfInFlightEvaluations < 0) {
+            throw new JMetalException("numberOfInFlightEvaluations is negative: " + numberOfInFlightEvaluations);
+        }
+        this.numberOfInFlightEvaluations = numberOfInFlightEvaluations;
+
+        return this;
+    }
+
     public SolutionListEvaluator<S> getSolutionListEvaluator() {
         return evaluator;
     }
@@ -134,5 +203,5 @@ public class NSGAIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<NS
         return this;
     }
 
-    public enum NSGAIIVariant {NSGAII, SteadyStateNSGAII, Measures, NSGAII45}
+    public enum NSGAIIVariant {NSGAII, SteadyStateNSGAII, AsynchronousSteadyStateNSGAII, Measures, NSGAII45}
 }
@@ -109,7 +109,7 @@ public class NSGAIIMeasures<S extends Solution<?>> extends NSGAII<S> implements
                                   List<S> offspringPopulation) {
         List<S> pop = super.replacement(population, offspringPopulation);
 
-        Ranking<S> ranking = new DominanceRanking<S>();
+        Ranking<S> ranking = new DominanceRanking<S>(nonDominatedSorting);
         ranking.computeRanking(population);
 
         numberOfNonDominatedSolutionsInPopulation.set(ranking.getSubfront(0).size());
@@ -30,6 +30,7 @@ public class NSGAIII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
 
     protected Vector<Integer> numberOfDivisions;
     protected List<ReferencePoint<S>> referencePoints = new Vector<>();
+    protected EnvironmentalSelection.Buffers selectionBuffers = new EnvironmentalSelection.Buffers();
 
     /**
      * Constructor
@@ -45,10 +46,16 @@ public class NSGAIII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
         evaluator = builder.getEvaluator();
 
         /// NSGAIII
-        numberOfDivisions = new Vector<>(1);
-        numberOfDivisions.add(12); // Default value for 3D problems
+        numberOfDivisions = new Vector<>(2);
+        numberOfDivisions.add(builder.getNumberOfDivisions());
+        if (builder.getNumberOfInnerDivisions() > 0)
+            numberOfDivisions.add(builder.getNumberOfInnerDivisions());
 
-        (new ReferencePoint<S>()).generateReferencePoints(referencePoints, getProblem().getNumberOfObjectives(), numberOfDivisions);
+        if (builder.getReferencePointsFileName() != null)
+            (new ReferencePoint<S>()).readReferencePoints(referencePoints, getProblem().getNumberOfObjectives(),
+                    builder.getReferencePointsFileName());
+        else
+            (new ReferencePoint<S>()).generateReferencePoints(referencePoints, getProblem().getNumberOfObjectives(), numberOfDivisions);
 
         int populationSize = referencePoints.size();
         System.out.println(referencePoints.size());
@@ -147,7 +154,7 @@ public class NSGAIII<S extends Solution<?>> extends AbstractGeneticAlgorithm<S,
         // A copy of the reference list should be used as parameter of the environmental selection
         EnvironmentalSelection<S> selection =
                 new EnvironmentalSelection<>(fronts, getMaxPopulationSize(), getReferencePointsCopy(),
-                        getProblem().getNumberOfObjectives());
+                        getProblem().getNumberOfObjectives(), selectionBuffers);
 
         pop = selection.execute(pop);
 
@@ -6,6 +6,7 @@ import jmetal5.operator.SelectionOperator;
 import jmetal5.problem.Problem;
 import jmetal5.solution.Solution;
 import jmetal5.util.AlgorithmBuilder;
+import jmetal5.util.JMetalException;
 import jmetal5.util.evaluator.SolutionListEvaluator;
 import jmetal5.util.evaluator.impl.SequentialSolutionListEvaluator;
 
@@ -26,6 +27,10 @@ public class NSGAIIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<N
 
     private SolutionListEvaluator<S> evaluator;
 
+    private int numberOfDivisions;
+    private int numberOfInnerDivisions;
+    private String referencePointsFileName;
+
     /**
      * Builder constructor
      */
@@ -33,6 +38,8 @@ public class NSGAIIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<N
         this.problem = problem;
         maxIterations = 250;
         populationSize = 100;
+        numberOfDivisions = 12; // Default value for 3D problems
+        numberOfInnerDivisions = 0;
         evaluator = new SequentialSolutionListEvaluator<S>();
     }
 
@@ -100,6 +107,54 @@ public class NSGAIIIBuilder<S extends Solution<?>> implements AlgorithmBuilder<N
         return this;
     }
 
+    public int getNumberOfDivisions() {
+        return numberOfDivisions;
+    }
+
+    /**
+     * Divisions of each objective axis in the boundary layer of Das and Dennis reference points. The
+     * population size follows from the number of reference points, C(M + p - 1, p) per layer for M
+     * objectives and p divisions.
+     */
+    public NSGAIIIBuilder<S> setNumberOfDivisions(int numberOfDivisions) {
+        if (numberOfDivisions < 1)
+            throw new JMetalException("The number of divisions must be positive: " + numberOfDivisions);
+        this.numberOfDivisions = numberOfDivisions;
+
+        return this;
+    }
+
+    public int getNumberOfInnerDivisions() {
+        return numberOfInnerDivisions;
+    }
+
+    /**
+     * Divisions of the inner layer of reference points, or 0 (the default) for a single layer. The
+     * inner points are the boundary ones shrunk by half towards the centre of the simplex, as in the
+     * original paper for eight or more objectives.
+     */
+    public NSGAIIIBuilder<S> setNumberOfInnerDivisions(int numberOfInnerDivisions) {
+        if (numberOfInnerDivisions < 0)
+            throw new JMetalException("The number of inner divisions must not be negative: " + numberOfInnerDivisions);
+        this.numberOfInnerDivisions = numberOfInnerDivisions;
+
+        return this;
+    }
+
+    public String getReferencePointsFileName() {
+        return referencePointsFileName;
+    }
+
+    /**
+     * File with the reference points to use instead of the generated ones, one point per line with
+     * one value per objective. The divisions are then ignored.
+     */
+    public NSGAIIIBuilder<S> setReferencePointsFileName(String referencePointsFileName) {
+        this.referencePointsFileName = referencePointsFileName;
+
+        return this;
+    }
+
     public NSGAIII<S> build() {
         return new NSGAIII<>(this);
     }
@@ -5,59 +5,87 @@ import jmetal5.operator.SelectionOperator;
 import jmetal5.solution.Solution;
 import jmetal5.util.JMetalException;
 import jmetal5.util.pseudorandom.JMetalRandom;
-import jmetal5.util.solutionattribute.SolutionAttribute;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Environmental selection of NSGA-III. The objectives of the candidates (the solutions of the fronts,
+ * front by front) are copied to the rows of a {@link Buffers} and translated, normalized and associated
+ * there, so no boxed values are created. The arithmetic is done in the same order as in the C++ code,
+ * so the selection is the same as with per-solution lists.
+ */
 @SuppressWarnings("serial")
-public class EnvironmentalSelection<S extends Solution<?>> implements SelectionOperator<List<S>, List<S>>,
-        SolutionAttribute<S, List<Double>> {
+public class EnvironmentalSelection<S extends Solution<?>> implements SelectionOperator<List<S>, List<S>> {
 
     private List<List<S>> fronts;
     private int solutionsToSelect;
     private List<ReferencePoint<S>> referencePoints;
     private int numberOfObjectives;
+    private Buffers buffers;
 
     public EnvironmentalSelection(Builder<S> builder) {
         fronts = builder.getFronts();
         solutionsToSelect = builder.getSolutionsToSelet();
         referencePoints = builder.getReferencePoints();
         numberOfObjectives = builder.getNumberOfObjectives();
+        buffers = builder.getBuffers() != null ? builder.getBuffers() : new Buffers();
     }
 
 
     public EnvironmentalSelection(List<List<S>> fronts, int solutionsToSelect, List<ReferencePoint<S>> referencePoints, int numberOfObjectives) {
+        this(fronts, solutionsToSelect, referencePoints, numberOfObjectives, new Buffers());
+    }
+
+    /**
+     * @param buffers scratch arrays, reused by the selections of the following generations
+     */
+    public EnvironmentalSelection(List<List<S>> fronts, int solutionsToSelect, List<ReferencePoint<S>> referencePoints,
+                                  int numberOfObjectives, Buffers buffers) {
         this.fronts = fronts;
         this.solutionsToSelect = solutionsToSelect;
         this.referencePoints = referencePoints;
         this.numberOfObjectives = numberOfObjectives;
+        this.buffers = buffers;
+    }
+
+    /**
+     * Copies the objectives of the candidates to {@link Buffers#objectives}.
+     *
+     * @return the number of candidates
+     */
+    private int loadObjectives() {
+        int candidates = 0;
+        for (List<S> front : fronts)
+            candidates += front.size();
+        buffers.ensureCapacity(candidates, numberOfObjectives, referencePoints.size());
+
+        int row = 0;
+        for (List<S> front : fronts) {
+            for (S s : front) {
+                double[] objectives = buffers.objectives[row++];
+                for (int f = 0; f < numberOfObjectives; f++)
+                    objectives[f] = s.getObjective(f);
+            }
+        }
+        return candidates;
     }
 
-    public List<Double> translateObjectives(List<S> population) {
-        List<Double> ideal_point;
-        ideal_point = new ArrayList<>(numberOfObjectives);
+    private void translateObjectives(int candidates) {
+        double[][] objectives = buffers.objectives;
+        double[][] converted = buffers.converted;
+        int firstFront = fronts.get(0).size();
 
         for (int f = 0; f < numberOfObjectives; f += 1) {
             double minf = Double.MAX_VALUE;
-            for (int i = 0; i < fronts.get(0).size(); i += 1) // min values must appear in the first front
+            for (int i = 0; i < firstFront; i += 1) // min values must appear in the first front
             {
-                minf = Math.min(minf, fronts.get(0).get(i).getObjective(f));
+                minf = Math.min(minf, objectives[i][f]);
             }
-            ideal_point.add(minf);
+            buffers.idealPoint[f] = minf;
 
-            for (List<S> list : fronts) {
-                for (S s : list) {
-                    if (f == 0) // in the first objective we create the vector of conv_objs
-                        setAttribute(s, new ArrayList<Double>());
-
-                    getAttribute(s).add(s.getObjective(f) - minf);
-
-                }
-            }
+            for (int i = 0; i < candidates; i++)
+                converted[i][f] = objectives[i][f] - minf;
         }
-
-        return ideal_point;
     }
 
 
@@ -67,151 +95,178 @@ public class EnvironmentalSelection<S extends Solution<?>> implements SelectionO
     // of the objective which uses 1.0; the rest will use 0.00001. This is
     // different to the one impelemented in C++
     // ----------------------------------------------------------------------
-    private double ASF(S s, int index) {
+    private double ASF(double[] objectives, int index) {
         double max_ratio = Double.NEGATIVE_INFINITY;
-        for (int i = 0; i < s.getNumberOfObjectives(); i++) {
+        for (int i = 0; i < numberOfObjectives; i++) {
             double weight = (index == i) ? 1.0 : 0.000001;
-            max_ratio = Math.max(max_ratio, s.getObjective(i) / weight);
+            max_ratio = Math.max(max_ratio, objectives[i] / weight);
         }
         return max_ratio;
     }
 
     // ----------------------------------------------------------------------
-    private List<S> findExtremePoints(List<S> population) {
-        List<S> extremePoints = new ArrayList<>();
-        S min_indv = null;
+    private void findExtremePoints() {
+        int firstFront = fronts.get(0).size();
+        int min_indv = -1;
         for (int f = 0; f < numberOfObjectives; f += 1) {
             double min_ASF = Double.MAX_VALUE;
-            for (S s : fronts.get(0)) { // only consider the individuals in the first front
-                double asf = ASF(s, f);
+            for (int i = 0; i < firstFront; i++) { // only consider the individuals in the first front
+                double asf = ASF(buffers.objectives[i], f);
                 if (asf < min_ASF) {
                     min_ASF = asf;
-                    min_indv = s;
+                    min_indv = i;
                 }
             }
 
-            extremePoints.add(min_indv);
+            buffers.extremePoints[f] = min_indv;
         }
-        return extremePoints;
     }
 
-    public List<Double> guassianElimination(List<List<Double>> A, List<Double> b) {
-        List<Double> x = new ArrayList<>();
-
-        int N = A.size();
-        for (int i = 0; i < N; i += 1) {
-            A.get(i).add(b.get(i));
-        }
+    /**
+     * Solves the system whose augmented matrix is <code>A</code> (N rows, N + 1 columns). The rows of
+     * <code>A</code> are overwritten.
+     */
+    public void guassianElimination(double[][] A, double[] x) {
+        int N = A.length;
 
         for (int base = 0; base < N - 1; base += 1) {
             for (int target = base + 1; target < N; target += 1) {
-                double ratio = A.get(target).get(base) / A.get(base).get(base);
-                for (int term = 0; term < A.get(base).size(); term += 1) {
-                    A.get(target).set(term, A.get(target).get(term) - A.get(base).get(term) * ratio);
+                double ratio = A[target][base] / A[base][base];
+                for (int term = 0; term < A[base].length; term += 1) {
+                    A[target][term] = A[target][term] - A[base][term] * ratio;
                 }
             }
         }
 
         for (int i = 0; i < N; i++)
-            x.add(0.0);
+            x[i] = 0.0;
 
         for (int i = N - 1; i >= 0; i -= 1) {
             for (int known = i + 1; known < N; known += 1) {
-                A.get(i).set(N, A.get(i).get(N) - A.get(i).get(known) * x.get(known));
+                A[i][N] = A[i][N] - A[i][known] * x[known];
             }
-            x.set(i, A.get(i).get(N) / A.get(i).get(i));
+            x[i] = A[i][N] / A[i][i];
         }
-        return x;
     }
 
-    public List<Double> constructHyperplane(List<S> population, List<S> extreme_points) {
+    private void constructHyperplane() {
+        int[] extreme_points = buffers.extremePoints;
+        List<S> firstFront = fronts.get(0);
+        double[] intercepts = buffers.intercepts;
+
         // Check whether there are duplicate extreme points.
         // This might happen but the original paper does not mention how to deal with it.
         boolean duplicate = false;
-        for (int i = 0; !duplicate && i < extreme_points.size(); i += 1) {
-            for (int j = i + 1; !duplicate && j < extreme_points.size(); j += 1) {
-                duplicate = extreme_points.get(i).equals(extreme_points.get(j));
+        for (int i = 0; !duplicate && i < numberOfObjectives; i += 1) {
+            for (int j = i + 1; !duplicate && j < numberOfObjectives; j += 1) {
+                duplicate = firstFront.get(extreme_points[i]).equals(firstFront.get(extreme_points[j]));
             }
         }
 
-        List<Double> intercepts = new ArrayList<>();
-
         if (duplicate) // cannot construct the unique hyperplane (this is a casual method to deal with the condition)
         {
             for (int f = 0; f < numberOfObjectives; f += 1) {
                 // extreme_points[f] stands for the individual with the largest value of objective f
-                intercepts.add(extreme_points.get(f).getObjective(f));
+                intercepts[f] = buffers.objectives[extreme_points[f]][f];
             }
         } else {
             // Find the equation of the hyperplane
-            List<Double> b = new ArrayList<>(); //(pop[0].objs().size(), 1.0);
-            for (int i = 0; i < numberOfObjectives; i++)
-                b.add(1.0);
-
-            List<List<Double>> A = new ArrayList<>();
-            for (S s : extreme_points) {
-                List<Double> aux = new ArrayList<>();
-                for (int i = 0; i < numberOfObjectives; i++)
-                    aux.add(s.getObjective(i));
-                A.add(aux);
+            double[][] A = buffers.hyperplane;
+            for (int i = 0; i < numberOfObjectives; i++) {
+                System.arraycopy(buffers.objectives[extreme_points[i]], 0, A[i], 0, numberOfObjectives);
+                A[i][numberOfObjectives] = 1.0;
             }
-            List<Double> x = guassianElimination(A, b);
+            double[] x = buffers.solution;
+            guassianElimination(A, x);
 
             // Find intercepts
             for (int f = 0; f < numberOfObjectives; f += 1) {
-                intercepts.add(1.0 / x.get(f));
+                intercepts[f] = 1.0 / x[f];
 
             }
         }
-        return intercepts;
     }
 
-    public void normalizeObjectives(List<S> population, List<Double> intercepts, List<Double> ideal_point) {
-        for (int t = 0; t < fronts.size(); t += 1) {
-            for (S s : fronts.get(t)) {
-
-                for (int f = 0; f < numberOfObjectives; f++) {
-                    List<Double> conv_obj = getAttribute(s);
-                    if (Math.abs(intercepts.get(f) - ideal_point.get(f)) > 10e-10) {
-                        conv_obj.set(f, conv_obj.get(f) / (intercepts.get(f) - ideal_point.get(f)));
-                    } else {
-                        conv_obj.set(f, conv_obj.get(f) / (10e-10));
-                    }
-
-                }
+    private void normalizeObjectives(int candidates) {
+        double[] intercepts = buffers.intercepts;
+        double[] ideal_point = buffers.idealPoint;
+        for (int f = 0; f < numberOfObjectives; f++) {
+            double divisor;
+            if (Math.abs(intercepts[f] - ideal_point[f]) > 10e-10) {
+                divisor = intercepts[f] - ideal_point[f];
+            } else {
+                divisor = 10e-10;
             }
+            for (int i = 0; i < candidates; i++)
+                buffers.converted[i][f] = buffers.converted[i][f] / divisor;
         }
     }
 
-    public double perpendicularDistance(List<Double> direction, List<Double> point) {
+    public double perpendicularDistance(double[] direction, double[] point) {
         double numerator = 0, denominator = 0;
-        for (int i = 0; i < direction.size(); i += 1) {
-            numerator += direction.get(i) * point.get(i);
-            denominator += Math.pow(direction.get(i), 2.0);
+        for (int i = 0; i < direction.length; i += 1) {
+            numerator += direction[i] * point[i];
+            denominator += direction[i] * direction[i];
         }
         double k = numerator / denominator;
 
         double d = 0;
-        for (int i = 0; i < direction.size(); i += 1) {
-            d += Math.pow(k * direction.get(i) - point.get(i), 2.0);
+        for (int i = 0; i < direction.length; i += 1) {
+            double diff = k * direction[i] - point[i];
+            d += diff * diff;
         }
         return Math.sqrt(d);
     }
 
+    /**
+     * Packs the reference point directions in {@link Buffers#directions}, with their squared norms.
+     */
+    private void loadDirections() {
+        int m = numberOfObjectives;
+        double[] directions = buffers.directions;
+        for (int r = 0; r < referencePoints.size(); r++) {
+            double[] position = referencePoints.get(r).position;
+            double denominator = 0;
+            for (int i = 0; i < m; i++) {
+                directions[r * m + i] = position[i];
+                denominator += position[i] * position[i];
+            }
+            buffers.squaredNorms[r] = denominator;
+        }
+    }
 
-    public void associate(List<S> population) {
-
+    private void associate() {
+        int m = numberOfObjectives;
+        int numberOfReferencePoints = referencePoints.size();
+        double[] directions = buffers.directions;
+        double[] squaredNorms = buffers.squaredNorms;
 
+        int row = 0;
         for (int t = 0; t < fronts.size(); t++) {
             for (S s : fronts.get(t)) {
+                double[] point = buffers.converted[row++];
                 int min_rp = -1;
                 double min_dist = Double.MAX_VALUE;
-                for (int r = 0; r < this.referencePoints.size(); r++) {
-                    double d = perpendicularDistance(this.referencePoints.get(r).position,
-                            getAttribute(s));
-                    if (d < min_dist) {
-                        min_dist = d;
-                        min_rp = r;
+                // sqrt is monotone: a distance can only be smaller if its square is
+                double min_squared = Double.POSITIVE_INFINITY;
+                for (int r = 0, base = 0; r < numberOfReferencePoints; r++, base += m) {
+                    double numerator = 0;
+                    for (int i = 0; i < m; i++)
+                        numerator += directions[base + i] * point[i];
+                    double k = numerator / squaredNorms[r];
+
+                    double d = 0;
+                    for (int i = 0; i < m; i++) {
+                        double diff = k * directions[base + i] - point[i];
+                        d += diff * diff;
+                    }
+                    if (d < min_squared) {
+                        double distance = Math.sqrt(d);
+                        if (distance < min_dist) {
+                            min_dist = distance;
+                            min_squared = d;
+                            min_rp = r;
+                        }
                     }
                 }
                 if (t + 1 != fronts.size()) {
@@ -231,16 +286,16 @@ public class EnvironmentalSelection<S extends Solution<?>> implements SelectionO
             min_size = Math.min(min_size, referencePoint.MemberSize());
 
         // find the reference points with the minimal cluster size Jmin
-        List<Integer> min_rps = new ArrayList<>();
-
+        int[] min_rps = buffers.niches;
+        int count = 0;
 
         for (int r = 0; r < this.referencePoints.size(); r += 1) {
             if (this.referencePoints.get(r).MemberSize() == min_size) {
-                min_rps.add(r);
+                min_rps[count++] = r;
             }
         }
         // return a random reference point (j-bar)
-        return min_rps.get(min_rps.size() > 1 ? JMetalRandom.getInstance().nextInt(0, min_rps.size() - 1) : 0);
+        return min_rps[count > 1 ? JMetalRandom.getInstance().nextInt(0, count - 1) : 0];
     }
 
     // ----------------------------------------------------------------------
@@ -275,13 +330,15 @@ public class EnvironmentalSelection<S extends Solution<?>> implements SelectionO
 
         // ---------- Step 14 / Algorithm 2 ----------
         //vector<double> ideal_point = TranslateObjectives(&cur, fronts);
-        List<Double> ideal_point = translateObjectives(source);
-        List<S> extreme_points = findExtremePoints(source);
-        List<Double> intercepts = constructHyperplane(source, extreme_points);
+        int candidates = loadObjectives();
+        translateObjectives(candidates);
+        findExtremePoints();
+        constructHyperplane();
 
-        normalizeObjectives(source, intercepts, ideal_point);
+        normalizeObjectives(candidates);
         // ---------- Step 15 / Algorithm 3, Step 16 ----------
-        associate(source);
+        loadDirections();
+        associate();
 
         // ---------- Step 17 / Algorithm 4 ----------
         while (source.size() < this.solutionsToSelect) {
@@ -301,20 +358,47 @@ public class EnvironmentalSelection<S extends Solution<?>> implements SelectionO
         return source;
     }
 
-    @Override
-    public void setAttribute(S solution, List<Double> value) {
-        solution.setAttribute(getAttributeIdentifier(), value);
-    }
-
-    @Override
-    @SuppressWarnings("unchecked")
-    public List<Double> getAttribute(S solution) {
-        return (List<Double>) solution.getAttribute(getAttributeIdentifier());
-    }
-
-    @Override
-    public Object getAttributeIdentifier() {
-        return this.getClass();
+    /**
+     * Scratch arrays of the selection. They grow with the number of candidates, objectives and
+     * reference points and are kept by the algorithm from one generation to the next. A Buffers must
+     * not be used by two selections at the same time.
+     */
+    public static class Buffers {
+        private int numberOfObjectives = -1;
+        private double[][] objectives = new double[0][];
+        private double[][] converted = new double[0][];
+        private double[] idealPoint;
+        private double[] intercepts;
+        private int[] extremePoints;
+        private double[][] hyperplane;
+        private double[] solution;
+        private double[] directions = new double[0];
+        private double[] squaredNorms = new double[0];
+        private int[] niches = new int[0];
+
+        void ensureCapacity(int candidates, int numberOfObjectives, int numberOfReferencePoints) {
+            if (numberOfObjectives != this.numberOfObjectives) {
+                this.numberOfObjectives = numberOfObjectives;
+                objectives = new double[0][];
+                converted = new double[0][];
+                idealPoint = new double[numberOfObjectives];
+                intercepts = new double[numberOfObjectives];
+                extremePoints = new int[numberOfObjectives];
+                hyperplane = new double[numberOfObjectives][numberOfObjectives + 1];
+                solution = new double[numberOfObjectives];
+                directions = new double[0];
+            }
+            if (objectives.length < candidates) {
+                objectives = new double[candidates][numberOfObjectives];
+                converted = new double[candidates][numberOfObjectives];
+            }
+            if (squaredNorms.length < numberOfReferencePoints) {
+                squaredNorms = new double[numberOfReferencePoints];
+                niches = new int[numberOfReferencePoints];
+            }
+            if (directions.length < numberOfReferencePoints * numberOfObjectives)
+                directions = new double[numberOfReferencePoints * numberOfObjectives];
+        }
     }
 
     public static class Builder<S extends Solution<?>> {
@@ -322,6 +406,7 @@ public class EnvironmentalSelection<S extends Solution<?>> implements SelectionO
         private int solutionsToSelect;
         private List<ReferencePoint<S>> referencePoints;
         private int numberOfObjctives;
+        private Buffers buffers;
 
         // the default constructor is generated by default
 
@@ -364,6 +449,15 @@ public class EnvironmentalSelection<S extends Solution<?>> implements SelectionO
             this.numberOfObjctives = n;
             return this;
         }
+
+        public Buffers getBuffers() {
+            return buffers;
+        }
+
+        public Builder<S> setBuffers(Buffers buffers) {
+            this.buffers = buffers;
+            return this;
+        }
     }
 
 }
@@ -1,24 +1,30 @@
 package jmetal5.algorithm.multiobjective.nsgaiii.util;
 
 import jmetal5.solution.Solution;
+import jmetal5.util.JMetalException;
 import jmetal5.util.pseudorandom.JMetalRandom;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 
+import java.io.*;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.StringTokenizer;
 
 /**
  * Created by ajnebro on 5/11/14.
  * Modified by Juanjo on 13/11/14
  * This implementation is based on the code of Tsung-Che Chiang
  * http://web.ntnu.edu.tw/~tcchiang/publications/nsga3cpp/nsga3cpp.htm
+ * <p>
+ * The position is not modified once the point is generated, so the copies made for each environmental
+ * selection share it. The potential members are kept in insertion order, with their distances in a
+ * primitive array.
  */
 public class ReferencePoint<S extends Solution<?>> {
-    public List<Double> position;
+    public double[] position;
     private int memberSize;
-    private List<Pair<S, Double>> potentialMembers;
+    private List<S> potentialMembers;
+    private double[] potentialDistances;
 
     public ReferencePoint() {
     }
@@ -27,22 +33,25 @@ public class ReferencePoint<S extends Solution<?>> {
      * Constructor
      */
     public ReferencePoint(int size) {
-        position = new ArrayList<>();
-        for (int i = 0; i < size; i++)
-            position.add(0.0);
+        this(new double[size]);
+    }
+
+    public ReferencePoint(double[] position) {
+        this.position = position;
         memberSize = 0;
         potentialMembers = new ArrayList<>();
+        potentialDistances = new double[4];
     }
 
     public ReferencePoint(ReferencePoint<S> point) {
-        position = new ArrayList<>(point.position.size());
-        for (Double d : point.position) {
-            position.add(new Double(d));
-        }
-        memberSize = 0;
-        potentialMembers = new ArrayList<>();
+        this(point.position);
     }
 
+    /**
+     * Generates the Das and Dennis reference points with <code>numberOfDivisions.get(0)</code> divisions.
+     * If a second number of divisions is given, an inner layer is added: the points generated with those
+     * divisions, shrunk by half towards the centre of the simplex.
+     */
     public void generateReferencePoints(
             List<ReferencePoint<S>> referencePoints,
             int numberOfObjectives,
@@ -50,6 +59,67 @@ public class ReferencePoint<S extends Solution<?>> {
 
         ReferencePoint<S> refPoint = new ReferencePoint<>(numberOfObjectives);
         generateRecursive(referencePoints, refPoint, numberOfObjectives, numberOfDivisions.get(0), numberOfDivisions.get(0), 0);
+
+        if (numberOfDivisions.size() > 1 && numberOfDivisions.get(1) > 0) {
+            List<ReferencePoint<S>> innerLayer = new ArrayList<>();
+            generateRecursive(innerLayer, refPoint, numberOfObjectives, numberOfDivisions.get(1), numberOfDivisions.get(1), 0);
+            double center = 1.0 / numberOfObjectives;
+            for (ReferencePoint<S> point : innerLayer) {
+                for (int i = 0; i < numberOfObjectives; i++)
+                    point.position[i] = (center + point.position[i]) / 2.0;
+                referencePoints.add(point);
+            }
+        }
+    }
+
+    /**
+     * Reads the reference points from a file (or a resource of the classpath) with one point per line and
+     * one value per objective, separated by blanks. Empty lines are skipped.
+     */
+    public void readReferencePoints(List<ReferencePoint<S>> referencePoints, int numberOfObjectives, String fileName) {
+        InputStream inputStream = getClass().getResourceAsStream(fileName);
+        try {
+            if (inputStream == null)
+                inputStream = new FileInputStream(fileName);
+        } catch (FileNotFoundException e) {
+            throw new JMetalException("Reference points file not found: " + fileName, e);
+        }
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                StringTokenizer tokenizer = new StringTokenizer(line);
+                if (!tokenizer.hasMoreTokens())
+                    continue;
+                if (tokenizer.countTokens() != numberOfObjectives) {
+                    throw new JMetalException("Invalid reference point at line " + lineNumber + " of " + fileName
+                            + ". Expected: " + numberOfObjectives + " values, received: " + tokenizer.countTokens());
+                }
+
+                double[] position = new double[numberOfObjectives];
+                double sum = 0;
+                for (int i = 0; i < numberOfObjectives; i++) {
+                    position[i] = Double.parseDouble(tokenizer.nextToken());
+                    if (!(position[i] >= 0) || Double.isInfinite(position[i]))
+                        throw new JMetalException("Invalid reference point at line " + lineNumber + " of " + fileName
+                                + ": the values must be finite and not negative");
+                    sum += position[i];
+                }
+                if (sum == 0)
+                    throw new JMetalException("Invalid reference point at line " + lineNumber + " of " + fileName
+                            + ": the origin has no direction");
+                referencePoints.add(new ReferencePoint<S>(position));
+            }
+        } catch (IOException e) {
+            throw new JMetalException("Error reading file", e);
+        } catch (NumberFormatException e) {
+            throw new JMetalException("Format number exception when reading file", e);
+        }
+
+        if (referencePoints.isEmpty())
+            throw new JMetalException("No reference points in " + fileName);
     }
 
     private void generateRecursive(
@@ -60,18 +130,18 @@ public class ReferencePoint<S extends Solution<?>> {
             int total,
             int element) {
         if (element == (numberOfObjectives - 1)) {
-            refPoint.position.set(element, (double) left / total);
-            referencePoints.add(new ReferencePoint<>(refPoint));
+            refPoint.position[element] = (double) left / total;
+            referencePoints.add(new ReferencePoint<S>(refPoint.position.clone()));
         } else {
             for (int i = 0; i <= left; i += 1) {
-                refPoint.position.set(element, (double) i / total);
+                refPoint.position[element] = (double) i / total;
 
                 generateRecursive(referencePoints, refPoint, numberOfObjectives, left - i, total, element + 1);
             }
         }
     }
 
-    public List<Double> pos() {
+    public double[] pos() {
         return this.position;
     }
 
@@ -93,16 +163,20 @@ public class ReferencePoint<S extends Solution<?>> {
     }
 
     public void AddPotentialMember(S member_ind, double distance) {
-        this.potentialMembers.add(new ImmutablePair<S, Double>(member_ind, distance));
+        int size = this.potentialMembers.size();
+        if (size == potentialDistances.length)
+            potentialDistances = Arrays.copyOf(potentialDistances, size * 2);
+        potentialDistances[size] = distance;
+        this.potentialMembers.add(member_ind);
     }
 
     public S FindClosestMember() {
         double minDistance = Double.MAX_VALUE;
         S closetMember = null;
-        for (Pair<S, Double> p : this.potentialMembers) {
-            if (p.getRight() < minDistance) {
-                minDistance = p.getRight();
-                closetMember = p.getLeft();
+        for (int i = 0; i < this.potentialMembers.size(); i++) {
+            if (potentialDistances[i] < minDistance) {
+                minDistance = potentialDistances[i];
+                closetMember = this.potentialMembers.get(i);
             }
         }
 
@@ -111,15 +185,20 @@ public class ReferencePoint<S extends Solution<?>> {
 
     public S RandomMember() {
         int index = this.potentialMembers.size() > 1 ? JMetalRandom.getInstance().nextInt(0, this.potentialMembers.size() - 1) : 0;
-        return this.potentialMembers.get(index).getLeft();
+        return this.potentialMembers.get(index);
     }
 
     public void RemovePotentialMember(S solution) {
-        Iterator<Pair<S, Double>> it = this.potentialMembers.iterator();
-        while (it.hasNext()) {
-            if (it.next().getLeft() == solution) {
-                it.remove();
+        int size = this.potentialMembers.size();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            S member = this.potentialMembers.get(i);
+            if (member != solution) {
+                this.potentialMembers.set(kept, member);
+                potentialDistances[kept] = potentialDistances[i];
+                kept++;
             }
         }
+        this.potentialMembers.subList(kept, size).clear();
     }
 }
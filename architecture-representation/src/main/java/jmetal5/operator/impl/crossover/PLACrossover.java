@@ -11,7 +11,8 @@ import jmetal.operators.crossover.CrossoverUtils;
 import jmetal5.operator.CrossoverOperator;
 import jmetal5.problem.multiobjective.OPLAProblem;
 import jmetal5.solution.impl.ArchitectureSolution;
-import jmetal5.util.pseudorandom.impl.JavaRandomGenerator;
+import jmetal5.util.pseudorandom.PseudoRandomGenerator;
+import jmetal5.util.pseudorandom.impl.SplittableRandomGenerator;
 
 import java.util.*;
 import java.util.stream.Stream;
@@ -27,7 +28,7 @@ public class PLACrossover implements CrossoverOperator<ArchitectureSolution> {
 
     public double crossoverProbability;
 
-    private JavaRandomGenerator rng = null;
+    private final PseudoRandomGenerator rng = new SplittableRandomGenerator();
     private CrossoverUtils crossoverUtils;
 
     public PLACrossover(double probability) {
@@ -64,10 +65,7 @@ public class PLACrossover implements CrossoverOperator<ArchitectureSolution> {
                 .findFirst();
     }
 
-    private JavaRandomGenerator getRng() {
-        if (rng == null) {
-            rng = new JavaRandomGenerator();
-        }
+    private PseudoRandomGenerator getRng() {
         return rng;
     }
 
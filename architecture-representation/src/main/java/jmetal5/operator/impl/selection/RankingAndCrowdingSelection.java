@@ -1,5 +1,6 @@
 package jmetal5.operator.impl.selection;
 
+import jmetal.util.NonDominatedSorting;
 import jmetal5.operator.SelectionOperator;
 import jmetal5.solution.Solution;
 import jmetal5.util.JMetalException;
@@ -23,12 +24,21 @@ import java.util.List;
 public class RankingAndCrowdingSelection<S extends Solution<?>>
         implements SelectionOperator<List<S>, List<S>> {
     private final int solutionsToSelect;
+    private final NonDominatedSorting sorting;
 
     /**
      * Constructor
      */
     public RankingAndCrowdingSelection(int solutionsToSelect) {
+        this(solutionsToSelect, NonDominatedSorting.FAST_NON_DOMINATED_SORT);
+    }
+
+    /**
+     * Constructor
+     */
+    public RankingAndCrowdingSelection(int solutionsToSelect, NonDominatedSorting sorting) {
         this.solutionsToSelect = solutionsToSelect;
+        this.sorting = sorting;
     }
 
     /* Getter */
@@ -49,7 +59,7 @@ public class RankingAndCrowdingSelection<S extends Solution<?>>
                     "the solutions to selected (" + solutionsToSelect + ")");
         }
 
-        Ranking<S> ranking = new DominanceRanking<S>();
+        Ranking<S> ranking = new DominanceRanking<S>(sorting);
         ranking.computeRanking(solutionList);
 
         return crowdingDistanceSelection(ranking);
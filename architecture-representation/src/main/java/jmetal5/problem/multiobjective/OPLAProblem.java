@@ -2,6 +2,8 @@ package jmetal5.problem.multiobjective;
 
 import arquitetura.builders.ArchitectureBuilder;
 import arquitetura.representation.Architecture;
+import arquitetura.representation.ArchitectureFingerprint;
+import jmetal.metrics.FitnessCache;
 import jmetal.metrics.MetricsEvaluation;
 import jmetal5.problem.impl.AbstractGenericProblem;
 import jmetal5.solution.impl.ArchitectureSolution;
@@ -25,18 +27,26 @@ public class OPLAProblem extends AbstractGenericProblem<ArchitectureSolution> {
      */
     private Architecture architecture_;
     private List<String> selectedMetrics;
+    private FitnessCache fitnessCache = new FitnessCache();
 
     public OPLAProblem(String xmiFilePath, String[] objectiveFunctions) {
         this(xmiFilePath, Arrays.asList(objectiveFunctions));
     }
 
     public OPLAProblem(String xmiFilePath, List<String> objectiveFunctions) {
+        this(new ArchitectureBuilder().create(xmiFilePath), objectiveFunctions);
+    }
+
+    /**
+     * Problema sobre uma arquitetura já carregada.
+     */
+    public OPLAProblem(Architecture architecture, List<String> objectiveFunctions) {
         setNumberOfObjectives(objectiveFunctions.size());
         setNumberOfConstraints(0);
         setNumberOfVariables(1);
         setName("OPLA");
 
-        this.architecture_ = new ArchitectureBuilder().create(xmiFilePath);
+        this.architecture_ = architecture;
         this.selectedMetrics = objectiveFunctions;
 
     }
@@ -45,9 +55,31 @@ public class OPLAProblem extends AbstractGenericProblem<ArchitectureSolution> {
         return architecture_;
     }
 
+    public FitnessCache getFitnessCache() {
+        return fitnessCache;
+    }
+
+    /**
+     * Troca o cache de avaliações (ex.: {@link FitnessCache#disabled()} ou outro tamanho/política).
+     */
+    public void setFitnessCache(FitnessCache fitnessCache) {
+        this.fitnessCache = fitnessCache;
+    }
+
     @Override
     public void evaluate(ArchitectureSolution solution) {
+        ArchitectureFingerprint fingerprint = null;
+        if (fitnessCache.isEnabled()) {
+            fingerprint = solution.getArchitecture().getFingerprint();
+            double[] cached = fitnessCache.get(fingerprint, selectedMetrics);
+            if (cached != null) {
+                for (int i = 0; i < cached.length; i++)
+                    solution.setObjective(i, cached[i]);
+                return;
+            }
+        }
 
+        double[] values = new double[selectedMetrics.size()];
         for (int i = 0, selectedMetricsSize = selectedMetrics.size(); i < selectedMetricsSize; i++) {
             String metric = selectedMetrics.get(i);
 
@@ -93,8 +125,12 @@ public class OPLAProblem extends AbstractGenericProblem<ArchitectureSolution> {
                     break;
             }
 
+            values[i] = result;
             solution.setObjective(i, result);
         }
+
+        if (fingerprint != null)
+            fitnessCache.put(fingerprint, selectedMetrics, values);
     }
 
     @Override
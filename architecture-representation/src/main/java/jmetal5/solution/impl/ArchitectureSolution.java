@@ -1,8 +1,14 @@
 package jmetal5.solution.impl;
 
 import arquitetura.representation.Architecture;
+import arquitetura.representation.ArchitectureFingerprint;
 import jmetal5.problem.multiobjective.OPLAProblem;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Implementação no jmetal5 da ArchitectureSolutionType
  *
@@ -27,14 +33,33 @@ public class ArchitectureSolution extends AbstractGenericSolution<Architecture,
         return architecture_;
     }
 
+    /**
+     * Soluções são comparadas por identidade; para remover arquiteturas repetidas use
+     * {@link #removeRepetidas(List)}.
+     */
     @Override
     public boolean equals(Object o) {
-        if (!(o instanceof ArchitectureSolution)) {
-            return false;
-        }
+        return this == o;
+    }
 
-        ArchitectureSolution other = (ArchitectureSolution) o;
-        return this.getArchitecture().toString().equals(other.getArchitecture().toString());
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    /**
+     * Remove as soluções com arquiteturas estruturalmente iguais ({@link Architecture#getFingerprint()}),
+     * mantendo a primeira ocorrência. A impressão digital de cada solução é calculada uma vez.
+     */
+    public static <S extends ArchitectureSolution> List<S> removeRepetidas(List<S> solutions) {
+        Set<ArchitectureFingerprint> impressoes = new HashSet<>();
+        List<S> distintas = new ArrayList<>();
+        for (S solution : solutions) {
+            if (impressoes.add(solution.getArchitecture().getFingerprint())) {
+                distintas.add(solution);
+            }
+        }
+        return distintas;
     }
 
     @Override
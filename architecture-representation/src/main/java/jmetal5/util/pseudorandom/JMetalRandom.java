@@ -1,25 +1,25 @@
 package jmetal5.util.pseudorandom;
 
-import jmetal5.util.pseudorandom.impl.JavaRandomGenerator;
+import jmetal5.util.pseudorandom.impl.SplittableRandomGenerator;
 
 import java.io.Serializable;
 
 /**
  * @author Antonio J. Nebro <antonio@lcc.uma.es>
+ * <p>
+ * By default the values come from {@link SplittableRandomGenerator}: one stream per thread, all
+ * split from the seed given to {@link #setSeed(long)}.
  */
 @SuppressWarnings("serial")
 public class JMetalRandom implements Serializable {
-    private static JMetalRandom instance;
-    private PseudoRandomGenerator randomGenerator;
+    private static final JMetalRandom instance = new JMetalRandom();
+    private volatile PseudoRandomGenerator randomGenerator;
 
     private JMetalRandom() {
-        randomGenerator = new JavaRandomGenerator();
+        randomGenerator = new SplittableRandomGenerator();
     }
 
     public static JMetalRandom getInstance() {
-        if (instance == null) {
-            instance = new JMetalRandom();
-        }
         return instance;
     }
 
@@ -0,0 +1,43 @@
+package jmetal5.util.pseudorandom.impl;
+
+import jmetal.util.RandomStreams;
+import jmetal5.util.pseudorandom.PseudoRandomGenerator;
+
+/**
+ * Generator drawing from the stream of the current thread in {@link RandomStreams}, shared with
+ * {@link jmetal.util.PseudoRandom}. It can be used by several threads without locking.
+ */
+@SuppressWarnings("serial")
+public class SplittableRandomGenerator implements PseudoRandomGenerator {
+    private static final String name = "SplittableRandomGenerator";
+
+    @Override
+    public long getSeed() {
+        return RandomStreams.getSeed();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        RandomStreams.setSeed(seed);
+    }
+
+    @Override
+    public int nextInt(int lowerBound, int upperBound) {
+        return RandomStreams.current().nextInt(lowerBound, upperBound + 1);
+    }
+
+    @Override
+    public double nextDouble(double lowerBound, double upperBound) {
+        return lowerBound + RandomStreams.current().nextDouble() * (upperBound - lowerBound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return nextDouble(0.0, 1.0);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
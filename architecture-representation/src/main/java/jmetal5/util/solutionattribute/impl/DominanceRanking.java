@@ -1,5 +1,7 @@
 package jmetal5.util.solutionattribute.impl;
 
+import jmetal.util.EfficientNonDominatedSort;
+import jmetal.util.NonDominatedSorting;
 import jmetal5.solution.Solution;
 import jmetal5.util.JMetalException;
 import jmetal5.util.comparator.DominanceComparator;
@@ -16,6 +18,10 @@ import java.util.*;
  * numbering starts from 1); thus, subset 0 contains the non-dominated
  * solutions, subset 1 contains the non-dominated solutions after removing those
  * belonging to subset 0, and so on.
+ * <p>
+ * The fronts are computed by the fast non-dominated sort or, when selected with
+ * {@link NonDominatedSorting}, by {@link EfficientNonDominatedSort}, which gives the
+ * same fronts with the solutions of each front in the order of the list.
  *
  * @author Antonio J. Nebro <antonio@lcc.uma.es>
  * @author Juan J. Durillo
@@ -27,23 +33,85 @@ public class DominanceRanking<S extends Solution<?>>
     private static final Comparator<Solution<?>> DOMINANCE_COMPARATOR = new DominanceComparator<Solution<?>>();
     private static final Comparator<Solution<?>> CONSTRAINT_VIOLATION_COMPARATOR =
             new OverallConstraintViolationComparator<Solution<?>>();
+    private static final double[] NO_CONSTRAINT_INFO = new double[0];
 
     private List<ArrayList<S>> rankedSubPopulations;
+    private final NonDominatedSorting sorting;
 
     /**
      * Constructor
      */
     public DominanceRanking() {
+        this(NonDominatedSorting.FAST_NON_DOMINATED_SORT);
+    }
+
+    public DominanceRanking(NonDominatedSorting sorting) {
         rankedSubPopulations = new ArrayList<>();
+        this.sorting = sorting;
     }
 
     public DominanceRanking(Object id) {
         super(id);
         rankedSubPopulations = new ArrayList<>();
+        this.sorting = NonDominatedSorting.FAST_NON_DOMINATED_SORT;
     }
 
     @Override
     public Ranking<S> computeRanking(List<S> solutionSet) {
+        if (sorting != null && sorting.isEfficient() && !solutionSet.isEmpty()) {
+            int numberOfObjectives = solutionSet.get(0).getNumberOfObjectives();
+            double[] objectives = new double[solutionSet.size() * numberOfObjectives];
+            for (int i = 0; i < solutionSet.size(); i++) {
+                for (int j = 0; j < numberOfObjectives; j++) {
+                    objectives[i * numberOfObjectives + j] = solutionSet.get(i).getObjective(j);
+                }
+            }
+            double[] violations = constraintViolations(solutionSet);
+            if (violations != NO_CONSTRAINT_INFO && EfficientNonDominatedSort.isApplicable(objectives, violations)) {
+                // solutions with the same violation are compared by their objectives, as in DominanceComparator
+                int[] ranks = EfficientNonDominatedSort.ranks(objectives, numberOfObjectives, violations, true, sorting);
+                return rankedSubPopulations(solutionSet, ranks);
+            }
+        }
+        return fastNonDominatedSort(solutionSet);
+    }
+
+    /**
+     * Overall constraint violation of each solution, null if no solution has one, or
+     * NO_CONSTRAINT_INFO if only some of them have (the comparators are not consistent then).
+     */
+    private double[] constraintViolations(List<S> solutionSet) {
+        OverallConstraintViolation<S> overallConstraintViolation = new OverallConstraintViolation<S>();
+        double[] violations = new double[solutionSet.size()];
+        int missing = 0;
+        for (int i = 0; i < solutionSet.size(); i++) {
+            Double violation = overallConstraintViolation.getAttribute(solutionSet.get(i));
+            if (violation == null) {
+                missing++;
+            } else {
+                violations[i] = violation;
+            }
+        }
+        if (missing == solutionSet.size()) {
+            return null;
+        }
+        return missing == 0 ? violations : NO_CONSTRAINT_INFO;
+    }
+
+    private Ranking<S> rankedSubPopulations(List<S> solutionSet, int[] ranks) {
+        rankedSubPopulations = new ArrayList<>();
+        for (int i = 0; i < ranks.length; i++) {
+            while (rankedSubPopulations.size() <= ranks[i]) {
+                rankedSubPopulations.add(new ArrayList<S>());
+            }
+            rankedSubPopulations.get(ranks[i]).add(solutionSet.get(i));
+            solutionSet.get(i).setAttribute(getAttributeIdentifier(), ranks[i]);
+        }
+
+        return this;
+    }
+
+    private Ranking<S> fastNonDominatedSort(List<S> solutionSet) {
         List<S> population = solutionSet;
 
         // dominateMe[i] contains the number of solutions dominating i
@@ -0,0 +1,143 @@
+package main;
+
+import arquitetura.io.ExportContext;
+import arquitetura.representation.Architecture;
+import logs.log_log.Level;
+import logs.log_log.LogLog;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fila limitada de arquiteturas a gravar em XMI, atendida por um pool pequeno de threads. Quem envia não
+ * espera a gravação: a arquitetura é copiada ({@link Architecture#deepClone()}) no envio, então pode continuar
+ * sendo alterada, e os diretórios de exportação são lidos do {@link ExportContext} também no envio.
+ * <p>
+ * Com a fila cheia vale a {@link BackPressure} escolhida. {@link #close()} espera a fila esvaziar. Os arquivos
+ * que não puderam ser gravados são registrados um a um e devolvidos por {@link #getFailures()}.
+ */
+public class ArchitectureExportQueue implements AutoCloseable {
+
+    static Logger LOGGER = LogManager.getLogger(ArchitectureExportQueue.class.getName());
+
+    /**
+     * O que acontece com um envio quando a fila está cheia.
+     */
+    public enum BackPressure {
+        /**
+         * Quem envia espera até abrir um lugar na fila.
+         */
+        BLOCK,
+        /**
+         * Quem envia grava a arquitetura ele mesmo.
+         */
+        CALLER_RUNS
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final LogLog logger;
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+
+    /**
+     * @param numberOfThreads - threads que gravam as arquiteturas
+     * @param queueSize       - número máximo de arquiteturas esperando para serem gravadas
+     * @param backPressure    - o que fazer quando a fila está cheia
+     * @param logger          - onde as falhas também são registradas (GUI); pode ser null
+     */
+    public ArchitectureExportQueue(int numberOfThreads, int queueSize, BackPressure backPressure, LogLog logger) {
+        if (numberOfThreads < 1)
+            throw new IllegalArgumentException("numberOfThreads must be greater or equal 1");
+        if (queueSize < 1)
+            throw new IllegalArgumentException("queueSize must be greater or equal 1");
+
+        this.logger = logger;
+        this.executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new ExportThreads(),
+                backPressure == BackPressure.CALLER_RUNS ? new ThreadPoolExecutor.CallerRunsPolicy() : new Block());
+    }
+
+    /**
+     * Enfileira a gravação de uma cópia da arquitetura.
+     *
+     * @param architecture - arquitetura
+     * @param output       - nome dos arquivos gerados (sem extensão)
+     * @param context      - diretórios da exportação
+     */
+    public void submit(Architecture architecture, String output, ExportContext context) {
+        final Architecture snapshot = architecture.deepClone();
+        executor.execute(() -> export(snapshot, output, context));
+    }
+
+    private void export(Architecture snapshot, String output, ExportContext context) {
+        try {
+            new GenerateArchitecture().export(snapshot, output, context);
+        } catch (Exception e) {
+            String failure = context.getDirExportTarget() + output + ": " + e;
+            failures.add(failure);
+            LOGGER.warn("Cannot save architecture " + failure);
+            if (logger != null)
+                logger.putLog("Cannot save architecture " + failure, Level.ERROR);
+        }
+    }
+
+    /**
+     * @return os arquivos que não puderam ser gravados até agora, com o erro de cada um
+     */
+    public List<String> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<String>(failures);
+        }
+    }
+
+    /**
+     * Espera todas as arquiteturas enviadas serem gravadas e encerra as threads.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        while (!executor.awaitTermination(1, TimeUnit.MINUTES))
+            LOGGER.info("Waiting for " + (executor.getQueue().size() + executor.getActiveCount())
+                    + " architectures to be saved");
+    }
+
+    /**
+     * Com a fila cheia, espera um lugar nela.
+     */
+    private static final class Block implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown())
+                throw new RejectedExecutionException("Export queue is closed");
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for the export queue", e);
+            }
+        }
+    }
+
+    /**
+     * Threads daemon, para que uma fila não fechada não impeça a JVM de terminar.
+     */
+    private static final class ExportThreads implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "architecture-export-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package main;
 import arquitetura.exceptions.*;
 import arquitetura.helpers.Strings;
 import arquitetura.helpers.UtilResources;
+import arquitetura.io.ExportContext;
 import arquitetura.io.ReaderConfig;
 import arquitetura.representation.*;
 import arquitetura.representation.Attribute;
@@ -16,6 +17,7 @@ import logs.log_log.LogLog;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -26,7 +28,6 @@ public class GenerateArchitecture extends ArchitectureBase {
     static Logger LOGGER = LogManager.getLogger(GenerateArchitecture.class.getName());
 
     private LogLog logger; //para poder capturar logs na GUI.
-    private List<String> packageCreated = new ArrayList<String>();
 
     private static void generateAggregation(Operations op, AssociationRelationship r) throws NotSuppportedOperation {
         try {
@@ -126,290 +127,319 @@ public class GenerateArchitecture extends ArchitectureBase {
     }
 
     public void generate(Architecture a, String output) {
+        generate(a, output, ExportContext.fromConfig());
+    }
 
-        getLogLog(); //para poder capturar logs na GUI.
-
+    /**
+     * Grava a arquitetura nos diretórios do contexto. Não guarda estado entre chamadas, então pode ser chamado
+     * ao mesmo tempo por várias threads, cada exportação com o seu nome de saída. Falhas de gravação são apenas
+     * registradas no log.
+     *
+     * @param a       - arquitetura
+     * @param output  - nome dos arquivos gerados (sem extensão)
+     * @param context - diretórios da exportação
+     * @throws IllegalStateException se a arquitetura não puder ser convertida para XMI
+     */
+    public void generate(Architecture a, String output, ExportContext context) {
         UtilResources.clearConsole();
 
-        DocumentManager doc = null;
         try {
-            doc = givenADocument(output);
-        } catch (ModelNotFoundException e1) {
-            LOGGER.warn("Cannot find model: " + e1.getMessage());
-        } catch (ModelIncompleteException e1) {
-            LOGGER.warn("Model Incomplete" + e1.getMessage());
-        } catch (SMartyProfileNotAppliedToModelExcepetion e1) {
-            LOGGER.warn("Smarty Profile note Applied: " + e1.getMessage());
+            export(a, output, context);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot save architecture " + output + ": " + e.getMessage());
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot export architecture " + output + ": " + e.getMessage(), e);
         }
+    }
 
-        Operations op = null;
+    /**
+     * Como {@link #generate(Architecture, String, ExportContext)}, mas repassa ao chamador o erro que impediu a
+     * gravação da arquitetura, em vez de registrá-lo.
+     *
+     * @param a       - arquitetura
+     * @param output  - nome dos arquivos gerados (sem extensão)
+     * @param context - diretórios da exportação
+     * @throws IOException se algum dos arquivos não puder ser gravado
+     * @throws Exception   se a arquitetura não puder ser convertida para XMI
+     */
+    public void export(Architecture a, String output, ExportContext context) throws Exception {
 
-        try {
-            op = new Operations(doc, a);
+        getLogLog(); //para poder capturar logs na GUI.
 
-            Set<Package> packages = a.getAllPackages();
+        if (ReaderConfig.isStreamingXmiWriter()) {
+            new StreamingArchitectureWriter(a, output, context).write();
+            logDone(context, output);
+            return;
+        }
 
-            for (Class klass : a.getAllClasses()) {
+        DocumentManager doc = givenADocument(output, context);
+        Operations op = new Operations(doc, a);
 
-                List<arquitetura.touml.Attribute> attributesForClass = createAttributes(op, klass);
+        Set<Package> packages = a.getAllPackages();
 
-                Set<Method> methodsForClass = createMethods(klass);
+        for (Class klass : a.getAllClasses()) {
 
-                // Variation Point
-                VariationPoint variationPoint = klass.getVariationPoint();
-                String variants = "";
-                String variabilities = "";
+            List<arquitetura.touml.Attribute> attributesForClass = createAttributes(op, klass);
 
-                if (variationPoint != null) {
-                    variants = Strings.spliterVariants(variationPoint.getVariants());
-                    variabilities = Strings.spliterVariabilities(variationPoint.getVariabilities());
-                }
-                // Variation Point
-                if (attributesForClass.isEmpty())
-                    op.forClass().createClass(klass).withMethods(methodsForClass)
-                            .isVariationPoint(variants, variabilities, BindingTime.DESIGN_TIME).build();
-                else {
-                    op.forClass().createClass(klass).withMethods(methodsForClass).withAttribute(attributesForClass)
-                            .isVariationPoint(variants, variabilities, BindingTime.DESIGN_TIME).build();
-                }
+            Set<Method> methodsForClass = createMethods(klass);
 
-                // Adiciona Interesses nas classes
-                op.forConcerns().withStereotypes(klass.getOwnConcerns(), klass.getId());
+            // Variation Point
+            VariationPoint variationPoint = klass.getVariationPoint();
+            String variants = "";
+            String variabilities = "";
 
-                op.forConcerns().withPatternsStereotype(klass);
+            if (variationPoint != null) {
+                variants = Strings.spliterVariants(variationPoint.getVariants());
+                variabilities = Strings.spliterVariabilities(variationPoint.getVariabilities());
+            }
+            // Variation Point
+            if (attributesForClass.isEmpty())
+                op.forClass().createClass(klass).withMethods(methodsForClass)
+                        .isVariationPoint(variants, variabilities, BindingTime.DESIGN_TIME).build();
+            else {
+                op.forClass().createClass(klass).withMethods(methodsForClass).withAttribute(attributesForClass)
+                        .isVariationPoint(variants, variabilities, BindingTime.DESIGN_TIME).build();
+            }
 
-                // Adiciona Interesses nos atributos
-                for (arquitetura.touml.Attribute attr : attributesForClass) {
-                    op.forConcerns().withStereotypes(attr.getConcerns(), attr.getId());
-                }
-                // Adiciona Interesses nos métodos
-                for (Method m : methodsForClass) {
-                    op.forConcerns().withStereotypes(m.getConcerns(), m.getId());
-                }
+            // Adiciona Interesses nas classes
+            op.forConcerns().withStereotypes(klass.getOwnConcerns(), klass.getId());
 
-                attributesForClass.clear();
-                methodsForClass.clear();
-                // Adiciona Interesses nas classes
-
-                // Variant Type
-
-                Variant v = null;
-
-                Variant variant = klass.getVariant();
-                if (variant != null) {
-                    try {
-                        Element elementRootVp = null;
-                        elementRootVp = a.findElementByName(variant.getRootVP(), "class");
-                        if (elementRootVp == null)
-                            elementRootVp = a.findElementByName(variant.getRootVP(), "interface");
-                        String rootVp = null;
-
-                        if (elementRootVp != null)
-                            rootVp = elementRootVp.getName();
-                        else
-                            rootVp = "";
-                        v = Variant.createVariant().withName(variant.getVariantName()).andRootVp(rootVp)
-                                .wihtVariabilities(variant.getVariabilities())
-                                .withVariantType(variant.getVariantType()).build();
-
-                        // Se tem variant adicionar na classe
-                        if (v != null) {
-                            op.forClass().addStereotype(klass.getId(), v);
-                        }
-
-                    } catch (Exception e) {
-                        System.out.println("Error when try create Variant." + e.getMessage());
-                        System.exit(0);
-                    }
-                }
-                // Variant Type
+            op.forConcerns().withPatternsStereotype(klass);
+
+            // Adiciona Interesses nos atributos
+            for (arquitetura.touml.Attribute attr : attributesForClass) {
+                op.forConcerns().withStereotypes(attr.getConcerns(), attr.getId());
+            }
+            // Adiciona Interesses nos métodos
+            for (Method m : methodsForClass) {
+                op.forConcerns().withStereotypes(m.getConcerns(), m.getId());
             }
 
-            for (Interface _interface : a.getAllInterfaces()) {
-                // Variation Point
-                VariationPoint variationPoint = _interface.getVariationPoint();
-                String variants = "";
-                String variabilities = "";
+            attributesForClass.clear();
+            methodsForClass.clear();
+            // Adiciona Interesses nas classes
 
-                if (variationPoint != null) {
-                    variants = Strings.spliterVariants(variationPoint.getVariants());
-                    variabilities = Strings.spliterVariabilities(variationPoint.getVariabilities());
-                }
+            // Variant Type
 
-                Set<Method> methodsForClass = createMethods(_interface);
-                op.forClass().createClass(_interface).withMethods(methodsForClass)
-                        .isVariationPoint(variants, variabilities, BindingTime.DESIGN_TIME).asInterface().build();
-
-                // Variant Type
-
-                Variant v = null;
-
-                Variant variant = _interface.getVariant();
-                if (variant != null) {
-                    try {
-                        Element elementRootVp = null;
-                        elementRootVp = a.findElementByName(variant.getRootVP(), "class");
-                        if (elementRootVp == null)
-                            elementRootVp = a.findElementByName(variant.getRootVP(), "interface");
-                        String rootVp = null;
-
-                        if (elementRootVp != null)
-                            rootVp = elementRootVp.getName();
-                        else
-                            rootVp = "";
-                        v = Variant.createVariant().withName(variant.getVariantName()).andRootVp(rootVp)
-                                .wihtVariabilities(variant.getVariabilities())
-                                .withVariantType(variant.getVariantType()).build();
-
-                        // Se tem variant adicionar na classe
-                        if (v != null) {
-                            op.forClass().addStereotype(_interface.getId(), v);
-                        }
-
-                    } catch (Exception e) {
-                        if (this.logger != null)
-                            this.logger.putLog("Error when try create Variant." + e.getMessage(), Level.FATAL);
-                        System.exit(0);
-                    }
-                }
-                // Variant Type
+            Variant v = null;
 
-            }
+            Variant variant = klass.getVariant();
+            if (variant != null) {
+                try {
+                    Element elementRootVp = null;
+                    elementRootVp = a.findElementByName(variant.getRootVP(), "class");
+                    if (elementRootVp == null)
+                        elementRootVp = a.findElementByName(variant.getRootVP(), "interface");
+                    String rootVp = null;
+
+                    if (elementRootVp != null)
+                        rootVp = elementRootVp.getName();
+                    else
+                        rootVp = "";
+                    v = Variant.createVariant().withName(variant.getVariantName()).andRootVp(rootVp)
+                            .wihtVariabilities(variant.getVariabilities())
+                            .withVariantType(variant.getVariantType()).build();
+
+                    // Se tem variant adicionar na classe
+                    if (v != null) {
+                        op.forClass().addStereotype(klass.getId(), v);
+                    }
 
-            for (Interface inter : a.getAllInterfaces()) {
-                // Adiciona Interesses nos métodos da interface
-                for (arquitetura.representation.Method operation : inter.getOperations()) {
-                    op.forConcerns().withStereotypes(operation.getOwnConcerns(), operation.getId());
+                } catch (Exception e) {
+                    System.out.println("Error when try create Variant." + e.getMessage());
+                    throw e;
                 }
-                op.forConcerns().withStereotypes(inter.getOwnConcerns(), inter.getId());
-                op.forConcerns().withPatternsStereotype(inter);
             }
+            // Variant Type
+        }
 
-            if (!packages.isEmpty())
-                buildPackages(op, packages);
+        for (Interface _interface : a.getAllInterfaces()) {
+            // Variation Point
+            VariationPoint variationPoint = _interface.getVariationPoint();
+            String variants = "";
+            String variabilities = "";
+
+            if (variationPoint != null) {
+                variants = Strings.spliterVariants(variationPoint.getVariants());
+                variabilities = Strings.spliterVariabilities(variationPoint.getVariabilities());
+            }
 
-            for (AssociationRelationship r : a.getRelationshipHolder().getAllAssociationsRelationships())
-                generateSimpleAssociation(op, r);
+            Set<Method> methodsForClass = createMethods(_interface);
+            op.forClass().createClass(_interface).withMethods(methodsForClass)
+                    .isVariationPoint(variants, variabilities, BindingTime.DESIGN_TIME).asInterface().build();
 
-            for (AssociationRelationship r : a.getRelationshipHolder().getAllCompositions())
-                generateComposition(op, r);
+            // Variant Type
 
-            for (AssociationRelationship r : a.getRelationshipHolder().getAllAgragations())
-                generateAggregation(op, r);
+            Variant v = null;
 
-            for (GeneralizationRelationship g : a.getRelationshipHolder().getAllGeneralizations()) {
+            Variant variant = _interface.getVariant();
+            if (variant != null) {
                 try {
-                    op.forGeneralization().createRelation().between(g.getChild().getId()).and(g.getParent().getId())
-                            .build();
+                    Element elementRootVp = null;
+                    elementRootVp = a.findElementByName(variant.getRootVP(), "class");
+                    if (elementRootVp == null)
+                        elementRootVp = a.findElementByName(variant.getRootVP(), "interface");
+                    String rootVp = null;
+
+                    if (elementRootVp != null)
+                        rootVp = elementRootVp.getName();
+                    else
+                        rootVp = "";
+                    v = Variant.createVariant().withName(variant.getVariantName()).andRootVp(rootVp)
+                            .wihtVariabilities(variant.getVariabilities())
+                            .withVariantType(variant.getVariantType()).build();
+
+                    // Se tem variant adicionar na classe
+                    if (v != null) {
+                        op.forClass().addStereotype(_interface.getId(), v);
+                    }
+
                 } catch (Exception e) {
-                    LOGGER.info("Generalizacao nao criada");
+                    if (this.logger != null)
+                        this.logger.putLog("Error when try create Variant." + e.getMessage(), Level.FATAL);
+                    throw e;
                 }
             }
+            // Variant Type
 
-            for (DependencyRelationship d : a.getRelationshipHolder().getAllDependencies()) {
-                try {
-                    op.forDependency().createRelation().withName(d.getName()).withStereotypes(d.getStereotypes())
-                            .between(d.getClient().getId()).and(d.getSupplier().getId()).build();
-                } catch (Exception e) {
-                    LOGGER.info("Dependencia nao criada");
-                }
+        }
+
+        for (Interface inter : a.getAllInterfaces()) {
+            // Adiciona Interesses nos métodos da interface
+            for (arquitetura.representation.Method operation : inter.getOperations()) {
+                op.forConcerns().withStereotypes(operation.getOwnConcerns(), operation.getId());
             }
-            for (RealizationRelationship r : a.getRelationshipHolder().getAllRealizations()) {
-                try {
-                    op.forRealization().createRelation().withName(r.getName()).between(r.getClient().getId())
-                            .and(r.getSupplier().getId()).build();
-                } catch (Exception e) {
-                    LOGGER.info("Realizacao nao criada");
-                }
+            op.forConcerns().withStereotypes(inter.getOwnConcerns(), inter.getId());
+            op.forConcerns().withPatternsStereotype(inter);
+        }
+
+        if (!packages.isEmpty())
+            buildPackages(op, packages, new HashSet<String>());
+
+        for (AssociationRelationship r : a.getRelationshipHolder().getAllAssociationsRelationships())
+            generateSimpleAssociation(op, r);
+
+        for (AssociationRelationship r : a.getRelationshipHolder().getAllCompositions())
+            generateComposition(op, r);
+
+        for (AssociationRelationship r : a.getRelationshipHolder().getAllAgragations())
+            generateAggregation(op, r);
+
+        for (GeneralizationRelationship g : a.getRelationshipHolder().getAllGeneralizations()) {
+            try {
+                op.forGeneralization().createRelation().between(g.getChild().getId()).and(g.getParent().getId())
+                        .build();
+            } catch (Exception e) {
+                LOGGER.info("Generalizacao nao criada");
             }
+        }
 
-            for (AbstractionRelationship r : a.getRelationshipHolder().getAllAbstractions()) {
-                try {
-                    op.forAbstraction().createRelation().withName(r.getName()).between(r.getClient().getId())
-                            .and(r.getSupplier().getId()).build();
-                } catch (Exception e) {
-                    LOGGER.info("Abstracao nao criada");
-                }
+        for (DependencyRelationship d : a.getRelationshipHolder().getAllDependencies()) {
+            try {
+                op.forDependency().createRelation().withName(d.getName()).withStereotypes(d.getStereotypes())
+                        .between(d.getClient().getId()).and(d.getSupplier().getId()).build();
+            } catch (Exception e) {
+                LOGGER.info("Dependencia nao criada");
             }
+        }
+        for (RealizationRelationship r : a.getRelationshipHolder().getAllRealizations()) {
+            try {
+                op.forRealization().createRelation().withName(r.getName()).between(r.getClient().getId())
+                        .and(r.getSupplier().getId()).build();
+            } catch (Exception e) {
+                LOGGER.info("Realizacao nao criada");
+            }
+        }
 
-            for (UsageRelationship u : a.getRelationshipHolder().getAllUsage()) {
-                try {
-                    op.forUsage().createRelation("").between(u.getClient().getId()).and(u.getSupplier().getId())
-                            .build();
-                } catch (Exception e) {
-                    LOGGER.info("Usage nao criada");
-                }
+        for (AbstractionRelationship r : a.getRelationshipHolder().getAllAbstractions()) {
+            try {
+                op.forAbstraction().createRelation().withName(r.getName()).between(r.getClient().getId())
+                        .and(r.getSupplier().getId()).build();
+            } catch (Exception e) {
+                LOGGER.info("Abstracao nao criada");
             }
+        }
 
-            for (AssociationClassRelationship asr : a.getRelationshipHolder().getAllAssociationsClass()) {
-                try {
-                    op.forAssociationClass().createAssociationClass(asr).build();
-                    op.forPackage().withId(asr.getPackageOwner()).add(asr.getId());
-                } catch (Exception e) {
-                    LOGGER.info("AssociationClass nao criada");
-                }
+        for (UsageRelationship u : a.getRelationshipHolder().getAllUsage()) {
+            try {
+                op.forUsage().createRelation("").between(u.getClient().getId()).and(u.getSupplier().getId())
+                        .build();
+            } catch (Exception e) {
+                LOGGER.info("Usage nao criada");
             }
+        }
 
-            // Variabilidades - Notes
-            List<Variability> variabilities = a.getAllVariabilities();
-            String idOwner = "";
-            for (Variability variability : variabilities) {
-                try {
-                    VariationPoint variationPointForVariability = variability.getVariationPoint();
-            /*
+        for (AssociationClassRelationship asr : a.getRelationshipHolder().getAllAssociationsClass()) {
+            try {
+                op.forAssociationClass().createAssociationClass(asr).build();
+                op.forPackage().withId(asr.getPackageOwner()).add(asr.getId());
+            } catch (Exception e) {
+                LOGGER.info("AssociationClass nao criada");
+            }
+        }
+
+        // Variabilidades - Notes
+        List<Variability> variabilities = a.getAllVariabilities();
+        String idOwner = "";
+        for (Variability variability : variabilities) {
+            try {
+                VariationPoint variationPointForVariability = variability.getVariationPoint();
+        /*
 		     * Um Variabilidade pode estar ligada a uma classe que não
 		     * seja um ponto de variação, neste caso a chama do método
 		     * acima vai retornar null. Quando isso acontecer é usado o
 		     * método getOwnerClass() que retorna a classe que é dona da
 		     * variabilidade.
 		     */
-                    if (variationPointForVariability == null) {
-                        idOwner = a.findClassByName(variability.getOwnerClass()).get(0).getId();
-                    } else {
-                        idOwner = variationPointForVariability.getVariationPointElement().getId();
-                    }
-
-                    String idNote = op.forNote().createNote().build();
-                    VariabilityStereotype var = new VariabilityStereotype(variability);
-                    op.forNote().addVariability(idNote, var).build();
-                    op.forClass().withId(idOwner).linkToNote(idNote);
-                } catch (Exception e) {
-                    LOGGER.info("Nao conseguiu criar variationPoint");
+                if (variationPointForVariability == null) {
+                    idOwner = a.findClassByName(variability.getOwnerClass()).get(0).getId();
+                } else {
+                    idOwner = variationPointForVariability.getVariationPointElement().getId();
                 }
 
+                String idNote = op.forNote().createNote().build();
+                VariabilityStereotype var = new VariabilityStereotype(variability);
+                op.forNote().addVariability(idNote, var).build();
+                op.forClass().withId(idOwner).linkToNote(idNote);
+            } catch (Exception e) {
+                LOGGER.info("Nao conseguiu criar variationPoint");
             }
-            variabilities.clear();
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.exit(0);
         }
+        variabilities.clear();
+
+        if (doc.getSaveError() != null)
+            throw new IOException("Cannot save architecture " + output + ": " + doc.getSaveError().getMessage(),
+                    doc.getSaveError());
 
-        LOGGER.info("\n\n\nDone. Architecture save into: " + ReaderConfig.getDirExportTarget() + doc.getNewModelName()
+        logDone(context, doc.getNewModelName());
+    }
+
+    private void logDone(ExportContext context, String modelName) {
+        LOGGER.info("\n\n\nDone. Architecture save into: " + context.getDirExportTarget() + modelName
                 + "\n\n\n\n");
         if (this.logger != null)
-            this.logger.putLog("Done. Architecture save into: " + ReaderConfig.getDirExportTarget()
-                    + doc.getNewModelName(), Level.INFO);
-
+            this.logger.putLog("Done. Architecture save into: " + context.getDirExportTarget()
+                    + modelName, Level.INFO);
     }
 
-    private void buildPackages(Operations op, Set<Package> packages) throws CustonTypeNotFound, NodeNotFound,
-            InvalidMultiplictyForAssociationException {
+    private void buildPackages(Operations op, Set<Package> packages, Set<String> packageCreated)
+            throws CustonTypeNotFound, NodeNotFound, InvalidMultiplictyForAssociationException {
 
-        buildPackage(op, packages.iterator().next());
+        buildPackage(op, packages.iterator().next(), packageCreated);
 
         for (Package p : packages) {
             op.forPackage().createPacakge(p).withClass(getOnlyInterfacesAndClasses(p)).build();
         }
     }
 
-    private void buildPackage(Operations op, Package pack) throws CustonTypeNotFound, NodeNotFound,
-            InvalidMultiplictyForAssociationException {
+    private void buildPackage(Operations op, Package pack, Set<String> packageCreated) throws CustonTypeNotFound,
+            NodeNotFound, InvalidMultiplictyForAssociationException {
         List<String> nestedIds = new ArrayList<String>();
         for (Package p : pack.getNestedPackages()) {
             nestedIds.add(p.getId());
             if (!p.getNestedPackages().isEmpty())
-                buildPackage(op, p);
+                buildPackage(op, p, packageCreated);
             if (!packageCreated.contains(p.getId())) {
                 op.forPackage().createPacakge(p).withClass(getOnlyInterfacesAndClasses(p)).build();
                 packageCreated.add(p.getId());
@@ -0,0 +1,156 @@
+package arquitetura.helpers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * O {@link DocumentIndex} acompanha as alterações do documento: nós inseridos, removidos ou movidos e
+ * xmi:id/href alterados, e as buscas do {@link XmiHelper} pelo índice encontram o mesmo que a busca no documento.
+ */
+public class DocumentIndexTest {
+
+    private static final String UML = "<xmi:XMI xmlns:xmi=\"http://www.omg.org/XMI\" xmlns:uml=\"http://www.eclipse.org/uml2/4.0.0/UML\">"
+            + "<uml:Model xmi:id=\"model\">"
+            + "<packagedElement xmi:id=\"pkg\" name=\"Pacote\">"
+            + "<packagedElement xmi:id=\"klass\" name=\"Classe\">"
+            + "<ownedAttribute xmi:id=\"attr\" name=\"atributo\"/>"
+            + "<ownedOperation xmi:id=\"op\" name=\"operacao\"/>"
+            + "</packagedElement>"
+            + "</packagedElement>"
+            + "<packagedElement xmi:id=\"other\" name=\"Outra\"/>"
+            + "</uml:Model></xmi:XMI>";
+
+    private static final String NOTATION = "<xmi:XMI xmlns:xmi=\"http://www.omg.org/XMI\" xmlns:notation=\"http://www.eclipse.org/gmf/runtime/1.0.2/notation\">"
+            + "<notation:Diagram xmi:id=\"diagram\">"
+            + "<children xmi:id=\"shapePkg\"><element href=\"model.uml#pkg\"/>"
+            + "<children xmi:id=\"shapeKlass\"><element href=\"model.uml#klass\"/></children>"
+            + "</children>"
+            + "</notation:Diagram></xmi:XMI>";
+
+    private Document uml;
+    private Document notation;
+    private DocumentIndex umlIndex;
+    private DocumentIndex notationIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        uml = parse(UML);
+        notation = parse(NOTATION);
+        umlIndex = DocumentIndex.index(uml);
+        notationIndex = DocumentIndex.index(notation);
+    }
+
+    @Test
+    public void indexesTheLoadedDocument() throws Exception {
+        assertSame(umlIndex, DocumentIndex.index(uml));
+        assertSame(umlIndex, DocumentIndex.of(uml));
+        assertNull(DocumentIndex.of(parse(UML)));
+
+        for (String id : new String[]{"model", "pkg", "klass", "attr", "op", "other"})
+            assertEquals(id, umlIndex.findById(id).getAttribute("xmi:id"));
+        assertNull(umlIndex.findById("missing"));
+        assertEquals("shapePkg", notationIndex.findNotationNode("pkg").getAttribute("xmi:id"));
+        assertEquals("shapeKlass", notationIndex.findNotationNode("klass").getAttribute("xmi:id"));
+
+        // as buscas pelo índice e no documento
+        Document unindexed = parse(UML);
+        for (String id : new String[]{"pkg", "klass", "other", "attr", "missing"}) {
+            assertEquals(id, attribute(XmiHelper.findByID(unindexed, id, "packagedElement")),
+                    attribute(XmiHelper.findByID(uml, id, "packagedElement")));
+        }
+        assertSame(notationIndex.findNotationNode("klass"), XmiHelper.findByIDInNotationFile(notation, "klass"));
+        assertEquals("shapeKlass", attribute(XmiHelper.findByIDInNotationFile(parse(NOTATION), "klass")));
+    }
+
+    @Test
+    public void insertedSubtreesAreIndexed() {
+        Element klass = uml.createElement("packagedElement");
+        klass.setAttribute("xmi:id", "new");
+        Element operation = uml.createElement("ownedOperation");
+        operation.setAttribute("xmi:id", "newOp");
+        klass.appendChild(operation);
+        assertNull(umlIndex.findById("new"));
+
+        umlIndex.findById("pkg").appendChild(klass);
+        assertSame(klass, umlIndex.findById("new"));
+        assertSame(operation, umlIndex.findById("newOp"));
+
+        Element shape = notation.createElement("children");
+        shape.setAttribute("xmi:id", "shapeNew");
+        Element element = notation.createElement("element");
+        element.setAttribute("href", "model.uml#new");
+        shape.appendChild(element);
+        notationIndex.findById("diagram").appendChild(shape);
+        assertSame(shape, notationIndex.findNotationNode("new"));
+        assertSame(shape, notationIndex.findById("shapeNew"));
+    }
+
+    @Test
+    public void removedSubtreesAreDropped() {
+        Element pkg = umlIndex.findById("pkg");
+        pkg.getParentNode().removeChild(pkg);
+        for (String id : new String[]{"pkg", "klass", "attr", "op"})
+            assertNull(id, umlIndex.findById(id));
+        assertNotNull(umlIndex.findById("other"));
+
+        Element shape = notationIndex.findNotationNode("pkg");
+        shape.getParentNode().removeChild(shape);
+        assertNull(notationIndex.findNotationNode("pkg"));
+        assertNull(notationIndex.findNotationNode("klass"));
+        assertNull(notationIndex.findById("shapeKlass"));
+    }
+
+    @Test
+    public void movedNodesStayIndexed() {
+        Element operation = umlIndex.findById("op");
+        umlIndex.findById("other").appendChild(operation);
+        assertSame(operation, umlIndex.findById("op"));
+        assertSame(umlIndex.findById("other"), operation.getParentNode());
+
+        Element shape = notationIndex.findNotationNode("klass");
+        notationIndex.findById("diagram").appendChild(shape);
+        assertSame(shape, notationIndex.findNotationNode("klass"));
+    }
+
+    @Test
+    public void changedIdsAndHrefsAreReindexed() {
+        Element klass = umlIndex.findById("klass");
+        klass.setAttribute("xmi:id", "renamed");
+        assertNull(umlIndex.findById("klass"));
+        assertSame(klass, umlIndex.findById("renamed"));
+
+        klass.removeAttribute("xmi:id");
+        assertNull(umlIndex.findById("renamed"));
+        klass.setAttribute("xmi:id", "klass");
+        assertSame(klass, umlIndex.findById("klass"));
+
+        Element shape = notationIndex.findNotationNode("klass");
+        Element element = (Element) shape.getElementsByTagName("element").item(0);
+        element.setAttribute("href", "model.uml#renamed");
+        assertNull(notationIndex.findNotationNode("klass"));
+        assertSame(shape, notationIndex.findNotationNode("renamed"));
+
+        element.removeAttribute("href");
+        assertNull(notationIndex.findNotationNode("renamed"));
+        // o href de um element fora de um children não é indexado
+        Element pkgShape = notationIndex.findNotationNode("pkg");
+        pkgShape.setAttribute("href", "model.uml#other");
+        assertNull(notationIndex.findNotationNode("other"));
+    }
+
+    private static String attribute(org.w3c.dom.Node node) {
+        return node == null ? null : ((Element) node).getAttribute("xmi:id");
+    }
+
+    private static Document parse(String xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+}
@@ -0,0 +1,195 @@
+package arquitetura.io;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.Class;
+import arquitetura.representation.RandomArchitectures;
+import arquitetura.touml.ExportedModels;
+import arquitetura.touml.StreamingArchitectureWriter;
+import main.GenerateArchitecture;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Exportações em paralelo na mesma JVM, inclusive com os mesmos nomes no mesmo diretório: cada arquivo exportado
+ * deve estar completo e vir de uma única exportação, e nenhum arquivo temporário pode sobrar.
+ */
+public class ParallelExportTest {
+
+    private static final int THREADS = 16;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ExportContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new ExportContext(folder.newFolder("manipulation").getPath(), folder.newFolder("export").getPath());
+        // sem perfis: nada é copiado para resources/
+        ReaderConfig.setPathToProfileSMarty("");
+        ReaderConfig.setPathToProfileConcerns("");
+        ReaderConfig.setPathProfileRelationship("");
+        ReaderConfig.setPathToProfilePatterns("");
+    }
+
+    @Test
+    public void saveAndMoveWithSharedNames() throws Exception {
+        final int exports = 400;
+        final int names = 20;
+        final int children = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> done = new ArrayList<Future<?>>();
+            for (int i = 0; i < exports; i++) {
+                final int writer = i;
+                done.add(executor.submit(() -> {
+                    SaveAndMove.saveAndMove(document(writer, children), document(writer, children),
+                            document(writer, children), "model" + writer % names, context);
+                    return null;
+                }));
+            }
+            for (Future<?> future : done)
+                future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int name = 0; name < names; name++) {
+            for (String extension : new String[]{".notation", ".uml", ".di"}) {
+                Document exported = parse(context.getExportFile("model" + name + extension).toFile());
+                Element root = exported.getDocumentElement();
+                int writer = Integer.parseInt(root.getAttribute("writer"));
+                assertEquals(name, writer % names);
+                NodeList written = root.getElementsByTagName("child");
+                assertEquals(children, written.getLength());
+                for (int i = 0; i < written.getLength(); i++)
+                    assertEquals(String.valueOf(writer), ((Element) written.item(i)).getAttribute("writer"));
+            }
+        }
+        assertNoScratchFiles();
+    }
+
+    @Test
+    public void streamingWriterExportsInParallel() throws Exception {
+        final List<Architecture> architectures = new ArrayList<Architecture>();
+        for (long seed = 0; seed < 40; seed++)
+            architectures.add(RandomArchitectures.create(new Random(seed), 4, 4, 30));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> done = new ArrayList<Future<?>>();
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < architectures.size(); i++) {
+                    final Architecture architecture = architectures.get(i);
+                    final String name = "architecture" + i;
+                    done.add(executor.submit(() -> {
+                        new StreamingArchitectureWriter(architecture, name, context).write();
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : done)
+                future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < architectures.size(); i++) {
+            Document uml = parse(context.getExportFile("architecture" + i + ".uml").toFile());
+            parse(context.getExportFile("architecture" + i + ".notation").toFile());
+            parse(context.getExportFile("architecture" + i + ".di").toFile());
+
+            Set<String> exported = new HashSet<String>();
+            NodeList elements = uml.getElementsByTagName("packagedElement");
+            for (int e = 0; e < elements.getLength(); e++)
+                exported.add(((Element) elements.item(e)).getAttribute("name"));
+            for (Class klass : architectures.get(i).getAllClasses())
+                assertTrue(klass.getName(), exported.contains(klass.getName()));
+        }
+        assertNoScratchFiles();
+    }
+
+    /**
+     * O caminho padrão do {@link GenerateArchitecture} (DocumentManager, sem o escritor em streaming): cada
+     * exportação concorrente deve publicar os mesmos arquivos que a exportação da mesma arquitetura sozinha.
+     */
+    @Test
+    public void documentManagerExportsInParallel() throws Exception {
+        // os testes rodam no diretório do módulo
+        ReaderConfig.setPathToTemplateModelsDirectory(new File("filesTemplates").getAbsolutePath() + File.separator);
+        ReaderConfig.setPathToProfileSMarty(new File("perfis/smarty.profile.uml").getAbsolutePath());
+        ReaderConfig.setPathToProfileConcerns(new File("perfis/concerns.profile.uml").getAbsolutePath());
+        ReaderConfig.setPathProfileRelationship(new File("perfis/relationships.profile.uml").getAbsolutePath());
+        ReaderConfig.setPathToProfilePatterns(new File("perfis/patterns.profile.uml").getAbsolutePath());
+        ReaderConfig.setStreamingXmiWriter(false);
+
+        final List<Architecture> architectures = new ArrayList<Architecture>();
+        for (long seed = 0; seed < THREADS / 2; seed++)
+            architectures.add(RandomArchitectures.create(new Random(seed), 4, 4, 30));
+        for (int i = 0; i < architectures.size(); i++)
+            new GenerateArchitecture().export(architectures.get(i), "sequential" + i, context);
+
+        final int rounds = 2;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> done = new ArrayList<Future<?>>();
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < architectures.size(); i++) {
+                    final Architecture architecture = architectures.get(i);
+                    final String name = "parallel" + i + "_" + round;
+                    done.add(executor.submit(() -> {
+                        new GenerateArchitecture().export(architecture, name, context);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : done)
+                future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < architectures.size(); i++)
+            for (int round = 0; round < rounds; round++)
+                ExportedModels.assertSameModel("architecture " + i + ", round " + round, context, "sequential" + i,
+                        "parallel" + i + "_" + round);
+        assertNoScratchFiles();
+    }
+
+    private void assertNoScratchFiles() {
+        assertArrayEquals(new String[0], new File(context.getDirTarget()).list());
+    }
+
+    private static Document document(int writer, int children) throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element root = document.createElement("model");
+        root.setAttribute("writer", String.valueOf(writer));
+        document.appendChild(root);
+        for (int i = 0; i < children; i++) {
+            Element child = document.createElement("child");
+            child.setAttribute("writer", String.valueOf(writer));
+            child.setAttribute("index", String.valueOf(i));
+            root.appendChild(child);
+        }
+        return document;
+    }
+
+    private static Document parse(File file) throws Exception {
+        assertTrue(file.getPath(), file.isFile());
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+    }
+}
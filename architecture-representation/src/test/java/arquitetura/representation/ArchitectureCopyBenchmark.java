@@ -0,0 +1,76 @@
+package arquitetura.representation;
+
+import arquitetura.builders.ArchitectureBuilder;
+import com.rits.cloning.Cloner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o tempo de {@link ArchitectureCopy#of(Architecture)} com o da cópia reflexiva do Cloner, usada
+ * antes por {@link Architecture#deepClone()}, nas PLAs de exemplo do opla-tool e numa arquitetura aleatória.
+ * É um benchmark JMH, não um teste: as PLAs e os perfis (config/application.yaml) são lidos por caminhos
+ * relativos ao diretório do módulo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+// o Cloner copia por reflexão classes do JDK
+@Fork(value = 1, jvmArgsAppend = {"--add-opens=java.base/java.lang=ALL-UNNAMED",
+        "--add-opens=java.base/java.lang.ref=ALL-UNNAMED", "--add-opens=java.base/java.util=ALL-UNNAMED",
+        "--add-opens=java.base/java.util.concurrent.atomic=ALL-UNNAMED"})
+public class ArchitectureCopyBenchmark {
+
+    private static final String PLAS = "../opla-tool/src/test/resources/output/";
+
+    /**
+     * PLA de {@link #PLAS}, sem a extensão, ou <code>random</code>: 10 pacotes com 10 classes e 200
+     * relacionamentos de {@link RandomArchitectures}.
+     */
+    @Param({"4726543913/VAR_All_agm-1812697212", "5727237783/VAR_All_agm-1141254935", "random"})
+    public String model;
+
+    private Architecture architecture;
+    private Cloner cloner;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (model.equals("random")) {
+            architecture = RandomArchitectures.create(new Random(1), 10, 10, 200);
+        } else {
+            architecture = new ArchitectureBuilder().create(new File(PLAS + model + ".uml").getAbsolutePath());
+            if (architecture == null)
+                throw new IllegalStateException("não foi possível ler " + PLAS + model + ".uml");
+        }
+        cloner = new Cloner();
+        if (!ArchitectureCopy.of(architecture).getFingerprint().equals(architecture.getFingerprint()))
+            throw new IllegalStateException("a cópia do ArchitectureCopy é diferente da original");
+        if (!cloner.deepClone(architecture).getFingerprint().equals(architecture.getFingerprint()))
+            throw new IllegalStateException("a cópia do Cloner é diferente da original");
+    }
+
+    @Benchmark
+    public void architectureCopy(Blackhole blackhole) {
+        blackhole.consume(ArchitectureCopy.of(architecture));
+    }
+
+    @Benchmark
+    public void cloner(Blackhole blackhole) {
+        blackhole.consume(cloner.deepClone(architecture));
+    }
+}
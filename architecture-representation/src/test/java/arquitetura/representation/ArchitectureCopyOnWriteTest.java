@@ -0,0 +1,93 @@
+package arquitetura.representation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Em modo copy-on-write, {@link Architecture#deepCopy()} compartilha a instância e
+ * {@link Architecture#forWriting()} devolve a cada solução uma cópia própria: a instância compartilhada
+ * não é alterada, mesmo que algumas das soluções que a referenciam sejam descartadas sem alterá-la.
+ */
+public class ArchitectureCopyOnWriteTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    public void everyHolderCopiesASharedArchitecture() throws Exception {
+        Architecture original = RandomArchitectures.create(new Random(1), 4, 4, 30);
+        original.setCopyOnWrite(true);
+        ArchitectureFingerprint fingerprint = original.getFingerprint();
+        assertSame(original, original.forWriting());
+
+        // soluções filhas: duas são alteradas, as outras descartadas sem alteração
+        for (int i = 0; i < 10; i++)
+            assertSame(original, original.deepCopy());
+        assertTrue(original.isShared());
+
+        Architecture first = original.forWriting();
+        Architecture second = original.forWriting();
+        assertNotSame(original, first);
+        assertNotSame(original, second);
+        assertNotSame(first, second);
+        first.createPackage("First");
+        second.removePackage(second.getAllPackages().iterator().next());
+
+        assertEquals(fingerprint, original.getFingerprint());
+        assertFalse(fingerprint.equals(first.getFingerprint()));
+        assertFalse(fingerprint.equals(second.getFingerprint()));
+
+        // a cópia pertence a quem a pediu: as próximas alterações são in-place
+        assertFalse(first.isShared());
+        assertTrue(first.isCopyOnWrite());
+        assertSame(first, first.forWriting());
+        // e volta a ser compartilhada quando é copiada
+        assertSame(first, first.deepCopy());
+        assertNotSame(first, first.forWriting());
+    }
+
+    @Test
+    public void concurrentWritersGetPrivateCopies() throws Exception {
+        final Architecture original = RandomArchitectures.create(new Random(2), 4, 4, 30);
+        original.setCopyOnWrite(true);
+        ArchitectureFingerprint fingerprint = original.getFingerprint();
+        original.deepCopy();
+
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Architecture>> done = new ArrayList<Future<Architecture>>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                final int writer = i;
+                done.add(executor.submit(new Callable<Architecture>() {
+                    @Override
+                    public Architecture call() throws Exception {
+                        start.await();
+                        Architecture copy = original.forWriting();
+                        copy.createPackage("Writer" + writer);
+                        return copy;
+                    }
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < THREADS; i++) {
+                Architecture copy = done.get(i).get();
+                assertNotSame(original, copy);
+                assertEquals(original.getAllPackages().size() + 1, copy.getAllPackages().size());
+                assertNotNull(copy.findPackageByName("Writer" + i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(fingerprint, original.getFingerprint());
+    }
+}
@@ -0,0 +1,157 @@
+package arquitetura.representation;
+
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * A cópia feita por {@link ArchitectureCopy} deve ter a mesma estrutura da original (mesma
+ * {@link ArchitectureFingerprint}) sem compartilhar com ela nenhum objeto mutável, exceto os {@link Concern}.
+ */
+public class ArchitectureCopyTest {
+
+    @Test
+    public void copyHasTheSameFingerprint() throws Exception {
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            Architecture original = RandomArchitectures.create(random, 4, 4, 40);
+            variability(random, original);
+            Architecture copy = ArchitectureCopy.of(original);
+
+            assertNotSame(original, copy);
+            assertEquals("seed " + seed, original.getFingerprint(), copy.getFingerprint());
+            assertEquals(original.getElements().size(), copy.getElements().size());
+            assertEquals(original.getRelationshipHolder().getAllRelationships(),
+                    copy.getRelationshipHolder().getAllRelationships());
+        }
+    }
+
+    @Test
+    public void copySharesNoMutableObjects() throws Exception {
+        for (long seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            Architecture original = RandomArchitectures.create(random, 4, 4, 40);
+            variability(random, original);
+            // índices e caches da original já construídos
+            original.getElements();
+            for (Element element : RandomArchitectures.elements(original))
+                original.getRelationshipHolder().getRelationships(element);
+            Architecture copy = ArchitectureCopy.of(original);
+
+            Set<Object> reachable = reachable(original);
+            for (Object shared : reachable(copy))
+                assertFalse("seed " + seed + ": " + shared.getClass().getName() + " compartilhado",
+                        reachable.contains(shared));
+        }
+    }
+
+    @Test
+    public void changesToTheCopyKeepTheOriginal() throws Exception {
+        Random random = new Random(3);
+        Architecture original = RandomArchitectures.create(random, 4, 4, 40);
+        ArchitectureFingerprint fingerprint = original.getFingerprint();
+        Architecture copy = ArchitectureCopy.of(original);
+
+        for (Element element : RandomArchitectures.elements(copy)) {
+            element.setName(element.getName() + "Copy");
+            element.addConcern(RandomArchitectures.CONCERNS[0]);
+        }
+        for (Class klass : copy.getAllClasses()) {
+            klass.createMethod("copied", "void", false, null);
+            for (Method method : klass.getAllMethods())
+                method.addConcern(RandomArchitectures.CONCERNS[1]);
+        }
+        copy.getRelationshipHolder().clearLists();
+        copy.removePackage(copy.getAllPackages().iterator().next());
+
+        assertEquals(fingerprint, original.getFingerprint());
+        assertFalse(fingerprint.equals(copy.getFingerprint()));
+    }
+
+    /**
+     * Liga algumas classes por pontos de variação, variantes e variabilidades, que a cópia precisa
+     * resolver para um único objeto apesar dos ciclos.
+     */
+    private static void variability(Random random, Architecture architecture) throws Exception {
+        List<Class> classes = new ArrayList<Class>(architecture.getAllClasses());
+        for (int i = 0; i < 3; i++) {
+            Class vpElement = RandomArchitectures.pick(random, classes);
+            Class variantElement = RandomArchitectures.pick(random, classes);
+            if (vpElement == variantElement || vpElement.getVariationPoint() != null || variantElement.getVariant() != null)
+                continue;
+            Variability variability = new Variability("variability" + i, "1", "1", "DESIGN_TIME", false,
+                    vpElement.getName(), vpElement.getNamespace());
+            Variant variant = Variant.createVariant().withName(variantElement.getName()).andRootVp(vpElement.getName())
+                    .withVariantType("optional").build();
+            variant.setVariantElement(variantElement);
+            variant.setVariabilities(new ArrayList<Variability>(Collections.singletonList(variability)));
+            variantElement.setVariant(variant);
+            VariationPoint variationPoint = new VariationPoint(vpElement,
+                    new ArrayList<Variant>(Collections.singletonList(variant)), "DESIGN_TIME");
+            variant.setVariationPoints(new ArrayList<VariationPoint>(Collections.singletonList(variationPoint)));
+            variability.setVariationPoint(variationPoint);
+            variability.getVariants().add(variant);
+        }
+    }
+
+    /**
+     * Objetos mutáveis alcançáveis a partir da arquitetura. Os campos das classes do modelo são
+     * percorridos por reflexão; coleções, mapas e arrays pelos seus elementos. Concerns, Strings,
+     * wrappers, enums e objetos vazios imutáveis não entram no conjunto.
+     */
+    private static Set<Object> reachable(Architecture architecture) throws IllegalAccessException {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        Deque<Object> pending = new ArrayDeque<Object>();
+        pending.push(architecture);
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (isImmutable(object) || !seen.add(object))
+                continue;
+            if (object instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                    push(pending, entry.getKey());
+                    push(pending, entry.getValue());
+                }
+            } else if (object instanceof Collection) {
+                for (Object element : (Collection<?>) object)
+                    push(pending, element);
+            } else if (object.getClass().isArray()) {
+                if (!object.getClass().getComponentType().isPrimitive())
+                    for (int i = 0; i < Array.getLength(object); i++)
+                        push(pending, Array.get(object, i));
+            } else if (object.getClass().getName().startsWith("arquitetura.")) {
+                for (java.lang.Class<?> type = object.getClass(); type != null; type = type.getSuperclass()) {
+                    for (Field field : type.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive())
+                            continue;
+                        field.setAccessible(true);
+                        push(pending, field.get(object));
+                    }
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static void push(Deque<Object> pending, Object object) {
+        if (object != null)
+            pending.push(object);
+    }
+
+    private static boolean isImmutable(Object object) {
+        if (object instanceof Concern || object instanceof String || object instanceof Enum
+                || object instanceof java.lang.Class || object instanceof Boolean || object instanceof Character
+                || object instanceof Integer || object instanceof Long || object instanceof Double)
+            return true;
+        // Collections.emptySet(), unmodifiable*, arrays vazios: compartilhá-los não expõe nenhum estado
+        if (object.getClass().getName().startsWith("java.util.Collections$"))
+            return ((object instanceof Collection && ((Collection<?>) object).isEmpty())
+                    || (object instanceof Map && ((Map<?, ?>) object).isEmpty()));
+        return object.getClass().isArray() && Array.getLength(object) == 0;
+    }
+}
@@ -0,0 +1,82 @@
+package arquitetura.representation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link Architecture#getVersion()} muda somente com as alterações da própria arquitetura: renomear um elemento
+ * descarta os caches das arquiteturas que o contêm, e não os das demais, e desfazer alterações pelo
+ * {@link ChangeLog} também descarta os caches.
+ */
+public class ArchitectureVersionTest {
+
+    @Test
+    public void renamingInvalidatesOnlyTheArchitecturesOfTheElement() throws Exception {
+        Architecture architecture = RandomArchitectures.create(new Random(1), 4, 4, 30);
+        Architecture other = ArchitectureCopy.of(architecture);
+        Class klass = new ArrayList<Class>(architecture.getAllClasses()).get(0);
+        String name = klass.getName();
+        assertSame(klass, architecture.findElementByName(name, "class"));
+        other.findElementByName(name, "class");
+        other.getAllClasses();
+
+        long version = architecture.getVersion();
+        long otherVersion = other.getVersion();
+        klass.setName("Renomeada");
+
+        assertTrue(architecture.getVersion() > version);
+        assertEquals(otherVersion, other.getVersion());
+        assertSame(klass, architecture.findElementByName("Renomeada", "class"));
+        assertNull(architecture.findElementByName(name, "class"));
+        assertTrue(architecture.getAllClasses().contains(klass));
+        assertNotNull(other.findElementByName(name, "class"));
+    }
+
+    @Test
+    public void rollbackOfAClassInAPackageInvalidatesTheCaches() throws Exception {
+        Architecture architecture = RandomArchitectures.create(new Random(2), 4, 4, 30);
+        Package pkg = new ArrayList<Package>(architecture.getAllPackages()).get(0);
+        int classes = architecture.getAllClasses().size();
+
+        ChangeLog changes = ChangeLog.begin();
+        try {
+            pkg.createClass("Nova", false);
+            assertNotNull(architecture.findElementByName("Nova", "class"));
+            assertEquals(classes + 1, architecture.getAllClasses().size());
+
+            long version = architecture.getVersion();
+            changes.rollback();
+            assertTrue(architecture.getVersion() > version);
+        } finally {
+            changes.close();
+        }
+
+        assertNull(architecture.findElementByName("Nova", "class"));
+        assertEquals(classes, architecture.getAllClasses().size());
+    }
+
+    @Test
+    public void rollbackOfARenameInvalidatesTheCaches() throws Exception {
+        Architecture architecture = RandomArchitectures.create(new Random(3), 4, 4, 30);
+        Class klass = new ArrayList<Class>(architecture.getAllClasses()).get(0);
+        String name = klass.getName();
+        assertSame(klass, architecture.findElementByName(name, "class"));
+
+        ChangeLog changes = ChangeLog.begin();
+        try {
+            klass.setName("Renomeada");
+            assertSame(klass, architecture.findElementByName("Renomeada", "class"));
+            changes.rollback();
+        } finally {
+            changes.close();
+        }
+
+        assertSame(klass, architecture.findElementByName(name, "class"));
+        assertNull(architecture.findElementByName("Renomeada", "class"));
+        assertTrue(architecture.getAllClasses().contains(klass));
+    }
+}
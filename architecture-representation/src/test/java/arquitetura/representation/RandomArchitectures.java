@@ -0,0 +1,125 @@
+package arquitetura.representation;
+
+import arquitetura.representation.relationship.*;
+import arquitetura.touml.Types;
+import arquitetura.touml.VisibilityKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Arquiteturas geradas aleatoriamente (pacotes, classes, interfaces, concerns e todos os tipos de
+ * relacionamento), usadas para comparar as implementações indexadas/incrementais com as originais.
+ */
+public final class RandomArchitectures {
+
+    /**
+     * Concerns usados nas arquiteturas. "Persistence" e "persistence" têm o mesmo nome sem diferenciar
+     * maiúsculas, mas são concerns diferentes.
+     */
+    public static final Concern[] CONCERNS = {new Concern("persistence"), new Concern("Persistence"),
+            new Concern("security"), new Concern("logging"), new Concern("play"), new Concern("ranking")};
+
+    static {
+        // Architecture.getAllConcerns() devolve os concerns do ConcernHolder (os lidos do perfil), e os
+        // operadores só anotam concerns permitidos pelo perfil
+        for (Concern concern : CONCERNS) {
+            ConcernHolder.INSTANCE.getConcerns().put(concern.getName(), concern);
+            ConcernHolder.INSTANCE.allowedConcerns().add(concern);
+        }
+    }
+
+    private RandomArchitectures() {
+    }
+
+    public static Architecture create(Random random, int packages, int classesPerPackage, int relationships) throws Exception {
+        Architecture architecture = new Architecture("random");
+        List<Interface> interfaces = new ArrayList<Interface>();
+        for (int p = 0; p < packages; p++) {
+            Package pkg = architecture.createPackage("Package" + p);
+            concerns(random, pkg);
+            for (int c = 0; c < classesPerPackage; c++) {
+                Class klass = pkg.createClass("Class" + p + "_" + c, random.nextBoolean());
+                concerns(random, klass);
+                concerns(random, klass.createAttribute("attr" + c, Types.INTEGER, VisibilityKind.PUBLIC_LITERAL));
+                concerns(random, klass.createMethod("op" + c, "void", false, null));
+            }
+            Interface inter = pkg.createInterface("Interface" + p);
+            concerns(random, inter);
+            for (int o = 0; o < 2; o++)
+                concerns(random, inter.createOperation("operation" + p + "_" + o));
+            interfaces.add(inter);
+        }
+        List<Element> clients = new ArrayList<Element>();
+        clients.addAll(architecture.getAllPackages());
+        clients.addAll(architecture.getAllClasses());
+        for (Element client : clients) {
+            if (random.nextInt(3) == 0)
+                architecture.addImplementedInterface(pick(random, interfaces), client);
+            if (random.nextInt(3) == 0) {
+                if (client instanceof Package)
+                    architecture.addRequiredInterface(pick(random, interfaces), (Package) client);
+                else
+                    architecture.addRequiredInterface(pick(random, interfaces), (Class) client);
+            }
+        }
+        for (int r = 0; r < relationships; r++)
+            architecture.addRelationship(relationship(random, architecture));
+        return architecture;
+    }
+
+    /**
+     * Anota no elemento até dois concerns sorteados.
+     */
+    public static void concerns(Random random, Element element) {
+        for (int i = random.nextInt(3); i > 0; i--)
+            element.addConcern(pick(random, Arrays.asList(CONCERNS)));
+    }
+
+    public static Relationship relationship(Random random, Architecture architecture) {
+        List<Element> elements = elements(architecture);
+        Element first = pick(random, elements);
+        Element second = pick(random, elements);
+        RelationshipsHolder holder = architecture.getRelationshipHolder();
+        String id = "r" + random.nextInt(Integer.MAX_VALUE);
+        switch (random.nextInt(7)) {
+            case 0:
+                return new DependencyRelationship(second, first, "dependency", id);
+            case 1:
+                return new RealizationRelationship(first, second, "realization", id);
+            case 2:
+                return new UsageRelationship("usage", second, first, id);
+            case 3:
+                return new AbstractionRelationship(first, second, id);
+            case 4:
+                return new GeneralizationRelationship(second, first, holder, id);
+            case 5:
+                AssociationRelationship association = new AssociationRelationship(first, second);
+                association.setId(id);
+                return association;
+            default:
+                List<MemberEnd> ends = new ArrayList<MemberEnd>();
+                ends.add(new MemberEnd("none", null, "public", first));
+                ends.add(new MemberEnd("none", null, "public", second));
+                List<Class> classes = new ArrayList<Class>(architecture.getAllClasses());
+                return new AssociationClassRelationship("associationClass", ends, first, id, null, pick(random, classes));
+        }
+    }
+
+    /**
+     * @return pacotes, classes e interfaces da arquitetura (possíveis pontas de relacionamentos)
+     */
+    public static List<Element> elements(Architecture architecture) {
+        List<Element> elements = new ArrayList<Element>();
+        elements.addAll(architecture.getAllPackages());
+        elements.addAll(architecture.getAllClasses());
+        elements.addAll(architecture.getAllInterfaces());
+        return elements;
+    }
+
+    public static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,195 @@
+package arquitetura.representation;
+
+import arquitetura.representation.relationship.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * O índice de adjacência do {@link RelationshipsHolder} deve devolver o mesmo que a varredura de todos os
+ * relacionamentos ({@link RelationshiopCommons#getRelationships(Set, Element)}), inclusive depois de alterações
+ * in-place nas pontas e nos nomes e de desfazer alterações com o {@link ChangeLog}.
+ */
+public class RelationshipsHolderTest {
+
+    private static final java.lang.Class<?>[] KINDS = {
+            GeneralizationRelationship.class, RealizationRelationship.class, DependencyRelationship.class,
+            UsageRelationship.class, AbstractionRelationship.class, AssociationRelationship.class,
+            AssociationClassRelationship.class};
+
+    @Test
+    public void indexMatchesScan() throws Exception {
+        for (long seed = 0; seed < 20; seed++) {
+            Architecture architecture = RandomArchitectures.create(new Random(seed), 4, 5, 60);
+            assertMatchesScan(architecture);
+        }
+    }
+
+    @Test
+    public void indexFollowsInPlaceChanges() throws Exception {
+        Random random = new Random(42);
+        Architecture architecture = RandomArchitectures.create(random, 4, 5, 60);
+        for (int step = 0; step < 300; step++) {
+            change(random, architecture);
+            assertMatchesScan(architecture);
+        }
+    }
+
+    @Test
+    public void indexFollowsRollback() throws Exception {
+        Random random = new Random(7);
+        Architecture architecture = RandomArchitectures.create(random, 4, 5, 60);
+        for (int round = 0; round < 30; round++) {
+            ChangeLog changes = ChangeLog.begin();
+            try {
+                for (int step = 0; step < 5; step++) {
+                    change(random, architecture);
+                    assertMatchesScan(architecture);
+                }
+                changes.rollback();
+            } finally {
+                changes.close();
+            }
+            assertMatchesScan(architecture);
+        }
+    }
+
+    @Test
+    public void changesInOneArchitectureKeepTheIndexOfOthers() throws Exception {
+        Architecture changed = RandomArchitectures.create(new Random(1), 3, 3, 20);
+        Architecture other = RandomArchitectures.create(new Random(2), 3, 3, 20);
+        Element element = RandomArchitectures.elements(changed).get(0);
+        Element otherElement = RandomArchitectures.elements(other).get(0);
+        changed.getRelationshipHolder().getRelationships(element);
+        other.getRelationshipHolder().getRelationships(otherElement);
+        RelationshipsIndex index = other.getRelationshipHolder().currentIndex();
+
+        element.setName(element.getName() + "Renamed");
+        for (Relationship r : changed.getRelationshipHolder().getAllRelationships())
+            if (r instanceof DependencyRelationship)
+                ((DependencyRelationship) r).setClient(element);
+
+        assertNull(changed.getRelationshipHolder().currentIndex());
+        assertSame(index, other.getRelationshipHolder().currentIndex());
+        assertMatchesScan(changed);
+        assertMatchesScan(other);
+    }
+
+    /**
+     * Uma alteração aleatória feita como os operadores fazem: diretamente nos objetos do modelo.
+     */
+    private static void change(Random random, Architecture architecture) {
+        RelationshipsHolder holder = architecture.getRelationshipHolder();
+        List<Element> elements = RandomArchitectures.elements(architecture);
+        List<Relationship> relationships = new ArrayList<Relationship>(holder.getAllRelationships());
+        Relationship relationship = relationships.isEmpty() ? null : RandomArchitectures.pick(random, relationships);
+        Element element = RandomArchitectures.pick(random, elements);
+        switch (random.nextInt(7)) {
+            case 0:
+                element.setName(element.getName() + random.nextInt(10));
+                break;
+            case 1:
+                element.setNamespace(element.getNamespace() + random.nextInt(10));
+                break;
+            case 2:
+                if (relationship instanceof DependencyRelationship)
+                    ((DependencyRelationship) relationship).setSupplier(element);
+                else if (relationship instanceof GeneralizationRelationship)
+                    ((GeneralizationRelationship) relationship).setParent(element);
+                else if (relationship instanceof RealizationRelationship)
+                    ((RealizationRelationship) relationship).setClient(element);
+                else if (relationship instanceof UsageRelationship)
+                    ((UsageRelationship) relationship).setClient(element);
+                else if (relationship instanceof AbstractionRelationship)
+                    ((AbstractionRelationship) relationship).setSupplier(element);
+                else if (relationship instanceof AssociationRelationship)
+                    ((AssociationRelationship) relationship).getParticipants().get(1).setCLSClass(element);
+                else if (relationship instanceof AssociationClassRelationship)
+                    ((AssociationClassRelationship) relationship).getMemebersEnd().get(0).setType(element);
+                break;
+            case 3:
+                List<Class> classes = new ArrayList<Class>(architecture.getAllClasses());
+                for (Relationship r : relationships) {
+                    if (r instanceof AssociationClassRelationship) {
+                        architecture.operationsOverRelationship().moveAssociationClass((AssociationClassRelationship) r,
+                                RandomArchitectures.pick(random, classes), RandomArchitectures.pick(random, classes));
+                        break;
+                    }
+                }
+                break;
+            case 4:
+                if (relationship != null)
+                    holder.removeRelationship(relationship);
+                break;
+            case 5:
+                holder.removeRelatedRelationships(element);
+                break;
+            default:
+                architecture.addRelationship(RandomArchitectures.relationship(random, architecture));
+        }
+    }
+
+    private static void assertMatchesScan(Architecture architecture) {
+        RelationshipsHolder holder = architecture.getRelationshipHolder();
+        Set<Relationship> all = holder.getAllRelationships();
+        for (Element element : RandomArchitectures.elements(architecture)) {
+            assertEquals(element.getName(), RelationshiopCommons.getRelationships(all, element),
+                    holder.getRelationships(element));
+            for (java.lang.Class<?> kind : KINDS) {
+                @SuppressWarnings("unchecked")
+                java.lang.Class<Relationship> k = (java.lang.Class<Relationship>) kind;
+                assertEquals(scan(all, element, k, true), holder.getOutgoingRelationships(element, k));
+                assertEquals(scan(all, element, k, false), holder.getIncomingRelationships(element, k));
+            }
+        }
+    }
+
+    /**
+     * Relacionamentos do tipo em que o elemento é origem (child/client) ou destino (parent/supplier),
+     * encontrados percorrendo todos eles. Nas associações o elemento é origem e destino.
+     */
+    private static Set<Relationship> scan(Set<Relationship> all, Element element, java.lang.Class<?> kind, boolean outgoing) {
+        Set<Relationship> found = new HashSet<Relationship>();
+        for (Relationship r : all) {
+            if (r.getClass() != kind)
+                continue;
+            for (Element end : ends(r, outgoing))
+                if (end != null && end.equals(element))
+                    found.add(r);
+        }
+        return found;
+    }
+
+    private static List<Element> ends(Relationship r, boolean outgoing) {
+        if (r instanceof GeneralizationRelationship) {
+            GeneralizationRelationship g = (GeneralizationRelationship) r;
+            return Collections.singletonList(outgoing ? g.getChild() : g.getParent());
+        }
+        if (r instanceof RealizationRelationship) {
+            RealizationRelationship realization = (RealizationRelationship) r;
+            return Collections.singletonList(outgoing ? realization.getClient() : realization.getSupplier());
+        }
+        if (r instanceof DependencyRelationship) {
+            DependencyRelationship dependency = (DependencyRelationship) r;
+            return Collections.singletonList(outgoing ? dependency.getClient() : dependency.getSupplier());
+        }
+        if (r instanceof UsageRelationship) {
+            UsageRelationship usage = (UsageRelationship) r;
+            return Collections.singletonList(outgoing ? usage.getClient() : usage.getSupplier());
+        }
+        if (r instanceof AbstractionRelationship) {
+            AbstractionRelationship abstraction = (AbstractionRelationship) r;
+            return Collections.singletonList(outgoing ? abstraction.getClient() : abstraction.getSupplier());
+        }
+        List<Element> participants = new ArrayList<Element>();
+        if (r instanceof AssociationRelationship)
+            for (AssociationEnd end : ((AssociationRelationship) r).getParticipants())
+                participants.add(end.getCLSClass());
+        if (r instanceof AssociationClassRelationship)
+            for (MemberEnd end : ((AssociationClassRelationship) r).getMemebersEnd())
+                participants.add(end.getType());
+        return participants;
+    }
+}
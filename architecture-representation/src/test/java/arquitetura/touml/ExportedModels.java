@@ -0,0 +1,175 @@
+package arquitetura.touml;
+
+import arquitetura.io.ExportContext;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compara dois modelos exportados (.uml, .notation e .di): os mesmos elementos, na mesma ordem e com os mesmos
+ * atributos.
+ * <p>
+ * O que é aleatório numa exportação é normalizado antes da comparação: os ids gerados são trocados pela ordem em
+ * que aparecem, a posição dos pacotes e comentários no diagrama é ignorada e as operações de cada classe ou
+ * interface são comparadas em ordem de nome (o GenerateArchitecture as percorre num HashSet de {@link Method},
+ * que não tem hashCode).
+ */
+public class ExportedModels {
+
+    public static final String[] EXTENSIONS = {".uml", ".notation", ".di"};
+
+    // formas de pacotes e comentários, com posição aleatória
+    private static final List<String> RANDOM_POSITION = Arrays.asList("2007", "2012");
+
+    private ExportedModels() {
+    }
+
+    /**
+     * Lê os arquivos exportados com o nome dado, na ordem de {@link #EXTENSIONS}.
+     */
+    public static List<Document> parse(ExportContext context, String name) throws Exception {
+        List<Document> documents = new ArrayList<Document>();
+        for (String extension : EXTENSIONS) {
+            File file = context.getExportFile(name + extension).toFile();
+            assertTrue(file.getPath(), file.isFile());
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            Document document = factory.newDocumentBuilder().parse(file);
+            sortOperations(document.getDocumentElement());
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    /**
+     * Compara os modelos exportados com os nomes <code>expectedName</code> e <code>actualName</code>; as
+     * referências entre os arquivos de cada um são comparadas sem o nome.
+     */
+    public static void assertSameModel(String message, ExportContext context, String expectedName, String actualName)
+            throws Exception {
+        List<Document> expected = parse(context, expectedName);
+        List<Document> actual = parse(context, actualName);
+        Map<String, String> expectedIds = ids(expected);
+        Map<String, String> actualIds = ids(actual);
+        for (int i = 0; i < EXTENSIONS.length; i++)
+            assertSameElement(message + ", " + EXTENSIONS[i], expected.get(i).getDocumentElement(),
+                    new Ids(expectedName, expectedIds), actual.get(i).getDocumentElement(), new Ids(actualName, actualIds));
+    }
+
+    private static void sortOperations(Element element) {
+        List<Element> children = children(element);
+        List<Element> operations = new ArrayList<Element>();
+        for (Element child : children) {
+            if (child.getTagName().equals("ownedOperation"))
+                operations.add(child);
+            else
+                sortOperations(child);
+        }
+        Collections.sort(operations, (a, b) -> a.getAttribute("name").compareTo(b.getAttribute("name")));
+        for (Element operation : operations)
+            element.appendChild(operation);
+    }
+
+    /**
+     * Numera os xmi:id dos documentos na ordem em que aparecem (.uml, .notation e .di).
+     */
+    private static Map<String, String> ids(List<Document> documents) {
+        Map<String, String> ids = new HashMap<String, String>();
+        for (Document document : documents) {
+            NodeList elements = document.getElementsByTagName("*");
+            for (int i = 0; i < elements.getLength(); i++) {
+                String id = ((Element) elements.item(i)).getAttribute("xmi:id");
+                if (!id.isEmpty() && !ids.containsKey(id))
+                    ids.put(id, "id" + ids.size());
+            }
+        }
+        return ids;
+    }
+
+    private static void assertSameElement(String path, Element expected, Ids expectedIds, Element actual, Ids actualIds) {
+        path = path + "/" + expected.getTagName();
+        assertEquals(path, expected.getTagName(), actual.getTagName());
+        assertEquals(path, attributes(expected, expectedIds), attributes(actual, actualIds));
+        path = path + "[" + expectedIds.normalize(expected.getAttribute("xmi:id")) + "]";
+
+        List<Element> expectedChildren = children(expected);
+        List<Element> actualChildren = children(actual);
+        if (expectedChildren.isEmpty())
+            assertEquals(path, expected.getTextContent().trim(), actual.getTextContent().trim());
+        assertEquals(path, tagNames(expectedChildren), tagNames(actualChildren));
+        for (int i = 0; i < expectedChildren.size(); i++)
+            assertSameElement(path, expectedChildren.get(i), expectedIds, actualChildren.get(i), actualIds);
+    }
+
+    private static Map<String, String> attributes(Element element, Ids ids) {
+        Map<String, String> attributes = new TreeMap<String, String>();
+        NamedNodeMap nodes = element.getAttributes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Attr attribute = (Attr) nodes.item(i);
+            attributes.put(attribute.getName(), ids.normalize(attribute.getValue()));
+        }
+        if (element.getTagName().equals("layoutConstraint") && element.getParentNode() instanceof Element
+                && RANDOM_POSITION.contains(((Element) element.getParentNode()).getAttribute("type"))) {
+            attributes.remove("x");
+            attributes.remove("y");
+        }
+        return attributes;
+    }
+
+    private static List<Element> children(Element element) {
+        List<Element> children = new ArrayList<Element>();
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling())
+            if (child instanceof Element)
+                children.add((Element) child);
+        return children;
+    }
+
+    private static List<String> tagNames(List<Element> elements) {
+        List<String> names = new ArrayList<String>();
+        for (Element element : elements)
+            names.add(element.getTagName());
+        return names;
+    }
+
+    /**
+     * Ids numerados de um modelo e o nome com que foi exportado.
+     */
+    private static class Ids {
+        private final Pattern name;
+        private final Map<String, String> ids;
+
+        Ids(String name, Map<String, String> ids) {
+            this.name = Pattern.compile("^" + Pattern.quote(name) + "\\.");
+            this.ids = ids;
+        }
+
+        /**
+         * Troca os ids de um valor (ids separados por espaço ou referências arquivo#id) pelos seus números.
+         */
+        String normalize(String value) {
+            StringBuilder normalized = new StringBuilder();
+            for (String token : value.split("((?<=[ #])|(?=[ #]))")) {
+                String id = ids.get(token);
+                normalized.append(id != null ? id : token);
+            }
+            return name.matcher(normalized).replaceAll("model.");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package arquitetura.touml;
+
+import arquitetura.io.ExportContext;
+import arquitetura.io.ReaderConfig;
+import arquitetura.helpers.UtilResources;
+import arquitetura.representation.Architecture;
+import arquitetura.representation.Class;
+import arquitetura.representation.Package;
+import arquitetura.representation.Patterns;
+import arquitetura.representation.RandomArchitectures;
+import arquitetura.representation.RelationshipsHolder;
+import arquitetura.representation.Variant;
+import arquitetura.representation.VariationPoint;
+import arquitetura.representation.relationship.AssociationClassRelationship;
+import main.GenerateArchitecture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * O {@link StreamingArchitectureWriter} deve gerar os mesmos documentos que o {@link GenerateArchitecture} com o
+ * {@link DocumentManager}, a menos do que é aleatório numa exportação ({@link ExportedModels}).
+ */
+public class StreamingArchitectureWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ExportContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new ExportContext(folder.newFolder("manipulation").getPath(), folder.newFolder("export").getPath());
+        // os testes rodam no diretório do módulo
+        ReaderConfig.setPathToTemplateModelsDirectory(new File("filesTemplates").getAbsolutePath() + File.separator);
+        ReaderConfig.setPathToProfileSMarty(new File("perfis/smarty.profile.uml").getAbsolutePath());
+        ReaderConfig.setPathToProfileConcerns(new File("perfis/concerns.profile.uml").getAbsolutePath());
+        ReaderConfig.setPathProfileRelationship(new File("perfis/relationships.profile.uml").getAbsolutePath());
+        ReaderConfig.setPathToProfilePatterns(new File("perfis/patterns.profile.uml").getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        ReaderConfig.setStreamingXmiWriter(false);
+    }
+
+    @Test
+    public void streamingWriterMatchesDocumentWriter() throws Exception {
+        for (long seed = 0; seed < 10; seed++) {
+            Architecture architecture = architecture(seed);
+
+            ReaderConfig.setStreamingXmiWriter(false);
+            new GenerateArchitecture().export(architecture, "dom" + seed, context);
+            ReaderConfig.setStreamingXmiWriter(true);
+            new GenerateArchitecture().export(architecture, "streaming" + seed, context);
+
+            ExportedModels.assertSameModel("seed " + seed, context, "dom" + seed, "streaming" + seed);
+        }
+    }
+
+    /**
+     * Arquitetura aleatória com as classes de associação como o ArchitectureBuilder as lê (a classe não está em
+     * nenhum pacote e tem o id da associação) e, em cada pacote, um ponto de variação com as outras classes
+     * como variantes e um padrão aplicado.
+     */
+    private static Architecture architecture(long seed) throws Exception {
+        Random random = new Random(seed);
+        Architecture architecture = RandomArchitectures.create(random, 4, 4, 30);
+        RelationshipsHolder holder = architecture.getRelationshipHolder();
+        int created = 0;
+        for (AssociationClassRelationship association : new ArrayList<AssociationClassRelationship>(holder.getAllAssociationsClass())) {
+            architecture.removeRelationship(association);
+            String name = "Association" + created++;
+            Class associationClass = new Class(holder, name, null, false,
+                    UtilResources.createNamespace(architecture.getName(), name), association.getId());
+            RandomArchitectures.concerns(random, associationClass);
+            RandomArchitectures.concerns(random, associationClass.createAttribute("attr", Types.INTEGER, VisibilityKind.PUBLIC_LITERAL));
+            RandomArchitectures.concerns(random, associationClass.createMethod("op", "void", false, null));
+            architecture.addRelationship(new AssociationClassRelationship(name, association.getMemebersEnd(),
+                    association.getOwnedEnd(), association.getId(), null, associationClass));
+        }
+        for (Package pkg : architecture.getAllPackages()) {
+            List<Class> classes = new ArrayList<Class>(pkg.getAllClasses());
+            Collections.sort(classes, (a, b) -> a.getName().compareTo(b.getName()));
+            List<Variant> variants = new ArrayList<Variant>();
+            for (Class klass : classes.subList(1, classes.size())) {
+                Variant variant = Variant.createVariant().withName(random.nextBoolean() ? "alternative_OR" : "optional");
+                variant.setVariantElement(klass);
+                variant.setRootVP(classes.get(0).getName());
+                variant.setVariantType(variant.getVariantName());
+                klass.setVariant(variant);
+                variants.add(variant);
+            }
+            new VariationPoint(classes.get(0), variants, "DESIGN_TIME");
+            classes.get(0).getPatternsOperations().applyPattern(random.nextBoolean() ? Patterns.STRATEGY : Patterns.BRIDGE);
+        }
+        return architecture;
+    }
+}
@@ -0,0 +1,113 @@
+package jmetal.metrics.concernDrivenMetrics;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.RandomArchitectures;
+import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCC;
+import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCClass;
+import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCClassComponentResult;
+import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCComponentResult;
+import jmetal.metrics.concernDrivenMetrics.concernDiffusion.*;
+import jmetal.metrics.concernDrivenMetrics.interactionBeteweenConcerns.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link ConcernMetrics} (BitSets) deve dar os mesmos valores que as classes originais de cada métrica.
+ */
+public class ConcernMetricsTest {
+
+    @Test
+    public void bitsetMetricsMatchOriginalMetrics() throws Exception {
+        for (long seed = 0; seed < 30; seed++) {
+            Architecture architecture = RandomArchitectures.create(new Random(seed), 5, 4, 30);
+            ConcernMetrics metrics = new ConcernMetrics(architecture);
+
+            int lcc = 0;
+            for (LCCComponentResult component : new LCC(architecture).getResults())
+                lcc += component.numberOfConcerns();
+            assertEquals("LCC, seed " + seed, lcc, metrics.getLCC());
+
+            int lccClass = 0;
+            for (LCCClassComponentResult cls : new LCCClass(architecture).getResults())
+                lccClass += cls.numberOfConcerns();
+            assertEquals("LCCClass, seed " + seed, lccClass, metrics.getLCCClass());
+
+            int cibc = 0;
+            for (CIBCResult c : new CIBC(architecture).getResults().values())
+                cibc += c.getInterlacedConcerns().size();
+            assertEquals("CIBC, seed " + seed, cibc, metrics.getCIBC());
+
+            int cibClass = 0;
+            for (CIBClassResult c : new CIBClass(architecture).getResults().values())
+                cibClass += c.getInterlacedConcerns().size();
+            assertEquals("CIBClass, seed " + seed, cibClass, metrics.getCIBClass());
+
+            int iibc = 0;
+            for (IIBCResult c : new IIBC(architecture).getResults().values())
+                iibc += c.getInterlacedConcerns().size();
+            assertEquals("IIBC, seed " + seed, iibc, metrics.getIIBC());
+
+            int oobc = 0;
+            for (OOBCResult c : new OOBC(architecture).getResults().values())
+                oobc += c.getInterlacedConcerns().size();
+            assertEquals("OOBC, seed " + seed, oobc, metrics.getOOBC());
+
+            int cdac = 0;
+            for (CDACResult c : new CDAC(architecture).getResults())
+                cdac += c.getElements().size();
+            assertEquals("CDAC, seed " + seed, cdac, metrics.getCDAC());
+
+            int cdaClass = 0;
+            for (CDAClassResult c : new CDAClass(architecture).getResults())
+                cdaClass += c.getElements().size();
+            assertEquals("CDAClass, seed " + seed, cdaClass, metrics.getCDAClass());
+
+            int cdai = 0;
+            for (CDAIResult c : new CDAI(architecture).getResults())
+                cdai += c.getElements().size();
+            assertEquals("CDAI, seed " + seed, cdai, metrics.getCDAI());
+
+            int cdao = 0;
+            for (CDAOResult c : new CDAO(architecture).getResults())
+                cdao += c.getElements().size();
+            assertEquals("CDAO, seed " + seed, cdao, metrics.getCDAO());
+        }
+    }
+
+    @Test
+    public void concurrentEvaluationsGiveTheSequentialValues() throws Exception {
+        final List<Architecture> architectures = new ArrayList<Architecture>();
+        for (long seed = 100; seed < 140; seed++)
+            architectures.add(RandomArchitectures.create(new Random(seed), 5, 4, 30));
+
+        int[][] sequential = new int[architectures.size()][];
+        for (int i = 0; i < architectures.size(); i++)
+            sequential[i] = values(new ConcernMetrics(architectures.get(i)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<int[]>> concurrent = new ArrayList<Future<int[]>>();
+            for (final Architecture architecture : architectures)
+                concurrent.add(executor.submit(() -> values(new ConcernMetrics(architecture))));
+            for (int i = 0; i < architectures.size(); i++)
+                assertArrayEquals(sequential[i], concurrent.get(i).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int[] values(ConcernMetrics metrics) {
+        return new int[]{metrics.getLCC(), metrics.getLCCClass(), metrics.getCIBC(), metrics.getCIBClass(),
+                metrics.getIIBC(), metrics.getOOBC(), metrics.getCDAC(), metrics.getCDAClass(), metrics.getCDAI(),
+                metrics.getCDAO()};
+    }
+}
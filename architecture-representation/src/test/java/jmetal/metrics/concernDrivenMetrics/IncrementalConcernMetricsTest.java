@@ -0,0 +1,227 @@
+package jmetal.metrics.concernDrivenMetrics;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.ChangeSet;
+import arquitetura.representation.Class;
+import arquitetura.representation.Concern;
+import arquitetura.representation.Element;
+import arquitetura.representation.Interface;
+import arquitetura.representation.Method;
+import arquitetura.representation.Package;
+import arquitetura.representation.RandomArchitectures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link IncrementalConcernMetrics#update(IncrementalConcernMetrics, ChangeSet, Architecture)} deve dar os
+ * mesmos valores que {@link ConcernMetrics} calculado do zero, depois de qualquer sequência de alterações
+ * registradas no {@link ChangeSet}.
+ */
+public class IncrementalConcernMetricsTest {
+
+    @Test
+    public void incrementalMetricsMatchFullRecompute() throws Exception {
+        for (long seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            Architecture architecture = RandomArchitectures.create(random, 5, 4, 20);
+            IncrementalConcernMetrics metrics = IncrementalConcernMetrics.of(architecture);
+            assertSameValues("seed " + seed, architecture, metrics);
+
+            for (int step = 0; step < 60; step++) {
+                if (random.nextInt(10) == 0) {
+                    // cópia da solução: as parciais são compartilhadas com a cópia
+                    architecture = architecture.deepClone();
+                }
+                ChangeSet changes = ChangeSet.begin();
+                try {
+                    mutate(random, architecture);
+                } finally {
+                    changes.close();
+                }
+                metrics = IncrementalConcernMetrics.update(metrics, changes, architecture);
+                assertSameValues("seed " + seed + ", step " + step, architecture, metrics);
+            }
+        }
+    }
+
+    @Test
+    public void renamedPackagesKeepTheirOwnPartials() throws Exception {
+        Architecture architecture = RandomArchitectures.create(new Random(3), 3, 3, 0);
+        List<Package> packages = new ArrayList<Package>(architecture.getAllPackages());
+        Package first = packages.get(0);
+        Package second = packages.get(1);
+        first.addConcern(RandomArchitectures.CONCERNS[2]);
+        second.getAllClasses().iterator().next().addConcern(RandomArchitectures.CONCERNS[3]);
+        IncrementalConcernMetrics metrics = IncrementalConcernMetrics.of(architecture);
+
+        // troca os nomes dos pacotes: o nome de um passa a identificar o conteúdo do outro
+        ChangeSet changes = ChangeSet.begin();
+        try {
+            String name = first.getName();
+            first.setName(second.getName());
+            second.setName(name);
+        } finally {
+            changes.close();
+        }
+        metrics = IncrementalConcernMetrics.update(metrics, changes, architecture);
+        assertSameValues("troca de nomes", architecture, metrics);
+    }
+
+    @Test
+    public void renamesAndMovesOutsideTheChangedPackageAreSeen() throws Exception {
+        Architecture architecture = RandomArchitectures.create(new Random(5), 4, 3, 0);
+        List<Package> packages = new ArrayList<Package>(architecture.getAllPackages());
+        Package supplier = packages.get(0);
+        Package client = packages.get(1);
+        Interface inter = supplier.getAllInterfaces().iterator().next();
+        inter.addConcern(RandomArchitectures.CONCERNS[4]);
+        client.addImplementedInterface(inter);
+        client.getAllClasses().iterator().next().addRequiredInterface(inter);
+        IncrementalConcernMetrics metrics = IncrementalConcernMetrics.of(architecture);
+
+        // o cliente depende da interface renomeada, mas nada do cliente foi alterado
+        ChangeSet changes = ChangeSet.begin();
+        try {
+            inter.setName(inter.getName() + "Renamed");
+        } finally {
+            changes.close();
+        }
+        metrics = IncrementalConcernMetrics.update(metrics, changes, architecture);
+        assertSameValues("interface renomeada", architecture, metrics);
+
+        // move uma classe alterando apenas o namespace, como Architecture.moveElementToPackage
+        changes = ChangeSet.begin();
+        try {
+            Class moved = packages.get(2).getAllClasses().iterator().next();
+            architecture.moveElementToPackage(moved, packages.get(3));
+        } finally {
+            changes.close();
+        }
+        metrics = IncrementalConcernMetrics.update(metrics, changes, architecture);
+        assertSameValues("classe movida", architecture, metrics);
+    }
+
+    @Test
+    public void recreatedPackageWithTheSameNameIsRecomputed() throws Exception {
+        Architecture architecture = RandomArchitectures.create(new Random(9), 3, 3, 0);
+        Package removed = architecture.getAllPackages().iterator().next();
+        removed.addConcern(RandomArchitectures.CONCERNS[5]);
+        IncrementalConcernMetrics metrics = IncrementalConcernMetrics.of(architecture);
+
+        // inclusão/remoção de pacotes na arquitetura não é registrada no ChangeSet
+        ChangeSet changes = ChangeSet.begin();
+        try {
+            architecture.removePackage(removed);
+            architecture.createPackage(removed.getName());
+        } finally {
+            changes.close();
+        }
+        metrics = IncrementalConcernMetrics.update(metrics, changes, architecture);
+        assertSameValues("pacote recriado", architecture, metrics);
+    }
+
+    @Test
+    public void unchangedPackagesAreNotRecomputed() throws Exception {
+        Architecture architecture = RandomArchitectures.create(new Random(11), 5, 3, 0);
+        IncrementalConcernMetrics metrics = IncrementalConcernMetrics.of(architecture);
+        assertEquals(5, metrics.getRecomputedPackages());
+
+        ChangeSet changes = ChangeSet.begin();
+        try {
+            architecture.getAllPackages().iterator().next().createClass("Created", false);
+        } finally {
+            changes.close();
+        }
+        metrics = IncrementalConcernMetrics.update(metrics, changes, architecture);
+        assertEquals(1, metrics.getRecomputedPackages());
+    }
+
+    /**
+     * Uma alteração aleatória feita como os operadores fazem: diretamente nos objetos do modelo.
+     */
+    private static void mutate(Random random, Architecture architecture) {
+        List<Package> packages = new ArrayList<Package>(architecture.getAllPackages());
+        Package pkg = RandomArchitectures.pick(random, packages);
+        Package target = RandomArchitectures.pick(random, packages);
+        List<Class> classes = new ArrayList<Class>(pkg.getAllClasses());
+        List<Interface> interfaces = new ArrayList<Interface>(architecture.getAllInterfaces());
+        List<Element> elements = RandomArchitectures.elements(architecture);
+        Concern concern = RandomArchitectures.pick(random, Arrays.asList(RandomArchitectures.CONCERNS));
+        switch (random.nextInt(10)) {
+            case 0:
+                pkg.setName(random.nextBoolean() ? target.getName() : "Renamed" + random.nextInt(5));
+                break;
+            case 1:
+                if (!interfaces.isEmpty()) {
+                    Interface inter = RandomArchitectures.pick(random, interfaces);
+                    inter.setName(inter.getName() + random.nextInt(3));
+                }
+                break;
+            case 2:
+                if (!classes.isEmpty())
+                    pkg.moveClassToPackage(RandomArchitectures.pick(random, classes), target);
+                break;
+            case 3:
+                if (!pkg.getAllInterfaces().isEmpty())
+                    pkg.moveInterfaceToPackage(pkg.getAllInterfaces().iterator().next(), target);
+                break;
+            case 4: {
+                Element element = RandomArchitectures.pick(random, elements);
+                if (element.getOwnConcerns().contains(concern))
+                    element.getOwnConcerns().remove(concern);
+                else
+                    element.addConcern(concern);
+                break;
+            }
+            case 5:
+                if (!interfaces.isEmpty()) {
+                    Interface inter = RandomArchitectures.pick(random, interfaces);
+                    if (!classes.isEmpty() && random.nextBoolean())
+                        RandomArchitectures.pick(random, classes).addImplementedInterface(inter);
+                    else if (random.nextBoolean())
+                        pkg.addRequiredInterface(inter);
+                    else
+                        pkg.addImplementedInterface(inter);
+                }
+                break;
+            case 6:
+                if (packages.size() > 2) {
+                    architecture.removePackage(pkg);
+                    Package created = architecture.createPackage(pkg.getName());
+                    if (random.nextBoolean())
+                        created.createClass("Recreated" + random.nextInt(100), false).addConcern(concern);
+                }
+                break;
+            case 7:
+                if (!classes.isEmpty())
+                    pkg.removeClass(RandomArchitectures.pick(random, classes));
+                break;
+            case 8:
+                if (!classes.isEmpty()) {
+                    Class klass = RandomArchitectures.pick(random, classes);
+                    List<Method> methods = new ArrayList<Method>(klass.getAllMethods());
+                    if (!methods.isEmpty())
+                        RandomArchitectures.pick(random, methods).addConcern(concern);
+                }
+                break;
+            default:
+                RandomArchitectures.concerns(random, pkg.createClass("Created" + random.nextInt(1000), false));
+        }
+    }
+
+    private static void assertSameValues(String message, Architecture architecture, IncrementalConcernMetrics metrics) {
+        ConcernMetrics full = new ConcernMetrics(architecture);
+        assertArrayEquals(message, new int[]{full.getLCC(), full.getLCCClass(), full.getCIBC(), full.getCIBClass(),
+                        full.getIIBC(), full.getOOBC(), full.getCDAC(), full.getCDAClass(), full.getCDAI(), full.getCDAO()},
+                new int[]{metrics.getLCC(), metrics.getLCCClass(), metrics.getCIBC(), metrics.getCIBClass(),
+                        metrics.getIIBC(), metrics.getOOBC(), metrics.getCDAC(), metrics.getCDAClass(),
+                        metrics.getCDAI(), metrics.getCDAO()});
+    }
+}
@@ -0,0 +1,72 @@
+package jmetal.metrics.conventionalMetrics;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.RandomArchitectures;
+import arquitetura.representation.relationship.GeneralizationRelationship;
+import jmetal.core.Solution;
+import jmetal.core.Variable;
+import jmetal.operators.mutation.PLAFeatureMutation;
+import jmetal.util.PseudoRandom;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link ConventionalMetrics} deve dar os mesmos valores que as classes originais de cada métrica, nas
+ * arquiteturas aleatórias e nas obtidas delas com {@link PLAFeatureMutation}.
+ */
+public class ConventionalMetricsTest {
+
+    private static final int MUTATIONS = 20;
+
+    @Test
+    public void metricsMatchOriginalMetrics() throws Exception {
+        for (long seed = 0; seed < 30; seed++) {
+            Architecture architecture = RandomArchitectures.create(new Random(seed), 5, 4, 30);
+            assertSameValues("seed " + seed, architecture);
+        }
+    }
+
+    @Test
+    public void metricsMatchOriginalMetricsAfterMutations() throws Exception {
+        HashMap<String, Object> parameters = new HashMap<String, Object>();
+        parameters.put("probability", 1.0);
+        PLAFeatureMutation mutation = new PLAFeatureMutation(parameters);
+
+        for (long seed = 0; seed < 10; seed++) {
+            Architecture architecture = RandomArchitectures.create(new Random(seed), 5, 4, 30);
+            // os operadores percorrem as hierarquias até a raiz: as generalizações aleatórias podem formar ciclos
+            for (GeneralizationRelationship generalization : architecture.getRelationshipHolder().getAllGeneralizations())
+                architecture.removeRelationship(generalization);
+            Solution solution = new Solution();
+            solution.setDecisionVariables(new Variable[]{architecture});
+
+            PseudoRandom.setSeed(seed);
+            for (int step = 0; step < MUTATIONS; step++) {
+                mutation.execute(solution);
+                assertSameValues("seed " + seed + ", mutação " + step, (Architecture) solution.getDecisionVariables()[0]);
+            }
+        }
+    }
+
+    private static void assertSameValues(String message, Architecture architecture) {
+        ConventionalMetrics metrics = new ConventionalMetrics(architecture);
+        assertEquals("MeanNumOpsByInterface, " + message,
+                new MeanNumOpsByInterface(architecture).getResults(), metrics.getMeanNumOps(), 0.0);
+        assertEquals("MeanDepComponents, " + message,
+                new MeanDepComponents(architecture).getResults(), metrics.getMeanDepComponents(), 0.0);
+        assertEquals("ClassDependencyIn, " + message,
+                new ClassDependencyIn(architecture).getResults(), metrics.getClassDependencyIn());
+        assertEquals("ClassDependencyOut, " + message,
+                new ClassDependencyOut(architecture).getResults(), metrics.getClassDependencyOut());
+        assertEquals("DependencyIn, " + message,
+                new DependencyIn(architecture).getResults(), metrics.getDependencyIn());
+        assertEquals("DependencyOut, " + message,
+                new DependencyOut(architecture).getResults(), metrics.getDependencyOut());
+        assertEquals("RelationalCohesion, " + message,
+                new RelationalCohesion(architecture).getResults(), metrics.getRelationalCohesion(), 0.0);
+    }
+}
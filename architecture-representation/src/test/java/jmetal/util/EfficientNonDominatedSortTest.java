@@ -0,0 +1,130 @@
+package jmetal.util;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal5.solution.DoubleSolution;
+import jmetal5.solution.RandomSolutions;
+import jmetal5.util.solutionattribute.Ranking;
+import jmetal5.util.solutionattribute.impl.DominanceRanking;
+import jmetal5.util.solutionattribute.impl.OverallConstraintViolation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link EfficientNonDominatedSort} must give the same fronts as the fast non-dominated sort of
+ * {@link jmetal.util.Ranking} and {@link DominanceRanking}, with ties, duplicated objective vectors and
+ * constraint violations.
+ */
+public class EfficientNonDominatedSortTest {
+
+    private static final NonDominatedSorting[] EFFICIENT = {NonDominatedSorting.ENS_SS, NonDominatedSorting.ENS_BS};
+
+    @Test
+    public void ranksMatchFastNonDominatedSort() {
+        for (long seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            int numberOfObjectives = 1 + random.nextInt(6);
+            int size = random.nextInt(150);
+            boolean constrained = random.nextBoolean();
+            List<DoubleSolution> solutions = RandomSolutions.create(random, size, numberOfObjectives, levels(random));
+
+            SolutionSet solutionSet = new SolutionSet(size);
+            double[] objectives = new double[size * numberOfObjectives];
+            double[] violations = constrained ? new double[size] : null;
+            for (int i = 0; i < size; i++) {
+                Solution solution = new Solution(numberOfObjectives);
+                for (int j = 0; j < numberOfObjectives; j++) {
+                    solution.setObjective(j, solutions.get(i).getObjective(j));
+                    objectives[i * numberOfObjectives + j] = solutions.get(i).getObjective(j);
+                }
+                if (constrained) {
+                    violations[i] = violation(random);
+                    solution.setOverallConstraintViolation(violations[i]);
+                }
+                solutionSet.add(solution);
+            }
+            assertTrue(EfficientNonDominatedSort.isApplicable(objectives, violations));
+
+            jmetal.util.Ranking ranking = new jmetal.util.Ranking(solutionSet);
+            int[] expected = new int[size];
+            for (int i = 0; i < size; i++)
+                expected[i] = solutionSet.get(i).getRank();
+            for (NonDominatedSorting sorting : EFFICIENT) {
+                int[] ranks = EfficientNonDominatedSort.ranks(objectives, numberOfObjectives, violations, false, sorting);
+                assertArrayEquals("seed " + seed + ", " + sorting, expected, ranks);
+                int fronts = 0;
+                for (int rank : ranks)
+                    fronts = Math.max(fronts, rank + 1);
+                assertEquals(ranking.getNumberOfSubfronts(), fronts);
+            }
+        }
+    }
+
+    @Test
+    public void dominanceRankingGivesTheSameFronts() {
+        OverallConstraintViolation<DoubleSolution> overallConstraintViolation =
+                new OverallConstraintViolation<DoubleSolution>();
+        for (long seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            int numberOfObjectives = 1 + random.nextInt(6);
+            List<DoubleSolution> solutions = RandomSolutions.create(random, random.nextInt(150), numberOfObjectives,
+                    levels(random));
+            if (random.nextBoolean())
+                for (DoubleSolution solution : solutions)
+                    overallConstraintViolation.setAttribute(solution, violation(random));
+
+            Ranking<DoubleSolution> fast = new DominanceRanking<DoubleSolution>().computeRanking(solutions);
+            List<int[]> expected = fronts(fast, solutions);
+            for (NonDominatedSorting sorting : EFFICIENT) {
+                Ranking<DoubleSolution> efficient = new DominanceRanking<DoubleSolution>(sorting).computeRanking(solutions);
+                List<int[]> actual = fronts(efficient, solutions);
+                assertEquals("seed " + seed + ", " + sorting, expected.size(), actual.size());
+                for (int r = 0; r < expected.size(); r++) {
+                    // the efficient sort keeps the order of the list inside each front
+                    int[] sorted = expected.get(r).clone();
+                    Arrays.sort(sorted);
+                    assertArrayEquals("seed " + seed + ", " + sorting + ", front " + r, sorted, actual.get(r));
+                }
+            }
+        }
+    }
+
+    /**
+     * Positions in the list of the solutions of each front.
+     */
+    private static List<int[]> fronts(Ranking<DoubleSolution> ranking, List<DoubleSolution> solutions) {
+        Map<DoubleSolution, Integer> positions = new IdentityHashMap<DoubleSolution, Integer>();
+        for (int i = 0; i < solutions.size(); i++)
+            positions.put(solutions.get(i), i);
+        List<int[]> fronts = new ArrayList<int[]>();
+        for (int r = 0; r < ranking.getNumberOfSubfronts(); r++) {
+            List<DoubleSolution> subfront = ranking.getSubfront(r);
+            int[] front = new int[subfront.size()];
+            for (int i = 0; i < front.length; i++)
+                front[i] = positions.get(subfront.get(i));
+            fronts.add(front);
+        }
+        return fronts;
+    }
+
+    /**
+     * Few levels give many ties and long fronts; 0 gives continuous objectives.
+     */
+    private static int levels(Random random) {
+        return random.nextInt(3) == 0 ? 0 : 2 + random.nextInt(6);
+    }
+
+    private static double violation(Random random) {
+        return random.nextInt(3) == 0 ? -(1 + random.nextInt(3)) / 2.0 : 0.0;
+    }
+}
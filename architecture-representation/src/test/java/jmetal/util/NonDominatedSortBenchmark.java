@@ -0,0 +1,56 @@
+package jmetal.util;
+
+import jmetal5.solution.DoubleSolution;
+import jmetal5.solution.RandomSolutions;
+import jmetal5.util.solutionattribute.impl.DominanceRanking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time of the fast non-dominated sort with the two strategies of
+ * {@link EfficientNonDominatedSort}, through {@link DominanceRanking}, on random objective vectors with 2 to 10
+ * objectives. It is a JMH benchmark, not a test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NonDominatedSortBenchmark {
+
+    @Param({"100", "500", "2000"})
+    public int solutions;
+
+    @Param({"2", "3", "4", "5", "6", "7", "8", "9", "10"})
+    public int objectives;
+
+    @Param
+    public NonDominatedSorting sorting;
+
+    private List<DoubleSolution> population;
+
+    @Setup
+    public void setUp() {
+        population = RandomSolutions.create(new Random(1), solutions, objectives, 0);
+    }
+
+    @Benchmark
+    public void computeRanking(Blackhole blackhole) {
+        blackhole.consume(new DominanceRanking<DoubleSolution>(sorting).computeRanking(population));
+    }
+}
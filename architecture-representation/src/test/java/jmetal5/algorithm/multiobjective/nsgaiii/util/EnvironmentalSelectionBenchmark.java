@@ -0,0 +1,59 @@
+package jmetal5.algorithm.multiobjective.nsgaiii.util;
+
+import jmetal5.solution.DoubleSolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time of {@link EnvironmentalSelection} with the selection on per-solution lists
+ * ({@link ListEnvironmentalSelection}), on the inputs of {@link EnvironmentalSelectionTest.Scenario} with 2 to
+ * 10 objectives. It is a JMH benchmark, not a test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EnvironmentalSelectionBenchmark {
+
+    @Param({"2", "3", "4", "5", "6", "7", "8", "9", "10"})
+    public int objectives;
+
+    private EnvironmentalSelectionTest.Scenario scenario;
+    private EnvironmentalSelection.Buffers buffers;
+
+    @Setup
+    public void setUp() {
+        scenario = new EnvironmentalSelectionTest.Scenario(new Random(1), objectives, 0);
+        buffers = new EnvironmentalSelection.Buffers();
+    }
+
+    @Benchmark
+    public void arrays(Blackhole blackhole) {
+        blackhole.consume(new EnvironmentalSelection<DoubleSolution>(scenario.fronts, scenario.populationSize,
+                scenario.referencePointsCopy(), objectives, buffers)
+                .execute(new ArrayList<DoubleSolution>(scenario.population)));
+    }
+
+    @Benchmark
+    public void lists(Blackhole blackhole) {
+        blackhole.consume(new ListEnvironmentalSelection<DoubleSolution>(scenario.fronts, scenario.populationSize,
+                ListEnvironmentalSelection.points(scenario.referencePoints), objectives)
+                .execute(new ArrayList<DoubleSolution>(scenario.population)));
+    }
+}
@@ -0,0 +1,103 @@
+package jmetal5.algorithm.multiobjective.nsgaiii.util;
+
+import jmetal5.solution.DoubleSolution;
+import jmetal5.solution.RandomSolutions;
+import jmetal5.util.pseudorandom.JMetalRandom;
+import jmetal5.util.solutionattribute.Ranking;
+import jmetal5.util.solutionattribute.impl.DominanceRanking;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link EnvironmentalSelection} must select the same solutions, in the same order and with the same random
+ * draws, as the selection on per-solution lists ({@link ListEnvironmentalSelection}) under the same seed.
+ */
+public class EnvironmentalSelectionTest {
+
+    @Test
+    public void selectionMatchesListImplementation() {
+        // the buffers are reused with different numbers of objectives, candidates and reference points
+        EnvironmentalSelection.Buffers buffers = new EnvironmentalSelection.Buffers();
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            int numberOfObjectives = 2 + random.nextInt(9);
+            // few levels give ties, duplicated extreme points and solutions on the same reference line
+            int levels = random.nextInt(3) == 0 ? 0 : 3 + random.nextInt(8);
+            Scenario scenario = new Scenario(random, numberOfObjectives, levels);
+
+            JMetalRandom.getInstance().setSeed(seed);
+            List<DoubleSolution> selected = new EnvironmentalSelection<DoubleSolution>(scenario.fronts,
+                    scenario.populationSize, scenario.referencePointsCopy(), numberOfObjectives, buffers)
+                    .execute(new ArrayList<DoubleSolution>(scenario.population));
+            double nextDraw = JMetalRandom.getInstance().nextDouble();
+
+            JMetalRandom.getInstance().setSeed(seed);
+            List<DoubleSolution> expected = new ListEnvironmentalSelection<DoubleSolution>(scenario.fronts,
+                    scenario.populationSize, ListEnvironmentalSelection.points(scenario.referencePoints),
+                    numberOfObjectives).execute(new ArrayList<DoubleSolution>(scenario.population));
+
+            assertArrayEquals("seed " + seed, scenario.positions(expected), scenario.positions(selected));
+            assertEquals("seed " + seed, JMetalRandom.getInstance().nextDouble(), nextDraw, 0.0);
+        }
+    }
+
+    /**
+     * The input of one environmental selection, built as {@link jmetal5.algorithm.multiobjective.nsgaiii.NSGAIII}
+     * builds it: the fronts of a population of twice the population size, up to the front that does not fit.
+     */
+    static class Scenario {
+        final List<ReferencePoint<DoubleSolution>> referencePoints = new ArrayList<ReferencePoint<DoubleSolution>>();
+        final int populationSize;
+        final List<DoubleSolution> solutions;
+        final List<List<DoubleSolution>> fronts = new ArrayList<List<DoubleSolution>>();
+        final List<DoubleSolution> population = new ArrayList<DoubleSolution>();
+
+        Scenario(Random random, int numberOfObjectives, int levels) {
+            // divisions of the usual NSGA-III settings, with an inner layer from 6 objectives on
+            int[] divisions = {0, 0, 12, 12, 8, 6, 4, 3, 3, 3, 3};
+            new ReferencePoint<DoubleSolution>().generateReferencePoints(referencePoints, numberOfObjectives,
+                    Arrays.asList(divisions[numberOfObjectives], numberOfObjectives >= 6 ? 2 : 0));
+            populationSize = (referencePoints.size() + 3) / 4 * 4;
+            solutions = RandomSolutions.create(random, 2 * populationSize, numberOfObjectives, levels);
+
+            Ranking<DoubleSolution> ranking = new DominanceRanking<DoubleSolution>().computeRanking(solutions);
+            int candidates = 0;
+            for (int rank = 0; candidates < populationSize; rank++) {
+                List<DoubleSolution> front = ranking.getSubfront(rank);
+                fronts.add(front);
+                candidates += front.size();
+                if (population.size() + front.size() <= populationSize)
+                    population.addAll(front);
+            }
+        }
+
+        List<ReferencePoint<DoubleSolution>> referencePointsCopy() {
+            List<ReferencePoint<DoubleSolution>> copy = new ArrayList<ReferencePoint<DoubleSolution>>();
+            for (ReferencePoint<DoubleSolution> referencePoint : referencePoints)
+                copy.add(new ReferencePoint<DoubleSolution>(referencePoint));
+            return copy;
+        }
+
+        /**
+         * Positions of the selected solutions in the generated ones.
+         */
+        int[] positions(List<DoubleSolution> selected) {
+            Map<DoubleSolution, Integer> positions = new IdentityHashMap<DoubleSolution, Integer>();
+            for (int i = 0; i < solutions.size(); i++)
+                positions.put(solutions.get(i), i);
+            int[] result = new int[selected.size()];
+            for (int i = 0; i < result.length; i++)
+                result[i] = positions.get(selected.get(i));
+            return result;
+        }
+    }
+}
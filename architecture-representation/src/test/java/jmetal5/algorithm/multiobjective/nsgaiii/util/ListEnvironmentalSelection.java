@@ -0,0 +1,326 @@
+package jmetal5.algorithm.multiobjective.nsgaiii.util;
+
+import jmetal5.solution.Solution;
+import jmetal5.util.pseudorandom.JMetalRandom;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The environmental selection of NSGA-III as it was before {@link EnvironmentalSelection} worked on
+ * primitive arrays: the converted objectives are per-solution lists and the reference point positions are
+ * lists of boxed values. It is kept as the reference of {@link EnvironmentalSelectionTest} and
+ * {@link EnvironmentalSelectionBenchmark}; the arithmetic and the random draws are those of the old code.
+ */
+class ListEnvironmentalSelection<S extends Solution<?>> {
+
+    private List<List<S>> fronts;
+    private int solutionsToSelect;
+    private List<Point<S>> referencePoints;
+    private int numberOfObjectives;
+    // the old code kept the converted objectives in a solution attribute
+    private Map<S, List<Double>> convertedObjectives = new IdentityHashMap<S, List<Double>>();
+
+    ListEnvironmentalSelection(List<List<S>> fronts, int solutionsToSelect, List<Point<S>> referencePoints,
+                               int numberOfObjectives) {
+        this.fronts = fronts;
+        this.solutionsToSelect = solutionsToSelect;
+        this.referencePoints = referencePoints;
+        this.numberOfObjectives = numberOfObjectives;
+    }
+
+    /**
+     * Copies of the given reference points, with their positions as lists.
+     */
+    static <S extends Solution<?>> List<Point<S>> points(List<ReferencePoint<S>> referencePoints) {
+        List<Point<S>> points = new ArrayList<Point<S>>(referencePoints.size());
+        for (ReferencePoint<S> referencePoint : referencePoints) {
+            List<Double> position = new ArrayList<Double>(referencePoint.position.length);
+            for (double value : referencePoint.position)
+                position.add(value);
+            points.add(new Point<S>(position));
+        }
+        return points;
+    }
+
+    private List<Double> translateObjectives() {
+        List<Double> ideal_point = new ArrayList<>(numberOfObjectives);
+
+        for (int f = 0; f < numberOfObjectives; f += 1) {
+            double minf = Double.MAX_VALUE;
+            for (int i = 0; i < fronts.get(0).size(); i += 1) // min values must appear in the first front
+            {
+                minf = Math.min(minf, fronts.get(0).get(i).getObjective(f));
+            }
+            ideal_point.add(minf);
+
+            for (List<S> list : fronts) {
+                for (S s : list) {
+                    if (f == 0) // in the first objective we create the vector of conv_objs
+                        convertedObjectives.put(s, new ArrayList<Double>());
+
+                    convertedObjectives.get(s).add(s.getObjective(f) - minf);
+                }
+            }
+        }
+
+        return ideal_point;
+    }
+
+    private double ASF(S s, int index) {
+        double max_ratio = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < s.getNumberOfObjectives(); i++) {
+            double weight = (index == i) ? 1.0 : 0.000001;
+            max_ratio = Math.max(max_ratio, s.getObjective(i) / weight);
+        }
+        return max_ratio;
+    }
+
+    private List<S> findExtremePoints() {
+        List<S> extremePoints = new ArrayList<>();
+        S min_indv = null;
+        for (int f = 0; f < numberOfObjectives; f += 1) {
+            double min_ASF = Double.MAX_VALUE;
+            for (S s : fronts.get(0)) { // only consider the individuals in the first front
+                double asf = ASF(s, f);
+                if (asf < min_ASF) {
+                    min_ASF = asf;
+                    min_indv = s;
+                }
+            }
+
+            extremePoints.add(min_indv);
+        }
+        return extremePoints;
+    }
+
+    private List<Double> guassianElimination(List<List<Double>> A, List<Double> b) {
+        List<Double> x = new ArrayList<>();
+
+        int N = A.size();
+        for (int i = 0; i < N; i += 1) {
+            A.get(i).add(b.get(i));
+        }
+
+        for (int base = 0; base < N - 1; base += 1) {
+            for (int target = base + 1; target < N; target += 1) {
+                double ratio = A.get(target).get(base) / A.get(base).get(base);
+                for (int term = 0; term < A.get(base).size(); term += 1) {
+                    A.get(target).set(term, A.get(target).get(term) - A.get(base).get(term) * ratio);
+                }
+            }
+        }
+
+        for (int i = 0; i < N; i++)
+            x.add(0.0);
+
+        for (int i = N - 1; i >= 0; i -= 1) {
+            for (int known = i + 1; known < N; known += 1) {
+                A.get(i).set(N, A.get(i).get(N) - A.get(i).get(known) * x.get(known));
+            }
+            x.set(i, A.get(i).get(N) / A.get(i).get(i));
+        }
+        return x;
+    }
+
+    private List<Double> constructHyperplane(List<S> extreme_points) {
+        boolean duplicate = false;
+        for (int i = 0; !duplicate && i < extreme_points.size(); i += 1) {
+            for (int j = i + 1; !duplicate && j < extreme_points.size(); j += 1) {
+                duplicate = extreme_points.get(i).equals(extreme_points.get(j));
+            }
+        }
+
+        List<Double> intercepts = new ArrayList<>();
+
+        if (duplicate) {
+            for (int f = 0; f < numberOfObjectives; f += 1) {
+                intercepts.add(extreme_points.get(f).getObjective(f));
+            }
+        } else {
+            List<Double> b = new ArrayList<>();
+            for (int i = 0; i < numberOfObjectives; i++)
+                b.add(1.0);
+
+            List<List<Double>> A = new ArrayList<>();
+            for (S s : extreme_points) {
+                List<Double> aux = new ArrayList<>();
+                for (int i = 0; i < numberOfObjectives; i++)
+                    aux.add(s.getObjective(i));
+                A.add(aux);
+            }
+            List<Double> x = guassianElimination(A, b);
+
+            for (int f = 0; f < numberOfObjectives; f += 1) {
+                intercepts.add(1.0 / x.get(f));
+            }
+        }
+        return intercepts;
+    }
+
+    private void normalizeObjectives(List<Double> intercepts, List<Double> ideal_point) {
+        for (int t = 0; t < fronts.size(); t += 1) {
+            for (S s : fronts.get(t)) {
+
+                for (int f = 0; f < numberOfObjectives; f++) {
+                    List<Double> conv_obj = convertedObjectives.get(s);
+                    if (Math.abs(intercepts.get(f) - ideal_point.get(f)) > 10e-10) {
+                        conv_obj.set(f, conv_obj.get(f) / (intercepts.get(f) - ideal_point.get(f)));
+                    } else {
+                        conv_obj.set(f, conv_obj.get(f) / (10e-10));
+                    }
+                }
+            }
+        }
+    }
+
+    private double perpendicularDistance(List<Double> direction, List<Double> point) {
+        double numerator = 0, denominator = 0;
+        for (int i = 0; i < direction.size(); i += 1) {
+            numerator += direction.get(i) * point.get(i);
+            denominator += Math.pow(direction.get(i), 2.0);
+        }
+        double k = numerator / denominator;
+
+        double d = 0;
+        for (int i = 0; i < direction.size(); i += 1) {
+            d += Math.pow(k * direction.get(i) - point.get(i), 2.0);
+        }
+        return Math.sqrt(d);
+    }
+
+    private void associate() {
+        for (int t = 0; t < fronts.size(); t++) {
+            for (S s : fronts.get(t)) {
+                int min_rp = -1;
+                double min_dist = Double.MAX_VALUE;
+                for (int r = 0; r < this.referencePoints.size(); r++) {
+                    double d = perpendicularDistance(this.referencePoints.get(r).position, convertedObjectives.get(s));
+                    if (d < min_dist) {
+                        min_dist = d;
+                        min_rp = r;
+                    }
+                }
+                if (t + 1 != fronts.size()) {
+                    this.referencePoints.get(min_rp).AddMember();
+                } else {
+                    this.referencePoints.get(min_rp).AddPotentialMember(s, min_dist);
+                }
+            }
+        }
+    }
+
+    private int FindNicheReferencePoint() {
+        int min_size = Integer.MAX_VALUE;
+        for (Point<S> referencePoint : this.referencePoints)
+            min_size = Math.min(min_size, referencePoint.MemberSize());
+
+        List<Integer> min_rps = new ArrayList<>();
+
+        for (int r = 0; r < this.referencePoints.size(); r += 1) {
+            if (this.referencePoints.get(r).MemberSize() == min_size) {
+                min_rps.add(r);
+            }
+        }
+        return min_rps.get(min_rps.size() > 1 ? JMetalRandom.getInstance().nextInt(0, min_rps.size() - 1) : 0);
+    }
+
+    private S SelectClusterMember(Point<S> rp) {
+        S chosen = null;
+        if (rp.HasPotentialMember()) {
+            if (rp.MemberSize() == 0) {
+                chosen = rp.FindClosestMember();
+            } else {
+                chosen = rp.RandomMember();
+            }
+        }
+        return chosen;
+    }
+
+    List<S> execute(List<S> source) {
+        if (source.size() == this.solutionsToSelect) return source;
+
+        List<Double> ideal_point = translateObjectives();
+        List<S> extreme_points = findExtremePoints();
+        List<Double> intercepts = constructHyperplane(extreme_points);
+
+        normalizeObjectives(intercepts, ideal_point);
+        associate();
+
+        while (source.size() < this.solutionsToSelect) {
+            int min_rp = FindNicheReferencePoint();
+
+            S chosen = SelectClusterMember(this.referencePoints.get(min_rp));
+            if (chosen == null) {
+                this.referencePoints.remove(min_rp);
+            } else {
+                this.referencePoints.get(min_rp).AddMember();
+                this.referencePoints.get(min_rp).RemovePotentialMember(chosen);
+                source.add(chosen);
+            }
+        }
+
+        return source;
+    }
+
+    /**
+     * The reference point of the old code.
+     */
+    static class Point<S extends Solution<?>> {
+        List<Double> position;
+        private int memberSize;
+        private List<Pair<S, Double>> potentialMembers = new ArrayList<>();
+
+        Point(List<Double> position) {
+            this.position = position;
+        }
+
+        int MemberSize() {
+            return memberSize;
+        }
+
+        boolean HasPotentialMember() {
+            return potentialMembers.size() > 0;
+        }
+
+        void AddMember() {
+            this.memberSize++;
+        }
+
+        void AddPotentialMember(S member_ind, double distance) {
+            this.potentialMembers.add(new ImmutablePair<S, Double>(member_ind, distance));
+        }
+
+        S FindClosestMember() {
+            double minDistance = Double.MAX_VALUE;
+            S closetMember = null;
+            for (Pair<S, Double> p : this.potentialMembers) {
+                if (p.getRight() < minDistance) {
+                    minDistance = p.getRight();
+                    closetMember = p.getLeft();
+                }
+            }
+
+            return closetMember;
+        }
+
+        S RandomMember() {
+            int index = this.potentialMembers.size() > 1 ? JMetalRandom.getInstance().nextInt(0, this.potentialMembers.size() - 1) : 0;
+            return this.potentialMembers.get(index).getLeft();
+        }
+
+        void RemovePotentialMember(S solution) {
+            Iterator<Pair<S, Double>> it = this.potentialMembers.iterator();
+            while (it.hasNext()) {
+                if (it.next().getLeft() == solution) {
+                    it.remove();
+                }
+            }
+        }
+    }
+}
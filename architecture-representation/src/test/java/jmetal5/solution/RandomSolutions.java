@@ -0,0 +1,74 @@
+package jmetal5.solution;
+
+import jmetal5.problem.impl.AbstractDoubleProblem;
+import jmetal5.solution.impl.ArrayDoubleSolution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random objective vectors for the tests of the sorting and selection operators. The solutions have no
+ * variables, so creating them does not draw from JMetalRandom.
+ */
+public class RandomSolutions {
+
+    private RandomSolutions() {
+    }
+
+    /**
+     * Creates <code>size</code> solutions. With <code>levels</code> &gt; 0 every objective is one of
+     * <code>levels</code> integer values, so there are many ties; otherwise it is uniform in [0, 1). About one
+     * solution in ten repeats the objectives of a previous one, and zeros are sometimes negative zeros.
+     */
+    public static List<DoubleSolution> create(Random random, int size, int numberOfObjectives, int levels) {
+        Objectives problem = new Objectives(numberOfObjectives);
+        List<DoubleSolution> solutions = new ArrayList<DoubleSolution>(size);
+        for (int i = 0; i < size; i++) {
+            DoubleSolution solution = problem.createSolution();
+            DoubleSolution copied = i > 0 && random.nextInt(10) == 0 ? solutions.get(random.nextInt(i)) : null;
+            for (int j = 0; j < numberOfObjectives; j++) {
+                double value;
+                if (copied != null)
+                    value = copied.getObjective(j);
+                else if (levels > 0)
+                    value = random.nextInt(levels);
+                else
+                    value = random.nextDouble();
+                solution.setObjective(j, value == 0.0 && random.nextBoolean() ? -0.0 : value);
+            }
+            solutions.add(solution);
+        }
+        return solutions;
+    }
+
+    /**
+     * Creates a solution with the given objectives.
+     */
+    public static DoubleSolution solution(double... objectives) {
+        DoubleSolution solution = new Objectives(objectives.length).createSolution();
+        for (int j = 0; j < objectives.length; j++)
+            solution.setObjective(j, objectives[j]);
+        return solution;
+    }
+
+    @SuppressWarnings("serial")
+    private static class Objectives extends AbstractDoubleProblem {
+
+        Objectives(int numberOfObjectives) {
+            setNumberOfObjectives(numberOfObjectives);
+            setLowerLimit(Collections.<Double>emptyList());
+            setUpperLimit(Collections.<Double>emptyList());
+        }
+
+        @Override
+        public DoubleSolution createSolution() {
+            return new ArrayDoubleSolution(this);
+        }
+
+        @Override
+        public void evaluate(DoubleSolution solution) {
+        }
+    }
+}
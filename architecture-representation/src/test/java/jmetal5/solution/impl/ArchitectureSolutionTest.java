@@ -0,0 +1,39 @@
+package jmetal5.solution.impl;
+
+import arquitetura.representation.RandomArchitectures;
+import jmetal5.problem.multiobjective.OPLAProblem;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Soluções são iguais só a si mesmas; {@link ArchitectureSolution#removeRepetidas(List)} remove as que têm a
+ * mesma estrutura.
+ */
+public class ArchitectureSolutionTest {
+
+    @Test
+    public void repeatedArchitecturesAreRemovedExplicitly() throws Exception {
+        OPLAProblem problem = new OPLAProblem(RandomArchitectures.create(new Random(1), 4, 4, 30),
+                Arrays.asList("conventional"));
+        ArchitectureSolution first = problem.createSolution();
+        ArchitectureSolution copy = first.copy();
+        ArchitectureSolution changed = first.copy();
+        changed.getArchitecture().createPackage("Outro");
+
+        assertFalse(first.equals(copy));
+        assertEquals(3, new HashSet<ArchitectureSolution>(Arrays.asList(first, copy, changed)).size());
+
+        List<ArchitectureSolution> distintas = ArchitectureSolution.removeRepetidas(Arrays.asList(first, copy, changed, copy));
+        assertEquals(2, distintas.size());
+        assertSame(first, distintas.get(0));
+        assertSame(changed, distintas.get(1));
+    }
+}
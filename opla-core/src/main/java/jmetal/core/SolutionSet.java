@@ -21,12 +21,14 @@
 
 package jmetal.core;
 
+import arquitetura.io.ExportContext;
 import arquitetura.representation.Architecture;
 import arquitetura.representation.Concern;
 import jmetal.metrics.MetricsEvaluation;
 import jmetal.util.Configuration;
 import logs.log_log.Level;
 import logs.log_log.LogLog;
+import main.ArchitectureExportQueue;
 import results.FunResults;
 
 import java.io.*;
@@ -323,6 +325,17 @@ public class SolutionSet implements Serializable {
 
     // added by Thelma october/2012
     public void saveVariablesToFile(String path, List<FunResults> funResults, LogLog logger, boolean generate) {
+        saveVariablesToFile(path, funResults, logger, generate, null);
+    }
+
+    /**
+     * Same as {@link #saveVariablesToFile(String, List, LogLog, boolean)}, but with an export queue the
+     * architectures are only enqueued and written in the background.
+     *
+     * @param exportQueue queue writing the architectures; null writes each one before returning
+     */
+    public void saveVariablesToFile(String path, List<FunResults> funResults, LogLog logger, boolean generate,
+                                    ArchitectureExportQueue exportQueue) {
         int numberOfVariables = solutionsList_.get(0).getDecisionVariables().length;
 
         if (logger != null)
@@ -332,7 +345,10 @@ public class SolutionSet implements Serializable {
                 Architecture arch = (Architecture) solutionsList_.get(i).getDecisionVariables()[j];
                 String pathToSave = path;
                 funResults.get(i).setSolution_name(pathToSave + arch.getName() + "-" + funResults.get(i).getId());
-                if (generate)
+                if (generate && exportQueue != null)
+                    exportQueue.submit(arch, pathToSave + arch.getName() + "-" + funResults.get(i).getId(),
+                            ExportContext.fromConfig());
+                else if (generate)
                     arch.save(arch, pathToSave, "-" + funResults.get(i).getId());
             }
         }
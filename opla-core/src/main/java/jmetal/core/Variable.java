@@ -51,6 +51,29 @@ public abstract class Variable implements Serializable {
      */
     public abstract Variable deepCopy();
 
+    /**
+     * Returns the variable that an operator must modify in place. Variables whose
+     * copies share state with other solutions (copy-on-write) return a private copy
+     * here. By default the variable itself is returned.
+     *
+     * @return the variable to be modified.
+     */
+    public Variable forWriting() {
+        return this;
+    }
+
+    /**
+     * Returns a key describing the contents of the variable, used to detect
+     * duplicated solutions (e.g. <code>OPLA.removeRepetidas</code>). Variables with
+     * equal keys are considered the same. By default <code>null</code> is returned
+     * and solutions are compared by identity.
+     *
+     * @return the structural key, or <code>null</code>.
+     */
+    public Object structuralKey() {
+        return null;
+    }
+
     /**
      * Gets the double value representating the variable.
      * It is used in subclasses of <code>Variable</code> (i.e. <code>Real</code>
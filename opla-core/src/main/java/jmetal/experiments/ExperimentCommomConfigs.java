@@ -2,6 +2,7 @@ package jmetal.experiments;
 
 import br.ufpr.inf.opla.patterns.strategies.scopeselection.impl.ElementsWithSameDesignPatternSelection;
 import logs.log_log.LogLog;
+import main.ArchitectureExportQueue;
 import org.apache.commons.lang.WordUtils;
 
 import java.util.ArrayList;
@@ -24,6 +25,27 @@ public abstract class ExperimentCommomConfigs {
     private String[] patterns = null; //OPLA-Patterns....
     private String description;
 
+    /**
+     * Semente dos geradores aleatórios (ver {@link jmetal.util.RandomStreams}). null usa uma semente arbitrária.
+     */
+    private Long randomSeed;
+
+    /**
+     * Número de threads que gravam as arquiteturas (XMI) em segundo plano. Com 0 cada arquitetura é gravada
+     * antes do experimento continuar.
+     */
+    private int numberOfExportThreads = 0;
+
+    /**
+     * Número máximo de arquiteturas esperando para serem gravadas em segundo plano.
+     */
+    private int exportQueueSize = 64;
+
+    /**
+     * O que acontece quando a fila de gravação está cheia.
+     */
+    private ArchitectureExportQueue.BackPressure exportBackPressure = ArchitectureExportQueue.BackPressure.BLOCK;
+
     private List<String> mutationOperators = new ArrayList<String>();
     private ElementsWithSameDesignPatternSelection applyStrategy;
 
@@ -198,5 +220,49 @@ public abstract class ExperimentCommomConfigs {
         this.description = description;
     }
 
+    public Long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(Long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    public int getNumberOfExportThreads() {
+        return numberOfExportThreads;
+    }
+
+    public void setNumberOfExportThreads(int numberOfExportThreads) {
+        if (numberOfExportThreads < 0)
+            throw new IllegalArgumentException("numberOfExportThreads must be greater or equal 0");
+        this.numberOfExportThreads = numberOfExportThreads;
+    }
+
+    public int getExportQueueSize() {
+        return exportQueueSize;
+    }
+
+    public void setExportQueueSize(int exportQueueSize) {
+        validateGreaterOrEqualOne("exportQueueSize", exportQueueSize);
+        this.exportQueueSize = exportQueueSize;
+    }
+
+    public ArchitectureExportQueue.BackPressure getExportBackPressure() {
+        return exportBackPressure;
+    }
+
+    public void setExportBackPressure(ArchitectureExportQueue.BackPressure exportBackPressure) {
+        this.exportBackPressure = exportBackPressure;
+    }
+
+    /**
+     * @return a fila de gravação configurada, ou null se as arquiteturas devem ser gravadas sem fila
+     */
+    public ArchitectureExportQueue createExportQueue() {
+        if (numberOfExportThreads == 0)
+            return null;
+        return new ArchitectureExportQueue(numberOfExportThreads, exportQueueSize, exportBackPressure, logger);
+    }
+
 
 }
@@ -1,9 +1,26 @@
 package jmetal.experiments;
 
+import jmetal.util.NonDominatedSorting;
+
 public class NSGAIIConfig extends ExperimentCommomConfigs {
 
     private int populationSize;
 
+    /**
+     * Número de threads usadas para avaliar os filhos de cada geração. Com 1 a avaliação é sequencial.
+     */
+    private int numberOfThreads = 1;
+
+    /**
+     * Número de execuções (runs) independentes do experimento rodando ao mesmo tempo. Com 1 as execuções são sequenciais.
+     */
+    private int numberOfConcurrentRuns = 1;
+
+    /**
+     * Algoritmo usado para separar a população em fronts.
+     */
+    private NonDominatedSorting nonDominatedSorting = NonDominatedSorting.FAST_NON_DOMINATED_SORT;
+
     public int getPopulationSize() {
         return populationSize;
     }
@@ -13,5 +30,31 @@ public class NSGAIIConfig extends ExperimentCommomConfigs {
         this.populationSize = populationSize;
     }
 
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    public void setNumberOfThreads(int numberOfThreads) {
+        super.validateGreaterOrEqualOne("numberOfThreads", numberOfThreads);
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    public int getNumberOfConcurrentRuns() {
+        return numberOfConcurrentRuns;
+    }
+
+    public void setNumberOfConcurrentRuns(int numberOfConcurrentRuns) {
+        super.validateGreaterOrEqualOne("numberOfConcurrentRuns", numberOfConcurrentRuns);
+        this.numberOfConcurrentRuns = numberOfConcurrentRuns;
+    }
+
+    public NonDominatedSorting getNonDominatedSorting() {
+        return nonDominatedSorting;
+    }
+
+    public void setNonDominatedSorting(NonDominatedSorting nonDominatedSorting) {
+        this.nonDominatedSorting = nonDominatedSorting;
+    }
+
 
 }
\ No newline at end of file
@@ -15,8 +15,11 @@ import jmetal.operators.selection.Selection;
 import jmetal.operators.selection.SelectionFactory;
 import jmetal.problems.OPLA;
 import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomStreams;
 import logs.log_log.Level;
 import logs.log_log.LogLog;
+import main.ArchitectureExportQueue;
 import metrics.AllMetrics;
 import persistence.*;
 import results.Execution;
@@ -30,6 +33,8 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
 
 public class NSGAII_OPLA_FeatMut {
 
@@ -44,6 +49,7 @@ public class NSGAII_OPLA_FeatMut {
     private NSGAIIConfig configs;
     private String experiementId;
     private int numberObjectives;
+    private ArchitectureExportQueue exportQueue;
 
     public NSGAII_OPLA_FeatMut(NSGAIIConfig config) {
         this.configs = config;
@@ -73,6 +79,9 @@ public class NSGAII_OPLA_FeatMut {
             }
         });
 
+        if (this.configs.getRandomSeed() != null)
+            PseudoRandom.setSeed(this.configs.getRandomSeed());
+
         int runsNumber = this.configs.getNumberOfRuns();
         populationSize = this.configs.getPopulationSize();
         maxEvaluations = this.configs.getMaxEvaluation();
@@ -83,6 +92,23 @@ public class NSGAII_OPLA_FeatMut {
         String context = "OPLA";
 
         String plas[] = this.configs.getPlas().split(",");
+
+        this.exportQueue = this.configs.createExportQueue();
+        try {
+            executePlas(plas, context, runsNumber);
+        } finally {
+            awaitExports();
+        }
+
+        // Util.moveResourceToExperimentFolder(this.experiementId);
+
+    }
+
+    /**
+     * Executa as rodadas do NSGA-II para cada PLA e grava os resultados.
+     */
+    private void executePlas(String[] plas, String context, int runsNumber)
+            throws IOException, JMException, ClassNotFoundException {
         String xmiFilePath;
 
         for (String pla : plas) {
@@ -101,39 +127,8 @@ public class NSGAII_OPLA_FeatMut {
             ExperimentConfs conf = new ExperimentConfs(experiement.getId(), "NSGAII", configs);
             conf.save();
 
-            Algorithm algorithm;
             SolutionSet todasRuns = new SolutionSet();
 
-            Crossover crossover;
-            Mutation mutation;
-            Selection selection;
-
-            HashMap<String, Object> parameters;
-
-            algorithm = new NSGAII(problem);
-
-            // Algorithm parameters
-            algorithm.setInputParameter("populationSize", populationSize);
-            algorithm.setInputParameter("maxEvaluations", maxEvaluations);
-
-            // Mutation and Crossover
-            parameters = new HashMap<String, Object>();
-            parameters.put("probability", crossoverProbability);
-            crossover = CrossoverFactory.getCrossoverOperator("PLACrossover", parameters);
-
-            parameters = new HashMap<String, Object>();
-            parameters.put("probability", mutationProbability);
-            mutation = MutationFactory.getMutationOperator("PLAFeatureMutation", parameters, this.configs);
-
-            // Selection Operator
-            parameters = null;
-            selection = SelectionFactory.getSelectionOperator("BinaryTournament", parameters);
-
-            // Add the operators to the algorithm
-            algorithm.addOperator("crossover", crossover);
-            algorithm.addOperator("mutation", mutation);
-            algorithm.addOperator("selection", selection);
-
             if (this.configs.isLog())
                 logInforamtions(context, pla);
 
@@ -144,54 +139,27 @@ public class NSGAII_OPLA_FeatMut {
 
             long time[] = new long[runsNumber];
 
-            for (int runs = 0; runs < runsNumber; runs++) {
-
-                // Cria uma execução. Cada execução está ligada a um
-                // experiemento.
-                Execution execution = new Execution(experiement);
-                setDirToSaveOutput(experiement.getId(), execution.getId());
-
-                // Execute the Algorithm
-                long initTime = System.currentTimeMillis();
-                SolutionSet resultFront = algorithm.execute();
-                long estimatedTime = System.currentTimeMillis() - initTime;
-                time[runs] = estimatedTime;
-
-                resultFront = problem.removeDominadas(resultFront);
-                resultFront = problem.removeRepetidas(resultFront);
+            if (Math.min(this.configs.getNumberOfConcurrentRuns(), runsNumber) <= 1) {
+                Algorithm algorithm = createAlgorithm(problem);
 
-                execution.setTime(estimatedTime);
+                for (int runs = 0; runs < runsNumber; runs++) {
 
-                List<FunResults> funResults = result.getObjectives(resultFront.getSolutionSet(), execution,
-                        experiement);
-                List<InfoResult> infoResults = result.getInformations(resultFront.getSolutionSet(), execution,
-                        experiement);
-                AllMetrics allMetrics = result.getMetrics(funResults, resultFront.getSolutionSet(), execution,
-                        experiement, selectedObjectiveFunctions);
+                    // Cria uma execução. Cada execução está ligada a um
+                    // experiemento.
+                    Execution execution = new Execution(experiement);
+                    setDirToSaveOutput(experiement.getId(), execution.getId());
 
-                resultFront.saveVariablesToFile("VAR_" + runs + "_", funResults, this.configs.getLogger(), true);
+                    // Execute the Algorithm
+                    long initTime = System.currentTimeMillis();
+                    SolutionSet resultFront = algorithm.execute();
+                    time[runs] = System.currentTimeMillis() - initTime;
 
-                execution.setFuns(funResults);
-                execution.setInfos(infoResults);
-                execution.setAllMetrics(allMetrics);
-
-                ExecutionPersistence persistence = new ExecutionPersistence(allMetricsPersistenceDependencies);
-                try {
-                    persistence.persist(execution);
-                    persistence = null;
-                } catch (SQLException e) {
-                    e.printStackTrace();
+                    todasRuns = saveRun(problem, experiement, execution, runs, resultFront, time[runs], todasRuns,
+                            selectedObjectiveFunctions, plaName);
                 }
-
-                // armazena as solucoes de todas runs
-                todasRuns = todasRuns.union(resultFront);
-
-                // Util.copyFolder(experiement.getId(), execution.getId());
-                // Util.moveAllFilesToExecutionDirectory(experiementId,
-                // execution.getId());
-
-                saveHypervolume(experiement.getId(), execution.getId(), resultFront, plaName);
-
+            } else {
+                todasRuns = executeConcurrentRuns(problem, experiement, runsNumber, time, todasRuns,
+                        selectedObjectiveFunctions, plaName);
             }
 
             todasRuns = problem.removeDominadas(todasRuns);
@@ -200,7 +168,8 @@ public class NSGAII_OPLA_FeatMut {
             this.configs.getLogger().putLog("------ All Runs - Non-dominated solutions --------", Level.INFO);
             List<FunResults> funResults = result.getObjectives(todasRuns.getSolutionSet(), null, experiement);
 
-            todasRuns.saveVariablesToFile("VAR_All_", funResults, this.configs.getLogger(), true);
+            todasRuns.saveVariablesToFile("VAR_All_", funResults, this.configs.getLogger(), true,
+                    exportQueue);
 
             mp.saveFunAll(funResults);
 
@@ -222,9 +191,152 @@ public class NSGAII_OPLA_FeatMut {
             // Util.moveAllFilesToExecutionDirectory(experiementId, null);
             saveHypervolume(experiement.getId(), null, todasRuns, plaName);
         }
+    }
 
-        // Util.moveResourceToExperimentFolder(this.experiementId);
+    /**
+     * Cria o NSGA-II com os seus operadores. Cada execução concorrente usa a sua instância, compartilhando apenas o
+     * problema (a arquitetura lida do XMI é usada somente para leitura).
+     */
+    private Algorithm createAlgorithm(OPLA problem) throws JMException {
+        Algorithm algorithm = new NSGAII(problem);
+
+        // Algorithm parameters
+        algorithm.setInputParameter("populationSize", populationSize);
+        algorithm.setInputParameter("maxEvaluations", maxEvaluations);
+        algorithm.setInputParameter("numberOfThreads", this.configs.getNumberOfThreads());
+        algorithm.setInputParameter("nonDominatedSorting", this.configs.getNonDominatedSorting());
+
+        // Mutation and Crossover
+        HashMap<String, Object> parameters = new HashMap<String, Object>();
+        parameters.put("probability", crossoverProbability);
+        Crossover crossover = CrossoverFactory.getCrossoverOperator("PLACrossover", parameters);
+
+        parameters = new HashMap<String, Object>();
+        parameters.put("probability", mutationProbability);
+        Mutation mutation = MutationFactory.getMutationOperator("PLAFeatureMutation", parameters, this.configs);
+
+        // Selection Operator
+        Selection selection = SelectionFactory.getSelectionOperator("BinaryTournament", null);
+
+        // Add the operators to the algorithm
+        algorithm.addOperator("crossover", crossover);
+        algorithm.addOperator("mutation", mutation);
+        algorithm.addOperator("selection", selection);
+        return algorithm;
+    }
 
+    /**
+     * Executa as runs em um pool limitado a numberOfConcurrentRuns threads. Cada run tem o seu algoritmo, o seu
+     * stream de números aleatórios (separado, em ordem, do stream da thread atual) e os seus contadores do
+     * {@link OPLA}. Os resultados são gravados e unidos a todasRuns nesta thread, na ordem em que as runs terminam.
+     */
+    private SolutionSet executeConcurrentRuns(final OPLA problem, Experiment experiement, int runsNumber, long[] time,
+                                              SolutionSet todasRuns, List<String> selectedObjectiveFunctions,
+                                              String plaName) throws JMException {
+        List<SplittableRandom> streams = RandomStreams.split(runsNumber);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.configs.getNumberOfConcurrentRuns(), runsNumber));
+        CompletionService<RunResult> completionService = new ExecutorCompletionService<RunResult>(executor);
+        try {
+            for (int runs = 0; runs < runsNumber; runs++) {
+                final int run = runs;
+                final Algorithm algorithm = createAlgorithm(problem);
+                completionService.submit(RandomStreams.with(streams.get(run), () -> {
+                    OPLA.resetCounters();
+                    long initTime = System.currentTimeMillis();
+                    SolutionSet resultFront = algorithm.execute();
+                    return new RunResult(run, resultFront, System.currentTimeMillis() - initTime);
+                }));
+            }
+
+            for (int i = 0; i < runsNumber; i++) {
+                RunResult runResult = completionService.take().get();
+                time[runResult.run] = runResult.time;
+
+                // Cria uma execução. Cada execução está ligada a um
+                // experiemento.
+                Execution execution = new Execution(experiement);
+                setDirToSaveOutput(experiement.getId(), execution.getId());
+
+                todasRuns = saveRun(problem, experiement, execution, runResult.run, runResult.resultFront,
+                        runResult.time, todasRuns, selectedObjectiveFunctions, plaName);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMException("Interrupted while waiting for the runs");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JMException)
+                throw (JMException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new JMException("Error executing a run: " + e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return todasRuns;
+    }
+
+    /**
+     * Grava o resultado de uma run (banco, VAR_ e hypervolume) e o une a todasRuns.
+     */
+    private SolutionSet saveRun(OPLA problem, Experiment experiement, Execution execution, int runs,
+                                SolutionSet resultFront, long estimatedTime, SolutionSet todasRuns,
+                                List<String> selectedObjectiveFunctions, String plaName) {
+        this.configs.getLogger().putLog(problem.getFitnessCache().toString(), Level.INFO);
+
+        resultFront = problem.removeDominadas(resultFront);
+        resultFront = problem.removeRepetidas(resultFront);
+
+        execution.setTime(estimatedTime);
+
+        List<FunResults> funResults = result.getObjectives(resultFront.getSolutionSet(), execution,
+                experiement);
+        List<InfoResult> infoResults = result.getInformations(resultFront.getSolutionSet(), execution,
+                experiement);
+        AllMetrics allMetrics = result.getMetrics(funResults, resultFront.getSolutionSet(), execution,
+                experiement, selectedObjectiveFunctions);
+
+        resultFront.saveVariablesToFile("VAR_" + runs + "_", funResults, this.configs.getLogger(), true,
+                exportQueue);
+
+        execution.setFuns(funResults);
+        execution.setInfos(infoResults);
+        execution.setAllMetrics(allMetrics);
+
+        ExecutionPersistence persistence = new ExecutionPersistence(allMetricsPersistenceDependencies);
+        try {
+            persistence.persist(execution);
+            persistence = null;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        // armazena as solucoes de todas runs
+        todasRuns = todasRuns.union(resultFront);
+
+        // Util.copyFolder(experiement.getId(), execution.getId());
+        // Util.moveAllFilesToExecutionDirectory(experiementId,
+        // execution.getId());
+
+        saveHypervolume(experiement.getId(), execution.getId(), resultFront, plaName);
+        return todasRuns;
+    }
+
+    /**
+     * Espera a fila de gravação esvaziar. Cada arquivo que não pôde ser gravado já foi registrado pela fila.
+     */
+    private void awaitExports() throws JMException {
+        if (exportQueue == null)
+            return;
+        try {
+            exportQueue.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMException("Interrupted while waiting for the architectures to be saved");
+        }
+        int failures = exportQueue.getFailures().size();
+        if (failures > 0)
+            this.configs.getLogger().putLog(failures + " architectures could not be saved", Level.ERROR);
+        exportQueue = null;
     }
 
     private void logInforamtions(String context, String pla) {
@@ -236,6 +348,9 @@ public class NSGAII_OPLA_FeatMut {
         configs.getLogger().putLog("\tMaxEva -> " + maxEvaluations, Level.INFO);
         configs.getLogger().putLog("\tCross -> " + crossoverProbability, Level.INFO);
         configs.getLogger().putLog("\tMuta -> " + mutationProbability, Level.INFO);
+        configs.getLogger().putLog("\tThreads -> " + configs.getNumberOfThreads(), Level.INFO);
+        configs.getLogger().putLog("\tConcurrent runs -> " + configs.getNumberOfConcurrentRuns(), Level.INFO);
+        configs.getLogger().putLog("\tExport threads -> " + configs.getNumberOfExportThreads(), Level.INFO);
 
         long heapSize = Runtime.getRuntime().totalMemory();
         heapSize = (heapSize / 1024) / 1024;
@@ -256,6 +371,21 @@ public class NSGAII_OPLA_FeatMut {
 
     }
 
+    /**
+     * Resultado de uma run executada em paralelo.
+     */
+    private static final class RunResult {
+        private final int run;
+        private final SolutionSet resultFront;
+        private final long time;
+
+        private RunResult(int run, SolutionSet resultFront, long time) {
+            this.run = run;
+            this.resultFront = resultFront;
+            this.time = time;
+        }
+    }
+
     private void setDirToSaveOutput(String experimentID, String executionID) {
         this.experiementId = experimentID;
         String dir;
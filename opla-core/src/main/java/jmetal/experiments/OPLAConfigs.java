@@ -1,11 +1,39 @@
 package jmetal.experiments;
 
+import jmetal.metrics.FitnessCache;
+
 import java.util.List;
 
 public class OPLAConfigs {
 
     private List<String> selectedObjectiveFunctions;
 
+    /**
+     * Quando ativo, as soluções filhas compartilham a arquitetura da solução de origem até que
+     * algum operador a altere (ver {@link arquitetura.representation.Architecture#forWriting()}). A
+     * primeira alteração copia a arquitetura inteira: só as filhas que nenhum operador altera deixam
+     * de ser copiadas.
+     */
+    private boolean copyOnWriteArchitectures = false;
+
+    /**
+     * Número máximo de avaliações guardadas no {@link FitnessCache}. 0 desliga o cache.
+     */
+    private int fitnessCacheSize = FitnessCache.DEFAULT_MAXIMUM_SIZE;
+
+    private FitnessCache.Eviction fitnessCacheEviction = FitnessCache.Eviction.LRU;
+
+    /**
+     * Quando ativo, a métrica featureDriven de uma solução alterada pela mutação recalcula somente os
+     * pacotes que mudaram desde a sua última avaliação.
+     */
+    private boolean incrementalEvaluation = false;
+
+    /**
+     * Compara cada avaliação incremental com a avaliação completa e falha se forem diferentes.
+     */
+    private boolean verifyIncrementalEvaluation = false;
+
     public Integer getNumberOfObjectives() {
         return selectedObjectiveFunctions.size();
     }
@@ -18,4 +46,44 @@ public class OPLAConfigs {
         this.selectedObjectiveFunctions = selectedMetrics;
     }
 
+    public boolean isCopyOnWriteArchitectures() {
+        return copyOnWriteArchitectures;
+    }
+
+    public void setCopyOnWriteArchitectures(boolean copyOnWriteArchitectures) {
+        this.copyOnWriteArchitectures = copyOnWriteArchitectures;
+    }
+
+    public int getFitnessCacheSize() {
+        return fitnessCacheSize;
+    }
+
+    public void setFitnessCacheSize(int fitnessCacheSize) {
+        this.fitnessCacheSize = fitnessCacheSize;
+    }
+
+    public FitnessCache.Eviction getFitnessCacheEviction() {
+        return fitnessCacheEviction;
+    }
+
+    public void setFitnessCacheEviction(FitnessCache.Eviction fitnessCacheEviction) {
+        this.fitnessCacheEviction = fitnessCacheEviction;
+    }
+
+    public boolean isIncrementalEvaluation() {
+        return incrementalEvaluation;
+    }
+
+    public void setIncrementalEvaluation(boolean incrementalEvaluation) {
+        this.incrementalEvaluation = incrementalEvaluation;
+    }
+
+    public boolean isVerifyIncrementalEvaluation() {
+        return verifyIncrementalEvaluation;
+    }
+
+    public void setVerifyIncrementalEvaluation(boolean verifyIncrementalEvaluation) {
+        this.verifyIncrementalEvaluation = verifyIncrementalEvaluation;
+    }
+
 }
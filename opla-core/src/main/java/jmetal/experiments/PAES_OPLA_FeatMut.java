@@ -143,6 +143,7 @@ public class PAES_OPLA_FeatMut {
                 SolutionSet resultFront = algorithm.execute();
                 long estimatedTime = System.currentTimeMillis() - initTime;
                 time[runs] = estimatedTime;
+                this.configs.getLogger().putLog(problem.getFitnessCache().toString(), Level.INFO);
 
                 resultFront = problem.removeDominadas(resultFront);
                 resultFront = problem.removeRepetidas(resultFront);
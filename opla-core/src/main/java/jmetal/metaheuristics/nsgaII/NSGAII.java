@@ -25,11 +25,32 @@ import jmetal.core.*;
 import jmetal.qualityIndicator.QualityIndicator;
 import jmetal.util.Distance;
 import jmetal.util.JMException;
+import jmetal.util.NonDominatedSorting;
 import jmetal.util.Ranking;
 import jmetal.util.comparators.CrowdingComparator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * This class implements the NSGA-II algorithm.
+ * <p>
+ * With the input parameter <code>numberOfThreads</code> greater than one, the
+ * objectives of the offspring of each generation are evaluated concurrently.
+ * Selection, crossover, mutation and the constraints (which change the
+ * solutions, and whose solutions may share objects after the crossover) stay on
+ * the calling thread in the sequential order, and the offspring are added to the
+ * population in that order, so seeded runs give the same results in both modes.
+ * <p>
+ * The input parameter <code>nonDominatedSorting</code> selects the algorithm
+ * used to rank the population (see {@link NonDominatedSorting}).
  */
 public class NSGAII extends Algorithm {
 
@@ -75,6 +96,12 @@ public class NSGAII extends Algorithm {
         populationSize = (Integer) getInputParameter("populationSize");
         maxEvaluations = (Integer) getInputParameter("maxEvaluations");
         indicators = (QualityIndicator) getInputParameter("indicators");
+        Integer numberOfThreads = (Integer) getInputParameter("numberOfThreads");
+        NonDominatedSorting sorting = (NonDominatedSorting) getInputParameter("nonDominatedSorting");
+
+        ExecutorService executor = null;
+        if (numberOfThreads != null && numberOfThreads > 1)
+            executor = Executors.newFixedThreadPool(numberOfThreads);
 
         // Initialize the variables
         population = new SolutionSet(populationSize);
@@ -90,16 +117,22 @@ public class NSGAII extends Algorithm {
         try {
             // Create the initial solutionSet
             Solution newSolution;
+            List<Solution> initial = new ArrayList<Solution>(populationSize);
             for (int i = 0; i < populationSize; i++) {
                 newSolution = new Solution(problem_);
                 // criar a diversidade na populacao inicial
                 mutationOperator.execute(newSolution);
-                problem_.evaluate(newSolution);
+                if (executor == null)
+                    problem_.evaluate(newSolution);
 
                 // problem_.evaluateConstraints(newSolution);
                 evaluations++;
-                population.add(newSolution);
+                initial.add(newSolution);
             }
+            if (executor != null)
+                evaluate(initial, executor);
+            for (Solution solution : initial)
+                population.add(solution);
         } catch (Exception e) {
             System.err.println(e);
         }
@@ -110,6 +143,7 @@ public class NSGAII extends Algorithm {
                 // Create the offSpring solutionSet
                 offspringPopulation = new SolutionSet(populationSize);
                 Solution[] parents = new Solution[2];
+                List<Solution> offspring = new ArrayList<Solution>(populationSize);
 
                 for (int i = 0; i < (populationSize / 2); i++) {
                     if (evaluations < maxEvaluations) {
@@ -126,20 +160,28 @@ public class NSGAII extends Algorithm {
                         problem_.evaluateConstraints(offSpring[0]);
                         problem_.evaluateConstraints(offSpring[1]);
 
-                        problem_.evaluate(offSpring[0]);
-                        problem_.evaluate(offSpring[1]);
+                        if (executor == null) {
+                            problem_.evaluate(offSpring[0]);
+                            problem_.evaluate(offSpring[1]);
+                        }
 
-                        offspringPopulation.add(offSpring[0]);
-                        offspringPopulation.add(offSpring[1]);
+                        offspring.add(offSpring[0]);
+                        offspring.add(offSpring[1]);
                         evaluations += 2;
                     }
                 }
 
+                // the evaluations do not use the random number generator
+                if (executor != null)
+                    evaluate(offspring, executor);
+                for (Solution solution : offspring)
+                    offspringPopulation.add(solution);
+
                 // Create the solutionSet union of solutionSet and offSpring
                 union = population.union(offspringPopulation);
 
                 // Ranking the union
-                Ranking ranking = new Ranking(union);
+                Ranking ranking = new Ranking(union, sorting);
 
                 int remain = populationSize;
                 int index = 0;
@@ -194,14 +236,49 @@ public class NSGAII extends Algorithm {
             }
         } catch (Exception e) {
 
+        } finally {
+            if (executor != null)
+                executor.shutdownNow();
         }
 
         // Return as output parameter the required evaluations
         setOutputParameter("evaluations", requiredEvaluations);
 
         // Return the first non-dominated front
-        Ranking ranking = new Ranking(population);
+        Ranking ranking = new Ranking(population, sorting);
         return ranking.getSubfront(0);
         // return population;
     } // execute
+
+    /**
+     * Evaluates the objectives of the solutions concurrently and waits for all of
+     * them. A crossover may return the same solution twice (a parent, when the
+     * children are invalid), so each solution is evaluated once.
+     *
+     * @param solutions the solutions to evaluate
+     * @param executor  the executor running the evaluations
+     * @throws JMException if an evaluation fails
+     */
+    private void evaluate(List<Solution> solutions, ExecutorService executor) throws JMException {
+        Set<Solution> submitted = Collections.newSetFromMap(new IdentityHashMap<Solution, Boolean>());
+        List<Future<Void>> evaluations = new ArrayList<Future<Void>>(solutions.size());
+        for (final Solution solution : solutions) {
+            if (!submitted.add(solution))
+                continue;
+            evaluations.add(executor.submit(() -> {
+                problem_.evaluate(solution);
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<Void> evaluation : evaluations)
+                evaluation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMException("Interrupted while evaluating the offspring");
+        } catch (ExecutionException e) {
+            throw new JMException("Exception evaluating the offspring: " + e.getCause());
+        }
+    } // evaluate
 } // NSGA-II
@@ -110,6 +110,9 @@ public class PLACrossover2 extends Crossover {
         try {
             if (parent1.getDecisionVariables()[0].getVariableType() == java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE)) {
                 if (PseudoRandom.randDouble() < probability) {
+                    // os filhos serao alterados: deixam de compartilhar a arquitetura dos pais (copy-on-write)
+                    offspring[0].getDecisionVariableForWriting(0);
+                    offspring[1].getDecisionVariableForWriting(0);
 
                     // STEP 1: Get feature to crossover
                     List<Concern> concernsArchitecture = new ArrayList<Concern>(((Architecture) offspring[0].getDecisionVariables()[0]).getAllConcerns());
@@ -120,7 +123,7 @@ public class PLACrossover2 extends Crossover {
                     if (!(isValidSolution((Architecture) offspring[0].getDecisionVariables()[0]))) {
                         //offspring[0] = new Solution(parent1);
                         offspring[0] = parent1;
-                        OPLA.contDiscardedSolutions_++;
+                        OPLA.counters().contDiscardedSolutions_++;
                     }
                     this.variabilitiesOk = true;
                     obtainChild(feature, (Architecture) parent1.getDecisionVariables()[0], (Architecture) offspring[1].getDecisionVariables()[0], scope);
@@ -128,7 +131,7 @@ public class PLACrossover2 extends Crossover {
                     if (!(isValidSolution((Architecture) offspring[1].getDecisionVariables()[0]))) {
                         //offspring[0] = new Solution(parent1);
                         offspring[0] = parent1;
-                        OPLA.contDiscardedSolutions_++;
+                        OPLA.counters().contDiscardedSolutions_++;
                     }
                     concernsArchitecture = null;
                 }
@@ -14,6 +14,7 @@ import jmetal.problems.OPLA;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
+import jmetal.util.RandomStreams;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -96,7 +97,7 @@ public class PLAFeatureMutation extends Mutation {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class
                         .forName(Architecture.ARCHITECTURE_TYPE)) {
-                    Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
                     if ("sameComponent".equals(scope)) {
                         List<Class> ClassesComp = new ArrayList<Class>(randomObject(
                                 new ArrayList<Package>(arch.getAllPackages())).getAllClasses());
@@ -171,7 +172,7 @@ public class PLAFeatureMutation extends Mutation {
     // --------------------------------------------------------------------------
     public void moveMethodMutation(double probability, Solution solution, String scope) throws JMException {
         if (PseudoRandom.randDouble() < probability) {
-            final Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+            final Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
             if ("sameComponent".equals(scope)) {
                 final Package sourceComp = randomObject(new ArrayList<Package>(arch.getAllPackages()));
                 List<Class> ClassesComp = new ArrayList<Class>(sourceComp.getAllClasses());
@@ -237,7 +238,7 @@ public class PLAFeatureMutation extends Mutation {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class
                         .forName(Architecture.ARCHITECTURE_TYPE)) {
-                    Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
 
                     Package sourceComp = randomObject(new ArrayList<Package>(arch.getAllPackages()));
                     Package targetComp = randomObject(new ArrayList<Package>(arch.getAllPackages()));
@@ -296,7 +297,7 @@ public class PLAFeatureMutation extends Mutation {
         try {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE)) {
-                    Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
 
                     Package sourceComp = randomObject(new ArrayList<Package>(arch.getAllPackages()));
                     List<Class> classesPackage = new ArrayList<Class>(sourceComp.getAllClasses());
@@ -314,14 +315,14 @@ public class PLAFeatureMutation extends Mutation {
                                 if (AttributesClass.size() >= 1) {
                                     if ("sameComponent".equals(scope)) {
                                         moveAttributeToNewClass(arch, sourceClass, AttributesClass,
-                                                sourceComp.createClass("Class" + OPLA.contClass_++, false));
+                                                sourceComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                     } else {
                                         if ("allComponents".equals(scope)) {
                                             Package targetComp = randomObject(new ArrayList<Package>(
                                                     arch.getAllPackages()));
                                             if (checkSameLayer(sourceComp, targetComp)) {
                                                 moveAttributeToNewClass(arch, sourceClass, AttributesClass,
-                                                        targetComp.createClass("Class" + OPLA.contClass_++, false));
+                                                        targetComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                             }
                                         }
                                     }
@@ -332,14 +333,14 @@ public class PLAFeatureMutation extends Mutation {
                                 if (MethodsClass.size() >= 1) {
                                     if ("sameComponent".equals(scope)) {
                                         moveMethodToNewClass(arch, sourceClass, MethodsClass,
-                                                sourceComp.createClass("Class" + OPLA.contClass_++, false));
+                                                sourceComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                     } else {
                                         if ("allComponents".equals(scope)) {
                                             Package targetComp = randomObject(new ArrayList<Package>(
                                                     arch.getAllPackages()));
                                             if (checkSameLayer(sourceComp, targetComp)) {
                                                 moveMethodToNewClass(arch, sourceClass, MethodsClass,
-                                                        targetComp.createClass("Class" + OPLA.contClass_++, false));
+                                                        targetComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                             }
                                         }
                                     }
@@ -431,7 +432,7 @@ public class PLAFeatureMutation extends Mutation {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class
                         .forName(Architecture.ARCHITECTURE_TYPE)) {
-                    Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
 
                     Package sourceComp = randomObject(new ArrayList<Package>(arch.getAllPackages()));
                     List<Interface> InterfacesComp = new ArrayList<Interface>();
@@ -446,9 +447,9 @@ public class PLAFeatureMutation extends Mutation {
                         if (OpsInterface.size() >= 1) {
                             Method op = randomObject(OpsInterface);
 
-                            Package newComp = arch.createPackage("Package" + OPLA.contComp_ + getSuffix(sourceComp));
-                            OPLA.contComp_++;
-                            Interface newInterface = newComp.createInterface("Interface" + OPLA.contInt_++);
+                            Package newComp = arch.createPackage("Package" + OPLA.counters().contComp_ + getSuffix(sourceComp));
+                            OPLA.counters().contComp_++;
+                            Interface newInterface = newComp.createInterface("Interface" + OPLA.counters().contInt_++);
 
                             sourceInterface.moveOperationToInterface(op, newInterface);
 
@@ -486,7 +487,7 @@ public class PLAFeatureMutation extends Mutation {
                 if (solution.getDecisionVariables()[0].getVariableType().toString()
                         .equals("class " + Architecture.ARCHITECTURE_TYPE)) {
 
-                    final Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    final Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
                     final List<Package> allComponents = new ArrayList<Package>(arch.getAllPackages());
                     if (!allComponents.isEmpty()) {
                         final Package selectedComp = randomObject(allComponents);
@@ -497,9 +498,9 @@ public class PLAFeatureMutation extends Mutation {
                             List<Package> allComponentsAssignedOnlyToConcern = new ArrayList<Package>(
                                     searchComponentsAssignedToConcern(selectedConcern, allComponents));
                             if (allComponentsAssignedOnlyToConcern.isEmpty()) {
-                                OPLA.contComp_++;
+                                OPLA.counters().contComp_++;
                                 modularizeConcernInComponent(allComponents,
-                                        arch.createPackage("Package" + OPLA.contComp_ + getSuffix(selectedComp)),
+                                        arch.createPackage("Package" + OPLA.counters().contComp_ + getSuffix(selectedComp)),
                                         selectedConcern, arch);
                             } else {
                                 if (allComponentsAssignedOnlyToConcern.size() == 1) {
@@ -687,7 +688,7 @@ public class PLAFeatureMutation extends Mutation {
         }
 
         if (targetClass == null) {
-            targetClass = targetComp.createClass("Class" + OPLA.contClass_++, false);
+            targetClass = targetComp.createClass("Class" + OPLA.counters().contClass_++, false);
             targetClass.addConcern(concern.getName());
         }
         return targetClass;
@@ -733,7 +734,7 @@ public class PLAFeatureMutation extends Mutation {
     }
 
     private Class randonClass(List<Class> targetClasses) {
-        Collections.shuffle(targetClasses);
+        Collections.shuffle(targetClasses, RandomStreams.asRandom());
         Class randonKlass = targetClasses.get(0);
         return randonKlass;
     }
@@ -764,7 +765,7 @@ public class PLAFeatureMutation extends Mutation {
         targetInterface = searchForInterfaceWithConcern(concern, targetComp);
 
         if (targetInterface == null) {
-            targetInterface = targetComp.createInterface("Interface" + OPLA.contInt_++);
+            targetInterface = targetComp.createInterface("Interface" + OPLA.counters().contInt_++);
             sourceInterface.moveOperationToInterface(operation, targetInterface);
             targetInterface.addConcern(concern.getName());
         } else {
@@ -932,14 +933,27 @@ public class PLAFeatureMutation extends Mutation {
             throw new JMException("Exception in " + name + ".execute()");
         }
 
-        this.doMutation(mutationProbability, solution);
+        // mutacoes que geram solucao invalida sao desfeitas in-place
+        ChangeSet touched = ChangeSet.begin();
+        try {
+            ChangeLog changes = ChangeLog.begin();
+            try {
+                this.doMutation(mutationProbability, solution);
 
-        if (!this.isValidSolution(((Architecture) solution.getDecisionVariables()[0]))) {
-            Architecture clone;
-            clone = ((Architecture) solution.getDecisionVariables()[0]).deepClone();
-            solution.getDecisionVariables()[0] = clone;
-            OPLA.contDiscardedSolutions_++;
+                if (this.isValidSolution(((Architecture) solution.getDecisionVariables()[0]))) {
+                    changes.commit();
+                } else {
+                    changes.rollback();
+                    OPLA.counters().contDiscardedSolutions_++;
+                }
+            } finally {
+                changes.close();
+            }
+        } finally {
+            touched.close();
         }
+        // elementos alterados, para a avaliacao incremental
+        solution.addChanges(touched);
 
         return solution;
     }
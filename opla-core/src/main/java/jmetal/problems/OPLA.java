@@ -2,6 +2,7 @@ package jmetal.problems;
 
 import arquitetura.builders.ArchitectureBuilder;
 import arquitetura.representation.Architecture;
+import arquitetura.representation.ArchitectureFingerprint;
 import arquitetura.representation.Class;
 import arquitetura.representation.Interface;
 import arquitetura.representation.Package;
@@ -11,7 +12,10 @@ import jmetal.core.Solution;
 import jmetal.core.SolutionSet;
 import jmetal.encodings.solutionType.ArchitectureSolutionType;
 import jmetal.experiments.ExperimentCommomConfigs;
+import jmetal.metrics.FitnessCache;
 import jmetal.metrics.PLAMetrics.extensibility.ExtensPLA;
+import jmetal.metrics.concernDrivenMetrics.ConcernMetrics;
+import jmetal.metrics.concernDrivenMetrics.IncrementalConcernMetrics;
 import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCC;
 import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCClass;
 import jmetal.metrics.concernDrivenMetrics.concernCohesion.LCCClassComponentResult;
@@ -23,25 +27,34 @@ import jmetal.util.JMException;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 //criado por Thelma em agosto/2012
 public class OPLA extends Problem {
 
     private static final long serialVersionUID = 884633138619836573L;
 
-    // variaveis para controlar os contadores de componentes e interfaces
-    public static int contComp_ = 0;
-    public static int contInt_ = 0;
-    public static int contClass_ = 0;
-    public static int contDiscardedSolutions_ = 0;
+    // contadores de componentes e interfaces, um conjunto por thread (execuções em paralelo não compartilham)
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
 
     public Architecture architecture_;
     private List<String> selectedMetrics; // Vai vir da GUI
     private ExperimentCommomConfigs configs;
+    private FitnessCache fitnessCache;
+    private boolean incrementalEvaluation;
+    private boolean verifyIncrementalEvaluation;
 
     public OPLA(String xmiFilePath, ExperimentCommomConfigs oplaConfig) throws Exception {
+        this(new ArchitectureBuilder().create(xmiFilePath), oplaConfig);
+    }
+
+    /**
+     * Problema sobre uma arquitetura já carregada.
+     */
+    public OPLA(Architecture architecture, ExperimentCommomConfigs oplaConfig) throws Exception {
         this.configs = oplaConfig;
         numberOfVariables_ = 1;
         numberOfObjectives_ = oplaConfig.getOplaConfigs().getNumberOfObjectives();
@@ -51,13 +64,57 @@ public class OPLA extends Problem {
         variableType_ = new java.lang.Class[numberOfVariables_];
         length_ = new int[numberOfVariables_];
         variableType_[0] = java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE);
-        architecture_ = new ArchitectureBuilder().create(xmiFilePath);
+        architecture_ = architecture;
+        architecture_.setCopyOnWrite(oplaConfig.getOplaConfigs().isCopyOnWriteArchitectures());
 
         selectedMetrics = oplaConfig.getOplaConfigs().getSelectedObjectiveFunctions();
+        fitnessCache = new FitnessCache(oplaConfig.getOplaConfigs().getFitnessCacheSize(),
+                oplaConfig.getOplaConfigs().getFitnessCacheEviction());
+        incrementalEvaluation = oplaConfig.getOplaConfigs().isIncrementalEvaluation();
+        verifyIncrementalEvaluation = oplaConfig.getOplaConfigs().isVerifyIncrementalEvaluation();
+    }
+
+    public FitnessCache getFitnessCache() {
+        return fitnessCache;
+    }
+
+    /**
+     * Contadores usados nos nomes dos elementos criados pelos operadores, da execução que roda na thread atual.
+     */
+    public static Counters counters() {
+        return COUNTERS.get();
+    }
+
+    /**
+     * Começa contadores novos na thread atual, no início de uma execução independente.
+     */
+    public static void resetCounters() {
+        COUNTERS.set(new Counters());
+    }
+
+    /**
+     * Contadores dos nomes dos elementos criados (Package, Interface, Class) e das soluções descartadas.
+     */
+    public static final class Counters {
+        public int contComp_ = 0;
+        public int contInt_ = 0;
+        public int contClass_ = 0;
+        public int contDiscardedSolutions_ = 0;
     }
 
     @Override
     public void evaluate(Solution solution) {
+        ArchitectureFingerprint fingerprint = null;
+        if (fitnessCache.isEnabled()) {
+            fingerprint = ((Architecture) solution.getDecisionVariables()[0]).getFingerprint();
+            double[] cached = fitnessCache.get(fingerprint, selectedMetrics);
+            if (cached != null) {
+                for (int i = 0; i < cached.length; i++)
+                    solution.setObjective(i, cached[i]);
+                return;
+            }
+        }
+
         List<jmetal.experiments.Fitness> fitnesses = new ArrayList<jmetal.experiments.Fitness>();
 
         for (int i = 0; i < this.selectedMetrics.size(); i++) {
@@ -73,8 +130,7 @@ public class OPLA extends Problem {
                             .getDecisionVariables()[0])));
                     break;
                 case "featureDriven":
-                    fitnesses.add(new jmetal.experiments.Fitness(evaluateMSIFitness((Architecture) solution
-                            .getDecisionVariables()[0])));
+                    fitnesses.add(new jmetal.experiments.Fitness(evaluateMSIFitness(solution)));
                     break;
                 case "PLAExtensibility":
                     fitnesses.add(new jmetal.experiments.Fitness(evaluatePLAExtensibility((Architecture) solution
@@ -108,10 +164,14 @@ public class OPLA extends Problem {
             }
         }
 
+        double[] values = new double[fitnesses.size()];
         for (int i = 0; i < fitnesses.size(); i++) {
-            solution.setObjective(i, fitnesses.get(i).getValue());
+            values[i] = fitnesses.get(i).getValue();
+            solution.setObjective(i, values[i]);
         }
 
+        if (fingerprint != null)
+            fitnessCache.put(fingerprint, selectedMetrics, values);
     }
 
     private double evaluateDepIN(Architecture architecture) {
@@ -129,6 +189,32 @@ public class OPLA extends Problem {
         return EleganceFitness;
     }
 
+    /**
+     * Com a avaliacao incremental ativa, recalcula somente os pacotes alterados desde a ultima
+     * avaliacao da solucao (ver {@link IncrementalConcernMetrics}).
+     */
+    private double evaluateMSIFitness(Solution solution) {
+        Architecture architecture = (Architecture) solution.getDecisionVariables()[0];
+        if (!incrementalEvaluation)
+            return evaluateMSIFitness(architecture);
+
+        IncrementalConcernMetrics metrics = IncrementalConcernMetrics.update(solution.getConcernMetrics(),
+                solution.getChanges(), architecture);
+        solution.setConcernMetrics(metrics);
+
+        double MSIFitness = metrics.getLCC() + metrics.getLCCClass() + metrics.getCDAC() + metrics.getCDAClass()
+                + metrics.getCDAI() + metrics.getCDAO() + metrics.getCIBC() + metrics.getCIBClass()
+                + metrics.getIIBC() + metrics.getOOBC();
+
+        if (verifyIncrementalEvaluation) {
+            double expected = evaluateMSIFitness(architecture);
+            if (expected != MSIFitness)
+                throw new IllegalStateException("Avaliacao incremental de featureDriven divergiu: " + MSIFitness
+                        + " (" + metrics.getRecomputedPackages() + " pacotes recalculados), esperado " + expected);
+        }
+        return MSIFitness;
+    }
+
     private double evaluateMSIFitness(Architecture architecture) {
         double sumCIBC = 0.0;
         double sumIIBC = 0.0;
@@ -142,49 +228,17 @@ public class OPLA extends Problem {
         double sumCIBClass = 0.0;
         double sumLCCClass = 0.0;
 
-        sumLCC = evaluateLCC(architecture);
-
-        sumLCCClass = evaluateLCCClass(architecture);
-
-        CIBC cibc = new CIBC(architecture);
-        for (CIBCResult c : cibc.getResults().values()) {
-            sumCIBC += c.getInterlacedConcerns().size();
-        }
-
-        CIBClass cibclass = new CIBClass(architecture);
-        for (CIBClassResult c : cibclass.getResults().values()) {
-            sumCIBClass += c.getInterlacedConcerns().size();
-        }
-
-        IIBC iibc = new IIBC(architecture);
-        for (IIBCResult c : iibc.getResults().values()) {
-            sumIIBC += c.getInterlacedConcerns().size();
-        }
-
-        OOBC oobc = new OOBC(architecture);
-        for (OOBCResult c : oobc.getResults().values()) {
-            sumOOBC += c.getInterlacedConcerns().size();
-        }
-
-        CDAC cdac = new CDAC(architecture);
-        for (CDACResult c : cdac.getResults()) {
-            sumCDAC += c.getElements().size();
-        }
-
-        CDAClass cdaclass = new CDAClass(architecture);
-        for (CDAClassResult c : cdaclass.getResults()) {
-            sumCDAClass += c.getElements().size();
-        }
-
-        CDAI cdai = new CDAI(architecture);
-        for (CDAIResult c : cdai.getResults()) {
-            sumCDAI += c.getElements().size();
-        }
-
-        CDAO cdao = new CDAO(architecture);
-        for (CDAOResult c : cdao.getResults()) {
-            sumCDAO += c.getElements().size();
-        }
+        ConcernMetrics metrics = new ConcernMetrics(architecture);
+        sumLCC = metrics.getLCC();
+        sumLCCClass = metrics.getLCCClass();
+        sumCIBC = metrics.getCIBC();
+        sumCIBClass = metrics.getCIBClass();
+        sumIIBC = metrics.getIIBC();
+        sumOOBC = metrics.getOOBC();
+        sumCDAC = metrics.getCDAC();
+        sumCDAClass = metrics.getCDAClass();
+        sumCDAI = metrics.getCDAI();
+        sumCDAO = metrics.getCDAO();
 
         MSIFitness = sumLCC + sumLCCClass + sumCDAC + sumCDAClass + sumCDAI
                 + sumCDAO + sumCIBC + sumCIBClass + sumIIBC + sumOOBC;
@@ -214,26 +268,14 @@ public class OPLA extends Problem {
         double sumDepOut = 0.0;
         double iCohesion = 0.0;
 
-        MeanNumOpsByInterface numOps = new MeanNumOpsByInterface(architecture);
-        meanNumOps = numOps.getResults();
-
-        MeanDepComponents depComps = new MeanDepComponents(architecture);
-        meanDepComps = depComps.getResults();
-
-        ClassDependencyOut classesDepOut = new ClassDependencyOut(architecture);
-        sumClassesDepOut = classesDepOut.getResults();
-
-        ClassDependencyIn classesDepIn = new ClassDependencyIn(architecture);
-        sumClassesDepIn = classesDepIn.getResults();
-
-        DependencyOut DepOut = new DependencyOut(architecture);
-        sumDepOut = DepOut.getResults();
-
-        DependencyIn DepIn = new DependencyIn(architecture);
-        sumDepIn = DepIn.getResults();
-
-        RelationalCohesion cohesion = new RelationalCohesion(architecture);
-        sumCohesion = cohesion.getResults();
+        ConventionalMetrics metrics = new ConventionalMetrics(architecture);
+        meanNumOps = metrics.getMeanNumOps();
+        meanDepComps = metrics.getMeanDepComponents();
+        sumClassesDepOut = metrics.getClassDependencyOut();
+        sumClassesDepIn = metrics.getClassDependencyIn();
+        sumDepOut = metrics.getDependencyOut();
+        sumDepIn = metrics.getDependencyIn();
+        sumCohesion = metrics.getRelationalCohesion();
         if (sumCohesion == 0) {
             iCohesion = 1.0;
         } else
@@ -327,16 +369,20 @@ public class OPLA extends Problem {
     }
 
     // -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- -- --
+    /**
+     * Remove as soluções com arquiteturas estruturalmente iguais (mesma impressão digital),
+     * mantendo a primeira ocorrência. A impressão digital de cada solução é calculada uma vez;
+     * soluções sem impressão digital só são iguais a si mesmas.
+     */
     public SolutionSet removeRepetidas(SolutionSet result) {
-        String solucao;
-
-        for (int i = 0; i < result.size() - 1; i++) {
-            solucao = result.get(i).getDecisionVariables()[0].toString();
-            for (int j = i + 1; j < result.size(); j++) {
-                if (solucao.equals(result.get(j).getDecisionVariables()[0].toString())) {
-                    result.remove(j);
-                    this.configs.getLogger().putLog("removido Repedita");
-                }
+        Set<Object> distintas = new HashSet<Object>();
+
+        for (int i = 0; i < result.size(); i++) {
+            Solution solucao = result.get(i);
+            Object impressao = solucao.getDecisionVariables()[0].structuralKey();
+            if (!distintas.add(impressao != null ? impressao : solucao)) {
+                result.remove(i--);
+                this.configs.getLogger().putLog("removido Repedita");
             }
         }
 
@@ -498,6 +544,11 @@ public class OPLA extends Problem {
     }
 
     public void evaluateConstraints(Solution solution) throws JMException {
+        // sem nada a remover a arquitetura nao e alterada, e uma arquitetura compartilhada (copy-on-write) nao precisa ser copiada
+        if (!hasElementsToRemove((Architecture) solution.getDecisionVariables()[0]))
+            return;
+        solution.getDecisionVariableForWriting(0);
+
         List<Package> allComponents = new ArrayList<Package>(
                 ((Architecture) solution.getDecisionVariables()[0]).getAllPackages());
         for (Package comp : allComponents) {
@@ -563,6 +614,38 @@ public class OPLA extends Problem {
 
     }
 
+    /**
+     * Avalia, sem alterar a arquitetura, as mesmas condicoes de remocao de evaluateConstraints.
+     * Enquanto nada e removido o estado nao muda, entao a primeira remocao que evaluateConstraints
+     * faria sempre satisfaz alguma destas condicoes.
+     */
+    private boolean hasElementsToRemove(Architecture architecture) {
+        for (Package comp : architecture.getAllPackages()) {
+            for (Class cls : comp.getAllClasses()) {
+                if ((cls.getAllAttributes().isEmpty()) && (cls.getAllMethods().isEmpty())
+                        && (cls.getImplementedInterfaces().isEmpty()) && !(searchForGeneralizations(cls))
+                        && (cls.getVariantType() == null))
+                    return true;
+            }
+
+            boolean ultimaInterface = comp.getImplementedInterfaces().size() == 1;
+            boolean removeEmptyInterface = !ultimaInterface || comp.getAllClasses().size() < 1;
+            if (removeEmptyInterface) {
+                for (Interface itf : comp.getImplementedInterfaces())
+                    if (itf.getOperations().isEmpty())
+                        return true;
+                for (Interface itf : architecture.getAllInterfaces())
+                    if (itf.getOperations().isEmpty())
+                        return true;
+            }
+
+            if (comp.getAllClasses().isEmpty() && comp.getImplementedInterfaces().isEmpty()
+                    && comp.getAllInterfaces().isEmpty())
+                return true;
+        }
+        return false;
+    }
+
     //implementado por marcelo
     public double evaluateACOMP(Architecture architecture) {
         double acompFitness = 0.0;
@@ -22,85 +22,68 @@
 package jmetal.util;
 
 /**
- * Class representing a pseudo-random number generator
+ * Class representing a pseudo-random number generator.
+ * <p>
+ * The values are drawn from the stream of the current thread (see {@link RandomStreams}), so the
+ * class can be used concurrently and a run is reproducible from {@link #setSeed(long)}.
  */
 public class PseudoRandom {
 
-    /**
-     * generator used to obtain the random values
-     */
-    private static RandomGenerator random = null;
-
-    /**
-     * other generator used to obtain the random values
-     */
-    private static java.util.Random randomJava = null;
-
     /**
      * Constructor.
-     * Creates a new instance of PseudoRandom.
      */
     private PseudoRandom() {
-        if (random == null) {
-            //this.random = new java.util.Random((long)seed);
-            random = new RandomGenerator();
-            randomJava = new java.util.Random();
-        }
     } // PseudoRandom
 
     /**
-     * Returns a random int value using the Java random generator.
+     * Restarts the random streams from a seed.
+     *
+     * @param seed The master seed.
+     */
+    public static void setSeed(long seed) {
+        RandomStreams.setSeed(seed);
+    } // setSeed
+
+    /**
+     * Returns a random int value.
      *
      * @return A random int value.
      */
     public static int randInt() {
-        if (random == null) {
-            new PseudoRandom();
-        }
-        return randomJava.nextInt();
+        return RandomStreams.current().nextInt();
     } // randInt
 
     /**
-     * Returns a random double value using the PseudoRandom generator.
+     * Returns a random double value between 0.0 and 1.0.
      * Returns A random double value.
      */
     public static double randDouble() {
-        if (random == null) {
-            new PseudoRandom();
-        }
-        return random.rndreal(0.0, 1.0);
-        //return randomJava.nextDouble();
+        return RandomStreams.current().nextDouble();
     } // randDouble
 
     /**
-     * Returns a random int value between a minimum bound and maximum bound using
-     * the PseudoRandom generator.
+     * Returns a random int value between a minimum bound and maximum bound,
+     * both included.
      *
      * @param minBound The minimum bound.
      * @param maxBound The maximum bound.
      *                 Return A pseudo random int value between minBound and maxBound.
      */
     public static int randInt(int minBound, int maxBound) {
-        if (random == null) {
-            new PseudoRandom();
+        if (minBound >= maxBound) {
+            return minBound;
         }
-        return random.rnd(minBound, maxBound);
-        //return minBound + randomJava.nextInt(maxBound-minBound+1);
+        return RandomStreams.current().nextInt(minBound, maxBound + 1);
     } // randInt
 
     /**
-     * Returns a random double value between a minimum bound and a maximum bound
-     * using the PseudoRandom generator.
+     * Returns a random double value between a minimum bound and a maximum bound.
      *
      * @param minBound The minimum bound.
      * @param maxBound The maximum bound.
      * @return A pseudo random double value between minBound and maxBound
      */
     public static double randDouble(double minBound, double maxBound) {
-        if (random == null) {
-            new PseudoRandom();
-        }
-        return random.rndreal(minBound, maxBound);
-        //return minBound + (maxBound - minBound)*randomJava.nextDouble();
+        return minBound + (maxBound - minBound) * RandomStreams.current().nextDouble();
     } // randDouble
 } // PseudoRandom
@@ -38,6 +38,11 @@ import java.util.List;
  * numbering starts from 1); thus, subset 0 contains the non-dominated
  * solutions, subset 1 contains the non-dominated solutions after removing those
  * belonging to subset 0, and so on.
+ * <p>
+ * The fronts are computed by Deb's fast non-dominated sort or, when selected
+ * with {@link NonDominatedSorting}, by {@link EfficientNonDominatedSort}. The
+ * efficient sort gives the same fronts, with the solutions of each front in the
+ * order of the <code>SolutionSet</code>.
  */
 public class Ranking {
 
@@ -65,8 +70,64 @@ public class Ranking {
      * @param solutionSet The <code>SolutionSet</code> to be ranked.
      */
     public Ranking(SolutionSet solutionSet) {
+        this(solutionSet, NonDominatedSorting.FAST_NON_DOMINATED_SORT);
+    } // Ranking
+
+    /**
+     * Constructor.
+     *
+     * @param solutionSet The <code>SolutionSet</code> to be ranked.
+     * @param sorting     The non-dominated sorting algorithm.
+     */
+    public Ranking(SolutionSet solutionSet, NonDominatedSorting sorting) {
         solutionSet_ = solutionSet;
 
+        if (sorting != null && sorting.isEfficient() && solutionSet.size() > 0) {
+            int numberOfObjectives = solutionSet.get(0).numberOfObjectives();
+            double[] objectives = new double[solutionSet.size() * numberOfObjectives];
+            double[] violations = new double[solutionSet.size()];
+            for (int i = 0; i < solutionSet.size(); i++) {
+                for (int j = 0; j < numberOfObjectives; j++)
+                    objectives[i * numberOfObjectives + j] = solutionSet.get(i).getObjective(j);
+                violations[i] = solutionSet.get(i).getOverallConstraintViolation();
+            }
+            if (EfficientNonDominatedSort.isApplicable(objectives, violations)) {
+                efficientNonDominatedSort(objectives, numberOfObjectives, violations, sorting);
+                return;
+            }
+        }
+        fastNonDominatedSort(solutionSet);
+    } // Ranking
+
+    /**
+     * Builds the fronts from the ranks given by {@link EfficientNonDominatedSort}.
+     */
+    private void efficientNonDominatedSort(double[] objectives, int numberOfObjectives, double[] violations,
+                                           NonDominatedSorting sorting) {
+        // solutions with the same violation do not dominate each other, as in DominanceComparator
+        int[] ranks = EfficientNonDominatedSort.ranks(objectives, numberOfObjectives, violations, false, sorting);
+
+        int[] sizes = new int[solutionSet_.size()];
+        int fronts = 0;
+        for (int rank : ranks) {
+            sizes[rank]++;
+            fronts = Math.max(fronts, rank + 1);
+        }
+
+        ranking_ = new SolutionSet[fronts];
+        for (int j = 0; j < fronts; j++)
+            ranking_[j] = new SolutionSet(sizes[j]);
+        for (int i = 0; i < ranks.length; i++) {
+            solutionSet_.get(i).setRank(ranks[i]);
+            ranking_[ranks[i]].add(solutionSet_.get(i));
+        }
+    } // efficientNonDominatedSort
+
+    /**
+     * Deb's fast non-dominated sort.
+     */
+    private void fastNonDominatedSort(SolutionSet solutionSet) {
+
         // dominateMe[i] contains the number of solutions dominating i
         int[] dominateMe = new int[solutionSet_.size()];
 
@@ -140,7 +201,7 @@ public class Ranking {
             }
         }
 
-    } // Ranking
+    } // fastNonDominatedSort
 
     /**
      * Returns a <code>SolutionSet</code> containing the solutions of a given rank.
@@ -0,0 +1,205 @@
+package jmetal.metaheuristics.nsgaII;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.RandomArchitectures;
+import arquitetura.representation.relationship.GeneralizationRelationship;
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.Variable;
+import jmetal.encodings.solutionType.RealSolutionType;
+import jmetal.experiments.NSGAIIConfig;
+import jmetal.experiments.OPLAConfigs;
+import jmetal.operators.crossover.PLACrossover2;
+import jmetal.operators.mutation.PLAFeatureMutation;
+import jmetal.operators.selection.BinaryTournament;
+import jmetal.problems.OPLA;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * With the same seed ({@link PseudoRandom#setSeed(long)}), {@link NSGAII} must return the same front, solution
+ * by solution, whether the offspring are evaluated on the calling thread or on a pool of
+ * <code>numberOfThreads</code> threads. On {@link OPLA} the crossover shares elements between the offspring and
+ * may return a parent twice, and the constraints change the architectures.
+ */
+public class NSGAIIThreadsTest {
+
+    private static final int POPULATION_SIZE = 20;
+    private static final int MAX_EVALUATIONS = 1000;
+
+    @Test
+    public void sameSeedGivesTheSameFrontWithAnyNumberOfThreads() throws Exception {
+        for (long seed = 1; seed <= 3; seed++) {
+            List<String> sequential = run(seed, 1);
+            assertFalse(sequential.isEmpty());
+            for (int threads : new int[]{2, 8})
+                assertEquals("seed " + seed + ", " + threads + " threads", sequential, run(seed, threads));
+        }
+        // the seed is what fixes the run
+        assertFalse(run(1, 1).equals(run(2, 1)));
+    }
+
+    @Test
+    public void oplaRunsGiveTheSameFrontWithAnyNumberOfThreads() throws Exception {
+        for (long seed = 1; seed <= 3; seed++) {
+            List<String> sequential = runOPLA(seed, 1);
+            assertFalse(sequential.isEmpty());
+            for (int threads : new int[]{2, 8})
+                assertEquals("seed " + seed + ", " + threads + " threads", sequential, runOPLA(seed, threads));
+        }
+    }
+
+    /**
+     * Runs NSGA-II and describes the returned front: variables and objectives of each solution, in order.
+     */
+    private static List<String> run(long seed, int threads) throws Exception {
+        PseudoRandom.setSeed(seed);
+        NSGAII algorithm = new NSGAII(new TwoObjectives(5));
+        algorithm.setInputParameter("populationSize", POPULATION_SIZE);
+        algorithm.setInputParameter("maxEvaluations", MAX_EVALUATIONS);
+        algorithm.setInputParameter("numberOfThreads", threads);
+        algorithm.addOperator("crossover", new BlendCrossover());
+        algorithm.addOperator("mutation", new UniformMutation());
+        algorithm.addOperator("selection", new BinaryTournament(new HashMap<String, Object>()));
+
+        SolutionSet front = algorithm.execute();
+        List<String> solutions = new ArrayList<String>();
+        for (int i = 0; i < front.size(); i++) {
+            Variable[] variables = front.get(i).getDecisionVariables();
+            double[] values = new double[variables.length];
+            for (int j = 0; j < variables.length; j++)
+                values[j] = variables[j].getValue();
+            solutions.add(Arrays.toString(values) + " " + front.get(i).getObjective(0) + " "
+                    + front.get(i).getObjective(1));
+        }
+        return solutions;
+    }
+
+    /**
+     * Runs NSGA-II with the OPLA operators on a random architecture and describes the returned front: fingerprint
+     * of the architecture and objectives of each solution, in order.
+     */
+    private static List<String> runOPLA(long seed, int threads) throws Exception {
+        NSGAIIConfig configs = new NSGAIIConfig();
+        OPLAConfigs oplaConfigs = new OPLAConfigs();
+        oplaConfigs.setSelectedObjectiveFunctions(Arrays.asList("conventional", "featureDriven"));
+        configs.setOplaConfigs(oplaConfigs);
+        Architecture architecture = RandomArchitectures.create(new Random(seed), 4, 4, 30);
+        // the operators walk the hierarchies up to the root: the random generalizations may form cycles
+        for (GeneralizationRelationship generalization : architecture.getRelationshipHolder().getAllGeneralizations())
+            architecture.removeRelationship(generalization);
+
+        PseudoRandom.setSeed(seed);
+        OPLA.resetCounters();
+        NSGAII algorithm = new NSGAII(new OPLA(architecture, configs));
+        algorithm.setInputParameter("populationSize", POPULATION_SIZE);
+        algorithm.setInputParameter("maxEvaluations", 10 * POPULATION_SIZE);
+        algorithm.setInputParameter("numberOfThreads", threads);
+        HashMap<String, Object> parameters = new HashMap<String, Object>();
+        parameters.put("probability", 0.9);
+        algorithm.addOperator("crossover", new PLACrossover2(parameters));
+        parameters = new HashMap<String, Object>();
+        parameters.put("probability", 0.9);
+        algorithm.addOperator("mutation", new PLAFeatureMutation(parameters, Arrays.asList("featureMutation",
+                "moveMethodMutation", "moveAttributeMutation", "moveOperationMutation", "addClassMutation",
+                "addManagerClassMutation")));
+        algorithm.addOperator("selection", new BinaryTournament(new HashMap<String, Object>()));
+
+        SolutionSet front = algorithm.execute();
+        List<String> solutions = new ArrayList<String>();
+        for (int i = 0; i < front.size(); i++)
+            solutions.add(((Architecture) front.get(i).getDecisionVariables()[0]).getFingerprint() + " "
+                    + front.get(i).getObjective(0) + " " + front.get(i).getObjective(1));
+        return solutions;
+    }
+
+    /**
+     * ZDT1. The evaluation takes a time that depends on the solution, so the concurrent evaluations
+     * finish out of order.
+     */
+    private static class TwoObjectives extends Problem {
+
+        TwoObjectives(int numberOfVariables) throws ClassNotFoundException {
+            numberOfVariables_ = numberOfVariables;
+            numberOfObjectives_ = 2;
+            numberOfConstraints_ = 0;
+            problemName_ = "ZDT1";
+            lowerLimit_ = new double[numberOfVariables];
+            upperLimit_ = new double[numberOfVariables];
+            Arrays.fill(upperLimit_, 1.0);
+            solutionType_ = new RealSolutionType(this);
+        }
+
+        @Override
+        public void evaluate(Solution solution) throws JMException {
+            Variable[] variables = solution.getDecisionVariables();
+            double f1 = variables[0].getValue();
+            double sum = 0;
+            for (int i = 1; i < variables.length; i++)
+                sum += variables[i].getValue();
+            double g = 1.0 + 9.0 * sum / (variables.length - 1);
+            LockSupport.parkNanos((long) (f1 * 200000));
+            solution.setObjective(0, f1);
+            solution.setObjective(1, g * (1.0 - Math.sqrt(f1 / g)));
+        }
+    }
+
+    /**
+     * Blend of the values of the parents, with a random weight per variable.
+     */
+    private static class BlendCrossover extends Operator {
+
+        BlendCrossover() {
+            super(new HashMap<String, Object>());
+        }
+
+        @Override
+        public Object execute(Object object) throws Exception {
+            Solution[] parents = (Solution[]) object;
+            Solution[] offspring = {new Solution(parents[0]), new Solution(parents[1])};
+            if (PseudoRandom.randDouble() < 0.9) {
+                for (int i = 0; i < offspring[0].getDecisionVariables().length; i++) {
+                    double x1 = parents[0].getDecisionVariables()[i].getValue();
+                    double x2 = parents[1].getDecisionVariables()[i].getValue();
+                    double weight = PseudoRandom.randDouble();
+                    offspring[0].getDecisionVariables()[i].setValue(weight * x1 + (1 - weight) * x2);
+                    offspring[1].getDecisionVariables()[i].setValue((1 - weight) * x1 + weight * x2);
+                }
+            }
+            return offspring;
+        }
+    }
+
+    /**
+     * Replaces each variable, with probability 1 / number of variables, by a random value in its bounds.
+     */
+    private static class UniformMutation extends Operator {
+
+        UniformMutation() {
+            super(new HashMap<String, Object>());
+        }
+
+        @Override
+        public Object execute(Object object) throws Exception {
+            Solution solution = (Solution) object;
+            Variable[] variables = solution.getDecisionVariables();
+            for (Variable variable : variables)
+                if (PseudoRandom.randDouble() < 1.0 / variables.length)
+                    variable.setValue(PseudoRandom.randDouble(variable.getLowerBound(), variable.getUpperBound()));
+            return solution;
+        }
+    }
+}
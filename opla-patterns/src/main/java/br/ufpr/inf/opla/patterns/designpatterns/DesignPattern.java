@@ -4,10 +4,11 @@ import arquitetura.representation.Element;
 import arquitetura.representation.Interface;
 import arquitetura.representation.Patterns;
 import br.ufpr.inf.opla.patterns.models.Scope;
+import jmetal.util.RandomStreams;
 
 import java.util.Collection;
 import java.util.Objects;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public abstract class DesignPattern {
 
@@ -26,10 +27,8 @@ public abstract class DesignPattern {
 
     private final String name;
     private final String category;
-    private final Random random;
 
     public DesignPattern(String name, String category) {
-        this.random = new Random();
         this.name = name;
         this.category = category;
     }
@@ -43,6 +42,8 @@ public abstract class DesignPattern {
     }
 
     public boolean randomlyVerifyAsPSOrPSPLA(Scope scope) {
+        // as instancias sao compartilhadas entre threads, cada uma usa o seu gerador
+        SplittableRandom random = RandomStreams.current();
         double PLAProbability = random.nextDouble();
         if (random.nextDouble() < PLAProbability) {
             return verifyPSPLA(scope);
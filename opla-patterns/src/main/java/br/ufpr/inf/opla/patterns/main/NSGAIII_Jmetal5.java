@@ -0,0 +1,246 @@
+package br.ufpr.inf.opla.patterns.main;
+
+import arquitetura.io.ReaderConfig;
+import br.ufpr.inf.opla.patterns.factory.MutationOperatorFactory;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.Variable;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal5.algorithm.multiobjective.nsgaiii.NSGAIII;
+import jmetal5.algorithm.multiobjective.nsgaiii.NSGAIIIBuilder;
+import jmetal5.operator.CrossoverOperator;
+import jmetal5.operator.MutationOperator;
+import jmetal5.operator.impl.selection.BinaryTournamentSelection;
+import jmetal5.problem.multiobjective.OPLAProblem;
+import jmetal5.solution.impl.ArchitectureSolution;
+import jmetal5.util.SolutionListUtils;
+import jmetal5.util.evaluator.impl.MultithreadedSolutionListEvaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executa o NSGA-III do JMetal5 sobre o {@link OPLAProblem}, com a avaliação da população em paralelo
+ * ({@link MultithreadedSolutionListEvaluator}), e grava os resultados nos mesmos arquivos do
+ * NSGAII_OPLA_FeatMut (FUN_, INFO_, VAR_, Metrics_, TIME_ e FUN_All_).
+ * <p>
+ * O tamanho da população é o número de pontos de referência, definido pelas divisões.
+ */
+@SuppressWarnings("Duplicates")
+public class NSGAIII_Jmetal5 {
+
+    private static int maxIterations_;
+    private static double mutationProbability_;
+    private static double crossoverProbability_;
+    private static int numberOfDivisions_;
+    private static int numberOfInnerDivisions_;
+    private static int numberOfThreads_;
+
+    public static void main(String... args) throws IOException {
+        //versao com args próprios
+
+        String[] myArgs = {
+                /*max iterations*/"100",
+                /*Mutation probability*/"0.9",
+                /*PLA path*/"/home/barbiero/TCC/PLAs/banking/banking.uml",
+                /*Context*/"teste1",
+                /*Mutation operator*/"PLAMutation",
+                /*print variables?*/"true",
+                /*objectives*/"featureDriven,conventional,elegance,PLAExtensibility,acomp,aclass",
+                /*divisions*/"4",
+                /*inner divisions*/"0",
+                /*threads (0 = todos os processadores)*/"0"
+        };
+
+        runNSGAIII_OPLA(args.length > 0 ? args : myArgs);
+    }
+
+    //--  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --  --
+    private static void runNSGAIII_OPLA(String[] args) throws IOException {
+
+        if (args.length < 10) {
+            System.out.println("You need to inform the following parameters:");
+            System.out.println("\t1 - Max Iterations (Integer);"
+                    + "\n\t2 - Mutation Probability (Double);"
+                    + "\n\t3 - PLA path;"
+                    + "\n\t4 - Context;"
+                    + "\n\t5 - Mutation Operator class simple name;"
+                    + "\n\t6 - If you want to write the variables (Boolean);"
+                    + "\n\t7 - Objectives, separated by commas;"
+                    + "\n\t8 - Divisions of the reference points (Integer);"
+                    + "\n\t9 - Inner divisions of the reference points, 0 for a single layer (Integer);"
+                    + "\n\t10 - Evaluation threads, 0 for all processors (Integer).");
+            System.exit(0);
+        }
+
+        int runsNumber = 30;
+        for (int i = 0; i < 10; i++) {
+            if (args[i] == null || args[i].trim().equals("")) {
+                System.out.println("Missing argument " + (i + 1) + ".");
+                System.exit(1);
+            }
+        }
+        try {
+            maxIterations_ = Integer.valueOf(args[0]);
+            mutationProbability_ = Double.valueOf(args[1]);
+            numberOfDivisions_ = Integer.valueOf(args[7]);
+            numberOfInnerDivisions_ = Integer.valueOf(args[8]);
+            numberOfThreads_ = Integer.valueOf(args[9]);
+        } catch (NumberFormatException ex) {
+            System.out.println("Invalid numeric argument: " + ex.getMessage());
+            System.exit(1);
+        }
+        crossoverProbability_ = 0.0;
+
+        String pla = args[2];
+        String context = args[3];
+        boolean shouldPrintVariables = Boolean.valueOf(args[5]);
+        String[] objectives = args[6].split("\\s*,\\s*");
+
+        String plaName = getPlaName(pla);
+
+        Path rootDir = Paths.get("experiment", plaName, context);
+        Path manipulationDir = rootDir.resolve("manipulation");
+        Path outputDir = rootDir.resolve("output");
+
+        Files.createDirectories(manipulationDir);
+        Files.createDirectories(outputDir);
+
+        ReaderConfig.setDirTarget(manipulationDir.toString() + "/");
+        ReaderConfig.setDirExportTarget(outputDir.toString() + "/");
+
+        String plaDirectory = Paths.get(pla).getParent().toString() + "/";
+
+        ReaderConfig.setPathToTemplateModelsDirectory(plaDirectory);
+        ReaderConfig.setPathToProfileSMarty(plaDirectory + "smarty.profile.uml");
+        ReaderConfig.setPathToProfileConcerns(plaDirectory + "concerns.profile.uml");
+        ReaderConfig.setPathProfileRelationship(plaDirectory + "relationships.profile.uml");
+        ReaderConfig.setPathToProfilePatterns(plaDirectory + "patterns.profile.uml");
+
+        OPLAProblem oplaProblem = new OPLAProblem(pla, objectives);
+
+        // criado antes de qualquer parallelStream, para que o paralelismo do pool comum seja o pedido
+        MultithreadedSolutionListEvaluator<ArchitectureSolution> evaluator =
+                new MultithreadedSolutionListEvaluator<>(numberOfThreads_, oplaProblem);
+
+        CrossoverOperator<ArchitectureSolution> plaOperator = CrossoverFactory.getPLACrossoverOperator(crossoverProbability_);
+        MutationOperator<ArchitectureSolution> mutationOperator = MutationOperatorFactory.create(args[4], mutationProbability_);
+
+        NSGAIIIBuilder<ArchitectureSolution> nsgaiiiBuilder = new NSGAIIIBuilder<>(oplaProblem)
+                .setCrossoverOperator(plaOperator)
+                .setMutationOperator(mutationOperator)
+                .setSelectionOperator(new BinaryTournamentSelection<ArchitectureSolution>())
+                .setMaxIterations(maxIterations_)
+                .setNumberOfDivisions(numberOfDivisions_)
+                .setNumberOfInnerDivisions(numberOfInnerDivisions_)
+                .setSolutionListEvaluator(evaluator);
+
+        System.out.println("\n================ NSGAIII ================");
+        System.out.println("Context: " + context);
+        System.out.println("PLA: " + pla);
+        System.out.println("Params:");
+        System.out.println("\tObjectives -> " + String.join(", ", objectives));
+        System.out.println("\tDivisions -> " + numberOfDivisions_ + " / " + numberOfInnerDivisions_);
+        System.out.println("\tMaxIter -> " + maxIterations_);
+        System.out.println("\tCross -> " + crossoverProbability_);
+        System.out.println("\tMuta -> " + mutationProbability_);
+        System.out.println("\tThreads -> " + evaluator.getNumberOfThreads());
+
+        long heapSize = Runtime.getRuntime().totalMemory();
+        heapSize = (heapSize / 1024) / 1024;
+        System.out.println("Heap Size: " + heapSize + "Mb\n");
+
+        String directory = rootDir.toString();
+        List<ArchitectureSolution> todasRuns = new ArrayList<>();
+        long time[] = new long[runsNumber];
+
+        for (int runs = 0; runs < runsNumber; runs++) {
+            System.out.printf("Algoritmo %d%n", runs);
+
+            NSGAIII<ArchitectureSolution> nsgaiii = buildTimedNSGAIII(nsgaiiiBuilder);
+            long initTime = System.currentTimeMillis();
+            nsgaiii.run();
+            time[runs] = System.currentTimeMillis() - initTime;
+            System.out.println(" executado em " + time[runs] + "ms");
+
+            List<ArchitectureSolution> result = ArchitectureSolution.removeRepetidas(nsgaiii.getResult());
+            SolutionSet resultFront = toSolutionSet(result);
+
+            resultFront.printObjectivesToFile(directory + "/FUN_" + plaName + "_" + runs + ".txt");
+            resultFront.printInformationToFile(directory + "/INFO_" + plaName + "_" + runs + ".txt");
+            if (shouldPrintVariables)
+                resultFront.saveVariablesToFile("VAR_" + runs + "_");
+            resultFront.printMetricsToFile(directory + "/Metrics_" + plaName + "_" + runs + ".txt");
+
+            //armazena as solucoes de todas runs
+            todasRuns.addAll(result);
+        }
+
+        List<ArchitectureSolution> nonDominated = SolutionListUtils.getNondominatedSolutions(todasRuns);
+        SolutionSet allFront = toSolutionSet(ArchitectureSolution.removeRepetidas(nonDominated));
+
+        allFront.printTimeToFile(directory + "/TIME_" + plaName, runsNumber, time, pla);
+
+        System.out.println("------    All Runs - Non-dominated solutions --------");
+        allFront.printObjectivesToFile(directory + "/FUN_All_" + plaName + ".txt");
+        allFront.printInformationToFile(directory + "/INFO_All_" + plaName + ".txt");
+        if (shouldPrintVariables)
+            allFront.saveVariablesToFile("VAR_All_");
+        allFront.printMetricsToFile(directory + "/Metrics_All_" + plaName + ".txt");
+        allFront.printAllMetricsToFile(directory + "/FUN_Metrics_All_" + plaName + ".txt");
+    }
+
+    /**
+     * NSGA-III que imprime, a cada geração, o tempo total da geração e o tempo gasto avaliando a população.
+     */
+    private static NSGAIII<ArchitectureSolution> buildTimedNSGAIII(NSGAIIIBuilder<ArchitectureSolution> builder) {
+        return new NSGAIII<ArchitectureSolution>(builder) {
+            private long generationStart = System.currentTimeMillis();
+            private long evaluationTime;
+
+            @Override
+            protected List<ArchitectureSolution> evaluatePopulation(List<ArchitectureSolution> population) {
+                long init = System.currentTimeMillis();
+                List<ArchitectureSolution> evaluated = super.evaluatePopulation(population);
+                evaluationTime += System.currentTimeMillis() - init;
+                return evaluated;
+            }
+
+            @Override
+            protected void updateProgress() {
+                long now = System.currentTimeMillis();
+                System.out.printf("\tGeração %d: %dms (avaliação %dms, %d soluções)%n",
+                        iterations, now - generationStart, evaluationTime, getMaxPopulationSize());
+                generationStart = now;
+                evaluationTime = 0;
+                super.updateProgress();
+            }
+        };
+    }
+
+    /**
+     * Converte as soluções do JMetal5 para um SolutionSet, usado para gravar os resultados.
+     */
+    private static SolutionSet toSolutionSet(List<ArchitectureSolution> solutions) {
+        SolutionSet solutionSet = new SolutionSet();
+        for (ArchitectureSolution architectureSolution : solutions) {
+            int numberOfObjectives = architectureSolution.getNumberOfObjectives();
+            Solution solution = new Solution(numberOfObjectives);
+            solution.setDecisionVariables(new Variable[]{architectureSolution.getArchitecture()});
+            for (int i = 0; i < numberOfObjectives; i++)
+                solution.setObjective(i, architectureSolution.getObjective(i));
+            solutionSet.add(solution);
+        }
+        return solutionSet;
+    }
+
+    private static String getPlaName(String pla) {
+        int beginIndex = pla.lastIndexOf('/') + 1;
+        int endIndex = pla.length() - 4;
+        return pla.substring(beginIndex, endIndex);
+    }
+}
@@ -69,7 +69,7 @@ public class NSGAII_Jmetal5 {
     }
 
     static private List<ArchitectureSolution> removeRepetidas(List<ArchitectureSolution> solutions) {
-        return solutions.stream().distinct().collect(Collectors.toList());
+        return ArchitectureSolution.removeRepetidas(solutions);
     }
 
 
@@ -224,6 +224,7 @@ public class NSGAII_Jmetal5 {
             nsgaii.run();
             long estimatedTime = System.currentTimeMillis() - initTime;
             System.out.println(" executado em " + estimatedTime + "ms");
+            System.out.println(oplaProblem.getFitnessCache());
 
 
             List<ArchitectureSolution> result = nsgaii.getResult();
@@ -241,7 +242,7 @@ public class NSGAII_Jmetal5 {
 
         List<ArchitectureSolution> finalList = allSolutions.stream().flatMap(List::stream).collect(Collectors.toList());
         System.out.printf("Solução final tem %d soluções. %n", finalList.size());
-        finalList = finalList.stream().distinct().collect(Collectors.toList());
+        finalList = removeRepetidas(finalList);
         System.out.printf("Solução finais tem %d soluções distintas. %n", finalList.size());
 
         System.out.printf("Tempo total %dms%n", (endTotal - initTotal));
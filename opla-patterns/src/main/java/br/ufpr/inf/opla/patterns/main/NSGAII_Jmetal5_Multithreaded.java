@@ -72,7 +72,7 @@ public class NSGAII_Jmetal5_Multithreaded {
     }
 
     static private List<ArchitectureSolution> removeRepetidas(List<ArchitectureSolution> solutions) {
-        return solutions.stream().distinct().collect(Collectors.toList());
+        return ArchitectureSolution.removeRepetidas(solutions);
     }
 
 
@@ -334,7 +334,7 @@ public class NSGAII_Jmetal5_Multithreaded {
 
         List<ArchitectureSolution> finalList = allSolutions.values().stream().flatMap(List::stream).collect(Collectors.toList());
         System.out.printf("Solução final tem %d soluções. %n", finalList.size());
-        finalList = finalList.stream().distinct().collect(Collectors.toList());
+        finalList = removeRepetidas(finalList);
         System.out.printf("Solução finais tem %d soluções distintas. %n", finalList.size());
 
         System.out.printf("Tempo total %f segundos %n", ((endTotal - initTotal) / 1000.0));*/
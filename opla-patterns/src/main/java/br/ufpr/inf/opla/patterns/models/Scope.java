@@ -1,5 +1,6 @@
 package br.ufpr.inf.opla.patterns.models;
 
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Element;
 import br.ufpr.inf.opla.patterns.designpatterns.DesignPattern;
 import br.ufpr.inf.opla.patterns.models.ps.PS;
@@ -53,12 +54,18 @@ public class Scope {
         return psPLAList;
     }
 
+    /**
+     * Os PS encontrados durante uma mutação são desfeitos com ela pelo {@link ChangeLog}, caso o escopo seja
+     * reutilizado depois de uma mutação inválida.
+     */
     public void addPS(PS ps) {
         this.ps.add(ps);
+        ChangeLog.record(() -> this.ps.remove(this.ps.size() - 1));
     }
 
     public void addPSPLA(PSPLA psPla) {
         this.psPLA.add(psPla);
+        ChangeLog.record(() -> this.psPLA.remove(this.psPLA.size() - 1));
     }
 
     public boolean isPS() {
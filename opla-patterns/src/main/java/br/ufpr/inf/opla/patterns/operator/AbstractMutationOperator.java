@@ -5,10 +5,12 @@ import arquitetura.exceptions.ConcernNotFoundException;
 import arquitetura.exceptions.NotFoundException;
 import arquitetura.exceptions.PackageNotFound;
 import arquitetura.representation.Architecture;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Interface;
 import br.ufpr.inf.opla.patterns.operator.impl.DesignPatternsAndPLAMutationOperator;
 import jmetal.core.Solution;
 import jmetal.operators.mutation.Mutation;
+import jmetal.problems.OPLA;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
 import org.apache.log4j.LogManager;
@@ -50,6 +52,25 @@ public abstract class AbstractMutationOperator extends Mutation {
 
     protected abstract boolean hookMutation(Solution solution, Double probability) throws Exception;
 
+    /**
+     * Encerra o registro de alterações de uma mutação: mantém as alterações se a arquitetura
+     * resultante for válida, senão as desfaz in-place.
+     *
+     * @param changes      registro iniciado antes da mutação
+     * @param architecture arquitetura alterada
+     * @return true se as alterações foram mantidas
+     */
+    protected boolean commitIfValid(ChangeLog changes, Architecture architecture) {
+        if (isValidSolution(architecture)) {
+            changes.commit();
+            return true;
+        }
+        changes.rollback();
+        OPLA.counters().contDiscardedSolutions_++;
+        LOGGER.info("Invalid Solution. Reverting Modifications.");
+        return false;
+    }
+
     protected boolean isValidSolution(Architecture solution) {
         boolean isValid = true;
         List<Interface> allInterfaces = new ArrayList<>(solution.getAllInterfaces());
@@ -6,6 +6,7 @@
 package br.ufpr.inf.opla.patterns.operator.impl;
 
 import arquitetura.representation.Architecture;
+import arquitetura.representation.ChangeLog;
 import arquitetura.representation.Patterns;
 import br.ufpr.inf.opla.patterns.designpatterns.DesignPattern;
 import br.ufpr.inf.opla.patterns.models.Scope;
@@ -16,7 +17,6 @@ import br.ufpr.inf.opla.patterns.strategies.designpatternselection.defaultstrate
 import br.ufpr.inf.opla.patterns.strategies.scopeselection.ScopeSelectionStrategy;
 import br.ufpr.inf.opla.patterns.strategies.scopeselection.defaultstrategy.RandomScopeSelection;
 import jmetal.core.Solution;
-import jmetal.problems.OPLA;
 import jmetal.util.PseudoRandom;
 import org.apache.log4j.Priority;
 
@@ -39,26 +39,26 @@ public class DesignPatternMutationOperator extends AbstractMutationOperator {
     @Override
     protected boolean hookMutation(Solution solution, Double probability) throws Exception {
         boolean applied = false;
-        if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE)) {
-            if (PseudoRandom.randDouble() < probability) {
-                Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
-                if (scopeSelectionStrategy == null && designPatternSelectionStrategy == null) {
-                    this.mutateArchitecture(arch);
-                } else if (scopeSelectionStrategy == null) {
-                    this.mutateArchitecture(arch, designPatternSelectionStrategy);
-                } else if (designPatternSelectionStrategy == null) {
-                    this.mutateArchitecture(arch, scopeSelectionStrategy);
-                } else {
-                    this.mutateArchitecture(arch, scopeSelectionStrategy, designPatternSelectionStrategy);
+        ChangeLog changes = ChangeLog.begin();
+        try {
+            if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE)) {
+                if (PseudoRandom.randDouble() < probability) {
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
+                    if (scopeSelectionStrategy == null && designPatternSelectionStrategy == null) {
+                        this.mutateArchitecture(arch);
+                    } else if (scopeSelectionStrategy == null) {
+                        this.mutateArchitecture(arch, designPatternSelectionStrategy);
+                    } else if (designPatternSelectionStrategy == null) {
+                        this.mutateArchitecture(arch, scopeSelectionStrategy);
+                    } else {
+                        this.mutateArchitecture(arch, scopeSelectionStrategy, designPatternSelectionStrategy);
+                    }
+                    applied = true;
                 }
-                applied = true;
             }
-        }
-        if (!this.isValidSolution(((Architecture) solution.getDecisionVariables()[0]))) {
-            Architecture clone = ((Architecture) solution.getDecisionVariables()[0]).deepClone();
-            solution.getDecisionVariables()[0] = clone;
-            OPLA.contDiscardedSolutions_++;
-            LOGGER.log(Priority.INFO, "Invalid Solution. Reverting Modifications.");
+            commitIfValid(changes, (Architecture) solution.getDecisionVariables()[0]);
+        } finally {
+            changes.close();
         }
         return applied;
     }
@@ -19,6 +19,7 @@ import jmetal.problems.OPLA;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
+import jmetal.util.RandomStreams;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -38,7 +39,14 @@ public class PLAMutation extends AbstractMutationOperator {
 
     @Override
     protected boolean hookMutation(Solution solution, Double probability) throws Exception {
-        return doMutation(probability, solution);
+        ChangeLog changes = ChangeLog.begin();
+        try {
+            boolean applied = doMutation(probability, solution);
+            commitIfValid(changes, (Architecture) solution.getDecisionVariables()[0]);
+            return applied;
+        } finally {
+            changes.close();
+        }
     }
 
     public boolean doMutation(double probability, Solution solution) throws Exception {
@@ -81,7 +89,7 @@ public class PLAMutation extends AbstractMutationOperator {
         try {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE)) {
-                    Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
                     if ("sameComponent".equals(scope)) {
                         List<arquitetura.representation.Class> ClassesComp = new ArrayList<arquitetura.representation.Class>(randomObject(new ArrayList<arquitetura.representation.Package>(arch.getAllPackages())).getAllClasses());
                         if (ClassesComp.size() > 1) {
@@ -159,7 +167,7 @@ public class PLAMutation extends AbstractMutationOperator {
     //--------------------------------------------------------------------------
     public boolean MoveMethodMutation(double probability, Solution solution, String scope) throws JMException {
         if (PseudoRandom.randDouble() < probability) {
-            final Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+            final Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
             if ("sameComponent".equals(scope)) {
                 final arquitetura.representation.Package sourceComp = randomObject(new ArrayList<arquitetura.representation.Package>(arch.getAllPackages()));
                 List<arquitetura.representation.Class> ClassesComp = new ArrayList<arquitetura.representation.Class>(sourceComp.getAllClasses());
@@ -229,7 +237,7 @@ public class PLAMutation extends AbstractMutationOperator {
         try {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE)) {
-                    Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
 
                     arquitetura.representation.Package sourceComp = randomObject(new ArrayList<arquitetura.representation.Package>(arch.getAllPackages()));
                     arquitetura.representation.Package targetComp = randomObject(new ArrayList<arquitetura.representation.Package>(arch.getAllPackages()));
@@ -289,7 +297,7 @@ public class PLAMutation extends AbstractMutationOperator {
         try {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE)) {
-                    Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
                     arquitetura.representation.Package sourceComp = randomObject(new ArrayList<arquitetura.representation.Package>(arch.getAllPackages()));
                     List<arquitetura.representation.Class> ClassesComp = new ArrayList<arquitetura.representation.Class>(sourceComp.getAllClasses());
                     removeClassesInPatternStructureFromArray(ClassesComp);
@@ -306,12 +314,12 @@ public class PLAMutation extends AbstractMutationOperator {
                                 List<Attribute> AttributesClass = new ArrayList<Attribute>(sourceClass.getAllAttributes());
                                 if (AttributesClass.size() >= 1) {
                                     if ("sameComponent".equals(scope)) {
-                                        moveAttributeToNewClass(arch, sourceClass, AttributesClass, sourceComp.createClass("Class" + OPLA.contClass_++, false));
+                                        moveAttributeToNewClass(arch, sourceClass, AttributesClass, sourceComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                     } else {
                                         if ("allComponents".equals(scope)) {
                                             arquitetura.representation.Package targetComp = randomObject(new ArrayList<arquitetura.representation.Package>(arch.getAllPackages()));
                                             if (checkSameLayer(sourceComp, targetComp)) {
-                                                moveAttributeToNewClass(arch, sourceClass, AttributesClass, targetComp.createClass("Class" + OPLA.contClass_++, false));
+                                                moveAttributeToNewClass(arch, sourceClass, AttributesClass, targetComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                             }
                                         }
                                     }
@@ -321,12 +329,12 @@ public class PLAMutation extends AbstractMutationOperator {
                                 List<Method> MethodsClass = new ArrayList<Method>(sourceClass.getAllMethods());
                                 if (MethodsClass.size() >= 1) {
                                     if ("sameComponent".equals(scope)) {
-                                        moveMethodToNewClass(arch, sourceClass, MethodsClass, sourceComp.createClass("Class" + OPLA.contClass_++, false));
+                                        moveMethodToNewClass(arch, sourceClass, MethodsClass, sourceComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                     } else {
                                         if ("allComponents".equals(scope)) {
                                             arquitetura.representation.Package targetComp = randomObject(new ArrayList<arquitetura.representation.Package>(arch.getAllPackages()));
                                             if (checkSameLayer(sourceComp, targetComp)) {
-                                                moveMethodToNewClass(arch, sourceClass, MethodsClass, targetComp.createClass("Class" + OPLA.contClass_++, false));
+                                                moveMethodToNewClass(arch, sourceClass, MethodsClass, targetComp.createClass("Class" + OPLA.counters().contClass_++, false));
                                             }
                                         }
                                     }
@@ -413,7 +421,7 @@ public class PLAMutation extends AbstractMutationOperator {
         try {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType() == java.lang.Class.forName(Architecture.ARCHITECTURE_TYPE)) {
-                    Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
 
                     arquitetura.representation.Package sourceComp = randomObject(new ArrayList<arquitetura.representation.Package>(arch.getAllPackages()));
                     List<Interface> InterfacesComp = new ArrayList<Interface>();
@@ -428,9 +436,9 @@ public class PLAMutation extends AbstractMutationOperator {
                         if (OpsInterface.size() >= 1) {
                             Method op = randomObject(OpsInterface);
 
-                            arquitetura.representation.Package newComp = arch.createPackage("Package" + OPLA.contComp_ + getSuffix(sourceComp));
-                            OPLA.contComp_++;
-                            Interface newInterface = newComp.createInterface("Interface" + OPLA.contInt_++);
+                            arquitetura.representation.Package newComp = arch.createPackage("Package" + OPLA.counters().contComp_ + getSuffix(sourceComp));
+                            OPLA.counters().contComp_++;
+                            Interface newInterface = newComp.createInterface("Interface" + OPLA.counters().contInt_++);
 
                             sourceInterface.moveOperationToInterface(op, newInterface);
 
@@ -470,7 +478,7 @@ public class PLAMutation extends AbstractMutationOperator {
             if (PseudoRandom.randDouble() < probability) {
                 if (solution.getDecisionVariables()[0].getVariableType().toString().equals("class " + Architecture.ARCHITECTURE_TYPE)) {
 
-                    final Architecture arch = ((Architecture) solution.getDecisionVariables()[0]);
+                    final Architecture arch = ((Architecture) solution.getDecisionVariableForWriting(0));
                     final List<arquitetura.representation.Package> allComponents = new ArrayList<arquitetura.representation.Package>(arch.getAllPackages());
                     if (!allComponents.isEmpty()) {
                         final arquitetura.representation.Package selectedComp = randomObject(allComponents);
@@ -479,8 +487,8 @@ public class PLAMutation extends AbstractMutationOperator {
                             final Concern selectedConcern = randomObject(concernsSelectedComp);
                             List<arquitetura.representation.Package> allComponentsAssignedOnlyToConcern = new ArrayList<arquitetura.representation.Package>(searchComponentsAssignedToConcern(selectedConcern, allComponents));
                             if (allComponentsAssignedOnlyToConcern.isEmpty()) {
-                                OPLA.contComp_++;
-                                modularizeConcernInComponent(allComponents, arch.createPackage("Package" + OPLA.contComp_ + getSuffix(selectedComp)), selectedConcern, arch);
+                                OPLA.counters().contComp_++;
+                                modularizeConcernInComponent(allComponents, arch.createPackage("Package" + OPLA.counters().contComp_ + getSuffix(selectedComp)), selectedConcern, arch);
                             } else {
                                 if (allComponentsAssignedOnlyToConcern.size() == 1) {
                                     modularizeConcernInComponent(allComponents, allComponentsAssignedOnlyToConcern.get(0), selectedConcern, arch);
@@ -633,7 +641,7 @@ public class PLAMutation extends AbstractMutationOperator {
         }
 
         if (targetClass == null) {
-            targetClass = targetComp.createClass("Class" + OPLA.contClass_++, false);
+            targetClass = targetComp.createClass("Class" + OPLA.counters().contClass_++, false);
             targetClass.addConcern(concern.getName());
         }
         return targetClass;
@@ -676,7 +684,7 @@ public class PLAMutation extends AbstractMutationOperator {
     }
 
     private arquitetura.representation.Class randonClass(List<arquitetura.representation.Class> targetClasses) {
-        Collections.shuffle(targetClasses);
+        Collections.shuffle(targetClasses, RandomStreams.asRandom());
         arquitetura.representation.Class randonKlass = targetClasses.get(0);
         return randonKlass;
     }
@@ -706,7 +714,7 @@ public class PLAMutation extends AbstractMutationOperator {
         targetInterface = searchForInterfaceWithConcern(concern, targetComp);
 
         if (targetInterface == null) {
-            targetInterface = targetComp.createInterface("Interface" + OPLA.contInt_++);
+            targetInterface = targetComp.createInterface("Interface" + OPLA.counters().contInt_++);
             sourceInterface.moveOperationToInterface(operation, targetInterface);
             targetInterface.addConcern(concern.getName());
         } else {
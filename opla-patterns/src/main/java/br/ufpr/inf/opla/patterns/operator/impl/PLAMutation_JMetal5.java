@@ -10,7 +10,8 @@ import arquitetura.representation.relationship.RealizationRelationship;
 import jmetal5.operator.MutationOperator;
 import jmetal5.problem.multiobjective.OPLAProblem;
 import jmetal5.solution.impl.ArchitectureSolution;
-import jmetal5.util.pseudorandom.impl.JavaRandomGenerator;
+import jmetal5.util.pseudorandom.PseudoRandomGenerator;
+import jmetal5.util.pseudorandom.impl.SplittableRandomGenerator;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -24,7 +25,7 @@ public class PLAMutation_JMetal5 implements MutationOperator<ArchitectureSolutio
 
     private static final Logger LOGGER = LogManager.getLogger(PLAMutation_JMetal5.class);
     private final double probability;
-    private JavaRandomGenerator rng = null;
+    private final PseudoRandomGenerator rng = new SplittableRandomGenerator();
 
 
     public PLAMutation_JMetal5(double probability) {
@@ -69,10 +70,7 @@ public class PLAMutation_JMetal5 implements MutationOperator<ArchitectureSolutio
     }
 
     //<editor-fold defaultstate="collapsed" desc="Helpers">
-    private JavaRandomGenerator getRng() {
-        if (rng == null) {
-            rng = new JavaRandomGenerator();
-        }
+    private PseudoRandomGenerator getRng() {
         return rng;
     }
 
@@ -448,7 +446,6 @@ public class PLAMutation_JMetal5 implements MutationOperator<ArchitectureSolutio
         LOGGER.info("Executando MoveAttributeMutationSameComponent");
         Architecture arch = solution.getArchitecture();
         List<Package> archPackages = new ArrayList<>(arch.getAllPackages());
-        JavaRandomGenerator rng = new JavaRandomGenerator();
 
         Package randomPackage = randomObjectFromCollection(archPackages);
         Set<Class> classesComp = randomPackage.getAllClasses();
@@ -3,13 +3,13 @@ package br.ufpr.inf.opla.patterns.strategies.designpatternselection.defaultstrat
 import br.ufpr.inf.opla.patterns.designpatterns.DesignPattern;
 import br.ufpr.inf.opla.patterns.strategies.designpatternselection.DesignPatternSelectionStrategy;
 
-import java.util.Random;
+import jmetal.util.RandomStreams;
 
 public class RandomDesignPatternSelection implements DesignPatternSelectionStrategy {
 
     @Override
     public DesignPattern selectDesignPattern() {
-        int index = new Random().nextInt(DesignPattern.IMPLEMENTED.length);
+        int index = RandomStreams.current().nextInt(DesignPattern.IMPLEMENTED.length);
         return DesignPattern.IMPLEMENTED[index];
     }
 
@@ -7,8 +7,7 @@ package br.ufpr.inf.opla.patterns.strategies.designpatternselection.impl;
 
 import br.ufpr.inf.opla.patterns.designpatterns.DesignPattern;
 import br.ufpr.inf.opla.patterns.strategies.designpatternselection.DesignPatternSelectionStrategy;
-
-import java.util.Random;
+import jmetal.util.RandomStreams;
 
 /**
  * @author giovaniguizzo
@@ -26,7 +25,7 @@ public class CustomDesignPatternSelection implements DesignPatternSelectionStrat
 
     @Override
     public DesignPattern selectDesignPattern() {
-        int index = new Random().nextInt(availablePatterns.length);
+        int index = RandomStreams.current().nextInt(availablePatterns.length);
         DesignPattern designPattern = null;
         for (DesignPattern dp : DesignPattern.IMPLEMENTED) {
             if (dp.getName().equalsIgnoreCase(availablePatterns[index])) {
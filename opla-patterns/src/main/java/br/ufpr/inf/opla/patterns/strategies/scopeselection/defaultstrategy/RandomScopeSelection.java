@@ -4,10 +4,11 @@ import arquitetura.representation.Architecture;
 import arquitetura.representation.Patterns;
 import br.ufpr.inf.opla.patterns.models.Scope;
 import br.ufpr.inf.opla.patterns.strategies.scopeselection.ScopeSelectionStrategy;
+import jmetal.util.RandomStreams;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomScopeSelection implements ScopeSelectionStrategy {
 
@@ -16,7 +17,7 @@ public class RandomScopeSelection implements ScopeSelectionStrategy {
         Scope scope = new Scope();
         int architectureSize = architecture.getElements().size();
         if (architectureSize >= 1) {
-            Random random = new Random();
+            SplittableRandom random = RandomStreams.current();
             int howManyToSelect = random.nextInt(architectureSize) + 1;
             List<Integer> selectedIndexes = new ArrayList<>();
             for (int i = 0; i < howManyToSelect; i++) {
@@ -0,0 +1,182 @@
+package br.ufpr.inf.opla.patterns.designpatterns;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.ChangeLog;
+import arquitetura.representation.Class;
+import arquitetura.representation.Element;
+import arquitetura.representation.Interface;
+import arquitetura.representation.Method;
+import arquitetura.representation.Package;
+import arquitetura.representation.Patterns;
+import arquitetura.representation.RandomArchitectures;
+import arquitetura.representation.Variant;
+import arquitetura.representation.VariationPoint;
+import arquitetura.representation.relationship.AssociationEnd;
+import arquitetura.representation.relationship.AssociationRelationship;
+import arquitetura.representation.relationship.GeneralizationRelationship;
+import arquitetura.representation.relationship.RealizationRelationship;
+import arquitetura.representation.relationship.Relationship;
+import br.ufpr.inf.opla.patterns.models.Scope;
+import br.ufpr.inf.opla.patterns.repositories.ArchitectureRepository;
+import br.ufpr.inf.opla.patterns.strategies.scopeselection.defaultstrategy.RandomScopeSelection;
+import jmetal.util.RandomStreams;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Aplicar um padrão e desfazer as alterações com o {@link ChangeLog} devolve a arquitetura ao estado original:
+ * estrutura ({@link Architecture#getFingerprint()}) e o que a impressão não considera e os padrões alteram
+ * (variabilidades, classes e métodos abstratos, pontas de associação e estereótipos dos padrões).
+ */
+public class DesignPatternRollbackTest {
+
+    private static final int SEEDS = 30;
+
+    @Test
+    public void rollbackUndoesEachPattern() throws Exception {
+        for (DesignPattern pattern : DesignPattern.IMPLEMENTED) {
+            int applied = 0;
+            for (long seed = 0; seed < SEEDS; seed++) {
+                Architecture architecture = architecture(seed);
+                List<String> original = describe(architecture);
+
+                RandomStreams.setSeed(seed);
+                ArchitectureRepository.setCurrentArchitecture(architecture);
+                ChangeLog changes = ChangeLog.begin();
+                try {
+                    Scope scope = new RandomScopeSelection().selectScope(architecture,
+                            Patterns.valueOf(pattern.getName().toUpperCase()));
+                    if (pattern.randomlyVerifyAsPSOrPSPLA(scope) && pattern.apply(scope)) {
+                        assertFalse(pattern.getName() + ", seed " + seed, original.equals(describe(architecture)));
+                        applied++;
+                    }
+                    changes.rollback();
+                } finally {
+                    changes.close();
+                }
+                assertEquals(pattern.getName() + ", seed " + seed, original, describe(architecture));
+            }
+            assertTrue(pattern.getName() + " não foi aplicado", applied > 0);
+        }
+    }
+
+    @Test
+    public void rollbackUndoesAdapter() throws Exception {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            Architecture architecture = architecture(seed);
+            List<String> original = describe(architecture);
+            Random random = new Random(seed);
+            Interface target = RandomArchitectures.pick(random, new ArrayList<Interface>(architecture.getAllInterfaces()));
+            // as variantes têm variabilidade a mover para o adapter
+            List<Class> variants = new ArrayList<Class>();
+            for (Class klass : architecture.getAllClasses())
+                if (klass.getVariant() != null)
+                    variants.add(klass);
+            Class adaptee = RandomArchitectures.pick(random, variants);
+
+            ArchitectureRepository.setCurrentArchitecture(architecture);
+            ChangeLog changes = ChangeLog.begin();
+            try {
+                assertTrue(Adapter.getInstance().applyAdapter(target, adaptee) != null);
+                assertFalse("seed " + seed, original.equals(describe(architecture)));
+                changes.rollback();
+            } finally {
+                changes.close();
+            }
+            assertEquals("seed " + seed, original, describe(architecture));
+        }
+    }
+
+    /**
+     * Arquitetura aleatória em que, em cada pacote, a primeira classe é ponto de variação e as outras são
+     * suas variantes.
+     */
+    private static Architecture architecture(long seed) throws Exception {
+        Architecture architecture = RandomArchitectures.create(new Random(seed), 4, 4, 30);
+        // os padrões percorrem as hierarquias (generalizações e realizações), que nas arquiteturas aleatórias
+        // podem formar ciclos: ficam só as realizações de interfaces por classes
+        for (Relationship relationship : new ArrayList<Relationship>(architecture.getRelationshipHolder().getAllRelationships()))
+            if (relationship instanceof GeneralizationRelationship || relationship instanceof RealizationRelationship
+                    && !(((RealizationRelationship) relationship).getClient() instanceof Class
+                    && ((RealizationRelationship) relationship).getSupplier() instanceof Interface))
+                architecture.removeRelationship(relationship);
+        for (Package pkg : architecture.getAllPackages()) {
+            List<Class> classes = new ArrayList<Class>(pkg.getAllClasses());
+            Collections.sort(classes, (a, b) -> a.getName().compareTo(b.getName()));
+            List<Variant> variants = new ArrayList<Variant>();
+            for (Class klass : classes.subList(1, classes.size())) {
+                Variant variant = Variant.createVariant().withName(klass.getName());
+                variant.setVariantElement(klass);
+                variant.setRootVP(classes.get(0).getName());
+                variant.setVariantType("alternative_OR");
+                klass.setVariant(variant);
+                variants.add(variant);
+            }
+            new VariationPoint(classes.get(0), variants, "DESIGN_TIME");
+        }
+        return architecture;
+    }
+
+    /**
+     * Estado da arquitetura comparado antes e depois do rollback, em ordem.
+     */
+    private static List<String> describe(Architecture architecture) {
+        List<String> state = new ArrayList<String>();
+        state.add(architecture.getFingerprint().toString());
+        for (Element element : RandomArchitectures.elements(architecture)) {
+            StringBuilder description = new StringBuilder(element.getNamespace() + "::" + element.getName());
+            description.append(" vp=").append(describe(element.getVariationPoint()));
+            description.append(" variant=").append(describe(element.getVariant()));
+            if (element instanceof Class) {
+                Class klass = (Class) element;
+                description.append(" abstract=").append(klass.isAbstract());
+                description.append(" patterns=").append(sorted(klass.getPatternsOperations().getAllPatterns()));
+                for (Method method : klass.getAllMethods())
+                    description.append(" ").append(method.getName()).append(method.isAbstract() ? "()=0" : "()");
+            } else if (element instanceof Interface) {
+                description.append(" patterns=").append(sorted(((Interface) element).getPatternsOperations().getAllPatterns()));
+            }
+            state.add(description.toString());
+        }
+        for (Relationship relationship : architecture.getRelationshipHolder().getAllRelationships()) {
+            if (relationship instanceof AssociationRelationship) {
+                StringBuilder description = new StringBuilder(relationship.getId());
+                for (AssociationEnd end : ((AssociationRelationship) relationship).getParticipants())
+                    description.append(" ").append(end.getCLSClass().getName()).append(" ")
+                            .append(end.getMultiplicity()).append(" ").append(end.getAggregation());
+                state.add(description.toString());
+            }
+        }
+        Collections.sort(state);
+        return state;
+    }
+
+    private static String describe(VariationPoint variationPoint) {
+        if (variationPoint == null)
+            return "-";
+        List<String> variants = new ArrayList<String>();
+        for (Variant variant : variationPoint.getVariants())
+            variants.add(variant.getVariantName());
+        return variationPoint.getVariationPointElement().getName() + sorted(variants);
+    }
+
+    private static String describe(Variant variant) {
+        if (variant == null)
+            return "-";
+        return variant.getVariantName() + "@" + variant.getVariantElement().getName() + "<" + variant.getRootVP();
+    }
+
+    private static List<String> sorted(java.util.Collection<String> values) {
+        List<String> sorted = new ArrayList<String>(values);
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
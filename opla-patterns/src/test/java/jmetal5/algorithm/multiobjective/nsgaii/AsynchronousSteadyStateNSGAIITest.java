@@ -0,0 +1,88 @@
+package jmetal5.algorithm.multiobjective.nsgaii;
+
+import arquitetura.representation.Architecture;
+import arquitetura.representation.ArchitectureFingerprint;
+import arquitetura.representation.RandomArchitectures;
+import arquitetura.representation.relationship.GeneralizationRelationship;
+import br.ufpr.inf.opla.patterns.operator.impl.PLAMutation_JMetal5;
+import jmetal.metrics.FitnessCache;
+import jmetal5.operator.impl.crossover.PLACrossover;
+import jmetal5.operator.impl.selection.BinaryTournamentSelection;
+import jmetal5.problem.multiobjective.OPLAProblem;
+import jmetal5.solution.impl.ArchitectureSolution;
+import jmetal5.util.comparator.RankingAndCrowdingDistanceComparator;
+import jmetal5.util.evaluator.impl.SequentialSolutionListEvaluator;
+import jmetal5.util.pseudorandom.JMetalRandom;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The workers of {@link AsynchronousSteadyStateNSGAII} evaluate offspring while the master breeds the next ones
+ * with the OPLA operators, which move elements of the parents into the children, return a parent for an invalid
+ * child and change the architectures in place. No architecture may change while a worker evaluates it.
+ */
+public class AsynchronousSteadyStateNSGAIITest {
+
+    private static final int THREADS = 4;
+    private static final int POPULATION_SIZE = 20;
+    private static final int MAX_EVALUATIONS = 300;
+
+    @Test
+    public void architecturesDoNotChangeWhileTheWorkersEvaluateThem() throws Exception {
+        for (long seed = 1; seed <= 3; seed++) {
+            Architecture architecture = RandomArchitectures.create(new Random(seed), 4, 4, 30);
+            // the operators walk the hierarchies up to the root: the random generalizations may form cycles
+            for (GeneralizationRelationship generalization : architecture.getRelationshipHolder().getAllGeneralizations())
+                architecture.removeRelationship(generalization);
+
+            JMetalRandom.getInstance().setSeed(seed);
+            CheckedProblem problem = new CheckedProblem(architecture);
+            AsynchronousSteadyStateNSGAII<ArchitectureSolution> algorithm =
+                    new AsynchronousSteadyStateNSGAII<ArchitectureSolution>(problem, MAX_EVALUATIONS, POPULATION_SIZE,
+                            new PLACrossover(0.9), new PLAMutation_JMetal5(0.9),
+                            new BinaryTournamentSelection<ArchitectureSolution>(
+                                    new RankingAndCrowdingDistanceComparator<ArchitectureSolution>()),
+                            new SequentialSolutionListEvaluator<ArchitectureSolution>(), THREADS, 2 * THREADS);
+            algorithm.run();
+
+            assertTrue("seed " + seed, problem.evaluations.get() >= MAX_EVALUATIONS);
+            assertEquals("seed " + seed, Collections.emptyList(), problem.changed);
+            assertTrue("seed " + seed, algorithm.getResult().size() > 0);
+        }
+    }
+
+    /**
+     * Records the evaluations whose architecture changed between the start and the end of the evaluation. The
+     * evaluation is made longer, so the evaluations of the workers overlap with the variations of the master.
+     */
+    private static class CheckedProblem extends OPLAProblem {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final List<String> changed = Collections.synchronizedList(new ArrayList<String>());
+
+        CheckedProblem(Architecture architecture) {
+            super(architecture, Arrays.asList("conventional", "featureDriven"));
+            setFitnessCache(FitnessCache.disabled());
+        }
+
+        @Override
+        public void evaluate(ArchitectureSolution solution) {
+            evaluations.incrementAndGet();
+            ArchitectureFingerprint before = solution.getArchitecture().getFingerprint();
+            super.evaluate(solution);
+            LockSupport.parkNanos(200000);
+            ArchitectureFingerprint after = solution.getArchitecture().getFingerprint();
+            if (!before.equals(after))
+                changed.add(before + " -> " + after);
+        }
+    }
+}